@@ -0,0 +1,65 @@
+package edu.smu.tspell.wordnet.impl;
+
+import edu.smu.tspell.wordnet.impl.file.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary searches of the sense index for the lines of a lemma, as made for every word form that
+ * isn't cached.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineLocatorBenchmark {
+
+    private LineLocator locator;
+
+    private MultipleLineLocator multipleLocator;
+
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        File file = new File(BenchmarkData.getDirectory(), "index.sense");
+        locator = new LineLocator(file);
+        multipleLocator = new MultipleLineLocator(file) {};
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        locator.close();
+        multipleLocator.close();
+    }
+
+    @Benchmark
+    public String getLine() throws IOException {
+        return locator.getLine(nextPrefix());
+    }
+
+    @Benchmark
+    public String[] getLines() throws IOException {
+        return multipleLocator.getLines(nextPrefix());
+    }
+
+    private String nextPrefix() {
+        next = (next + 1) % BenchmarkData.WORD_FORMS.length;
+        return BenchmarkData.WORD_FORMS[next] + "%";
+    }
+}
@@ -0,0 +1,77 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inputs shared by the benchmarks. The database is read from the directory named by the
+ * <code>wordnet.database.dir</code> property, or from the copy that the build downloads.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Word forms looked up by the benchmarks: a mix of common nouns, verbs, adjectives and adverbs,
+     * several of which have many senses.
+     */
+    public static final String[] WORD_FORMS = {
+            "dog", "run", "bank", "light", "green", "quickly", "set", "break",
+            "cold", "play", "house", "fly", "water", "good", "turn", "over"
+    };
+
+    /**
+     * Inflected forms and the types for which their base forms are found, covering both the
+     * exception lists and the detachment rules.
+     */
+    public static final String[] INFLECTIONS = {
+            "dogs", "ran", "geese", "running", "better", "mice", "flew", "went", "studies", "happier"
+    };
+
+    /**
+     * Types of the inflections, in the same order.
+     */
+    public static final SynsetType[] INFLECTION_TYPES = {
+            SynsetType.NOUN, SynsetType.VERB, SynsetType.NOUN, SynsetType.VERB, SynsetType.ADJECTIVE,
+            SynsetType.NOUN, SynsetType.VERB, SynsetType.VERB, SynsetType.NOUN, SynsetType.ADJECTIVE
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static File getDirectory() {
+        return new File(System.getProperty(PropertyNames.DATABASE_DIRECTORY, "target/WordNet-3.0/dict"));
+    }
+
+    public static WordNetDatabase.Builder builder() {
+        return WordNetDatabase.builder().directory(getDirectory());
+    }
+
+    /**
+     * Returns the pointers to the synsets of the benchmark word forms, in the order of the word forms.
+     */
+    public static SynsetPointer[] getPointers(DictionaryStorage storage) {
+        Set<SynsetPointer> pointers = new LinkedHashSet<>();
+        for (String wordForm : WORD_FORMS) {
+            for (SenseIndexEntry entry : storage.getLemmaEntries(wordForm)) {
+                pointers.add(entry.getSynsetPointer());
+            }
+        }
+        return pointers.toArray(new SynsetPointer[0]);
+    }
+
+    /**
+     * Returns the data file records of the benchmark word forms' synsets.
+     */
+    public static String[] getRecords(DictionaryStorage storage) {
+        List<String> records = new ArrayList<>();
+        for (SynsetPointer pointer : getPointers(storage)) {
+            records.add(storage.getSynsetRecord(pointer));
+        }
+        return records.toArray(new String[0]);
+    }
+}
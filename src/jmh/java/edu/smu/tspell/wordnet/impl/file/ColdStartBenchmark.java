@@ -0,0 +1,152 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of a database, measured once in each of many fresh JVMs so that class loading, the
+ * interpreter and empty caches are all included. Each initialization step is measured on its own:
+ * the resource bundles that name the database files, the exception files read by
+ * {@link InflectionData}, opening the data and sense index readers, and the first use of the
+ * sample sentence maps loaded by {@link SampleSentenceData}. The time to the first result covers
+ * building a database and looking up one word form, and the time to the steady state continues
+ * looking up batches of word forms until the JIT compiler stops making them faster.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ColdStartBenchmark {
+
+    /**
+     * Resource bundles that map synset types to the names of the database files.
+     */
+    private static final Class<?>[] BUNDLE_CLASSES = {
+            InflectionData.class, SynsetReader.class, SampleFrameFactory.class,
+            SampleIndexFactory.class, SampleTemplateFactory.class
+    };
+
+    /**
+     * Number of consecutive batches whose time must stay close to the fastest one for the lookups
+     * to be considered steady.
+     */
+    private static final int STABLE_BATCHES = 50;
+
+    /**
+     * Largest ratio between a stable batch's time and the fastest one, in either direction.
+     */
+    private static final double STABLE_RATIO = 1.25;
+
+    /**
+     * Number of batches after which the lookups are treated as steady even if they aren't.
+     */
+    private static final int MAXIMUM_BATCHES = 100_000;
+
+    private final List<AutoCloseable> opened = new ArrayList<>();
+
+    @State(Scope.Thread)
+    public static class Storage {
+
+        private TextFileStorage storage;
+
+        @Setup(Level.Iteration)
+        public void open() {
+            storage = new TextFileStorage(BenchmarkData.getDirectory(), BenchmarkData.builder().getIoMode());
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            storage.close();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws Exception {
+        for (AutoCloseable resource : opened) {
+            resource.close();
+        }
+        opened.clear();
+    }
+
+    @Benchmark
+    public ResourceBundle[] resourceBundles() {
+        ResourceBundle[] bundles = new ResourceBundle[BUNDLE_CLASSES.length];
+        for (int i = 0; i < bundles.length; i++) {
+            bundles[i] = ResourceBundle.getBundle(BUNDLE_CLASSES[i].getName());
+        }
+        return bundles;
+    }
+
+    @Benchmark
+    public InflectionData inflectionData() {
+        return new InflectionData(DictionarySource.directory(BenchmarkData.getDirectory()));
+    }
+
+    @Benchmark
+    public TextFileStorage openReaders() {
+        return open(new TextFileStorage(BenchmarkData.getDirectory(), BenchmarkData.builder().getIoMode()));
+    }
+
+    @Benchmark
+    public Object[] sampleSentences(Storage state) {
+        return new Object[] {
+                state.storage.getFrame(SynsetType.VERB, "1"),
+                state.storage.getSampleTemplate(SynsetType.VERB, "1"),
+                state.storage.getSampleKeys(new SenseKeyParser().parse("abide%2:31:00::"))
+        };
+    }
+
+    @Benchmark
+    public Synset[] firstResult() {
+        return open(BenchmarkData.builder().build()).getSynsets(BenchmarkData.WORD_FORMS[0]);
+    }
+
+    /**
+     * Looks up every benchmark word form, with morphology, in batches until the time of a batch has
+     * stayed close to the fastest one for {@link #STABLE_BATCHES} batches. The word form cache is
+     * disabled so that each batch repeats the lookups instead of finding their results.
+     */
+    @Benchmark
+    public int steadyState() {
+        WordNetDatabase database = open(BenchmarkData.builder().wordCacheSize(0).build());
+        int synsets = 0;
+        long fastest = Long.MAX_VALUE;
+        int stable = 0;
+        for (int batch = 0; (stable < STABLE_BATCHES) && (batch < MAXIMUM_BATCHES); batch++) {
+            long start = System.nanoTime();
+            for (String wordForm : BenchmarkData.WORD_FORMS) {
+                synsets += database.getSynsets(wordForm, null, true).length;
+            }
+            long elapsed = System.nanoTime() - start;
+            boolean close = (elapsed * STABLE_RATIO >= fastest) && (elapsed <= fastest * STABLE_RATIO);
+            stable = (close ? stable + 1 : 0);
+            fastest = Math.min(fastest, elapsed);
+        }
+        return synsets;
+    }
+
+    private <T extends AutoCloseable> T open(T resource) {
+        opened.add(resource);
+        return resource;
+    }
+}
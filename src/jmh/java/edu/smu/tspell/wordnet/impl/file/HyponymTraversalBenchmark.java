@@ -0,0 +1,70 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.NounSynset;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traversal of every hyponym below a synset, which resolves the hyponym pointers of each synset
+ * in the tree. After the first traversal the synsets and their relationships are cached, so this
+ * measures the cost of following the resolved references.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HyponymTraversalBenchmark {
+
+    @Param({"organism", "entity"})
+    public String root;
+
+    private FileDatabase database;
+
+    private NounSynset rootSynset;
+
+    @Setup
+    public void setUp() {
+        database = new FileDatabase(BenchmarkData.builder().synsetCacheSize(100_000));
+        rootSynset = (NounSynset) database.getSynsets(root, SynsetType.NOUN)[0];
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int traverseHyponyms() {
+        Set<NounSynset> visited = new HashSet<>();
+        Deque<NounSynset> pending = new ArrayDeque<>();
+        pending.push(rootSynset);
+        while (!pending.isEmpty()) {
+            NounSynset synset = pending.pop();
+            if (visited.add(synset)) {
+                for (NounSynset hyponym : synset.getHyponyms()) {
+                    pending.push(hyponym);
+                }
+            }
+        }
+        return visited.size();
+    }
+}
@@ -0,0 +1,51 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of the base form candidates of inflected forms from the exception lists and the
+ * detachment rules.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MorphologyBenchmark {
+
+    private FileDatabase database;
+
+    private Morphology morphology;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        database = new FileDatabase(BenchmarkData.builder());
+        morphology = database.getMorphology();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public String[] getBaseFormCandidates() {
+        next = (next + 1) % BenchmarkData.INFLECTIONS.length;
+        return morphology.getBaseFormCandidates(BenchmarkData.INFLECTIONS[next], BenchmarkData.INFLECTION_TYPES[next]);
+    }
+}
@@ -0,0 +1,54 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.Synset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of synset records that have already been read into synsets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SynsetParserBenchmark {
+
+    private FileDatabase database;
+
+    private SynsetParser parser;
+
+    private String[] records;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        database = new FileDatabase(BenchmarkData.builder());
+        parser = new SynsetParser(database);
+        records = BenchmarkData.getRecords(database.getStorage());
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Synset createSynset() {
+        next = (next + 1) % records.length;
+        return parser.createSynset(records[next]);
+    }
+}
@@ -0,0 +1,57 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.IoMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads of synset records from the data files, through a file pointer or from a mapped buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SynsetReaderBenchmark {
+
+    @Param({"RANDOM_ACCESS", "MEMORY_MAPPED"})
+    public IoMode ioMode;
+
+    private TextFileStorage storage;
+
+    private SynsetPointer[] pointers;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        storage = new TextFileStorage(BenchmarkData.getDirectory(), ioMode);
+        pointers = BenchmarkData.getPointers(storage);
+    }
+
+    @TearDown
+    public void tearDown() {
+        storage.close();
+    }
+
+    @Benchmark
+    public String readData() throws IOException {
+        next = (next + 1) % pointers.length;
+        SynsetPointer pointer = pointers[next];
+        return storage.getSynsetReader(pointer.getType()).readData(pointer);
+    }
+}
@@ -0,0 +1,97 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of the synsets that contain a word form, with and without morphology. The warm lookups
+ * find the word forms in the word form cache; the cold ones are made by a new database for every
+ * lookup, so that both caches are empty, although the files it shares with the other databases
+ * remain in the page cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordFormLookupBenchmark {
+
+    @Param({"false", "true"})
+    public boolean morphology;
+
+    private int next;
+
+    @State(Scope.Thread)
+    public static class Warm {
+
+        private FileDatabase database;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            database = new FileDatabase(BenchmarkData.builder());
+            for (String wordForm : BenchmarkData.WORD_FORMS) {
+                database.getSynsets(wordForm, null, true);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            database.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cold {
+
+        private TextFileStorage storage;
+
+        private FileDatabase database;
+
+        @Setup(Level.Trial)
+        public void open() {
+            storage = new TextFileStorage(BenchmarkData.getDirectory(), BenchmarkData.builder().getIoMode());
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            database = new FileDatabase(storage, BenchmarkData.builder());
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            storage.close();
+        }
+    }
+
+    @Benchmark
+    public Synset[] warm(Warm state) {
+        return lookUp(state.database);
+    }
+
+    @Benchmark
+    public Synset[] cold(Cold state) {
+        return lookUp(state.database);
+    }
+
+    private Synset[] lookUp(FileDatabase database) {
+        next = (next + 1) % BenchmarkData.WORD_FORMS.length;
+        return database.getWordFormLookup().getSynsets(
+                BenchmarkData.WORD_FORMS[next], SynsetType.ALL_TYPES, morphology);
+    }
+}
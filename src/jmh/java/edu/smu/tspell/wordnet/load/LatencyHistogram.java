@@ -0,0 +1,97 @@
+package edu.smu.tspell.wordnet.load;
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed relative precision. Values below 128 have a bucket
+ * each; above that every power of two is divided into 64 buckets, so a reported percentile is within
+ * about 1.6% of the true value, and a histogram takes the same 29 KB however many values it holds.
+ * <p>
+ * A histogram isn't thread-safe: each thread records into its own, and they're added together once the
+ * threads have finished.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+
+    private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+
+    private final long[] counts = new long[LINEAR_LIMIT + (63 - FIRST_EXPONENT) * SUB_BUCKETS];
+
+    private long count;
+
+    private long total;
+
+    private long maximum;
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[getIndex(value)]++;
+        count++;
+        total += value;
+        maximum = Math.max(maximum, value);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        total += other.total;
+        maximum = Math.max(maximum, other.maximum);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return (count == 0 ? 0 : (double) total / count);
+    }
+
+    public long getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the value at a percentile.
+     *
+     * @param percentile Percentile from 0 to 100.
+     * @return Latency in nanoseconds, or zero if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(count * percentile / 100), 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), maximum);
+            }
+        }
+        return maximum;
+    }
+
+    private static int getIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long getUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + FIRST_EXPONENT;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
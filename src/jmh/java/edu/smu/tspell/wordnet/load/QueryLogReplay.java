@@ -0,0 +1,215 @@
+package edu.smu.tspell.wordnet.load;
+
+import edu.smu.tspell.wordnet.api.CacheStatistics;
+import edu.smu.tspell.wordnet.api.IoMode;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.impl.file.BenchmarkData;
+import edu.smu.tspell.wordnet.impl.file.FileDatabase;
+import edu.smu.tspell.wordnet.impl.file.QueryLogReader;
+import edu.smu.tspell.wordnet.impl.file.QueryLogRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a query log, recorded by a database built with <code>WordNetDatabase.Builder.queryLog</code>,
+ * against a newly opened database and reports the latency distribution of each kind of call along with
+ * the hit ratios of the database's caches, so that cache sizes and storage implementations can be
+ * compared using an application's own traffic.
+ * <p>
+ * Options are given as <code>name=value</code> arguments:
+ * <pre>
+ * log=                   query log to replay (required)
+ * speed=fast             "fast" replays the calls back to back; "original" makes each one at the
+ *                        time it was recorded, relative to the start of the log
+ * threads=1              number of threads replaying the calls at fast speed
+ * directory=             directory containing the database files, by default the benchmark database
+ * zip=                   zip file containing the database files, instead of a directory
+ * path=dict              directory within the zip file that contains the database files
+ * ioMode=MEMORY_MAPPED   how the data files are read
+ * synsetCacheSize=       number of synsets cached, by default the builder's
+ * wordCacheSize=         number of word forms cached, by default the builder's
+ * </pre>
+ * At original speed each call runs in its own virtual thread, so calls that were concurrent when they
+ * were recorded are concurrent again, and the delay between the time each call was scheduled and the
+ * time it began is reported as the schedule lag, which shows whether the replay kept up. Run it with
+ * <code>mvn -P benchmarks test-compile exec:exec@replay -Dreplay.args="log=queries.log"</code>.
+ */
+public final class QueryLogReplay {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("log", "");
+        DEFAULTS.put("speed", "fast");
+        DEFAULTS.put("threads", "1");
+        DEFAULTS.put("directory", "");
+        DEFAULTS.put("zip", "");
+        DEFAULTS.put("path", "dict");
+        DEFAULTS.put("ioMode", "MEMORY_MAPPED");
+        DEFAULTS.put("synsetCacheSize", "");
+        DEFAULTS.put("wordCacheSize", "");
+    }
+
+    private final List<QueryLogRecord> records;
+
+    private final Map<QueryLogRecord.Kind, LatencyHistogram> histograms =
+            new EnumMap<>(QueryLogRecord.Kind.class);
+
+    private final LatencyHistogram lag = new LatencyHistogram();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private QueryLogReplay(List<QueryLogRecord> records) {
+        this.records = records;
+        for (QueryLogRecord.Kind kind : QueryLogRecord.Kind.values()) {
+            histograms.put(kind, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        if (options.get("log").isEmpty()) {
+            throw new IllegalArgumentException("The log option is required");
+        }
+        QueryLogReplay replay = new QueryLogReplay(readRecords(Path.of(options.get("log"))));
+        System.out.println("Options: " + options);
+        try (FileDatabase database = new FileDatabase(createBuilder(options))) {
+            long start = System.nanoTime();
+            if ("original".equals(options.get("speed"))) {
+                replay.replayAtOriginalSpeed(database);
+            } else if ("fast".equals(options.get("speed"))) {
+                replay.replayFast(database, Integer.parseInt(options.get("threads")));
+            } else {
+                throw new IllegalArgumentException("Unknown speed: " + options.get("speed"));
+            }
+            replay.report(System.nanoTime() - start, database.getCacheStatistics());
+        }
+    }
+
+    private static List<QueryLogRecord> readRecords(Path log) throws IOException {
+        List<QueryLogRecord> records = new ArrayList<>();
+        try (QueryLogReader reader = new QueryLogReader(log)) {
+            for (QueryLogRecord record = reader.read(); record != null; record = reader.read()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static WordNetDatabase.Builder createBuilder(Map<String, String> options) {
+        WordNetDatabase.Builder builder = BenchmarkData.builder().ioMode(IoMode.valueOf(options.get("ioMode")));
+        if (!options.get("zip").isEmpty()) {
+            builder.zip(new File(options.get("zip")), options.get("path"));
+        } else if (!options.get("directory").isEmpty()) {
+            builder.directory(new File(options.get("directory")));
+        }
+        if (!options.get("synsetCacheSize").isEmpty()) {
+            builder.synsetCacheSize(Integer.parseInt(options.get("synsetCacheSize")));
+        }
+        if (!options.get("wordCacheSize").isEmpty()) {
+            builder.wordCacheSize(Integer.parseInt(options.get("wordCacheSize")));
+        }
+        return builder;
+    }
+
+    private void replayFast(FileDatabase database, int threadCount) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            threads.add(Thread.ofPlatform().name("replay-" + i).start(() -> {
+                for (int index = next.getAndIncrement(); index < records.size(); index = next.getAndIncrement()) {
+                    call(database, records.get(index));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void replayAtOriginalSpeed(FileDatabase database) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (QueryLogRecord record : records) {
+                long scheduled = start + record.getTime();
+                for (long delay = scheduled - System.nanoTime(); delay > 0; delay = scheduled - System.nanoTime()) {
+                    LockSupport.parkNanos(delay);
+                }
+                executor.execute(() -> {
+                    long delay = System.nanoTime() - scheduled;
+                    synchronized (lag) {
+                        lag.record(delay);
+                    }
+                    call(database, record);
+                });
+            }
+        }
+    }
+
+    private void call(FileDatabase database, QueryLogRecord record) {
+        long start = System.nanoTime();
+        try {
+            record.replay(database);
+        } catch (RuntimeException e) {
+            if (errors.getAndIncrement() == 0) {
+                System.err.println("Error replaying " + record + ": " + e);
+            }
+        }
+        long latency = System.nanoTime() - start;
+        LatencyHistogram histogram = histograms.get(record.getKind());
+        synchronized (histogram) {
+            histogram.record(latency);
+        }
+    }
+
+    private void report(long elapsed, Map<String, CacheStatistics> caches) {
+        System.out.printf(Locale.ROOT, "%d calls in %.3f s (%.1f calls/s), %d errors%n", records.size(),
+                elapsed / 1e9, records.size() / (elapsed / 1e9), errors.get());
+        System.out.printf(Locale.ROOT, "%-13s %9s %10s %10s %10s %10s %10s%n",
+                "call", "count", "mean us", "p50 us", "p99 us", "p99.9 us", "max us");
+        for (Map.Entry<QueryLogRecord.Kind, LatencyHistogram> entry : histograms.entrySet()) {
+            printLatencies(entry.getKey().toString(), entry.getValue());
+        }
+        printLatencies("schedule lag", lag);
+        System.out.printf(Locale.ROOT, "%-13s %9s %10s %10s %10s%n", "cache", "requests", "hit ratio", "evictions",
+                "size");
+        for (CacheStatistics cache : caches.values()) {
+            System.out.printf(Locale.ROOT, "%-13s %9d %9.1f%% %10d %10d%n", cache.getName(), cache.getRequestCount(),
+                    cache.getHitRatio() * 100, cache.getEvictionCount(), cache.getSize());
+        }
+    }
+
+    private static void printLatencies(String name, LatencyHistogram histogram) {
+        if (histogram.getCount() > 0) {
+            System.out.printf(Locale.ROOT, "%-13s %9d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    name, histogram.getCount(), histogram.getMean() / 1e3,
+                    histogram.getPercentile(50) / 1e3, histogram.getPercentile(99) / 1e3,
+                    histogram.getPercentile(99.9) / 1e3, histogram.getMaximum() / 1e3);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if ((separator < 0) || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown option: " + arg + "; options are " + DEFAULTS.keySet());
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,254 @@
+package edu.smu.tspell.wordnet.load;
+
+import edu.smu.tspell.wordnet.api.IoMode;
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.NounSynset;
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.VerbSynset;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.impl.file.BenchmarkData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load harness that measures how lookup throughput scales with the number of threads. For each thread
+ * kind (platform or virtual) and thread count it opens a new database, runs a mix of queries on every
+ * thread for a warm-up period and then for a measured period, and reports the throughput, the p50, p99
+ * and p99.9 latencies and the share of the threads' time spent waiting for the database's locks.
+ * <p>
+ * Options are given as <code>name=value</code> arguments:
+ * <pre>
+ * threads=1,2,4,8                         thread counts to run
+ * kinds=platform,virtual                  kinds of thread to run
+ * warmup=5                                seconds of load before each measurement
+ * duration=10                             seconds measured in each run
+ * mix=lookup:70,relations:20,tags:10      relative frequency of each query
+ * vocabulary=5000                         number of distinct word forms queried
+ * morphology=false                        whether lookups find variants
+ * ioMode=MEMORY_MAPPED                     how the data files are read
+ * seed=42                                 seed that chooses the vocabulary and queries
+ * </pre>
+ * A lookup finds the synsets of a word form; a relations query also follows the hypernyms of each of
+ * them to the root along with their hyponyms (or, for other types, their derivationally related
+ * forms); a tags query adds up the tag counts of the word form in each of its synsets. Run it with
+ * <code>mvn -P benchmarks test-compile exec:exec@scaling -Dscaling.args="threads=1,4,16"</code>.
+ */
+public final class ScalingHarness {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("threads", "1,2,4,8");
+        DEFAULTS.put("kinds", "platform,virtual");
+        DEFAULTS.put("warmup", "5");
+        DEFAULTS.put("duration", "10");
+        DEFAULTS.put("mix", "lookup:70,relations:20,tags:10");
+        DEFAULTS.put("vocabulary", "5000");
+        DEFAULTS.put("morphology", "false");
+        DEFAULTS.put("ioMode", "MEMORY_MAPPED");
+        DEFAULTS.put("seed", "42");
+    }
+
+    private enum Query {
+        LOOKUP, RELATIONS, TAGS
+    }
+
+    private final String[] vocabulary;
+
+    private final Query[] mix;
+
+    private final boolean morphology;
+
+    private final long seed;
+
+    private final IoMode ioMode;
+
+    private volatile long measureStart = Long.MAX_VALUE;
+
+    private volatile long measureEnd = Long.MAX_VALUE;
+
+    private ScalingHarness(String[] vocabulary, Query[] mix, boolean morphology, long seed, IoMode ioMode) {
+        this.vocabulary = vocabulary;
+        this.mix = mix;
+        this.morphology = morphology;
+        this.seed = seed;
+        this.ioMode = ioMode;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        long seed = Long.parseLong(options.get("seed"));
+        String[] vocabulary = loadVocabulary(Integer.parseInt(options.get("vocabulary")), seed);
+        ScalingHarness harness = new ScalingHarness(vocabulary, parseMix(options.get("mix")),
+                Boolean.parseBoolean(options.get("morphology")), seed, IoMode.valueOf(options.get("ioMode")));
+        long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+        long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+
+        System.out.println("Options: " + options);
+        System.out.printf(Locale.ROOT, "%-9s %7s %12s %10s %10s %10s %10s  %s%n",
+                "kind", "threads", "ops/s", "p50 us", "p99 us", "p99.9 us", "lock wait", "most contended lock");
+        for (String kind : options.get("kinds").split(",")) {
+            for (String threads : options.get("threads").split(",")) {
+                harness.run(kind.trim(), Integer.parseInt(threads.trim()), warmup, duration);
+            }
+        }
+    }
+
+    private void run(String kind, int threadCount, long warmup, long duration) throws InterruptedException {
+        Thread.Builder builder;
+        if ("virtual".equals(kind)) {
+            builder = Thread.ofVirtual().name("load-", 0);
+        } else if ("platform".equals(kind)) {
+            builder = Thread.ofPlatform().name("load-", 0);
+        } else {
+            throw new IllegalArgumentException("Unknown thread kind: " + kind);
+        }
+        try (WordNetDatabase database = BenchmarkData.builder().ioMode(ioMode).build()) {
+            long start = System.nanoTime();
+            measureStart = start + warmup;
+            measureEnd = measureStart + duration;
+            LatencyHistogram[] histograms = new LatencyHistogram[threadCount];
+            Thread[] threads = new Thread[threadCount];
+            for (int i = 0; i < threadCount; i++) {
+                LatencyHistogram histogram = new LatencyHistogram();
+                SplittableRandom random = new SplittableRandom(seed + i);
+                histograms[i] = histogram;
+                threads[i] = builder.start(() -> generateLoad(database, random, histogram));
+            }
+            TimeUnit.NANOSECONDS.sleep(measureStart - System.nanoTime());
+            Map<String, LockStatistics> before = database.getLockStatistics();
+            TimeUnit.NANOSECONDS.sleep(Math.max(measureEnd - System.nanoTime(), 0));
+            Map<String, LockStatistics> after = database.getLockStatistics();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            report(kind, threadCount, duration, histograms, before, after);
+        }
+    }
+
+    private void generateLoad(WordNetDatabase database, SplittableRandom random, LatencyHistogram histogram) {
+        long now = System.nanoTime();
+        while (now < measureEnd) {
+            Query query = mix[random.nextInt(mix.length)];
+            String wordForm = vocabulary[random.nextInt(vocabulary.length)];
+            long start = now;
+            execute(database, query, wordForm);
+            now = System.nanoTime();
+            if (start >= measureStart) {
+                histogram.record(now - start);
+            }
+        }
+    }
+
+    private int execute(WordNetDatabase database, Query query, String wordForm) {
+        Synset[] synsets = database.getSynsets(wordForm, null, morphology);
+        int result = synsets.length;
+        for (Synset synset : synsets) {
+            if (query == Query.TAGS) {
+                result += synset.getTagCount(wordForm);
+            } else if (query == Query.RELATIONS) {
+                result += followRelations(synset);
+            }
+        }
+        return result;
+    }
+
+    private static int followRelations(Synset synset) {
+        int count = 0;
+        if ((synset instanceof NounSynset) || (synset instanceof VerbSynset)) {
+            //  A few verbs' hypernyms form a cycle, so the path stops at a synset already visited
+            Set<Synset> path = new HashSet<>();
+            for (Synset current = synset; (current != null) && path.add(current); ) {
+                Synset[] hypernyms = getHypernyms(current);
+                count += hypernyms.length;
+                current = (hypernyms.length > 0 ? hypernyms[0] : null);
+            }
+            count += (synset instanceof NounSynset ?
+                    ((NounSynset) synset).getHyponyms().length : ((VerbSynset) synset).getTroponyms().length);
+        } else {
+            for (String wordForm : synset.getWordForms()) {
+                count += synset.getDerivationallyRelatedForms(wordForm).length;
+            }
+        }
+        return count;
+    }
+
+    private static Synset[] getHypernyms(Synset synset) {
+        return (synset instanceof NounSynset ?
+                ((NounSynset) synset).getHypernyms() : ((VerbSynset) synset).getHypernyms());
+    }
+
+    private static void report(String kind, int threadCount, long duration, LatencyHistogram[] histograms,
+            Map<String, LockStatistics> before, Map<String, LockStatistics> after) {
+        LatencyHistogram total = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) {
+            total.add(histogram);
+        }
+        long waitTime = 0;
+        long mostWaitTime = -1;
+        String mostContended = "-";
+        for (LockStatistics lock : after.values()) {
+            LockStatistics previous = before.get(lock.getName());
+            long lockWait = lock.getTotalWaitTime() - (previous != null ? previous.getTotalWaitTime() : 0);
+            waitTime += lockWait;
+            if (lockWait > mostWaitTime) {
+                mostWaitTime = lockWait;
+                mostContended = lock.getName();
+            }
+        }
+        double seconds = duration / 1e9;
+        System.out.printf(Locale.ROOT, "%-9s %7d %12.1f %10.1f %10.1f %10.1f %9.1f%%  %s%n",
+                kind, threadCount, total.getCount() / seconds,
+                total.getPercentile(50) / 1e3, total.getPercentile(99) / 1e3, total.getPercentile(99.9) / 1e3,
+                100.0 * waitTime / ((double) duration * threadCount),
+                (mostWaitTime > 0 ? mostContended : "-"));
+    }
+
+    private static String[] loadVocabulary(int size, long seed) {
+        Set<String> wordForms = new LinkedHashSet<>();
+        try (WordNetDatabase database = BenchmarkData.builder().build()) {
+            database.allSynsets().forEach(synset -> wordForms.add(synset.getWordForms()[0]));
+        }
+        List<String> shuffled = new ArrayList<>(wordForms);
+        Collections.shuffle(shuffled, new Random(seed));
+        return shuffled.subList(0, Math.min(size, shuffled.size())).toArray(new String[0]);
+    }
+
+    private static Query[] parseMix(String mix) {
+        List<Query> queries = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            Query query = Query.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) {
+                queries.add(query);
+            }
+        }
+        if (queries.isEmpty()) {
+            throw new IllegalArgumentException("Empty query mix: " + mix);
+        }
+        return queries.toArray(new Query[0]);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if ((separator < 0) || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown option: " + arg + "; options are " + DEFAULTS.keySet());
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Provides non-blocking access to a {@link WordNetDatabase}. Each lookup is
+ * performed on an executor and its result is delivered through a
+ * {@link CompletableFuture}, so the calling thread never waits for the
+ * database files to be read or for locks held by other lookups.
+ * <br><p>
+ * Unless another executor is specified, lookups run on the database's
+ * executor, which by default runs every lookup in its own virtual thread.
+ * When a lookup is requested while an identical one is still in progress
+ * (the same word form, type and morphology option, or the same synset and
+ * relationship function), the caller receives a future that completes with
+ * the result of the lookup already in progress instead of causing the data
+ * to be read again. Each caller receives its own future, so cancelling or
+ * completing one doesn't affect the others, and as with the synchronous
+ * methods each is completed with its own array (or map of arrays), so one
+ * caller modifying its result doesn't affect another's.
+ * <br><p>
+ * Instances of this class are safe for use by multiple threads.
+ */
+public class AsyncWordNetDatabase
+{
+
+	/**
+	 * Database that performs the lookups.
+	 */
+	private WordNetDatabase database;
+
+	/**
+	 * Executor on which the lookups are performed.
+	 */
+	private Executor executor;
+
+	/**
+	 * Lookups that are in progress, keyed by a list containing the
+	 * lookup's parameters.
+	 */
+	private Map<List<?>, CompletableFuture<?>> pending =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor that accepts the database from which data is retrieved
+	 * and which performs the lookups on that database's executor.
+	 *
+	 * @param  database Database that performs the lookups.
+	 * @see    WordNetDatabase#getExecutor()
+	 */
+	public AsyncWordNetDatabase(WordNetDatabase database)
+	{
+		this(database, database.getExecutor());
+	}
+
+	/**
+	 * Constructor that accepts the database from which data is retrieved
+	 * and the executor on which the lookups are performed.
+	 *
+	 * @param  database Database that performs the lookups.
+	 * @param  executor Executor on which the lookups are performed.
+	 */
+	public AsyncWordNetDatabase(WordNetDatabase database, Executor executor)
+	{
+		this.database = database;
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns the database that performs the lookups.
+	 *
+	 * @return Underlying database.
+	 */
+	public WordNetDatabase getDatabase()
+	{
+		return database;
+	}
+
+	/**
+	 * Asynchronously returns all synsets that contain a word form or a
+	 * morphological variation of that word form.
+	 *
+	 * @param  wordForm Text representing a word or collocation (phrase).
+	 * @return Future that's completed with the synsets.
+	 * @see    WordNetDatabase#getSynsets(String)
+	 */
+	public CompletableFuture<Synset[]> getSynsetsAsync(String wordForm)
+	{
+		return getSynsetsAsync(wordForm, null, true);
+	}
+
+	/**
+	 * Asynchronously returns the synsets of a particular type that contain
+	 * a word form or a morphological variation of that word form.
+	 *
+	 * @param  wordForm Text representing a word or collocation (phrase).
+	 * @param  type Type of synsets (e.g., noun) to return, or
+	 *         <code>null</code> to return synsets of all types.
+	 * @return Future that's completed with the synsets.
+	 * @see    WordNetDatabase#getSynsets(String, SynsetType)
+	 */
+	public CompletableFuture<Synset[]> getSynsetsAsync(String wordForm,
+			SynsetType type)
+	{
+		return getSynsetsAsync(wordForm, type, true);
+	}
+
+	/**
+	 * Asynchronously returns the synsets of a particular type that contain
+	 * a word form and, optionally, its morphological variations.
+	 *
+	 * @param  wordForm Text representing a word or collocation (phrase).
+	 * @param  type Type of synsets (e.g., noun) to return, or
+	 *         <code>null</code> to return synsets of all types.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations of the word form should
+	 *         also be returned.
+	 * @return Future that's completed with the synsets.
+	 * @see    WordNetDatabase#getSynsets(String, SynsetType, boolean)
+	 */
+	public CompletableFuture<Synset[]> getSynsetsAsync(String wordForm,
+			SynsetType type, boolean useMorphology)
+	{
+		List<?> key = Arrays.asList(
+				"getSynsets", wordForm, type, useMorphology);
+		return submit(key, () ->
+				database.getSynsets(wordForm, type, useMorphology),
+				Synset[]::clone);
+	}
+
+	/**
+	 * Asynchronously returns the synsets that contain each of a group of
+	 * word forms.
+	 *
+	 * @param  wordForms Text representing words or collocations (phrases).
+	 * @param  type Type of synsets (e.g., noun) to return, or
+	 *         <code>null</code> to return synsets of all types.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations of the word forms should
+	 *         also be returned.
+	 * @return Future that's completed with a map from each distinct word
+	 *         form to the synsets that contain it.
+	 * @see    WordNetDatabase#getSynsets(Collection, SynsetType, boolean)
+	 */
+	public CompletableFuture<Map<String, Synset[]>> getSynsetsAsync(
+			Collection<String> wordForms, SynsetType type,
+			boolean useMorphology)
+	{
+		List<String> words = new ArrayList<>(wordForms);
+		List<?> key = Arrays.asList(
+				"getSynsets", words, type, useMorphology);
+		return submit(key, () ->
+				database.getSynsets(words, type, useMorphology),
+				AsyncWordNetDatabase::copyArrays);
+	}
+
+	/**
+	 * Asynchronously resolves a relationship of a synset, such as its
+	 * hypernyms, which may require other synsets to be read from the
+	 * database. For example:
+	 * <pre>
+	 * async.getRelatedAsync(dog, NounSynset::getHypernyms)
+	 * </pre>
+	 * Concurrent requests are only combined if they pass the same (equal)
+	 * synset and the same relationship function instance. A method
+	 * reference such as the one above, or a lambda that doesn't capture any
+	 * variables, is normally the same instance each time the expression is
+	 * evaluated, but a lambda that captures a variable is a new instance
+	 * each time, so its requests are never combined. When requests are
+	 * combined and the function returns an array, each caller receives a
+	 * copy of it; other mutable results are shared.
+	 *
+	 * @param  synset Synset whose relationship is to be resolved.
+	 * @param  relationship Function that returns the related data.
+	 * @return Future that's completed with the function's result.
+	 */
+	public <S extends Synset, T> CompletableFuture<T> getRelatedAsync(
+			S synset, Function<? super S, ? extends T> relationship)
+	{
+		List<?> key = Arrays.asList("getRelated", synset, relationship);
+		return submit(key, () -> relationship.apply(synset),
+				AsyncWordNetDatabase::copyArray);
+	}
+
+	/**
+	 * Performs a lookup on the executor unless an identical lookup is
+	 * already in progress.
+	 *
+	 * @param  key Parameters that identify the lookup.
+	 * @param  lookup Performs the lookup.
+	 * @param  copy Returns a copy of the result that a caller can modify
+	 *         without affecting the others.
+	 * @return Future that's completed with a copy of the result of the
+	 *         lookup.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> submit(List<?> key,
+			Supplier<? extends T> lookup, UnaryOperator<T> copy)
+	{
+		CompletableFuture<T> created = new CompletableFuture<>();
+		CompletableFuture<T> existing =
+				(CompletableFuture<T>)pending.putIfAbsent(key, created);
+		if (existing != null)
+		{
+			return existing.thenApply(copy);
+		}
+		try
+		{
+			executor.execute(() ->
+			{
+				try
+				{
+					T result = lookup.get();
+					pending.remove(key, created);
+					created.complete(result);
+				}
+				catch (Throwable t)
+				{
+					pending.remove(key, created);
+					created.completeExceptionally(t);
+				}
+			});
+		}
+		catch (RejectedExecutionException ree)
+		{
+			pending.remove(key, created);
+			created.completeExceptionally(ree);
+		}
+		return created.thenApply(copy);
+	}
+
+	/**
+	 * Copies the result of a relationship function if it's an array.
+	 *
+	 * @param  result Result of the function.
+	 * @return Copy of the array, or the result itself if it isn't one.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T copyArray(T result)
+	{
+		return (result instanceof Object[] ?
+				(T)(((Object[])result).clone()) : result);
+	}
+
+	/**
+	 * Copies the result of a batch lookup, along with each of its arrays.
+	 *
+	 * @param  result Synsets of each word form.
+	 * @return Copy of the map in the same order.
+	 */
+	private static Map<String, Synset[]> copyArrays(
+			Map<String, Synset[]> result)
+	{
+		Map<String, Synset[]> copy = new LinkedHashMap<>();
+		for (Map.Entry<String, Synset[]> entry : result.entrySet())
+		{
+			copy.put(entry.getKey(), entry.getValue().clone());
+		}
+		return copy;
+	}
+
+}
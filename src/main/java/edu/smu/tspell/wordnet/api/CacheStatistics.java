@@ -0,0 +1,264 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Snapshot of the activity and size of one of a database's caches, as
+ * returned by {@link WordNetDatabase#getCacheStatistics()}. The counts are
+ * cumulative from the time the database was created, so the rate of
+ * requests or the hit ratio over an interval can be calculated from the
+ * difference between two snapshots.
+ * <br><p>
+ * Values that a cache doesn't track are reported as <code>-1</code>.
+ * Instances of this class are immutable.
+ */
+public class CacheStatistics
+{
+
+	/**
+	 * Name of the cache that holds the synsets found for recently used
+	 * word forms.
+	 */
+	public final static String WORD_CACHE = "words";
+
+	/**
+	 * Name of the cache that holds strong references to recently read
+	 * synsets.
+	 */
+	public final static String SYNSET_CACHE = "synsets";
+
+	/**
+	 * Name of the weakly referenced tier behind the synset cache, which
+	 * finds any synset that's still referenced by the application even
+	 * after it has been evicted from the synset cache.
+	 */
+	public final static String WEAK_SYNSETS = "weakSynsets";
+
+	/**
+	 * Name of the references that synsets keep to the related synsets and
+	 * word senses that have been resolved from their pointers.
+	 */
+	public final static String RELATION_REFERENCES = "relations";
+
+	/**
+	 * Name of the cache.
+	 */
+	private String name;
+
+	/**
+	 * Number of requests that were answered from the cache.
+	 */
+	private long hitCount;
+
+	/**
+	 * Number of requests that required data to be loaded.
+	 */
+	private long missCount;
+
+	/**
+	 * Total time spent loading data, in nanoseconds.
+	 */
+	private long totalLoadTime;
+
+	/**
+	 * Number of entries that have been removed from the cache.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Number of entries currently in the cache.
+	 */
+	private long size;
+
+	/**
+	 * Maximum number of entries that the cache holds.
+	 */
+	private long maximumSize;
+
+	/**
+	 * Approximate number of bytes of memory retained by the cache.
+	 */
+	private long estimatedBytes;
+
+	/**
+	 * Constructor that accepts the values of the snapshot.
+	 *
+	 * @param  name Name of the cache.
+	 * @param  hitCount Number of requests answered from the cache.
+	 * @param  missCount Number of requests that required a load.
+	 * @param  totalLoadTime Total time spent loading, in nanoseconds.
+	 * @param  evictionCount Number of entries removed from the cache.
+	 * @param  size Number of entries currently in the cache.
+	 * @param  maximumSize Maximum number of entries.
+	 * @param  estimatedBytes Approximate memory retained by the cache.
+	 */
+	public CacheStatistics(String name, long hitCount, long missCount,
+			long totalLoadTime, long evictionCount, long size,
+			long maximumSize, long estimatedBytes)
+	{
+		this.name = name;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.totalLoadTime = totalLoadTime;
+		this.evictionCount = evictionCount;
+		this.size = size;
+		this.maximumSize = maximumSize;
+		this.estimatedBytes = estimatedBytes;
+	}
+
+	/**
+	 * Returns the name of the cache.
+	 *
+	 * @return Name of the cache, such as {@link #SYNSET_CACHE}.
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Returns the number of requests made of the cache.
+	 *
+	 * @return Number of hits and misses.
+	 */
+	public long getRequestCount()
+	{
+		return hitCount + missCount;
+	}
+
+	/**
+	 * Returns the number of requests that were answered from the cache.
+	 *
+	 * @return Number of hits.
+	 */
+	public long getHitCount()
+	{
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of requests that required data to be loaded.
+	 *
+	 * @return Number of misses.
+	 */
+	public long getMissCount()
+	{
+		return missCount;
+	}
+
+	/**
+	 * Returns the fraction of requests that were answered from the cache.
+	 *
+	 * @return Hit ratio, which is 1 if there haven't been any requests.
+	 */
+	public double getHitRatio()
+	{
+		long requests = getRequestCount();
+		return (requests == 0 ? 1.0 : (double)hitCount / requests);
+	}
+
+	/**
+	 * Returns the total time spent loading data for requests that weren't
+	 * answered from the cache.
+	 *
+	 * @return Load time, in nanoseconds.
+	 */
+	public long getTotalLoadTime()
+	{
+		return totalLoadTime;
+	}
+
+	/**
+	 * Returns the average time spent loading data for a miss.
+	 *
+	 * @return Average load time in nanoseconds, or zero if there haven't
+	 *         been any misses.
+	 */
+	public double getAverageLoadPenalty()
+	{
+		return (missCount == 0 ? 0.0 : (double)totalLoadTime / missCount);
+	}
+
+	/**
+	 * Returns the number of entries that have been removed from the cache,
+	 * either to make room for others or (for the weakly referenced tier)
+	 * because they were garbage collected.
+	 *
+	 * @return Number of evictions, or <code>-1</code> if not tracked.
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount;
+	}
+
+	/**
+	 * Returns the number of entries currently in the cache.
+	 *
+	 * @return Number of entries, or <code>-1</code> if not tracked.
+	 */
+	public long getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of entries that the cache holds.
+	 *
+	 * @return Maximum number of entries, or <code>-1</code> if the cache
+	 *         isn't bounded.
+	 */
+	public long getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	/**
+	 * Returns a rough estimate of the memory retained by the cache's
+	 * entries, based upon the average size of the records that were read.
+	 *
+	 * @return Approximate number of bytes, or <code>-1</code> if not
+	 *         tracked.
+	 */
+	public long getEstimatedBytes()
+	{
+		return estimatedBytes;
+	}
+
+	/**
+	 * Returns a summary of the statistics.
+	 *
+	 * @return Text describing the statistics.
+	 */
+	public String toString()
+	{
+		return name + "[requests=" + getRequestCount() + ", hits=" +
+				hitCount + ", misses=" + missCount + ", hitRatio=" +
+				String.format("%.3f", getHitRatio()) + ", loadTime=" +
+				totalLoadTime + "ns, evictions=" + evictionCount +
+				", size=" + size + ", maximumSize=" + maximumSize +
+				", estimatedBytes=" + estimatedBytes + "]";
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Publishes the cache and lock statistics of a {@link WordNetDatabase}
+ * through JMX and allows its bounded caches to be resized. For example:
+ * <pre>
+ * ObjectName name = DatabaseCaches.register(database, "default");
+ * </pre>
+ * registers an MXBean named
+ * <code>edu.smu.tspell.jaws:type=DatabaseCaches,name="default"</code>
+ * with the platform MBean server. The bean should be unregistered from
+ * that server when the database is closed.
+ */
+public class DatabaseCaches implements DatabaseCachesMXBean
+{
+
+	/**
+	 * Domain of the names under which the beans are registered.
+	 */
+	public final static String DOMAIN = "edu.smu.tspell.jaws";
+
+	/**
+	 * Database whose caches are managed.
+	 */
+	private WordNetDatabase database;
+
+	/**
+	 * Constructor that accepts the database whose caches are managed.
+	 *
+	 * @param  database Database whose caches are managed.
+	 */
+	public DatabaseCaches(WordNetDatabase database)
+	{
+		this.database = database;
+	}
+
+	/**
+	 * Registers a bean that manages a database's caches with the platform
+	 * MBean server.
+	 *
+	 * @param  database Database whose caches are managed.
+	 * @param  name Name that distinguishes the database from others.
+	 * @return Name under which the bean was registered.
+	 * @throws JMException The bean couldn't be registered, for example
+	 *         because another one is registered under the same name.
+	 */
+	public static ObjectName register(WordNetDatabase database, String name)
+			throws JMException
+	{
+		ObjectName objectName = new ObjectName(DOMAIN +
+				":type=DatabaseCaches,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(
+				new DatabaseCaches(database), objectName);
+		return objectName;
+	}
+
+	/**
+	 * Returns the statistics of the word form cache.
+	 *
+	 * @return Snapshot of the word form cache's statistics.
+	 */
+	public CacheStatistics getWordCache()
+	{
+		return getStatistics(CacheStatistics.WORD_CACHE);
+	}
+
+	/**
+	 * Returns the statistics of the synset cache.
+	 *
+	 * @return Snapshot of the synset cache's statistics.
+	 */
+	public CacheStatistics getSynsetCache()
+	{
+		return getStatistics(CacheStatistics.SYNSET_CACHE);
+	}
+
+	/**
+	 * Returns the statistics of the weakly referenced synsets behind the
+	 * synset cache.
+	 *
+	 * @return Snapshot of the weak tier's statistics.
+	 */
+	public CacheStatistics getWeakSynsets()
+	{
+		return getStatistics(CacheStatistics.WEAK_SYNSETS);
+	}
+
+	/**
+	 * Returns the statistics of the relationships resolved by synsets.
+	 *
+	 * @return Snapshot of the relationship statistics.
+	 */
+	public CacheStatistics getRelationReferences()
+	{
+		return getStatistics(CacheStatistics.RELATION_REFERENCES);
+	}
+
+	/**
+	 * Returns the contention statistics of the database's locks.
+	 *
+	 * @return Snapshot of each lock's statistics, keyed by lock name.
+	 */
+	public Map<String, LockStatistics> getLocks()
+	{
+		return database.getLockStatistics();
+	}
+
+	/**
+	 * Returns the maximum number of word forms that are cached.
+	 *
+	 * @return Word form cache size.
+	 */
+	public int getWordCacheSize()
+	{
+		return (int)(getWordCache().getMaximumSize());
+	}
+
+	/**
+	 * Changes the maximum number of word forms that are cached.
+	 *
+	 * @param  size Word form cache size.
+	 * @throws IllegalArgumentException The size is negative.
+	 */
+	public void setWordCacheSize(int size)
+	{
+		database.setCacheSize(CacheStatistics.WORD_CACHE, size);
+	}
+
+	/**
+	 * Returns the maximum number of synsets that are cached.
+	 *
+	 * @return Synset cache size.
+	 */
+	public int getSynsetCacheSize()
+	{
+		return (int)(getSynsetCache().getMaximumSize());
+	}
+
+	/**
+	 * Changes the maximum number of synsets that are cached.
+	 *
+	 * @param  size Synset cache size.
+	 * @throws IllegalArgumentException The size is negative.
+	 */
+	public void setSynsetCacheSize(int size)
+	{
+		database.setCacheSize(CacheStatistics.SYNSET_CACHE, size);
+	}
+
+	/**
+	 * Returns the statistics of one of the database's caches.
+	 *
+	 * @param  cacheName Name of the cache.
+	 * @return Snapshot of the cache's statistics, in which every value is
+	 *         <code>-1</code> if the database doesn't have the cache.
+	 */
+	private CacheStatistics getStatistics(String cacheName)
+	{
+		CacheStatistics statistics =
+				database.getCacheStatistics().get(cacheName);
+		return (statistics != null ? statistics : new CacheStatistics(
+				cacheName, -1, -1, -1, -1, -1, -1, -1));
+	}
+
+}
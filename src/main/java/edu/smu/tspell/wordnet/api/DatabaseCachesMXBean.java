@@ -0,0 +1,112 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+import java.util.Map;
+
+/**
+ * Management interface through which the caches of a
+ * {@link WordNetDatabase} are monitored and resized, for example from
+ * JConsole or another JMX client. Each statistics attribute is a snapshot
+ * of one cache, and the sizes of the bounded caches can be changed while
+ * the database is in use. The contention for the locks that guard the
+ * caches and files is reported alongside them.
+ *
+ * @see DatabaseCaches#register(WordNetDatabase, String)
+ */
+public interface DatabaseCachesMXBean
+{
+
+	/**
+	 * Returns the statistics of the word form cache.
+	 *
+	 * @return Snapshot of the word form cache's statistics.
+	 * @see    CacheStatistics#WORD_CACHE
+	 */
+	public CacheStatistics getWordCache();
+
+	/**
+	 * Returns the statistics of the synset cache.
+	 *
+	 * @return Snapshot of the synset cache's statistics.
+	 * @see    CacheStatistics#SYNSET_CACHE
+	 */
+	public CacheStatistics getSynsetCache();
+
+	/**
+	 * Returns the statistics of the weakly referenced synsets behind the
+	 * synset cache.
+	 *
+	 * @return Snapshot of the weak tier's statistics.
+	 * @see    CacheStatistics#WEAK_SYNSETS
+	 */
+	public CacheStatistics getWeakSynsets();
+
+	/**
+	 * Returns the statistics of the relationships resolved by synsets.
+	 *
+	 * @return Snapshot of the relationship statistics.
+	 * @see    CacheStatistics#RELATION_REFERENCES
+	 */
+	public CacheStatistics getRelationReferences();
+
+	/**
+	 * Returns the contention statistics of the database's locks.
+	 *
+	 * @return Snapshot of each lock's statistics, keyed by lock name.
+	 */
+	public Map<String, LockStatistics> getLocks();
+
+	/**
+	 * Returns the maximum number of word forms that are cached.
+	 *
+	 * @return Word form cache size.
+	 */
+	public int getWordCacheSize();
+
+	/**
+	 * Changes the maximum number of word forms that are cached.
+	 *
+	 * @param  size Word form cache size.
+	 * @throws IllegalArgumentException The size is negative.
+	 */
+	public void setWordCacheSize(int size);
+
+	/**
+	 * Returns the maximum number of synsets that are cached.
+	 *
+	 * @return Synset cache size.
+	 */
+	public int getSynsetCacheSize();
+
+	/**
+	 * Changes the maximum number of synsets that are cached.
+	 *
+	 * @param  size Synset cache size.
+	 * @throws IllegalArgumentException The size is negative.
+	 */
+	public void setSynsetCacheSize(int size);
+
+}
@@ -0,0 +1,129 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Describes a single read from one of the files of a database, which is
+ * recorded by an {@link IoTrace}. A read is either a probe, which is made
+ * while searching a sorted file for the lines that begin with some text,
+ * or a record read, which returns a line (such as a sense index entry or a
+ * synset) that's used by the lookup.
+ * <br><p>
+ * Instances of this class are immutable.
+ */
+public class FileAccess
+{
+
+	/**
+	 * Name of the file that was read.
+	 */
+	private String file;
+
+	/**
+	 * Position of the first byte that was read.
+	 */
+	private long offset;
+
+	/**
+	 * Number of bytes that were read.
+	 */
+	private long length;
+
+	/**
+	 * Indicates whether the read was made by a binary search.
+	 */
+	private boolean probe;
+
+	/**
+	 * Constructor that accepts the values of the description.
+	 *
+	 * @param  file Name of the file that was read.
+	 * @param  offset Position of the first byte that was read.
+	 * @param  length Number of bytes that were read.
+	 * @param  probe <code>true</code> if the read was made by a binary
+	 *         search, <code>false</code> if it read a record.
+	 */
+	public FileAccess(String file, long offset, long length, boolean probe)
+	{
+		this.file = file;
+		this.offset = offset;
+		this.length = length;
+		this.probe = probe;
+	}
+
+	/**
+	 * Returns the name of the file that was read.
+	 *
+	 * @return Name of the file, without its directory.
+	 */
+	public String getFile()
+	{
+		return file;
+	}
+
+	/**
+	 * Returns the position within the file of the first byte that was read.
+	 *
+	 * @return Byte offset.
+	 */
+	public long getOffset()
+	{
+		return offset;
+	}
+
+	/**
+	 * Returns the number of bytes that were read, including the line
+	 * separator if one was read.
+	 *
+	 * @return Number of bytes.
+	 */
+	public long getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * Indicates whether the read was made by a binary search for a line,
+	 * as opposed to reading a record used by the lookup.
+	 *
+	 * @return <code>true</code> if the read was a probe.
+	 */
+	public boolean isProbe()
+	{
+		return probe;
+	}
+
+	/**
+	 * Returns a description of the read.
+	 *
+	 * @return Text such as <code>index.sense@1024+58 (probe)</code>.
+	 */
+	public String toString()
+	{
+		return file + "@" + offset + "+" + length +
+				(probe ? " (probe)" : " (record)");
+	}
+
+}
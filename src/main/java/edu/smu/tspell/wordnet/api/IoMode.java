@@ -0,0 +1,59 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Identifies how a database reads the synsets from its data files.
+ * 
+ * @see WordNetDatabase.Builder#ioMode(IoMode)
+ */
+public enum IoMode
+{
+
+	/**
+	 * Each data file is mapped into memory when it's opened, and synsets
+	 * are read from the mapped contents without any locking, so any number
+	 * of threads can read from the same file at once. This is the default.
+	 */
+	MEMORY_MAPPED,
+
+	/**
+	 * Each data file is read through a {@link java.io.RandomAccessFile},
+	 * which avoids reserving address space for the mapped files but allows
+	 * only one thread at a time to read from each file.
+	 */
+	RANDOM_ACCESS,
+
+	/**
+	 * The data files and the sense index are read from a block-compressed
+	 * copy of the database, created by
+	 * {@link edu.smu.tspell.wordnet.impl.file.BlockCompressedWriter}, in
+	 * which only the block containing a requested line is decompressed.
+	 * This reduces the size of the database on disk and in the page cache
+	 * at the cost of decompressing blocks that aren't already cached.
+	 */
+	BLOCK_COMPRESSED
+
+}
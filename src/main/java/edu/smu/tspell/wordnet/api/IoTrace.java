@@ -0,0 +1,202 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of the file regions that were read while a call was made within
+ * {@link WordNetDatabase#trace(Runnable)}, along with the number of sense
+ * index lines that matched the word forms looked up and the number of
+ * synsets that were resolved. Only reads that actually reach a file are
+ * recorded, so data that was found in a cache doesn't appear in the trace.
+ * <br><p>
+ * Instances of this class are immutable.
+ */
+public class IoTrace
+{
+
+	/**
+	 * Reads in the order in which they were made.
+	 */
+	private List<FileAccess> accesses;
+
+	/**
+	 * Number of times a file pointer was moved.
+	 */
+	private int seekCount;
+
+	/**
+	 * Number of sense index lines that matched the word forms looked up.
+	 */
+	private int indexLinesMatched;
+
+	/**
+	 * Number of synsets that were resolved, whether or not they were read.
+	 */
+	private int synsetsResolved;
+
+	/**
+	 * Time the call took, in nanoseconds.
+	 */
+	private long elapsedTime;
+
+	/**
+	 * Constructor that accepts the values of the summary.
+	 *
+	 * @param  accesses Reads in the order in which they were made.
+	 * @param  seekCount Number of times a file pointer was moved.
+	 * @param  indexLinesMatched Number of sense index lines that matched.
+	 * @param  synsetsResolved Number of synsets that were resolved.
+	 * @param  elapsedTime Time the call took, in nanoseconds.
+	 */
+	public IoTrace(List<FileAccess> accesses, int seekCount,
+			int indexLinesMatched, int synsetsResolved, long elapsedTime)
+	{
+		this.accesses = Collections.unmodifiableList(accesses);
+		this.seekCount = seekCount;
+		this.indexLinesMatched = indexLinesMatched;
+		this.synsetsResolved = synsetsResolved;
+		this.elapsedTime = elapsedTime;
+	}
+
+	/**
+	 * Returns the reads that were made, in the order in which they were
+	 * made.
+	 *
+	 * @return Unmodifiable list of reads.
+	 */
+	public List<FileAccess> getAccesses()
+	{
+		return accesses;
+	}
+
+	/**
+	 * Returns the number of reads that were made by binary searches.
+	 *
+	 * @return Number of probes.
+	 */
+	public int getProbeCount()
+	{
+		int count = 0;
+		for (FileAccess access : accesses)
+		{
+			if (access.isProbe())
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of reads that returned records.
+	 *
+	 * @return Number of record reads.
+	 */
+	public int getRecordCount()
+	{
+		return accesses.size() - getProbeCount();
+	}
+
+	/**
+	 * Returns the total number of bytes that were read.
+	 *
+	 * @return Number of bytes.
+	 */
+	public long getBytesRead()
+	{
+		long bytes = 0;
+		for (FileAccess access : accesses)
+		{
+			bytes += access.getLength();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of times the position within a file was changed
+	 * before reading it. Files that are mapped into memory or read with
+	 * absolute positions don't have a position, so reading them doesn't
+	 * involve any seeks.
+	 *
+	 * @return Number of seeks.
+	 */
+	public int getSeekCount()
+	{
+		return seekCount;
+	}
+
+	/**
+	 * Returns the number of sense index lines that matched the word forms
+	 * that were looked up, which includes those of the base forms of the
+	 * word forms when morphology was used.
+	 *
+	 * @return Number of index lines.
+	 */
+	public int getIndexLinesMatched()
+	{
+		return indexLinesMatched;
+	}
+
+	/**
+	 * Returns the number of synsets that were resolved from pointers,
+	 * including those that were found in the synset cache. Word forms whose
+	 * synsets were cached by an earlier lookup don't resolve any pointers.
+	 *
+	 * @return Number of synsets.
+	 */
+	public int getSynsetsResolved()
+	{
+		return synsetsResolved;
+	}
+
+	/**
+	 * Returns the time the call took.
+	 *
+	 * @return Elapsed time, in nanoseconds.
+	 */
+	public long getElapsedTime()
+	{
+		return elapsedTime;
+	}
+
+	/**
+	 * Returns a summary of the trace that doesn't list the individual
+	 * reads.
+	 *
+	 * @return Text describing the trace.
+	 */
+	public String toString()
+	{
+		return "I/O trace (" + String.format("%.3f", elapsedTime / 1e6) +
+				" ms): probes=" + getProbeCount() + ", records=" +
+				getRecordCount() + ", bytesRead=" + getBytesRead() +
+				", seeks=" + seekCount + ", indexLinesMatched=" +
+				indexLinesMatched + ", synsetsResolved=" + synsetsResolved;
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Snapshot of the use of one of the locks that serialize access to a
+ * database's data, as returned by {@link WordNetDatabase#getLockStatistics()}.
+ * The counts are cumulative from the time the database was created, so the
+ * contention over an interval can be calculated from the difference between
+ * two snapshots.
+ * <br><p>
+ * Only the outermost acquisition of a lock by a thread is counted; a
+ * thread that acquires a lock it already holds neither waits for it nor
+ * extends the time it's held. Instances of this class are immutable.
+ */
+public class LockStatistics
+{
+
+	/**
+	 * Name of the lock that guards the synset cache.
+	 */
+	public final static String SYNSET_FACTORY = "synsetFactory";
+
+	/**
+	 * Name of the lock that guards the word form cache.
+	 */
+	public final static String WORD_FORM_LOOKUP = "wordFormLookup";
+
+	/**
+	 * Name of the lock that serializes reads of the sense index file.
+	 */
+	public final static String SENSE_INDEX_READER = "senseIndexReader";
+
+	/**
+	 * Prefix of the names of the locks that serialize reads of the data
+	 * files, which is followed by the name of the file (for example,
+	 * <code>synsetReader.data.noun</code>). Data files that are mapped into
+	 * memory are read without acquiring these locks.
+	 */
+	public final static String SYNSET_READER = "synsetReader.";
+
+	/**
+	 * Name of the lock.
+	 */
+	private String name;
+
+	/**
+	 * Number of times the lock was acquired.
+	 */
+	private long acquisitionCount;
+
+	/**
+	 * Number of acquisitions that had to wait for another thread.
+	 */
+	private long contendedCount;
+
+	/**
+	 * Total time spent waiting for the lock, in nanoseconds.
+	 */
+	private long totalWaitTime;
+
+	/**
+	 * Longest time spent waiting for the lock, in nanoseconds.
+	 */
+	private long maximumWaitTime;
+
+	/**
+	 * Total time the lock was held, in nanoseconds.
+	 */
+	private long totalHoldTime;
+
+	/**
+	 * Constructor that accepts the values of the snapshot.
+	 *
+	 * @param  name Name of the lock.
+	 * @param  acquisitionCount Number of times the lock was acquired.
+	 * @param  contendedCount Number of acquisitions that had to wait.
+	 * @param  totalWaitTime Total time spent waiting, in nanoseconds.
+	 * @param  maximumWaitTime Longest time spent waiting, in nanoseconds.
+	 * @param  totalHoldTime Total time the lock was held, in nanoseconds.
+	 */
+	public LockStatistics(String name, long acquisitionCount,
+			long contendedCount, long totalWaitTime, long maximumWaitTime,
+			long totalHoldTime)
+	{
+		this.name = name;
+		this.acquisitionCount = acquisitionCount;
+		this.contendedCount = contendedCount;
+		this.totalWaitTime = totalWaitTime;
+		this.maximumWaitTime = maximumWaitTime;
+		this.totalHoldTime = totalHoldTime;
+	}
+
+	/**
+	 * Returns the name of the lock.
+	 *
+	 * @return Lock name, such as {@link #SYNSET_FACTORY}.
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Returns the number of times the lock was acquired.
+	 *
+	 * @return Number of acquisitions.
+	 */
+	public long getAcquisitionCount()
+	{
+		return acquisitionCount;
+	}
+
+	/**
+	 * Returns the number of acquisitions that found the lock held by
+	 * another thread and had to wait for it.
+	 *
+	 * @return Number of contended acquisitions.
+	 */
+	public long getContendedCount()
+	{
+		return contendedCount;
+	}
+
+	/**
+	 * Returns the fraction of acquisitions that had to wait.
+	 *
+	 * @return Contention ratio, which is 0 if the lock hasn't been
+	 *         acquired.
+	 */
+	public double getContentionRatio()
+	{
+		return (acquisitionCount == 0 ?
+				0.0 : (double)contendedCount / acquisitionCount);
+	}
+
+	/**
+	 * Returns the total time that threads spent waiting for the lock.
+	 *
+	 * @return Wait time, in nanoseconds.
+	 */
+	public long getTotalWaitTime()
+	{
+		return totalWaitTime;
+	}
+
+	/**
+	 * Returns the longest time that a thread spent waiting for the lock.
+	 *
+	 * @return Maximum wait time, in nanoseconds.
+	 */
+	public long getMaximumWaitTime()
+	{
+		return maximumWaitTime;
+	}
+
+	/**
+	 * Returns the average time that a contended acquisition spent waiting.
+	 *
+	 * @return Average wait time in nanoseconds, or zero if no acquisition
+	 *         had to wait.
+	 */
+	public double getAverageWaitTime()
+	{
+		return (contendedCount == 0 ?
+				0.0 : (double)totalWaitTime / contendedCount);
+	}
+
+	/**
+	 * Returns the total time that the lock was held.
+	 *
+	 * @return Hold time, in nanoseconds.
+	 */
+	public long getTotalHoldTime()
+	{
+		return totalHoldTime;
+	}
+
+	/**
+	 * Returns the average time that the lock was held for each acquisition.
+	 *
+	 * @return Average hold time in nanoseconds, or zero if the lock hasn't
+	 *         been acquired.
+	 */
+	public double getAverageHoldTime()
+	{
+		return (acquisitionCount == 0 ?
+				0.0 : (double)totalHoldTime / acquisitionCount);
+	}
+
+	/**
+	 * Returns a summary of the statistics.
+	 *
+	 * @return Text describing the lock's use.
+	 */
+	public String toString()
+	{
+		return name + ": acquisitions=" + acquisitionCount + ", contended=" +
+				contendedCount + ", waitTime=" + totalWaitTime +
+				" ns, maximumWait=" + maximumWaitTime + " ns, holdTime=" +
+				totalHoldTime + " ns";
+	}
+
+}
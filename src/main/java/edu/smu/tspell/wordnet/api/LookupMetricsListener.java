@@ -0,0 +1,51 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+import java.util.Map;
+
+/**
+ * Receives the latency histograms of a database's lookup stages each time
+ * they're reported, which allows them to be exported to a monitoring
+ * system. The histograms are cumulative, so an implementation that needs
+ * the activity during an interval should subtract the counts of the
+ * previous report.
+ *
+ * @see WordNetDatabase#addLookupMetricsListener(LookupMetricsListener)
+ * @see WordNetDatabase#reportLookupMetrics()
+ */
+public interface LookupMetricsListener
+{
+
+	/**
+	 * Called with a snapshot of the histograms of a database's stages.
+	 *
+	 * @param  database Database whose lookups were measured.
+	 * @param  histograms Histogram of each stage.
+	 */
+	public void metricsReported(WordNetDatabase database,
+			Map<LookupStage, StageHistogram> histograms);
+
+}
@@ -0,0 +1,89 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Associates a word form with the synsets that were found for it, as
+ * published by a {@link SynsetLookupProcessor}.
+ */
+public class LookupResult
+{
+
+	/**
+	 * Word form that was looked up.
+	 */
+	private String wordForm;
+
+	/**
+	 * Synsets that contain the word form.
+	 */
+	private Synset[] synsets;
+
+	/**
+	 * Constructor that accepts a word form and its synsets.
+	 * 
+	 * @param  wordForm Word form that was looked up.
+	 * @param  synsets Synsets that contain the word form.
+	 */
+	public LookupResult(String wordForm, Synset[] synsets)
+	{
+		this.wordForm = wordForm;
+		this.synsets = synsets;
+	}
+
+	/**
+	 * Returns the word form that was looked up.
+	 * 
+	 * @return Word form that was looked up.
+	 */
+	public String getWordForm()
+	{
+		return wordForm;
+	}
+
+	/**
+	 * Returns the synsets that contain the word form. The array may be
+	 * shared with other results for the same word form and shouldn't be
+	 * modified.
+	 * 
+	 * @return Synsets that contain the word form, which may be empty.
+	 */
+	public Synset[] getSynsets()
+	{
+		return synsets;
+	}
+
+	/**
+	 * Returns a string representation of this object.
+	 * 
+	 * @return String representation of this object.
+	 */
+	public String toString()
+	{
+		return "'" + getWordForm() + "' in " + getSynsets().length +
+				" synset(s)";
+	}
+
+}
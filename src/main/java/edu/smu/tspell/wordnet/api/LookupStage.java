@@ -0,0 +1,59 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Identifies a stage of the pipeline through which a lookup of the synsets
+ * that contain a word form passes, for which latencies are recorded when
+ * a database's lookup metrics are enabled.
+ *
+ * @see WordNetDatabase#getLookupMetrics()
+ */
+public enum LookupStage
+{
+
+	/**
+	 * Finding the base form candidates of a word form by searching the
+	 * exception lists and applying the detachment rules.
+	 */
+	MORPHOLOGY,
+
+	/**
+	 * Searching the sense index for the entries of one or more word forms.
+	 */
+	SENSE_INDEX,
+
+	/**
+	 * Reading the record of a synset from a data file. This is the stage
+	 * for which the number of bytes read is recorded.
+	 */
+	DATA_READ,
+
+	/**
+	 * Creating a synset from the record that was read from a data file.
+	 */
+	PARSE
+
+}
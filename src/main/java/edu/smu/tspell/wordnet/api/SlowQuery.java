@@ -0,0 +1,256 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Description of a lookup that took longer than a database's slow query
+ * threshold, which is sent to its {@link SlowQueryListener}. Along with
+ * the query itself it describes the work the lookup did, so the reason it
+ * was slow (such as a word form with many senses or synsets that had to be
+ * read from disk) can be determined after the fact.
+ * <br><p>
+ * Instances of this class are immutable.
+ *
+ * @see WordNetDatabase.Builder#slowQueryThreshold(java.time.Duration)
+ */
+public class SlowQuery
+{
+
+	/**
+	 * Time at which the lookup ended, in milliseconds since the epoch.
+	 */
+	private long timestamp;
+
+	/**
+	 * Word form that was looked up, or the word forms of a batch
+	 * separated by commas.
+	 */
+	private String query;
+
+	/**
+	 * Type of synsets requested, or <code>null</code> for all types.
+	 */
+	private SynsetType type;
+
+	/**
+	 * Indicates whether synsets containing variants were requested.
+	 */
+	private boolean morphology;
+
+	/**
+	 * Time the lookup took, in nanoseconds.
+	 */
+	private long elapsedTime;
+
+	/**
+	 * Number of sense index entries that were read.
+	 */
+	private int indexEntries;
+
+	/**
+	 * Number of synsets that were read from the data files.
+	 */
+	private int synsetsLoaded;
+
+	/**
+	 * Number of bytes read from the data files.
+	 */
+	private long bytesRead;
+
+	/**
+	 * Time spent in each stage, in nanoseconds.
+	 */
+	private Map<LookupStage, Long> stageTimes;
+
+	/**
+	 * Number of slow lookups that weren't reported since the previous one
+	 * because of the rate limit.
+	 */
+	private long suppressedCount;
+
+	/**
+	 * Constructor that accepts the values of the description.
+	 *
+	 * @param  timestamp Time at which the lookup ended, in milliseconds
+	 *         since the epoch.
+	 * @param  query Word form or word forms that were looked up.
+	 * @param  type Type of synsets requested, or <code>null</code> for all
+	 *         types.
+	 * @param  morphology <code>true</code> if variants were requested.
+	 * @param  elapsedTime Time the lookup took, in nanoseconds.
+	 * @param  indexEntries Number of sense index entries read.
+	 * @param  synsetsLoaded Number of synsets read from the data files.
+	 * @param  bytesRead Number of bytes read from the data files.
+	 * @param  stageTimes Time spent in each stage, in nanoseconds.
+	 * @param  suppressedCount Number of slow lookups that weren't reported
+	 *         since the previous one.
+	 */
+	public SlowQuery(long timestamp, String query, SynsetType type,
+			boolean morphology, long elapsedTime, int indexEntries,
+			int synsetsLoaded, long bytesRead,
+			Map<LookupStage, Long> stageTimes, long suppressedCount)
+	{
+		this.timestamp = timestamp;
+		this.query = query;
+		this.type = type;
+		this.morphology = morphology;
+		this.elapsedTime = elapsedTime;
+		this.indexEntries = indexEntries;
+		this.synsetsLoaded = synsetsLoaded;
+		this.bytesRead = bytesRead;
+		this.stageTimes = Collections.unmodifiableMap(
+				new EnumMap<>(stageTimes));
+		this.suppressedCount = suppressedCount;
+	}
+
+	/**
+	 * Returns the time at which the lookup ended.
+	 *
+	 * @return Milliseconds since the epoch.
+	 */
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	/**
+	 * Returns the word form that was looked up.
+	 *
+	 * @return Word form, or the word forms of a batch lookup separated by
+	 *         commas.
+	 */
+	public String getQuery()
+	{
+		return query;
+	}
+
+	/**
+	 * Returns the type of synsets that were requested.
+	 *
+	 * @return Synset type, or <code>null</code> if all types were
+	 *         requested.
+	 */
+	public SynsetType getType()
+	{
+		return type;
+	}
+
+	/**
+	 * Indicates whether synsets containing morphological variants of the
+	 * word form were requested.
+	 *
+	 * @return <code>true</code> if morphology was used.
+	 */
+	public boolean isMorphology()
+	{
+		return morphology;
+	}
+
+	/**
+	 * Returns the time the lookup took.
+	 *
+	 * @return Elapsed time, in nanoseconds.
+	 */
+	public long getElapsedTime()
+	{
+		return elapsedTime;
+	}
+
+	/**
+	 * Returns the number of sense index entries that were read for word
+	 * forms that weren't cached.
+	 *
+	 * @return Number of index entries.
+	 */
+	public int getIndexEntries()
+	{
+		return indexEntries;
+	}
+
+	/**
+	 * Returns the number of synsets that weren't cached and were read from
+	 * the data files.
+	 *
+	 * @return Number of synsets loaded.
+	 */
+	public int getSynsetsLoaded()
+	{
+		return synsetsLoaded;
+	}
+
+	/**
+	 * Returns the number of bytes read from the data files.
+	 *
+	 * @return Number of bytes read.
+	 */
+	public long getBytesRead()
+	{
+		return bytesRead;
+	}
+
+	/**
+	 * Returns the time spent in each stage of the lookup. The time that
+	 * isn't accounted for by the stages was spent finding cached data and
+	 * assembling the results.
+	 *
+	 * @return Unmodifiable map of the nanoseconds spent in each stage.
+	 */
+	public Map<LookupStage, Long> getStageTimes()
+	{
+		return stageTimes;
+	}
+
+	/**
+	 * Returns the number of slow lookups that weren't reported since the
+	 * previous one because too many were reported in a short time.
+	 *
+	 * @return Number of suppressed reports.
+	 */
+	public long getSuppressedCount()
+	{
+		return suppressedCount;
+	}
+
+	/**
+	 * Returns a description of the lookup that's suitable for a log.
+	 *
+	 * @return Text describing the lookup.
+	 */
+	public String toString()
+	{
+		return "Slow lookup of \"" + query + "\" (type=" +
+				(type != null ? type.toString() : "all") + ", morphology=" +
+				morphology + ") took " +
+				String.format("%.3f", elapsedTime / 1e6) + " ms: indexEntries=" +
+				indexEntries + ", synsetsLoaded=" + synsetsLoaded +
+				", bytesRead=" + bytesRead + ", stageTimes=" + stageTimes +
+				", suppressed=" + suppressedCount;
+	}
+
+}
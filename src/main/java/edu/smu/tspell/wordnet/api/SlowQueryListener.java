@@ -0,0 +1,46 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Receives the lookups that took longer than a database's slow query
+ * threshold. The listener is called on the thread that performed the
+ * lookup, after its results have been assembled, so it should return
+ * quickly. By default slow lookups are written to the
+ * <code>edu.smu.tspell.jaws.SlowQuery</code> {@link System.Logger}.
+ *
+ * @see WordNetDatabase.Builder#slowQueryListener(SlowQueryListener)
+ */
+public interface SlowQueryListener
+{
+
+	/**
+	 * Called for a lookup that exceeded the threshold.
+	 *
+	 * @param  query Description of the lookup.
+	 */
+	public void slowQuery(SlowQuery query);
+
+}
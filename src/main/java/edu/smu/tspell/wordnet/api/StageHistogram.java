@@ -0,0 +1,250 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+/**
+ * Snapshot of the latencies recorded for one stage of a database's
+ * lookups, as returned by {@link WordNetDatabase#getLookupMetrics()}.
+ * The latencies are counted in buckets whose bounds are powers of two
+ * nanoseconds: bucket <i>n</i> counts the latencies of at least
+ * 2<sup><i>n</i></sup> and less than 2<sup><i>n</i>+1</sup> nanoseconds
+ * (bucket zero also counts latencies of zero), so percentiles are
+ * estimated to within a factor of two.
+ * <br><p>
+ * The counts are cumulative from the time the database was created.
+ * Instances of this class are immutable.
+ */
+public class StageHistogram
+{
+
+	/**
+	 * Number of buckets in each histogram.
+	 */
+	public final static int BUCKET_COUNT = 64;
+
+	/**
+	 * Stage whose latencies were recorded.
+	 */
+	private LookupStage stage;
+
+	/**
+	 * Number of latencies recorded.
+	 */
+	private long count;
+
+	/**
+	 * Sum of the latencies, in nanoseconds.
+	 */
+	private long totalTime;
+
+	/**
+	 * Longest latency, in nanoseconds.
+	 */
+	private long maximumTime;
+
+	/**
+	 * Number of bytes read by the stage.
+	 */
+	private long bytesRead;
+
+	/**
+	 * Number of latencies counted in each bucket.
+	 */
+	private long[] bucketCounts;
+
+	/**
+	 * Constructor that accepts the values of the snapshot.
+	 *
+	 * @param  stage Stage whose latencies were recorded.
+	 * @param  totalTime Sum of the latencies, in nanoseconds.
+	 * @param  maximumTime Longest latency, in nanoseconds.
+	 * @param  bytesRead Number of bytes read by the stage.
+	 * @param  bucketCounts Number of latencies counted in each of the
+	 *         {@link #BUCKET_COUNT} buckets.
+	 * @throws IllegalArgumentException The number of buckets is wrong.
+	 */
+	public StageHistogram(LookupStage stage, long totalTime,
+			long maximumTime, long bytesRead, long[] bucketCounts)
+	{
+		if (bucketCounts.length != BUCKET_COUNT)
+		{
+			throw new IllegalArgumentException(
+					"Invalid number of buckets: " + bucketCounts.length);
+		}
+		this.stage = stage;
+		this.totalTime = totalTime;
+		this.maximumTime = maximumTime;
+		this.bytesRead = bytesRead;
+		this.bucketCounts = bucketCounts.clone();
+		for (long bucketCount : bucketCounts)
+		{
+			count += bucketCount;
+		}
+	}
+
+	/**
+	 * Returns the bucket in which a latency is counted.
+	 *
+	 * @param  nanos Latency, in nanoseconds.
+	 * @return Number of the bucket.
+	 */
+	public static int getBucket(long nanos)
+	{
+		return (nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos));
+	}
+
+	/**
+	 * Returns the longest latency counted in a bucket.
+	 *
+	 * @param  bucket Number of the bucket.
+	 * @return Upper bound of the bucket, in nanoseconds.
+	 */
+	public static long getUpperBound(int bucket)
+	{
+		return (bucket >= BUCKET_COUNT - 1 ?
+				Long.MAX_VALUE : (2L << bucket) - 1);
+	}
+
+	/**
+	 * Returns the stage whose latencies were recorded.
+	 *
+	 * @return Stage of the lookups.
+	 */
+	public LookupStage getStage()
+	{
+		return stage;
+	}
+
+	/**
+	 * Returns the number of latencies recorded.
+	 *
+	 * @return Number of times the stage was performed.
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Returns the sum of the recorded latencies.
+	 *
+	 * @return Total time, in nanoseconds.
+	 */
+	public long getTotalTime()
+	{
+		return totalTime;
+	}
+
+	/**
+	 * Returns the average of the recorded latencies.
+	 *
+	 * @return Mean time in nanoseconds, or zero if nothing was recorded.
+	 */
+	public double getMeanTime()
+	{
+		return (count == 0 ? 0.0 : (double)totalTime / count);
+	}
+
+	/**
+	 * Returns the longest of the recorded latencies.
+	 *
+	 * @return Maximum time, in nanoseconds.
+	 */
+	public long getMaximumTime()
+	{
+		return maximumTime;
+	}
+
+	/**
+	 * Returns the number of bytes read by the stage, which is only
+	 * recorded for {@link LookupStage#DATA_READ}.
+	 *
+	 * @return Number of bytes read.
+	 */
+	public long getBytesRead()
+	{
+		return bytesRead;
+	}
+
+	/**
+	 * Returns the number of latencies counted in a bucket.
+	 *
+	 * @param  bucket Number of the bucket.
+	 * @return Number of latencies.
+	 * @see    #getUpperBound(int)
+	 */
+	public long getBucketCount(int bucket)
+	{
+		return bucketCounts[bucket];
+	}
+
+	/**
+	 * Returns an estimate of a percentile of the recorded latencies, which
+	 * is the upper bound of the bucket that contains it (or the maximum
+	 * latency, if that's smaller).
+	 *
+	 * @param  percentile Percentile to return, from 0 to 100.
+	 * @return Estimated latency in nanoseconds, or zero if nothing was
+	 *         recorded.
+	 * @throws IllegalArgumentException The percentile is out of range.
+	 */
+	public long getPercentile(double percentile)
+	{
+		if ((percentile < 0) || (percentile > 100))
+		{
+			throw new IllegalArgumentException(
+					"Invalid percentile: " + percentile);
+		}
+		if (count == 0)
+		{
+			return 0;
+		}
+		long rank = Math.max((long)Math.ceil(count * percentile / 100), 1);
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			seen += bucketCounts[i];
+			if (seen >= rank)
+			{
+				return Math.min(getUpperBound(i), maximumTime);
+			}
+		}
+		return maximumTime;
+	}
+
+	/**
+	 * Returns a summary of the histogram.
+	 *
+	 * @return Text describing the histogram.
+	 */
+	public String toString()
+	{
+		return stage + "[count=" + count + ", mean=" +
+				String.format("%.0f", getMeanTime()) + "ns, p50=" +
+				getPercentile(50) + "ns, p99=" + getPercentile(99) +
+				"ns, max=" + maximumTime + "ns, bytesRead=" + bytesRead + "]";
+	}
+
+}
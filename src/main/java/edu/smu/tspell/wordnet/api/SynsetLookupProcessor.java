@@ -0,0 +1,428 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A reactive stream stage that looks up the synsets of the word forms it
+ * receives and publishes a {@link LookupResult} for each of them, in the
+ * order in which they were received. This is intended for bulk jobs that
+ * need to look up very large numbers of word forms without collecting them
+ * (or their results) in memory first.
+ * <br><p>
+ * The word forms are gathered into batches and each batch is resolved
+ * with {@link WordNetDatabase#getSynsets(java.util.Collection, SynsetType,
+ * boolean)}, which reads the index and data files in sorted order rather
+ * than performing a separate search for each word form. Batches are
+ * resolved one at a time and their results are published as soon as each
+ * batch has been resolved.
+ * <br><p>
+ * Demand is propagated upstream: no more than two batches of word forms
+ * are requested from the upstream publisher before their results have been
+ * published, and publishing waits whenever a subscriber's buffer (which
+ * holds at most one batch) is full. The amount of data in progress is
+ * therefore bounded by the batch size regardless of how many word forms
+ * are processed. Nothing is requested from upstream until a subscriber has
+ * subscribed to this processor, and the upstream subscription is cancelled
+ * if all of the subscribers cancel theirs.
+ */
+public class SynsetLookupProcessor
+		implements Flow.Processor<String, LookupResult>
+{
+
+	/**
+	 * Default number of word forms that are looked up together.
+	 */
+	private final static int DEFAULT_BATCH_SIZE = 256;
+
+	/**
+	 * Executor on which results are delivered to subscribers, which runs
+	 * each delivery task in a new virtual thread. Resolving a batch waits
+	 * for the subscribers' buffers to drain, so delivery must never wait
+	 * for the executor that resolves the batches, which may be bounded.
+	 */
+	private final static Executor DELIVERY_EXECUTOR =
+			task -> Thread.ofVirtual().start(task);
+
+	/**
+	 * Database that performs the lookups.
+	 */
+	private WordNetDatabase database;
+
+	/**
+	 * Type of synsets to return, or <code>null</code> for all types.
+	 */
+	private SynsetType type;
+
+	/**
+	 * Indicates whether synsets containing morphological variations of the
+	 * word forms are returned.
+	 */
+	private boolean useMorphology;
+
+	/**
+	 * Number of word forms that are looked up together.
+	 */
+	private int batchSize;
+
+	/**
+	 * Executor on which the batches are resolved.
+	 */
+	private Executor executor;
+
+	/**
+	 * Publishes the results to the subscribers.
+	 */
+	private SubmissionPublisher<LookupResult> publisher;
+
+	/**
+	 * Guards the state that's updated by the upstream signals.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Subscription to the publisher of the word forms, or <code>null</code>
+	 * if this processor hasn't been subscribed yet.
+	 */
+	private Flow.Subscription upstream;
+
+	/**
+	 * Indicates whether word forms have been requested from upstream.
+	 */
+	private boolean started;
+
+	/**
+	 * Indicates whether the upstream publisher has completed or failed or
+	 * a lookup has failed.
+	 */
+	private boolean finished;
+
+	/**
+	 * Word forms received for the batch that's being gathered.
+	 */
+	private List<String> batch;
+
+	/**
+	 * Completes when the last batch that was dispatched has been published.
+	 */
+	private CompletableFuture<Void> tail =
+			CompletableFuture.completedFuture(null);
+
+	/**
+	 * Constructor that accepts the database and lookup options, and which
+	 * uses the default batch size and resolves each batch on the
+	 * database's executor.
+	 *
+	 * @param  database Database that performs the lookups.
+	 * @param  type Type of synsets (e.g., noun) to return, or
+	 *         <code>null</code> to return synsets of all types.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations of the word forms should
+	 *         also be returned.
+	 */
+	public SynsetLookupProcessor(WordNetDatabase database, SynsetType type,
+			boolean useMorphology)
+	{
+		this(database, type, useMorphology, DEFAULT_BATCH_SIZE,
+				database.getExecutor());
+	}
+
+	/**
+	 * Constructor that accepts the database, lookup options, batch size and
+	 * the executor on which batches are resolved. Results are delivered to
+	 * subscribers on virtual threads rather than on that executor, so it
+	 * may be bounded, even to a single thread.
+	 *
+	 * @param  database Database that performs the lookups.
+	 * @param  type Type of synsets (e.g., noun) to return, or
+	 *         <code>null</code> to return synsets of all types.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations of the word forms should
+	 *         also be returned.
+	 * @param  batchSize Number of word forms to look up together.
+	 * @param  executor Executor on which batches are resolved.
+	 * @throws IllegalArgumentException The batch size isn't positive.
+	 */
+	public SynsetLookupProcessor(WordNetDatabase database, SynsetType type,
+			boolean useMorphology, int batchSize, Executor executor)
+	{
+		if (batchSize <= 0)
+		{
+			throw new IllegalArgumentException(
+					"Batch size must be positive: " + batchSize);
+		}
+		this.database = database;
+		this.type = type;
+		this.useMorphology = useMorphology;
+		this.batchSize = batchSize;
+		this.executor = executor;
+		publisher = new SubmissionPublisher<>(DELIVERY_EXECUTOR, batchSize);
+		batch = new ArrayList<>(batchSize);
+	}
+
+	/**
+	 * Adds a subscriber that receives the results and, if this processor
+	 * has already been subscribed to a publisher of word forms, begins
+	 * requesting them. Subscribers that subscribe later don't receive the
+	 * results that have already been published.
+	 *
+	 * @param  subscriber Subscriber that receives the results.
+	 */
+	public void subscribe(Flow.Subscriber<? super LookupResult> subscriber)
+	{
+		publisher.subscribe(subscriber);
+		start();
+	}
+
+	/**
+	 * Accepts the subscription to the publisher of word forms.
+	 *
+	 * @param  subscription Subscription to the upstream publisher.
+	 */
+	public void onSubscribe(Flow.Subscription subscription)
+	{
+		boolean accepted;
+		lock.lock();
+		try
+		{
+			accepted = (upstream == null);
+			if (accepted)
+			{
+				upstream = subscription;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		if (!accepted)
+		{
+			subscription.cancel();
+			return;
+		}
+		start();
+	}
+
+	/**
+	 * Adds a word form to the current batch, dispatching the batch if it's
+	 * full.
+	 *
+	 * @param  wordForm Word form to look up.
+	 * @throws NullPointerException The word form is <code>null</code>.
+	 */
+	public void onNext(String wordForm)
+	{
+		if (wordForm == null)
+		{
+			throw new NullPointerException("No word form was specified");
+		}
+		lock.lock();
+		try
+		{
+			if (!finished)
+			{
+				batch.add(wordForm);
+				if (batch.size() >= batchSize)
+				{
+					dispatch(false);
+				}
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the subscribers exceptionally once the batches that were
+	 * already dispatched have been published.
+	 *
+	 * @param  throwable Error reported by the upstream publisher.
+	 */
+	public void onError(Throwable throwable)
+	{
+		lock.lock();
+		try
+		{
+			if (!finished)
+			{
+				finished = true;
+				batch = new ArrayList<>();
+				tail = tail.thenRun(() ->
+						publisher.closeExceptionally(throwable));
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Dispatches the final (partial) batch and closes the subscribers once
+	 * all of the results have been published.
+	 */
+	public void onComplete()
+	{
+		lock.lock();
+		try
+		{
+			if (!finished)
+			{
+				if (!batch.isEmpty())
+				{
+					dispatch(true);
+				}
+				finished = true;
+				tail = tail.thenRun(publisher::close);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Requests the first two batches of word forms once both an upstream
+	 * publisher and a subscriber are present.
+	 */
+	private void start()
+	{
+		Flow.Subscription subscription = null;
+		lock.lock();
+		try
+		{
+			if ((!started) && (upstream != null) &&
+					(publisher.hasSubscribers()))
+			{
+				started = true;
+				subscription = upstream;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		if (subscription != null)
+		{
+			subscription.request(2L * batchSize);
+		}
+	}
+
+	/**
+	 * Queues the current batch to be resolved after the batches that were
+	 * dispatched before it. Must be called while holding the lock.
+	 *
+	 * @param  last <code>true</code> if no more word forms will be received.
+	 */
+	private void dispatch(boolean last)
+	{
+		List<String> wordForms = batch;
+		batch = new ArrayList<>(batchSize);
+		tail = tail.thenRunAsync(() -> resolve(wordForms, last), executor);
+	}
+
+	/**
+	 * Looks up a batch of word forms, publishes the results and then
+	 * requests another batch from upstream.
+	 *
+	 * @param  wordForms Word forms to look up.
+	 * @param  last <code>true</code> if this is the final batch.
+	 */
+	private void resolve(List<String> wordForms, boolean last)
+	{
+		if (publisher.isClosed())
+		{
+			return;
+		}
+		try
+		{
+			Map<String, Synset[]> synsets =
+					database.getSynsets(wordForms, type, useMorphology);
+			for (String wordForm : wordForms)
+			{
+				//  Waits while any subscriber's buffer is full
+				publisher.submit(
+						new LookupResult(wordForm, synsets.get(wordForm)));
+			}
+		}
+		catch (Throwable t)
+		{
+			//  Errors are caught too, since the stages that close the
+			//  subscribers wouldn't run if this one completed exceptionally
+			fail(t);
+			return;
+		}
+		if (!publisher.hasSubscribers())
+		{
+			fail(null);
+		}
+		else if (!last)
+		{
+			upstream.request(batchSize);
+		}
+	}
+
+	/**
+	 * Stops processing, cancelling the upstream subscription and closing
+	 * the subscribers.
+	 *
+	 * @param  cause Error that caused processing to stop, or
+	 *         <code>null</code> if all of the subscribers cancelled.
+	 */
+	private void fail(Throwable cause)
+	{
+		lock.lock();
+		try
+		{
+			finished = true;
+			batch = new ArrayList<>();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		upstream.cancel();
+		if (cause != null)
+		{
+			publisher.closeExceptionally(cause);
+		}
+		else
+		{
+			publisher.close();
+		}
+	}
+
+}
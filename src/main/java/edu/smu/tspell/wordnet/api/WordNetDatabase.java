@@ -25,21 +25,77 @@
 package edu.smu.tspell.wordnet.api;
 
 import edu.smu.tspell.wordnet.impl.file.FileDatabase;
+import edu.smu.tspell.wordnet.impl.file.PropertyNames;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import java.time.Duration;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.stream.Stream;
 
 /**
  * A concrete implementation of this class provides access to the WordNet
  * database information.
+ * <br><p>
+ * A database may hold resources such as open files for as long as it's
+ * in use, and these are released when it's closed. Once it has been
+ * closed, a database can no longer be used.
+ * <br><p>
+ * The instance returned by {@link #getFileInstance()} is configured using
+ * system properties and is shared by every caller, so closing it has no
+ * effect and its files remain open until the virtual machine exits.
+ * Databases created with a {@link Builder} are instead
+ * configured individually, and each one has its own caches and open files,
+ * so several databases with different directories, cache sizes or
+ * executors can be used in the same virtual machine without affecting one
+ * another. For example:
+ * <pre>
+ * WordNetDatabase batch = WordNetDatabase.builder()
+ *         .directory(new File("/usr/share/wordnet/dict"))
+ *         .synsetCacheSize(50000)
+ *         .executor(batchPool)
+ *         .build();
+ * </pre>
  * 
  * @author Brett Spell
  */
-public abstract class WordNetDatabase
+public abstract class WordNetDatabase implements AutoCloseable
 {
 
 	/**
 	 * An instance of this class that can retrieve WordNet data from files
 	 * on the local file system.
 	 */
-	private static WordNetDatabase fileInstance;
+	private static volatile WordNetDatabase fileInstance;
+
+	/**
+	 * Guards creation of the singleton instance.
+	 */
+	private final static ReentrantLock INSTANCE_LOCK = new ReentrantLock();
+
+	/**
+	 * Default executor, which runs each task in a new virtual thread.
+	 */
+	private final static ExecutorService DEFAULT_EXECUTOR =
+			Executors.newVirtualThreadPerTaskExecutor();
+
+	/**
+	 * Listeners to which the lookup metrics are reported.
+	 */
+	private final List<LookupMetricsListener> metricsListeners =
+			new CopyOnWriteArrayList<>();
 
 	/**
 	 * No-argument constructor.
@@ -114,6 +170,40 @@ public abstract class WordNetDatabase
 	public abstract Synset[] getSynsets(String wordForm, SynsetType type,
 			boolean useMorphology) throws WordNetException;
 
+	/**
+	 * Returns the synsets that contain each of a group of word forms, as
+	 * {@link #getSynsets(String, SynsetType, boolean)} does for a single
+	 * word form. Duplicate word forms are only looked up once, and
+	 * implementations may retrieve the data for the entire group more
+	 * efficiently than they could retrieve it for each form individually.
+	 * 
+	 * @param  wordForms Text representing words or collocations (phrases).
+	 * @param  type Type of synsets (e.g., noun) to return; if this
+	 *         argument is <code>null</code>, all synsets will be returned
+	 *         that contain the word forms.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations of the word forms should
+	 *         also be returned.
+	 * @return Map in which the keys are the distinct word forms, in the
+	 *         order in which they were specified, and the values are the
+	 *         synsets that contain them.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public Map<String, Synset[]> getSynsets(Collection<String> wordForms,
+			SynsetType type, boolean useMorphology) throws WordNetException
+	{
+		Map<String, Synset[]> results = new LinkedHashMap<>();
+		for (String wordForm : wordForms)
+		{
+			if (!results.containsKey(wordForm))
+			{
+				results.put(wordForm,
+						getSynsets(wordForm, type, useMorphology));
+			}
+		}
+		return results;
+	}
+
 	/**
 	 * Returns lemma representing word forms that <u>might</u> be present
 	 * in WordNet. For example, if "geese" is passed to this method along
@@ -132,23 +222,844 @@ public abstract class WordNetDatabase
 	public abstract String[] getBaseFormCandidates(String inflection,
 			SynsetType type);
 
+	/**
+	 * Returns every synset of the specified types, in the order in which
+	 * they're stored in the database. This is intended for bulk operations
+	 * such as exports, index builds and statistics; the synsets are read as
+	 * they're consumed, and calling <code>parallel()</code> on the stream
+	 * allows them to be read and parsed on all available processors.
+	 * Synsets returned by the stream aren't added to the synset cache.
+	 * <br><p>
+	 * This implementation can't stream synsets and always throws an
+	 * exception.
+	 * 
+	 * @param  types Types of synsets (e.g., noun) to return; if none are
+	 *         specified, all synsets are returned.
+	 * @return Stream of all synsets of the specified types.
+	 * @throws WordNetException An error occurred opening the database.
+	 * @throws UnsupportedOperationException Synsets can't be streamed.
+	 */
+	public Stream<Synset> allSynsets(SynsetType... types)
+			throws WordNetException
+	{
+		throw new UnsupportedOperationException(
+				"Synsets aren't streamed by " + getClass().getName());
+	}
+
+	/**
+	 * Releases the resources held by this database. Calling this method
+	 * more than once has no effect. This implementation does nothing and
+	 * should be overridden by subclasses that hold resources.
+	 * 
+	 * @throws WordNetException An error occurred releasing the resources.
+	 */
+	public void close() throws WordNetException
+	{
+	}
+
+	/**
+	 * Indicates whether this is the instance returned by
+	 * {@link #getFileInstance()}, which is shared by every caller and
+	 * therefore shouldn't be closed by any of them.
+	 * 
+	 * @return <code>true</code> if this is the shared instance.
+	 */
+	protected final boolean isShared()
+	{
+		return (this == fileInstance);
+	}
+
+	/**
+	 * Indicates whether this database has been closed. This implementation
+	 * always returns <code>false</code>.
+	 * 
+	 * @return <code>true</code> if this database has been closed.
+	 */
+	public boolean isClosed()
+	{
+		return false;
+	}
+
+	/**
+	 * Returns the executor on which asynchronous work for this database,
+	 * such as the lookups performed by {@link AsyncWordNetDatabase} and
+	 * {@link SynsetLookupProcessor}, is run by default. This implementation
+	 * returns an executor that runs each task in a new virtual thread.
+	 * 
+	 * @return Executor for asynchronous lookups.
+	 */
+	public Executor getExecutor()
+	{
+		return DEFAULT_EXECUTOR;
+	}
+
+	/**
+	 * Returns statistics describing the activity and size of each of the
+	 * caches used by this database, keyed by cache name (such as
+	 * {@link CacheStatistics#SYNSET_CACHE}). This implementation returns
+	 * an empty map.
+	 * 
+	 * @return Snapshot of the statistics of each cache.
+	 * @see    DatabaseCaches
+	 */
+	public Map<String, CacheStatistics> getCacheStatistics()
+	{
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Returns statistics describing the contention for each of the locks
+	 * that serialize access to this database's caches and files, keyed by
+	 * lock name (such as {@link LockStatistics#SYNSET_FACTORY}). The time
+	 * that threads spend waiting for each lock shows which of them limits
+	 * the throughput of lookups made by several threads at once. This
+	 * implementation returns an empty map.
+	 * 
+	 * @return Snapshot of the statistics of each lock.
+	 * @see    DatabaseCaches
+	 */
+	public Map<String, LockStatistics> getLockStatistics()
+	{
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Changes the maximum number of entries held by one of this database's
+	 * bounded caches, such as {@link CacheStatistics#WORD_CACHE} or
+	 * {@link CacheStatistics#SYNSET_CACHE}. If the cache holds more
+	 * entries than the new size allows, the least recently used ones are
+	 * dropped. This implementation has no caches and always throws an
+	 * exception.
+	 * 
+	 * @param  cacheName Name of the cache to resize.
+	 * @param  size Maximum number of entries.
+	 * @throws IllegalArgumentException The cache can't be resized or the
+	 *         size is negative.
+	 */
+	public void setCacheSize(String cacheName, int size)
+	{
+		throw new IllegalArgumentException(
+				"There is no resizable cache named " + cacheName);
+	}
+
+	/**
+	 * Returns the latency histograms of the stages through which this
+	 * database's lookups pass, along with the number of bytes read, which
+	 * identify the stage responsible when lookups are slow. Nothing is
+	 * recorded unless lookup metrics are enabled. This implementation
+	 * returns an empty map.
+	 * 
+	 * @return Snapshot of the histogram of each stage.
+	 * @see    Builder#lookupMetrics(boolean)
+	 * @see    #setLookupMetricsEnabled(boolean)
+	 */
+	public Map<LookupStage, StageHistogram> getLookupMetrics()
+	{
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Indicates whether the latencies of this database's lookups are being
+	 * recorded. This implementation returns <code>false</code>.
+	 * 
+	 * @return <code>true</code> if lookup metrics are enabled.
+	 */
+	public boolean isLookupMetricsEnabled()
+	{
+		return false;
+	}
+
+	/**
+	 * Enables or disables the recording of the latencies of this
+	 * database's lookups, which can be done at any time. This
+	 * implementation doesn't record latencies and always throws an
+	 * exception.
+	 * 
+	 * @param  enabled <code>true</code> if latencies should be recorded.
+	 * @throws UnsupportedOperationException Latencies can't be recorded.
+	 */
+	public void setLookupMetricsEnabled(boolean enabled)
+	{
+		throw new UnsupportedOperationException(
+				"Lookup metrics aren't supported by " + getClass().getName());
+	}
+
+	/**
+	 * Adds a listener to which the lookup metrics are sent each time
+	 * they're reported.
+	 * 
+	 * @param  listener Listener to add.
+	 * @see    #reportLookupMetrics()
+	 */
+	public void addLookupMetricsListener(LookupMetricsListener listener)
+	{
+		metricsListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener that was added to receive the lookup metrics.
+	 * 
+	 * @param  listener Listener to remove.
+	 */
+	public void removeLookupMetricsListener(LookupMetricsListener listener)
+	{
+		metricsListeners.remove(listener);
+	}
+
+	/**
+	 * Sends a snapshot of the lookup metrics to each of the listeners.
+	 * Applications that export the metrics typically call this method
+	 * periodically, such as from a scheduled executor.
+	 * 
+	 * @see    #getLookupMetrics()
+	 */
+	public void reportLookupMetrics()
+	{
+		if (!metricsListeners.isEmpty())
+		{
+			Map<LookupStage, StageHistogram> histograms = getLookupMetrics();
+			for (LookupMetricsListener listener : metricsListeners)
+			{
+				listener.metricsReported(this, histograms);
+			}
+		}
+	}
+
+	/**
+	 * Returns the time above which this database's lookups are reported to
+	 * its {@link SlowQueryListener}. This implementation returns
+	 * <code>null</code>.
+	 * 
+	 * @return Threshold, or <code>null</code> if lookups aren't reported.
+	 * @see    Builder#slowQueryThreshold(Duration)
+	 */
+	public Duration getSlowQueryThreshold()
+	{
+		return null;
+	}
+
+	/**
+	 * Changes the time above which this database's lookups are reported to
+	 * its {@link SlowQueryListener}, which can be done at any time. This
+	 * implementation doesn't report lookups and always throws an
+	 * exception.
+	 * 
+	 * @param  threshold New threshold, or <code>null</code> to stop
+	 *         reporting lookups.
+	 * @throws UnsupportedOperationException Lookups can't be reported.
+	 */
+	public void setSlowQueryThreshold(Duration threshold)
+	{
+		throw new UnsupportedOperationException(
+				"Slow queries aren't reported by " + getClass().getName());
+	}
+
+	/**
+	 * Makes a call on the current thread and returns a summary of the file
+	 * regions it read: the offset and length of each read, whether the read
+	 * was a probe made by a binary search or read a record, the number of
+	 * sense index lines that matched and the number of synsets that were
+	 * resolved. Reads made by other threads aren't included, so the call
+	 * shouldn't hand its work to an executor.
+	 * <br><p>
+	 * The call can use any of the database's methods, for example:
+	 * <br><p>
+	 * <code>IoTrace trace = database.trace(() -&gt; database.getSynsets("run"));</code>
+	 * <br><p>
+	 * This implementation can't trace calls and always throws an exception.
+	 * 
+	 * @param  call Call to trace.
+	 * @return Summary of the reads made by the call.
+	 * @throws UnsupportedOperationException Calls can't be traced.
+	 */
+	public IoTrace trace(Runnable call)
+	{
+		throw new UnsupportedOperationException(
+				"I/O isn't traced by " + getClass().getName());
+	}
+
+	/**
+	 * Returns a builder that creates databases that read WordNet data from
+	 * files on the local file system, each with its own configuration,
+	 * caches and open files.
+	 * 
+	 * @return New builder, initialized with the default configuration.
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
 	/**
 	 * Returns an implementation of this class that can access the WordNet
 	 * database by searching files on the local file system.
 	 * <br><p>
 	 * You can specify the directory location of those files by setting the
 	 * <code>wordnet.database.dir</code> system property.
+	 * <br><p>
+	 * The same instance is returned by each call. Because it's shared by
+	 * every caller, its {@link #close()} method does nothing.
 	 * 
 	 * @return Instance of this class that can be used to read the WordNet
 	 *         database stored on the local file system.
+	 * @throws WordNetException An error occurred opening the database files.
 	 */
-	public synchronized static WordNetDatabase getFileInstance()
+	public static WordNetDatabase getFileInstance() throws WordNetException
 	{
-		if (fileInstance == null)
+		WordNetDatabase instance = fileInstance;
+		if (instance == null)
 		{
-			fileInstance = new FileDatabase();
+			INSTANCE_LOCK.lock();
+			try
+			{
+				if (fileInstance == null)
+				{
+					fileInstance = new FileDatabase();
+				}
+			}
+			finally
+			{
+				INSTANCE_LOCK.unlock();
+			}
 		}
 		return fileInstance;
 	}
 
+	/**
+	 * Creates file-based databases with a particular configuration. The
+	 * initial values of the directory and cache sizes are taken from the
+	 * same system properties that configure {@link #getFileInstance()},
+	 * the data files are mapped into memory and asynchronous lookups run
+	 * in virtual threads, so a database built without changing anything
+	 * is configured the same way as that instance but doesn't share its
+	 * caches or files.
+	 * <br><p>
+	 * A builder can be used to create any number of databases, and
+	 * instances of this class aren't safe for use by multiple threads.
+	 */
+	public static class Builder
+	{
+
+		/**
+		 * Default number of synsets and of word forms to cache.
+		 */
+		private final static int DEFAULT_CACHE_SIZE = 500;
+
+		/**
+		 * Default maximum number of slow lookups reported each minute.
+		 */
+		private final static int DEFAULT_SLOW_QUERY_LIMIT = 10;
+
+		/**
+		 * Directory that contains the database files.
+		 */
+		private File directory;
+
+		/**
+		 * Class loader whose resources contain the database files, or
+		 * <code>null</code> if they aren't read from the class path.
+		 */
+		private ClassLoader classLoader;
+
+		/**
+		 * Zip or JAR file that contains the database files, or
+		 * <code>null</code> if they aren't read from a zip file.
+		 */
+		private File zipFile;
+
+		/**
+		 * Location of the database files within the class path or zip file.
+		 */
+		private String resourcePath;
+
+		/**
+		 * Number of synsets that will be cached.
+		 */
+		private int synsetCacheSize;
+
+		/**
+		 * Number of word forms that will be cached.
+		 */
+		private int wordCacheSize;
+
+		/**
+		 * How synsets are read from the data files.
+		 */
+		private IoMode ioMode = IoMode.MEMORY_MAPPED;
+
+		/**
+		 * Executor for asynchronous lookups.
+		 */
+		private Executor executor = DEFAULT_EXECUTOR;
+
+		/**
+		 * Indicates whether the latencies of lookups are recorded.
+		 */
+		private boolean lookupMetrics;
+
+		/**
+		 * Time above which lookups are reported, or <code>null</code> if
+		 * they aren't.
+		 */
+		private Duration slowQueryThreshold;
+
+		/**
+		 * Receives the slow lookups, or <code>null</code> if they're
+		 * written to the platform logger.
+		 */
+		private SlowQueryListener slowQueryListener;
+
+		/**
+		 * Maximum number of slow lookups reported each minute.
+		 */
+		private int slowQueryLimit = DEFAULT_SLOW_QUERY_LIMIT;
+
+		/**
+		 * File in which lookups and relationship requests are recorded, or
+		 * <code>null</code> if they aren't.
+		 */
+		private Path queryLog;
+
+		/**
+		 * Constructor that initializes the configuration from the system
+		 * properties.
+		 */
+		private Builder()
+		{
+			directory = new File(System.getProperty(
+					PropertyNames.DATABASE_DIRECTORY, "."));
+			synsetCacheSize = getProperty(PropertyNames.SYNSET_CACHE_SIZE);
+			wordCacheSize = getProperty(PropertyNames.WORD_CACHE_SIZE);
+		}
+
+		/**
+		 * Returns the value of a cache size property, or the default size
+		 * if the property isn't set or isn't valid.
+		 * 
+		 * @param  propertyName Name of the system property.
+		 * @return Cache size.
+		 */
+		private static int getProperty(String propertyName)
+		{
+			String propertyValue = System.getProperty(propertyName);
+			if (propertyValue != null)
+			{
+				try
+				{
+					return Integer.parseInt(propertyValue);
+				}
+				catch (NumberFormatException nfe)
+				{
+					System.err.println("'" + propertyValue + "' is an " +
+							"invalid value for " + propertyName +
+							" and will be ignored.");
+				}
+			}
+			return DEFAULT_CACHE_SIZE;
+		}
+
+		/**
+		 * Sets the directory that contains the database files.
+		 * 
+		 * @param  directory Directory containing the database files.
+		 * @return This builder.
+		 * @throws NullPointerException The directory is <code>null</code>.
+		 */
+		public Builder directory(File directory)
+		{
+			if (directory == null)
+			{
+				throw new NullPointerException("No directory was specified");
+			}
+			this.directory = directory;
+			classLoader = null;
+			zipFile = null;
+			resourcePath = null;
+			return this;
+		}
+
+		/**
+		 * Causes the database files to be read from class path resources,
+		 * such as files packaged within the application's JAR, instead of
+		 * from a directory. Each file is read into memory the first time
+		 * it's needed, so they never need to be extracted.
+		 * 
+		 * @param  loader Class loader from which to load the resources.
+		 * @param  path Path of the resources that contain the database
+		 *         files, such as <code>wordnet/dict</code>, relative to the
+		 *         root of the class path.
+		 * @return This builder.
+		 * @throws NullPointerException The class loader or path is
+		 *         <code>null</code>.
+		 */
+		public Builder classpath(ClassLoader loader, String path)
+		{
+			if ((loader == null) || (path == null))
+			{
+				throw new NullPointerException(
+						"No class loader or path was specified");
+			}
+			classLoader = loader;
+			zipFile = null;
+			resourcePath = path;
+			return this;
+		}
+
+		/**
+		 * Causes the database files to be read from the entries of a zip
+		 * or JAR file instead of from a directory. Each entry is read into
+		 * memory the first time it's needed, so the zip file never needs
+		 * to be extracted.
+		 * 
+		 * @param  file Zip or JAR file that contains the database files.
+		 * @param  path Path of the directory within the zip file that
+		 *         contains the database files, such as <code>dict</code>.
+		 * @return This builder.
+		 * @throws NullPointerException The file or path is <code>null</code>.
+		 */
+		public Builder zip(File file, String path)
+		{
+			if ((file == null) || (path == null))
+			{
+				throw new NullPointerException(
+						"No zip file or path was specified");
+			}
+			classLoader = null;
+			zipFile = file;
+			resourcePath = path;
+			return this;
+		}
+
+		/**
+		 * Sets the number of recently used synsets to which the database
+		 * keeps strong references, so that they're available from its
+		 * cache even if the caller doesn't retain them.
+		 * 
+		 * @param  size Number of synsets to cache.
+		 * @return This builder.
+		 * @throws IllegalArgumentException The size is negative.
+		 */
+		public Builder synsetCacheSize(int size)
+		{
+			synsetCacheSize = checkSize(size);
+			return this;
+		}
+
+		/**
+		 * Sets the number of recently used word forms whose synsets are
+		 * kept in the database's cache.
+		 * 
+		 * @param  size Number of word forms to cache.
+		 * @return This builder.
+		 * @throws IllegalArgumentException The size is negative.
+		 */
+		public Builder wordCacheSize(int size)
+		{
+			wordCacheSize = checkSize(size);
+			return this;
+		}
+
+		/**
+		 * Sets how synsets are read from the data files.
+		 * 
+		 * @param  ioMode How the data files are read.
+		 * @return This builder.
+		 * @throws NullPointerException The mode is <code>null</code>.
+		 */
+		public Builder ioMode(IoMode ioMode)
+		{
+			if (ioMode == null)
+			{
+				throw new NullPointerException("No I/O mode was specified");
+			}
+			this.ioMode = ioMode;
+			return this;
+		}
+
+		/**
+		 * Sets the executor on which asynchronous lookups are run. The
+		 * database doesn't shut the executor down when it's closed.
+		 * 
+		 * @param  executor Executor for asynchronous lookups.
+		 * @return This builder.
+		 * @throws NullPointerException The executor is <code>null</code>.
+		 * @see    WordNetDatabase#getExecutor()
+		 */
+		public Builder executor(Executor executor)
+		{
+			if (executor == null)
+			{
+				throw new NullPointerException("No executor was specified");
+			}
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets whether the latencies of the stages of lookups are initially
+		 * recorded, which can be changed later with
+		 * {@link WordNetDatabase#setLookupMetricsEnabled(boolean)}. They
+		 * aren't recorded by default.
+		 * 
+		 * @param  enabled <code>true</code> if latencies should be recorded.
+		 * @return This builder.
+		 * @see    WordNetDatabase#getLookupMetrics()
+		 */
+		public Builder lookupMetrics(boolean enabled)
+		{
+			lookupMetrics = enabled;
+			return this;
+		}
+
+		/**
+		 * Sets the time above which a lookup of the synsets that contain a
+		 * word form (or a group of them) is reported to the slow query
+		 * listener, along with the work it did, such as the number of
+		 * index entries and synsets it read and the time spent in each
+		 * stage. Lookups aren't reported (or measured) by default, and the
+		 * threshold can be changed later with
+		 * {@link WordNetDatabase#setSlowQueryThreshold(Duration)}.
+		 * 
+		 * @param  threshold Time above which lookups are reported, or
+		 *         <code>null</code> if they shouldn't be.
+		 * @return This builder.
+		 * @throws IllegalArgumentException The threshold is negative.
+		 * @see    SlowQuery
+		 */
+		public Builder slowQueryThreshold(Duration threshold)
+		{
+			if ((threshold != null) && (threshold.isNegative()))
+			{
+				throw new IllegalArgumentException(
+						"Invalid threshold: " + threshold);
+			}
+			slowQueryThreshold = threshold;
+			return this;
+		}
+
+		/**
+		 * Sets the listener to which slow lookups are reported. By default
+		 * they're written to the <code>edu.smu.tspell.jaws.SlowQuery</code>
+		 * {@link System.Logger}.
+		 * 
+		 * @param  listener Receives the slow lookups, or <code>null</code>
+		 *         to use the platform logger.
+		 * @return This builder.
+		 */
+		public Builder slowQueryListener(SlowQueryListener listener)
+		{
+			slowQueryListener = listener;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of slow lookups reported each minute,
+		 * which is 10 by default. Lookups beyond the limit are counted and
+		 * the count is included in the next report.
+		 * 
+		 * @param  limit Maximum number of reports each minute.
+		 * @return This builder.
+		 * @throws IllegalArgumentException The limit is negative.
+		 */
+		public Builder slowQueryLimit(int limit)
+		{
+			if (limit < 0)
+			{
+				throw new IllegalArgumentException(
+						"Invalid slow query limit: " + limit);
+			}
+			slowQueryLimit = limit;
+			return this;
+		}
+
+		/**
+		 * Sets the file in which the database records the lookups made
+		 * through its public methods and the relationships requested from
+		 * its synsets, along with the time of each, so that the same
+		 * traffic can later be replayed against another configuration.
+		 * The file is replaced if it exists, and it's complete once the
+		 * database has been closed. Nothing is recorded by default.
+		 * 
+		 * @param  file File in which to record the calls, or
+		 *         <code>null</code> if they shouldn't be recorded.
+		 * @return This builder.
+		 * @see    edu.smu.tspell.wordnet.impl.file.QueryLogReader
+		 */
+		public Builder queryLog(Path file)
+		{
+			queryLog = file;
+			return this;
+		}
+
+		/**
+		 * Returns the directory that contains the database files.
+		 * 
+		 * @return Directory containing the database files.
+		 */
+		public File getDirectory()
+		{
+			return directory;
+		}
+
+		/**
+		 * Returns the class loader from whose resources the database files
+		 * will be read.
+		 * 
+		 * @return Class loader, or <code>null</code> if the files aren't
+		 *         read from the class path.
+		 */
+		public ClassLoader getClassLoader()
+		{
+			return classLoader;
+		}
+
+		/**
+		 * Returns the zip file from which the database files will be read.
+		 * 
+		 * @return Zip file, or <code>null</code> if the files aren't read
+		 *         from a zip file.
+		 */
+		public File getZipFile()
+		{
+			return zipFile;
+		}
+
+		/**
+		 * Returns the location of the database files within the class path
+		 * or zip file.
+		 * 
+		 * @return Path of the database files, or <code>null</code> if they're
+		 *         read from a directory.
+		 */
+		public String getResourcePath()
+		{
+			return resourcePath;
+		}
+
+		/**
+		 * Returns the number of synsets that will be cached.
+		 * 
+		 * @return Synset cache size.
+		 */
+		public int getSynsetCacheSize()
+		{
+			return synsetCacheSize;
+		}
+
+		/**
+		 * Returns the number of word forms that will be cached.
+		 * 
+		 * @return Word form cache size.
+		 */
+		public int getWordCacheSize()
+		{
+			return wordCacheSize;
+		}
+
+		/**
+		 * Returns how synsets will be read from the data files.
+		 * 
+		 * @return How the data files are read.
+		 */
+		public IoMode getIoMode()
+		{
+			return ioMode;
+		}
+
+		/**
+		 * Returns the executor on which asynchronous lookups will be run.
+		 * 
+		 * @return Executor for asynchronous lookups.
+		 */
+		public Executor getExecutor()
+		{
+			return executor;
+		}
+
+		/**
+		 * Indicates whether the latencies of lookups will initially be
+		 * recorded.
+		 * 
+		 * @return <code>true</code> if lookup metrics will be enabled.
+		 */
+		public boolean isLookupMetricsEnabled()
+		{
+			return lookupMetrics;
+		}
+
+		/**
+		 * Returns the time above which lookups will be reported.
+		 * 
+		 * @return Threshold, or <code>null</code> if lookups won't be
+		 *         reported.
+		 */
+		public Duration getSlowQueryThreshold()
+		{
+			return slowQueryThreshold;
+		}
+
+		/**
+		 * Returns the listener to which slow lookups will be reported.
+		 * 
+		 * @return Listener, or <code>null</code> if they'll be written to
+		 *         the platform logger.
+		 */
+		public SlowQueryListener getSlowQueryListener()
+		{
+			return slowQueryListener;
+		}
+
+		/**
+		 * Returns the maximum number of slow lookups reported each minute.
+		 * 
+		 * @return Maximum number of reports each minute.
+		 */
+		public int getSlowQueryLimit()
+		{
+			return slowQueryLimit;
+		}
+
+		/**
+		 * Returns the file in which lookups and relationship requests are
+		 * recorded.
+		 * 
+		 * @return File, or <code>null</code> if calls aren't recorded.
+		 */
+		public Path getQueryLog()
+		{
+			return queryLog;
+		}
+
+		/**
+		 * Creates a database with this builder's configuration and opens
+		 * its files.
+		 * 
+		 * @return New database, which should be closed when it's no longer
+		 *         needed.
+		 * @throws WordNetException An error occurred opening the files.
+		 */
+		public WordNetDatabase build() throws WordNetException
+		{
+			return new FileDatabase(this);
+		}
+
+		/**
+		 * Ensures that a cache size isn't negative.
+		 * 
+		 * @param  size Cache size.
+		 * @return The cache size.
+		 * @throws IllegalArgumentException The size is negative.
+		 */
+		private static int checkSize(int size)
+		{
+			if (size < 0)
+			{
+				throw new IllegalArgumentException(
+						"Invalid cache size: " + size);
+			}
+			return size;
+		}
+
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,553 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import edu.smu.tspell.wordnet.impl.file.SynsetGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Computes graph-based relatedness using personalized PageRank over the
+ * entire WordNet graph, in the style of the UKB system. The random surfer
+ * follows the relationships (of all types) between synsets and, with a
+ * probability of one minus the damping factor, jumps back to one of the
+ * synsets of the seed words. The resulting stationary distribution ranks
+ * every synset by its relatedness to the seed words.
+ * <br><p>
+ * The transition matrix is built once, when an instance of this class is
+ * created, as a sparse matrix over primitive arrays, and every ranking
+ * performed by that instance reuses it. Power iteration is performed on
+ * primitive <code>float</code> vectors and each iteration is split across
+ * the processors of the machine. When several seed sets are ranked at once
+ * (see {@link #rank(List, int)}), their vectors are interleaved and advanced
+ * together so that each pass over the matrix serves the whole batch.
+ * <br><p>
+ * Instances of this class are safe for use by multiple threads, although
+ * the parameter setters should be called before the instance is shared.
+ *
+ * @see <a href="https://aclanthology.org/E09-1005/">Agirre, E. and Soroa, A.
+ *      "Personalizing PageRank for Word Sense Disambiguation"</a>
+ */
+public class PersonalizedPageRank
+{
+
+	/**
+	 * Default probability of following a relationship instead of jumping
+	 * back to a seed synset.
+	 */
+	public final static float DEFAULT_DAMPING_FACTOR = 0.85f;
+
+	/**
+	 * Default maximum number of power iterations.
+	 */
+	public final static int DEFAULT_MAXIMUM_ITERATIONS = 30;
+
+	/**
+	 * Default convergence threshold for the L1 norm of the change in a rank
+	 * vector between two iterations.
+	 */
+	public final static float DEFAULT_TOLERANCE = 1.0e-6f;
+
+	/**
+	 * Largest number of seed sets that are advanced together.
+	 */
+	private final static int BATCH_SIZE = 8;
+
+	/**
+	 * Number of synsets processed together by one parallel task.
+	 */
+	private final static int CHUNK_SIZE = 4096;
+
+	/**
+	 * Used to find the synsets of the seed words.
+	 */
+	private WordNetDatabase database;
+
+	/**
+	 * Graph from which the matrix was built.
+	 */
+	private SynsetGraph graph;
+
+	/**
+	 * Number of synsets (rows / columns of the matrix).
+	 */
+	private int size;
+
+	/**
+	 * Position of the first incoming edge of each synset.
+	 */
+	private int[] incomingOffsets;
+
+	/**
+	 * Source synset of each incoming edge.
+	 */
+	private int[] incomingSources;
+
+	/**
+	 * Transition probability for each edge leaving a synset, which is the
+	 * reciprocal of the synset's out-degree (zero for dangling synsets).
+	 */
+	private float[] outgoingWeights;
+
+	/**
+	 * Synsets without outgoing edges, whose rank is redistributed to the
+	 * seed synsets.
+	 */
+	private int[] danglingSynsets;
+
+	/**
+	 * Probability of following a relationship.
+	 */
+	private float dampingFactor = DEFAULT_DAMPING_FACTOR;
+
+	/**
+	 * Maximum number of power iterations.
+	 */
+	private int maximumIterations = DEFAULT_MAXIMUM_ITERATIONS;
+
+	/**
+	 * Convergence threshold.
+	 */
+	private float tolerance = DEFAULT_TOLERANCE;
+
+	/**
+	 * Constructor that accepts the database from which seed synsets are
+	 * retrieved and which builds the transition matrix.
+	 *
+	 * @param  database Database used to look up the synsets of seed words,
+	 *         whose graph is ranked.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the graph.
+	 * @see    SynsetGraph#getInstance(WordNetDatabase)
+	 */
+	public PersonalizedPageRank(WordNetDatabase database)
+			throws WordNetException
+	{
+		this.database = database;
+		this.graph = SynsetGraph.getInstance(database);
+		buildMatrix();
+	}
+
+	/**
+	 * Sets the probability of following a relationship instead of jumping
+	 * back to a seed synset.
+	 *
+	 * @param  dampingFactor Value between zero and one (exclusive).
+	 */
+	public void setDampingFactor(float dampingFactor)
+	{
+		if ((dampingFactor <= 0) || (dampingFactor >= 1))
+		{
+			throw new IllegalArgumentException(
+					"Damping factor must be between 0 and 1: " + dampingFactor);
+		}
+		this.dampingFactor = dampingFactor;
+	}
+
+	/**
+	 * Sets the maximum number of power iterations.
+	 *
+	 * @param  maximumIterations Maximum number of iterations.
+	 */
+	public void setMaximumIterations(int maximumIterations)
+	{
+		this.maximumIterations = maximumIterations;
+	}
+
+	/**
+	 * Sets the convergence threshold for the L1 norm of the change in a rank
+	 * vector between two iterations.
+	 *
+	 * @param  tolerance Convergence threshold.
+	 */
+	public void setTolerance(float tolerance)
+	{
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Returns the synsets that are most related to a set of seed words.
+	 *
+	 * @param  words Seed words.
+	 * @param  limit Maximum number of synsets to return.
+	 * @return Highest ranked synsets in descending order of score; empty if
+	 *         none of the seed words are found in WordNet or the limit is
+	 *         zero.
+	 * @throws IllegalArgumentException The limit is negative.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public RankedSynset[] rank(Collection<String> words, int limit)
+			throws WordNetException
+	{
+		return rank(Collections.singletonList(words), limit).get(0);
+	}
+
+	/**
+	 * Ranks several sets of seed words, reusing the transition matrix and
+	 * advancing up to eight seed sets together through each pass over it.
+	 *
+	 * @param  seedSets Sets of seed words.
+	 * @param  limit Maximum number of synsets to return for each seed set.
+	 * @return Highest ranked synsets for each seed set, in the same order
+	 *         as the seed sets; each is empty if the limit is zero.
+	 * @throws IllegalArgumentException The limit is negative.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public List<RankedSynset[]> rank(
+			List<? extends Collection<String>> seedSets, int limit)
+			throws WordNetException
+	{
+		if (limit < 0)
+		{
+			throw new IllegalArgumentException("Invalid limit: " + limit);
+		}
+		List<RankedSynset[]> results = new ArrayList<>(seedSets.size());
+		if (limit == 0)
+		{
+			//  Nothing would be returned, so the ranks aren't computed
+			for (int i = 0; i < seedSets.size(); i++)
+			{
+				results.add(new RankedSynset[0]);
+			}
+			return results;
+		}
+		for (float[] vector : getRankVectors(seedSets))
+		{
+			results.add(getTopSynsets(vector, limit));
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the relatedness of two words, which is the cosine similarity
+	 * of the rank vectors obtained by using each word as the only seed.
+	 *
+	 * @param  word1 First word.
+	 * @param  word2 Second word.
+	 * @return Value between zero (unrelated or not found) and one.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public double getRelatedness(String word1, String word2)
+			throws WordNetException
+	{
+		List<float[]> vectors = getRankVectors(Arrays.asList(
+				Collections.singleton(word1), Collections.singleton(word2)));
+		float[] first = vectors.get(0);
+		float[] second = vectors.get(1);
+		double product = 0;
+		double firstNorm = 0;
+		double secondNorm = 0;
+		for (int i = 0; i < size; i++)
+		{
+			product += (double)first[i] * second[i];
+			firstNorm += (double)first[i] * first[i];
+			secondNorm += (double)second[i] * second[i];
+		}
+		return ((firstNorm > 0) && (secondNorm > 0) ?
+				product / Math.sqrt(firstNorm * secondNorm) : 0);
+	}
+
+	/**
+	 * Returns the full rank vector for each set of seed words, indexed by
+	 * synset identifier (see {@link SynsetGraph}).
+	 *
+	 * @param  seedSets Sets of seed words.
+	 * @return Rank vector for each seed set; the vector for a seed set none
+	 *         of whose words are found contains only zeroes.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public List<float[]> getRankVectors(
+			List<? extends Collection<String>> seedSets)
+			throws WordNetException
+	{
+		List<float[]> vectors = new ArrayList<>(seedSets.size());
+		for (int start = 0; start < seedSets.size(); start += BATCH_SIZE)
+		{
+			int end = Math.min(start + BATCH_SIZE, seedSets.size());
+			vectors.addAll(iterate(seedSets.subList(start, end)));
+		}
+		return vectors;
+	}
+
+	/**
+	 * Builds the transposed (incoming edge) form of the graph, which allows
+	 * each synset's new rank to be computed independently of the others.
+	 */
+	private void buildMatrix()
+	{
+		size = graph.getSynsetCount();
+		int[] edgeOffsets = graph.getEdgeOffsets();
+		int[] edgeTargets = graph.getEdgeTargets();
+
+		outgoingWeights = new float[size];
+		int danglingCount = 0;
+		for (int i = 0; i < size; i++)
+		{
+			int degree = edgeOffsets[i + 1] - edgeOffsets[i];
+			if (degree > 0)
+			{
+				outgoingWeights[i] = 1.0f / degree;
+			}
+			else
+			{
+				danglingCount++;
+			}
+		}
+		danglingSynsets = new int[danglingCount];
+		danglingCount = 0;
+		for (int i = 0; i < size; i++)
+		{
+			if (outgoingWeights[i] == 0)
+			{
+				danglingSynsets[danglingCount++] = i;
+			}
+		}
+
+		incomingOffsets = new int[size + 1];
+		for (int target : edgeTargets)
+		{
+			incomingOffsets[target + 1]++;
+		}
+		for (int i = 0; i < size; i++)
+		{
+			incomingOffsets[i + 1] += incomingOffsets[i];
+		}
+		incomingSources = new int[edgeTargets.length];
+		int[] positions = Arrays.copyOf(incomingOffsets, size);
+		for (int source = 0; source < size; source++)
+		{
+			for (int e = edgeOffsets[source]; e < edgeOffsets[source + 1]; e++)
+			{
+				incomingSources[positions[edgeTargets[e]]++] = source;
+			}
+		}
+	}
+
+	/**
+	 * Runs power iteration for a batch of seed sets. The vectors of the
+	 * batch are interleaved so that element <i>j</i> of the vector for
+	 * synset <i>n</i> is stored at position <i>n * batch + j</i>.
+	 *
+	 * @param  seedSets Seed sets in the batch.
+	 * @return Rank vector for each seed set.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	private List<float[]> iterate(List<? extends Collection<String>> seedSets)
+			throws WordNetException
+	{
+		final int batch = seedSets.size();
+		final float[] personalization = new float[size * batch];
+		for (int j = 0; j < batch; j++)
+		{
+			addSeeds(seedSets.get(j), personalization, batch, j);
+		}
+		float[] rank = personalization.clone();
+		float[] next = new float[size * batch];
+		final float[] scaled = new float[size * batch];
+		final float[] jumps = new float[batch];
+		final float[] changes = new float[batch];
+		final int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+		for (int iteration = 0; iteration < maximumIterations; iteration++)
+		{
+			final float[] current = rank;
+			final float[] updated = next;
+			//  Rank that flows along each outgoing edge of each synset
+			IntStream.range(0, chunks).parallel().forEach(chunk ->
+			{
+				int end = Math.min((chunk + 1) * CHUNK_SIZE, size);
+				for (int i = chunk * CHUNK_SIZE; i < end; i++)
+				{
+					float weight = outgoingWeights[i];
+					for (int j = 0; j < batch; j++)
+					{
+						scaled[i * batch + j] = current[i * batch + j] * weight;
+					}
+				}
+			});
+			//  Dangling rank and the random jump both return to the seeds
+			for (int j = 0; j < batch; j++)
+			{
+				float dangling = 0;
+				for (int i : danglingSynsets)
+				{
+					dangling += current[i * batch + j];
+				}
+				jumps[j] = (dampingFactor * dangling) + (1 - dampingFactor);
+			}
+			//  Gather the incoming rank of each synset
+			float[][] chunkChanges = new float[chunks][];
+			IntStream.range(0, chunks).parallel().forEach(chunk ->
+			{
+				float[] change = new float[batch];
+				int end = Math.min((chunk + 1) * CHUNK_SIZE, size);
+				for (int i = chunk * CHUNK_SIZE; i < end; i++)
+				{
+					int base = i * batch;
+					for (int j = 0; j < batch; j++)
+					{
+						updated[base + j] = jumps[j] * personalization[base + j];
+					}
+					for (int e = incomingOffsets[i];
+							e < incomingOffsets[i + 1]; e++)
+					{
+						int source = incomingSources[e] * batch;
+						for (int j = 0; j < batch; j++)
+						{
+							updated[base + j] +=
+									dampingFactor * scaled[source + j];
+						}
+					}
+					for (int j = 0; j < batch; j++)
+					{
+						change[j] += Math.abs(
+								updated[base + j] - current[base + j]);
+					}
+				}
+				chunkChanges[chunk] = change;
+			});
+			rank = updated;
+			next = current;
+			//  Stop once every vector in the batch has converged
+			Arrays.fill(changes, 0);
+			for (float[] change : chunkChanges)
+			{
+				for (int j = 0; j < batch; j++)
+				{
+					changes[j] += change[j];
+				}
+			}
+			boolean converged = true;
+			for (float change : changes)
+			{
+				converged &= (change < tolerance);
+			}
+			if (converged)
+			{
+				break;
+			}
+		}
+
+		List<float[]> vectors = new ArrayList<>(batch);
+		for (int j = 0; j < batch; j++)
+		{
+			float[] vector = new float[size];
+			for (int i = 0; i < size; i++)
+			{
+				vector[i] = rank[i * batch + j];
+			}
+			vectors.add(vector);
+		}
+		return vectors;
+	}
+
+	/**
+	 * Stores the personalization (jump) probabilities for a seed set. Each
+	 * word found in WordNet receives an equal share of the probability,
+	 * which is divided equally between the word's synsets.
+	 *
+	 * @param  words Seed words.
+	 * @param  personalization Interleaved personalization vectors.
+	 * @param  batch Number of vectors in the batch.
+	 * @param  column Position of this seed set's vector in the batch.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	private void addSeeds(Collection<String> words, float[] personalization,
+			int batch, int column) throws WordNetException
+	{
+		List<int[]> wordSynsets = new ArrayList<>();
+		for (String word : words)
+		{
+			Synset[] synsets = database.getSynsets(word);
+			int[] ids = new int[synsets.length];
+			int count = 0;
+			for (Synset synset : synsets)
+			{
+				int id = graph.getId(synset);
+				if (id >= 0)
+				{
+					ids[count++] = id;
+				}
+			}
+			if (count > 0)
+			{
+				wordSynsets.add(Arrays.copyOf(ids, count));
+			}
+		}
+		for (int[] ids : wordSynsets)
+		{
+			float weight = 1.0f / (wordSynsets.size() * ids.length);
+			for (int id : ids)
+			{
+				personalization[id * batch + column] += weight;
+			}
+		}
+	}
+
+	/**
+	 * Returns the highest ranked synsets in a rank vector.
+	 *
+	 * @param  vector Rank vector indexed by synset identifier.
+	 * @param  limit Maximum number of synsets to return.
+	 * @return Highest ranked synsets in descending order of score.
+	 * @throws WordNetException An error occurred reading the synsets.
+	 */
+	private RankedSynset[] getTopSynsets(float[] vector, int limit)
+			throws WordNetException
+	{
+		PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1,
+				(a, b) -> Float.compare(vector[a], vector[b]));
+		for (int i = 0; i < vector.length; i++)
+		{
+			if ((vector[i] > 0) && ((top.size() < limit) ||
+					(vector[i] > vector[top.peek()])))
+			{
+				top.add(i);
+				if (top.size() > limit)
+				{
+					top.poll();
+				}
+			}
+		}
+		RankedSynset[] ranked = new RankedSynset[top.size()];
+		for (int i = ranked.length - 1; i >= 0; i--)
+		{
+			int id = top.poll();
+			ranked[i] = new RankedSynset(graph.getSynset(id), vector[id]);
+		}
+		return ranked;
+	}
+
+}
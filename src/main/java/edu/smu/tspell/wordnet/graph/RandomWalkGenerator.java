@@ -0,0 +1,548 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import edu.smu.tspell.wordnet.impl.file.RelationshipType;
+import edu.smu.tspell.wordnet.impl.file.SynsetGraph;
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates random walks over the WordNet graph, such as those used to
+ * train synset embeddings (DeepWalk, node2vec and similar methods). Each
+ * walk begins at a synset and repeatedly follows one of the current
+ * synset's relationships, chosen with a probability proportional to the
+ * weight assigned to its type, until the walk reaches the requested length
+ * or a synset without any relationships that have a non-zero weight.
+ * <br><p>
+ * Walks are generated directly from the primitive adjacency arrays of the
+ * graph and written to a channel as lines of text, one walk per line, with
+ * each synset represented by its identifier or by a sense key. The work is
+ * divided into tasks that each cover a range of starting synsets, the tasks
+ * are run in parallel, and the output of each task is assembled in a buffer
+ * that's reused, so no objects are created for the individual steps.
+ * <br><p>
+ * Each task uses its own random number generator, seeded from the
+ * generator's seed and the task's position, so the output is identical for
+ * a given seed regardless of the number of threads that produced it.
+ */
+public class RandomWalkGenerator
+{
+
+	/**
+	 * Represents the way in which synsets are written.
+	 */
+	public enum Label
+	{
+
+		/**
+		 * The synset's identifier within the graph.
+		 */
+		IDENTIFIER,
+
+		/**
+		 * The sense key of the synset's most frequently tagged word form,
+		 * e.g., <code>dog%1:05:00::</code>.
+		 */
+		SENSE_KEY
+
+	}
+
+	/**
+	 * Default number of synsets in each walk.
+	 */
+	public final static int DEFAULT_WALK_LENGTH = 40;
+
+	/**
+	 * Default number of walks that begin at each synset.
+	 */
+	public final static int DEFAULT_WALKS_PER_SYNSET = 10;
+
+	/**
+	 * Number of starting synsets processed by one task.
+	 */
+	private final static int CHUNK_SIZE = 1024;
+
+	/**
+	 * Number of tasks whose output is held in memory at one time for each
+	 * available processor.
+	 */
+	private final static int TASKS_PER_PROCESSOR = 4;
+
+	/**
+	 * Used to derive independent seeds for each task.
+	 */
+	private final static long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Graph over which the walks are performed.
+	 */
+	private SynsetGraph graph;
+
+	/**
+	 * Weight of each relationship type, indexed like
+	 * {@link RelationshipType#ALL_TYPES}.
+	 */
+	private float[] weights = new float[RelationshipType.ALL_TYPES.length];
+
+	/**
+	 * Cumulative weight of each synset's outgoing edges, restarting at zero
+	 * for each synset; calculated when it's first needed after the weights
+	 * have changed.
+	 */
+	private volatile float[] cumulativeWeights;
+
+	/**
+	 * Number of synsets in each walk.
+	 */
+	private int walkLength = DEFAULT_WALK_LENGTH;
+
+	/**
+	 * Number of walks that begin at each synset.
+	 */
+	private int walksPerSynset = DEFAULT_WALKS_PER_SYNSET;
+
+	/**
+	 * Seed for the random number generators.
+	 */
+	private long seed;
+
+	/**
+	 * Way in which synsets are written.
+	 */
+	private Label label = Label.IDENTIFIER;
+
+	/**
+	 * No-argument constructor that loads the graph of the default database
+	 * and assigns the same weight to every type of relationship.
+	 *
+	 * @throws WordNetException An error occurred reading the graph.
+	 */
+	public RandomWalkGenerator() throws WordNetException
+	{
+		this(SynsetGraph.getInstance());
+	}
+
+	/**
+	 * Constructor that loads the graph of a database and assigns the same
+	 * weight to every type of relationship.
+	 *
+	 * @param  database Database over whose graph the walks are performed.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the graph.
+	 * @see    SynsetGraph#getInstance(WordNetDatabase)
+	 */
+	public RandomWalkGenerator(WordNetDatabase database)
+			throws WordNetException
+	{
+		this(SynsetGraph.getInstance(database));
+	}
+
+	/**
+	 * Constructor that accepts the graph and assigns the same weight to
+	 * every type of relationship.
+	 *
+	 * @param  graph Graph over which the walks are performed.
+	 */
+	private RandomWalkGenerator(SynsetGraph graph)
+	{
+		this.graph = graph;
+		Arrays.fill(weights, 1.0f);
+	}
+
+	/**
+	 * Sets the weight of a type of relationship. Relationships with a weight
+	 * of zero are never followed.
+	 *
+	 * @param  relation Type of relationship.
+	 * @param  weight Non-negative weight.
+	 */
+	public synchronized void setWeight(Relation relation, float weight)
+	{
+		if (!(weight >= 0))
+		{
+			throw new IllegalArgumentException("Invalid weight: " + weight);
+		}
+		weights[relation.getIndex()] = weight;
+		cumulativeWeights = null;
+	}
+
+	/**
+	 * Returns the weight of a type of relationship.
+	 *
+	 * @param  relation Type of relationship.
+	 * @return Weight of the relationship.
+	 */
+	public synchronized float getWeight(Relation relation)
+	{
+		return weights[relation.getIndex()];
+	}
+
+	/**
+	 * Sets the number of synsets in each walk, including the first.
+	 *
+	 * @param  walkLength Walk length, which must be at least two.
+	 */
+	public void setWalkLength(int walkLength)
+	{
+		if (walkLength < 2)
+		{
+			throw new IllegalArgumentException(
+					"Invalid walk length: " + walkLength);
+		}
+		this.walkLength = walkLength;
+	}
+
+	/**
+	 * Sets the number of walks that begin at each synset.
+	 *
+	 * @param  walksPerSynset Number of walks per synset, which must be
+	 *         positive.
+	 */
+	public void setWalksPerSynset(int walksPerSynset)
+	{
+		if (walksPerSynset < 1)
+		{
+			throw new IllegalArgumentException(
+					"Invalid number of walks per synset: " + walksPerSynset);
+		}
+		this.walksPerSynset = walksPerSynset;
+	}
+
+	/**
+	 * Sets the seed for the random number generators.
+	 *
+	 * @param  seed Seed value.
+	 */
+	public void setSeed(long seed)
+	{
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the way in which synsets are written.
+	 *
+	 * @param  label Type of label written for each synset.
+	 */
+	public void setLabel(Label label)
+	{
+		this.label = label;
+	}
+
+	/**
+	 * Performs a single walk.
+	 *
+	 * @param  start Identifier of the synset at which the walk begins.
+	 * @param  random Source of random numbers.
+	 * @param  path Receives the identifiers of the synsets visited; its
+	 *         length is the maximum length of the walk.
+	 * @return Number of synsets visited, which is at least one.
+	 */
+	public int walk(int start, SplittableRandom random, int[] path)
+	{
+		return walk(start, random, path, path.length, getCumulativeWeights());
+	}
+
+	/**
+	 * Generates walks that begin at every synset and writes them to a
+	 * channel, one walk per line, with the synsets separated by spaces.
+	 * Walks that can't leave their first synset aren't written.
+	 *
+	 * @param  channel Channel to which the walks are written.
+	 * @return Number of walks written.
+	 * @throws IOException An error occurred writing to the channel.
+	 * @throws WordNetException An error occurred reading the sense keys.
+	 */
+	public long generate(WritableByteChannel channel)
+			throws IOException, WordNetException
+	{
+		final float[] cumulative = getCumulativeWeights();
+		final byte[][] labels = createLabels();
+		final int synsetCount = graph.getSynsetCount();
+		final int chunksPerRound = (synsetCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		final int taskCount = chunksPerRound * walksPerSynset;
+		final int waveSize = TASKS_PER_PROCESSOR *
+				Runtime.getRuntime().availableProcessors();
+		final WalkBuffer[] buffers = new WalkBuffer[waveSize];
+		for (int i = 0; i < waveSize; i++)
+		{
+			buffers[i] = new WalkBuffer(walkLength);
+		}
+
+		long walkCount = 0;
+		for (int wave = 0; wave < taskCount; wave += waveSize)
+		{
+			final int first = wave;
+			final int count = Math.min(waveSize, taskCount - wave);
+			//  Generate a wave of tasks in parallel, then write them in order
+			IntStream.range(0, count).parallel().forEach(slot ->
+			{
+				int task = first + slot;
+				int start = (task % chunksPerRound) * CHUNK_SIZE;
+				int end = Math.min(start + CHUNK_SIZE, synsetCount);
+				SplittableRandom random =
+						new SplittableRandom(seed + task * SEED_INCREMENT);
+				buffers[slot].fill(start, end, random, cumulative, labels);
+			});
+			for (int slot = 0; slot < count; slot++)
+			{
+				walkCount += buffers[slot].write(channel);
+			}
+		}
+		return walkCount;
+	}
+
+	/**
+	 * Performs a single walk using a particular set of cumulative weights.
+	 *
+	 * @param  start Identifier of the synset at which the walk begins.
+	 * @param  random Source of random numbers.
+	 * @param  path Receives the identifiers of the synsets visited.
+	 * @param  length Maximum number of synsets to visit.
+	 * @param  cumulative Cumulative edge weights.
+	 * @return Number of synsets visited.
+	 */
+	private int walk(int start, SplittableRandom random, int[] path,
+			int length, float[] cumulative)
+	{
+		int[] edgeOffsets = graph.getEdgeOffsets();
+		int[] edgeTargets = graph.getEdgeTargets();
+		int current = start;
+		path[0] = current;
+		int steps = 1;
+		while (steps < length)
+		{
+			int low = edgeOffsets[current];
+			int high = edgeOffsets[current + 1];
+			if ((low == high) || (cumulative[high - 1] == 0))
+			{
+				break;
+			}
+			//  Kept below the total so that a trailing zero-weight edge can't
+			//  be chosen when the product rounds up
+			double total = cumulative[high - 1];
+			double target = Math.min(random.nextDouble() * total,
+					Math.nextDown(total));
+			//  Find the first edge whose cumulative weight exceeds the target
+			high--;
+			while (low < high)
+			{
+				int middle = (low + high) >>> 1;
+				if (cumulative[middle] > target)
+				{
+					high = middle;
+				}
+				else
+				{
+					low = middle + 1;
+				}
+			}
+			current = edgeTargets[low];
+			path[steps++] = current;
+		}
+		return steps;
+	}
+
+	/**
+	 * Returns the cumulative weight of each synset's outgoing edges,
+	 * calculating them if the weights have changed.
+	 *
+	 * @return Cumulative edge weights.
+	 */
+	private synchronized float[] getCumulativeWeights()
+	{
+		float[] cumulative = cumulativeWeights;
+		if (cumulative == null)
+		{
+			int[] edgeOffsets = graph.getEdgeOffsets();
+			byte[] relationships = graph.getEdgeRelationships();
+			cumulative = new float[relationships.length];
+			for (int i = 0; i < graph.getSynsetCount(); i++)
+			{
+				float total = 0;
+				for (int e = edgeOffsets[i]; e < edgeOffsets[i + 1]; e++)
+				{
+					total += weights[relationships[e]];
+					cumulative[e] = total;
+				}
+			}
+			cumulativeWeights = cumulative;
+		}
+		return cumulative;
+	}
+
+	/**
+	 * Creates the text written for each synset.
+	 *
+	 * @return Encoded labels indexed by synset identifier.
+	 * @throws WordNetException An error occurred reading the sense keys.
+	 */
+	private byte[][] createLabels() throws WordNetException
+	{
+		int synsetCount = graph.getSynsetCount();
+		byte[][] labels = new byte[synsetCount][];
+		int[] senseOffsets = null;
+		String[] senseKeys = null;
+		int[] tagCounts = null;
+		if (label == Label.SENSE_KEY)
+		{
+			senseOffsets = graph.getSenseOffsets();
+			senseKeys = graph.getSenseKeys();
+			tagCounts = graph.getSenseTagCounts();
+		}
+		for (int i = 0; i < synsetCount; i++)
+		{
+			String text = Integer.toString(i);
+			if ((senseOffsets != null) &&
+					(senseOffsets[i] < senseOffsets[i + 1]))
+			{
+				int best = senseOffsets[i];
+				for (int s = best + 1; s < senseOffsets[i + 1]; s++)
+				{
+					if (tagCounts[s] > tagCounts[best])
+					{
+						best = s;
+					}
+				}
+				text = senseKeys[best];
+			}
+			labels[i] = text.getBytes(StandardCharsets.ISO_8859_1);
+		}
+		return labels;
+	}
+
+	/**
+	 * Holds the walks generated by one task until they're written, and is
+	 * reused by successive tasks.
+	 */
+	private class WalkBuffer
+	{
+
+		/**
+		 * Encoded walks.
+		 */
+		private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+		/**
+		 * Receives the synsets visited by each walk.
+		 */
+		private int[] path;
+
+		/**
+		 * Number of walks in the buffer.
+		 */
+		private int walkCount;
+
+		/**
+		 * Constructor that accepts the maximum length of a walk.
+		 *
+		 * @param  walkLength Maximum number of synsets in a walk.
+		 */
+		public WalkBuffer(int walkLength)
+		{
+			path = new int[walkLength];
+		}
+
+		/**
+		 * Replaces the contents of the buffer with walks that begin at a
+		 * range of synsets.
+		 *
+		 * @param  start First starting synset (inclusive).
+		 * @param  end Last starting synset (exclusive).
+		 * @param  random Source of random numbers.
+		 * @param  cumulative Cumulative edge weights.
+		 * @param  labels Encoded synset labels.
+		 */
+		public void fill(int start, int end, SplittableRandom random,
+				float[] cumulative, byte[][] labels)
+		{
+			buffer.clear();
+			walkCount = 0;
+			for (int i = start; i < end; i++)
+			{
+				int length = walk(i, random, path, path.length, cumulative);
+				if (length > 1)
+				{
+					for (int s = 0; s < length; s++)
+					{
+						byte[] text = labels[path[s]];
+						ensureCapacity(text.length + 1);
+						buffer.put(text);
+						buffer.put((byte)(s < length - 1 ? ' ' : '\n'));
+					}
+					walkCount++;
+				}
+			}
+			buffer.flip();
+		}
+
+		/**
+		 * Writes the contents of the buffer to a channel.
+		 *
+		 * @param  channel Channel to which the walks are written.
+		 * @return Number of walks written.
+		 * @throws IOException An error occurred writing to the channel.
+		 */
+		public int write(WritableByteChannel channel) throws IOException
+		{
+			while (buffer.hasRemaining())
+			{
+				channel.write(buffer);
+			}
+			return walkCount;
+		}
+
+		/**
+		 * Ensures that a number of bytes can be added to the buffer.
+		 *
+		 * @param  required Number of bytes about to be added.
+		 */
+		private void ensureCapacity(int required)
+		{
+			if (buffer.remaining() < required)
+			{
+				ByteBuffer larger = ByteBuffer.allocate(
+						Math.max(buffer.capacity() * 2,
+						buffer.position() + required));
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.api.Synset;
+
+/**
+ * Associates a synset with the score it was assigned by a ranking algorithm.
+ */
+public class RankedSynset
+{
+
+	/**
+	 * Synset that was ranked.
+	 */
+	private Synset synset;
+
+	/**
+	 * Score assigned to the synset.
+	 */
+	private float score;
+
+	/**
+	 * Constructor that accepts a synset and its score.
+	 *
+	 * @param  synset Synset that was ranked.
+	 * @param  score Score assigned to the synset.
+	 */
+	public RankedSynset(Synset synset, float score)
+	{
+		this.synset = synset;
+		this.score = score;
+	}
+
+	/**
+	 * Returns the synset that was ranked.
+	 *
+	 * @return Synset that was ranked.
+	 */
+	public Synset getSynset()
+	{
+		return synset;
+	}
+
+	/**
+	 * Returns the score assigned to the synset.
+	 *
+	 * @return Score assigned to the synset.
+	 */
+	public float getScore()
+	{
+		return score;
+	}
+
+	/**
+	 * Returns a string representation of this object.
+	 *
+	 * @return String representation of this object.
+	 */
+	public String toString()
+	{
+		return getScore() + " " + getSynset();
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.impl.file.RelationshipType;
+
+/**
+ * Identifies the types of relationship (pointer) that connect the synsets
+ * of the WordNet graph, so that graph algorithms can select or weight the
+ * edges they follow.
+ */
+public enum Relation
+{
+
+	/**
+	 * Words with opposite meanings.
+	 */
+	ANTONYM("!"),
+
+	/**
+	 * More general synsets.
+	 */
+	HYPERNYM("@"),
+
+	/**
+	 * Classes of which a synset is an instance.
+	 */
+	INSTANCE_HYPERNYM("@i"),
+
+	/**
+	 * More specific synsets.
+	 */
+	HYPONYM("~"),
+
+	/**
+	 * Instances of a class.
+	 */
+	INSTANCE_HYPONYM("~i"),
+
+	/**
+	 * Groups of which a synset is a member.
+	 */
+	MEMBER_HOLONYM("#m"),
+
+	/**
+	 * Synsets of which a synset is a substance.
+	 */
+	SUBSTANCE_HOLONYM("#s"),
+
+	/**
+	 * Wholes of which a synset is a part.
+	 */
+	PART_HOLONYM("#p"),
+
+	/**
+	 * Members of a group.
+	 */
+	MEMBER_MERONYM("%m"),
+
+	/**
+	 * Substances of which a synset is made.
+	 */
+	SUBSTANCE_MERONYM("%s"),
+
+	/**
+	 * Parts of a whole.
+	 */
+	PART_MERONYM("%p"),
+
+	/**
+	 * Nouns for which adjectives express values, and vice versa.
+	 */
+	ATTRIBUTE("="),
+
+	/**
+	 * Morphologically related nouns and verbs.
+	 */
+	RELATED_FORM("+"),
+
+	/**
+	 * Topic domains of a synset.
+	 */
+	DOMAIN_TOPIC(";c"),
+
+	/**
+	 * Members of a topic domain.
+	 */
+	MEMBER_OF_DOMAIN_TOPIC("-c"),
+
+	/**
+	 * Regional domains of a synset.
+	 */
+	DOMAIN_REGION(";r"),
+
+	/**
+	 * Members of a regional domain.
+	 */
+	MEMBER_OF_DOMAIN_REGION("-r"),
+
+	/**
+	 * Usage domains of a synset.
+	 */
+	DOMAIN_USAGE(";u"),
+
+	/**
+	 * Members of a usage domain.
+	 */
+	MEMBER_OF_DOMAIN_USAGE("-u"),
+
+	/**
+	 * Verbs entailed by a verb.
+	 */
+	ENTAILMENT("*"),
+
+	/**
+	 * Verbs caused by a verb.
+	 */
+	CAUSE(">"),
+
+	/**
+	 * Related synsets ("see also").
+	 */
+	ALSO_SEE("^"),
+
+	/**
+	 * Verbs with similar meanings.
+	 */
+	VERB_GROUP("$"),
+
+	/**
+	 * Adjectives with similar meanings.
+	 */
+	SIMILAR("&"),
+
+	/**
+	 * Verbs from which an adjective is derived.
+	 */
+	PARTICIPLE("<"),
+
+	/**
+	 * Nouns to which an adjective or adverb pertains.
+	 */
+	PERTAINYM("\\");
+
+	/**
+	 * Symbol used to represent the relationship in the data files.
+	 */
+	private String symbol;
+
+	/**
+	 * Position of the relationship within {@link RelationshipType#ALL_TYPES},
+	 * which is how the relationship is identified within the graph.
+	 */
+	private int index;
+
+	/**
+	 * Constructor that accepts the symbol of the relationship.
+	 *
+	 * @param  symbol Symbol used to represent the relationship.
+	 */
+	private Relation(String symbol)
+	{
+		this.symbol = symbol;
+		RelationshipType type = RelationshipType.getRelationshipType(symbol);
+		while (!RelationshipType.ALL_TYPES[index].equals(type))
+		{
+			index++;
+		}
+	}
+
+	/**
+	 * Returns the symbol used to represent the relationship in the data
+	 * files (e.g., "@" for hypernyms).
+	 *
+	 * @return Symbol of the relationship.
+	 */
+	public String getSymbol()
+	{
+		return symbol;
+	}
+
+	/**
+	 * Returns the identifier of the relationship within the graph's edge
+	 * relationship array.
+	 *
+	 * @return Index into {@link RelationshipType#ALL_TYPES}.
+	 */
+	int getIndex()
+	{
+		return index;
+	}
+
+}
@@ -0,0 +1,370 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import edu.smu.tspell.wordnet.impl.file.SenseKey;
+import edu.smu.tspell.wordnet.impl.file.SynsetGraph;
+import edu.smu.tspell.wordnet.impl.file.TextTranslator;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws random synsets and lemmas (word forms) from the database, either
+ * uniformly or weighted by the number of times they were tagged in the
+ * semantic concordance texts, as is needed for negative sampling and for
+ * generating test data.
+ * <br><p>
+ * Synsets are drawn by their dense identifier within the {@link SynsetGraph}
+ * and lemmas from a table of the distinct lemmas in the sense index, so
+ * the database doesn't need to be scanned for each draw. Weighted draws use
+ * an alias table (Vose's method), which makes each draw take constant time
+ * regardless of the size or skew of the distribution. The weight of a
+ * synset is the total tag count of its senses and the weight of a lemma is
+ * the total tag count of the senses in which it appears, so synsets and
+ * lemmas that never appear in the concordance texts aren't drawn when
+ * sampling is weighted.
+ * <br><p>
+ * Instances of this class are immutable once created and can be used by
+ * any number of threads concurrently. The methods that don't accept a
+ * random number generator use the current thread's generator.
+ */
+public class SynsetSampler
+{
+
+	/**
+	 * Represents the probability distribution from which samples are drawn.
+	 */
+	public enum Weighting
+	{
+
+		/**
+		 * Every synset or lemma is equally likely to be drawn.
+		 */
+		UNIFORM,
+
+		/**
+		 * Synsets and lemmas are drawn with a probability proportional to
+		 * their tag count.
+		 */
+		TAG_COUNT
+
+	}
+
+	/**
+	 * Graph whose synsets are sampled.
+	 */
+	private SynsetGraph graph;
+
+	/**
+	 * Distinct lemmas, in the database format and sorted alphabetically.
+	 */
+	private String[] lemmas;
+
+	/**
+	 * Used for weighted synset draws; <code>null</code> if sampling is
+	 * uniform.
+	 */
+	private AliasTable synsetTable;
+
+	/**
+	 * Used for weighted lemma draws; <code>null</code> if sampling is
+	 * uniform.
+	 */
+	private AliasTable lemmaTable;
+
+	/**
+	 * Constructor that accepts the distribution from which samples of the
+	 * default database are drawn and which builds the tables that are used
+	 * for drawing them.
+	 *
+	 * @param  weighting Distribution from which to draw samples.
+	 * @throws WordNetException An error occurred reading the database.
+	 */
+	public SynsetSampler(Weighting weighting) throws WordNetException
+	{
+		this(SynsetGraph.getInstance(), weighting);
+	}
+
+	/**
+	 * Constructor that accepts the database from which samples are drawn
+	 * and their distribution, and which builds the tables that are used for
+	 * drawing them.
+	 *
+	 * @param  database Database from which to draw samples.
+	 * @param  weighting Distribution from which to draw samples.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the database.
+	 * @see    SynsetGraph#getInstance(WordNetDatabase)
+	 */
+	public SynsetSampler(WordNetDatabase database, Weighting weighting)
+			throws WordNetException
+	{
+		this(SynsetGraph.getInstance(database), weighting);
+	}
+
+	/**
+	 * Constructor that accepts the graph whose synsets are sampled and
+	 * their distribution.
+	 *
+	 * @param  graph Graph whose synsets are sampled.
+	 * @param  weighting Distribution from which to draw samples.
+	 * @throws WordNetException An error occurred reading the database.
+	 */
+	private SynsetSampler(SynsetGraph graph, Weighting weighting)
+			throws WordNetException
+	{
+		this.graph = graph;
+		int[] senseOffsets = graph.getSenseOffsets();
+		String[] senseKeys = graph.getSenseKeys();
+		int[] tagCounts = graph.getSenseTagCounts();
+
+		Map<String, Long> lemmaCounts = new TreeMap<>();
+		for (int i = 0; i < senseKeys.length; i++)
+		{
+			String key = senseKeys[i];
+			String lemma = key.substring(0,
+					key.indexOf(SenseKey.LEMMA_TERMINATOR));
+			lemmaCounts.merge(lemma, (long)tagCounts[i], Long::sum);
+		}
+		lemmas = lemmaCounts.keySet().toArray(new String[lemmaCounts.size()]);
+
+		if (weighting == Weighting.TAG_COUNT)
+		{
+			double[] synsetWeights = new double[graph.getSynsetCount()];
+			for (int i = 0; i < synsetWeights.length; i++)
+			{
+				for (int s = senseOffsets[i]; s < senseOffsets[i + 1]; s++)
+				{
+					synsetWeights[i] += tagCounts[s];
+				}
+			}
+			synsetTable = new AliasTable(synsetWeights);
+
+			double[] lemmaWeights = new double[lemmas.length];
+			int index = 0;
+			for (long count : lemmaCounts.values())
+			{
+				lemmaWeights[index++] = count;
+			}
+			lemmaTable = new AliasTable(lemmaWeights);
+		}
+	}
+
+	/**
+	 * Returns the number of synsets from which samples are drawn.
+	 *
+	 * @return Number of synsets.
+	 */
+	public int getSynsetCount()
+	{
+		return graph.getSynsetCount();
+	}
+
+	/**
+	 * Returns the number of distinct lemmas from which samples are drawn.
+	 *
+	 * @return Number of lemmas.
+	 */
+	public int getLemmaCount()
+	{
+		return lemmas.length;
+	}
+
+	/**
+	 * Draws the identifier of a synset within the {@link SynsetGraph}.
+	 *
+	 * @return Synset identifier.
+	 */
+	public int nextId()
+	{
+		return nextId(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Draws the identifier of a synset within the {@link SynsetGraph} using
+	 * a particular random number generator, which allows reproducible
+	 * sequences of samples.
+	 *
+	 * @param  random Source of random numbers.
+	 * @return Synset identifier.
+	 */
+	public int nextId(Random random)
+	{
+		return (synsetTable != null ? synsetTable.next(random) :
+				random.nextInt(graph.getSynsetCount()));
+	}
+
+	/**
+	 * Draws a synset.
+	 *
+	 * @return Randomly selected synset.
+	 * @throws WordNetException An error occurred reading the synset.
+	 */
+	public Synset nextSynset() throws WordNetException
+	{
+		return graph.getSynset(nextId());
+	}
+
+	/**
+	 * Draws a synset using a particular random number generator.
+	 *
+	 * @param  random Source of random numbers.
+	 * @return Randomly selected synset.
+	 * @throws WordNetException An error occurred reading the synset.
+	 */
+	public Synset nextSynset(Random random) throws WordNetException
+	{
+		return graph.getSynset(nextId(random));
+	}
+
+	/**
+	 * Draws a lemma.
+	 *
+	 * @return Randomly selected lemma, in lower case and with spaces
+	 *         separating the words of a collocation.
+	 */
+	public String nextLemma()
+	{
+		return nextLemma(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Draws a lemma using a particular random number generator.
+	 *
+	 * @param  random Source of random numbers.
+	 * @return Randomly selected lemma, in lower case and with spaces
+	 *         separating the words of a collocation.
+	 */
+	public String nextLemma(Random random)
+	{
+		int index = (lemmaTable != null ? lemmaTable.next(random) :
+				random.nextInt(lemmas.length));
+		return TextTranslator.translateToExternalFormat(lemmas[index]);
+	}
+
+	/**
+	 * A table that allows constant time draws from a discrete distribution.
+	 * Each column of the table is selected with equal probability and then
+	 * either the column itself or its alias is chosen.
+	 */
+	private static class AliasTable
+	{
+
+		/**
+		 * Probability of choosing each column instead of its alias.
+		 */
+		private double[] probabilities;
+
+		/**
+		 * Alternative outcome for each column.
+		 */
+		private int[] aliases;
+
+		/**
+		 * Constructor that accepts the (unnormalized) weight of each outcome.
+		 *
+		 * @param  weights Non-negative weights, at least one of which must
+		 *         be positive.
+		 */
+		public AliasTable(double[] weights)
+		{
+			int size = weights.length;
+			double total = 0;
+			for (double weight : weights)
+			{
+				total += weight;
+			}
+			probabilities = new double[size];
+			aliases = new int[size];
+
+			//  Scale so that the average is one and split into two work lists
+			double[] scaled = new double[size];
+			int[] small = new int[size];
+			int[] large = new int[size];
+			int smallCount = 0;
+			int largeCount = 0;
+			for (int i = 0; i < size; i++)
+			{
+				scaled[i] = weights[i] * size / total;
+				if (scaled[i] < 1)
+				{
+					small[smallCount++] = i;
+				}
+				else
+				{
+					large[largeCount++] = i;
+				}
+			}
+			//  Fill each underfull column with part of an overfull one
+			while ((smallCount > 0) && (largeCount > 0))
+			{
+				int less = small[--smallCount];
+				int more = large[--largeCount];
+				probabilities[less] = scaled[less];
+				aliases[less] = more;
+				scaled[more] = (scaled[more] + scaled[less]) - 1;
+				if (scaled[more] < 1)
+				{
+					small[smallCount++] = more;
+				}
+				else
+				{
+					large[largeCount++] = more;
+				}
+			}
+			//  Whatever remains is full, apart from rounding error
+			while (largeCount > 0)
+			{
+				probabilities[large[--largeCount]] = 1;
+			}
+			while (smallCount > 0)
+			{
+				probabilities[small[--smallCount]] = 1;
+			}
+		}
+
+		/**
+		 * Draws an outcome.
+		 *
+		 * @param  random Source of random numbers.
+		 * @return Index of the outcome.
+		 */
+		public int next(Random random)
+		{
+			int column = random.nextInt(probabilities.length);
+			return (random.nextDouble() < probabilities[column] ?
+					column : aliases[column]);
+		}
+
+	}
+
+}
@@ -0,0 +1,551 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import edu.smu.tspell.wordnet.impl.file.SynsetGraph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+/**
+ * A set of synsets represented as a bitmap over the dense synset
+ * identifiers of the {@link SynsetGraph}. Because every synset in the
+ * database corresponds to a single bit, a set occupies at most about
+ * fifteen kilobytes regardless of how many synsets it contains, and the
+ * set operations ({@link #union(SynsetSet)}, {@link #intersection(SynsetSet)},
+ * {@link #difference(SynsetSet)} and their in-place equivalents) process
+ * sixty-four synsets per machine word.
+ * <br><p>
+ * Sets can also be expanded by following relationships within the graph,
+ * either a single step ({@link #getRelated(Relation[])}) or transitively
+ * ({@link #getClosure(Relation[])}), without creating any synset objects;
+ * synsets are only read from the database when they're requested through
+ * {@link #toArray()}.
+ * <br><p>
+ * Each set belongs to the graph of a single database, and the set
+ * operations only accept sets of the same database.
+ * <br><p>
+ * Instances of this class aren't safe for modification by multiple threads.
+ */
+public class SynsetSet
+{
+
+	/**
+	 * Graph whose identifiers are stored in this set.
+	 */
+	private SynsetGraph graph;
+
+	/**
+	 * Identifiers of the synsets in this set.
+	 */
+	private BitSet bits;
+
+	/**
+	 * No-argument constructor that creates an empty set of synsets of the
+	 * default database.
+	 *
+	 * @throws WordNetException An error occurred reading the graph.
+	 */
+	public SynsetSet() throws WordNetException
+	{
+		this(SynsetGraph.getInstance(), new BitSet());
+	}
+
+	/**
+	 * Constructor that creates an empty set of synsets of a database.
+	 *
+	 * @param  database Database whose synsets the set contains.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the graph.
+	 * @see    SynsetGraph#getInstance(WordNetDatabase)
+	 */
+	public SynsetSet(WordNetDatabase database) throws WordNetException
+	{
+		this(SynsetGraph.getInstance(database), new BitSet());
+	}
+
+	/**
+	 * Constructor that accepts the graph and the identifiers of the synsets
+	 * in the set.
+	 *
+	 * @param  graph Graph whose identifiers are stored in this set.
+	 * @param  bits Identifiers of the synsets in this set.
+	 */
+	private SynsetSet(SynsetGraph graph, BitSet bits)
+	{
+		this.graph = graph;
+		this.bits = bits;
+	}
+
+	/**
+	 * Creates a set that contains a group of synsets of the default
+	 * database.
+	 *
+	 * @param  synsets Synsets to include in the set.
+	 * @return Set containing the specified synsets.
+	 * @throws WordNetException An error occurred reading the graph.
+	 */
+	public static SynsetSet of(Synset... synsets) throws WordNetException
+	{
+		return of(Arrays.asList(synsets));
+	}
+
+	/**
+	 * Creates a set that contains a collection of synsets of the default
+	 * database.
+	 *
+	 * @param  synsets Synsets to include in the set.
+	 * @return Set containing the specified synsets.
+	 * @throws WordNetException An error occurred reading the graph.
+	 */
+	public static SynsetSet of(Collection<? extends Synset> synsets)
+			throws WordNetException
+	{
+		SynsetSet set = new SynsetSet();
+		set.addAll(synsets);
+		return set;
+	}
+
+	/**
+	 * Creates a set that contains a group of synsets of a database.
+	 *
+	 * @param  database Database whose synsets the set contains.
+	 * @param  synsets Synsets to include in the set.
+	 * @return Set containing the specified synsets.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the graph.
+	 */
+	public static SynsetSet of(WordNetDatabase database, Synset... synsets)
+			throws WordNetException
+	{
+		return of(database, Arrays.asList(synsets));
+	}
+
+	/**
+	 * Creates a set that contains a collection of synsets of a database.
+	 *
+	 * @param  database Database whose synsets the set contains.
+	 * @param  synsets Synsets to include in the set.
+	 * @return Set containing the specified synsets.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the graph.
+	 */
+	public static SynsetSet of(WordNetDatabase database,
+			Collection<? extends Synset> synsets) throws WordNetException
+	{
+		SynsetSet set = new SynsetSet(database);
+		set.addAll(synsets);
+		return set;
+	}
+
+	/**
+	 * Adds a synset to this set.
+	 *
+	 * @param  synset Synset to add.
+	 * @return <code>true</code> if the set didn't already contain the synset.
+	 */
+	public boolean add(Synset synset)
+	{
+		int id = graph.getId(synset);
+		if (id < 0)
+		{
+			throw new IllegalArgumentException(
+					"Synset isn't part of the database: " + synset);
+		}
+		return add(id);
+	}
+
+	/**
+	 * Adds a synset to this set.
+	 *
+	 * @param  id Identifier of the synset to add.
+	 * @return <code>true</code> if the set didn't already contain the synset.
+	 */
+	public boolean add(int id)
+	{
+		checkId(id);
+		boolean added = !bits.get(id);
+		bits.set(id);
+		return added;
+	}
+
+	/**
+	 * Removes a synset from this set.
+	 *
+	 * @param  synset Synset to remove.
+	 * @return <code>true</code> if the set contained the synset.
+	 */
+	public boolean remove(Synset synset)
+	{
+		int id = graph.getId(synset);
+		return ((id >= 0) && remove(id));
+	}
+
+	/**
+	 * Removes a synset from this set.
+	 *
+	 * @param  id Identifier of the synset to remove.
+	 * @return <code>true</code> if the set contained the synset.
+	 */
+	public boolean remove(int id)
+	{
+		checkId(id);
+		boolean removed = bits.get(id);
+		bits.clear(id);
+		return removed;
+	}
+
+	/**
+	 * Indicates whether this set contains a synset.
+	 *
+	 * @param  synset Synset to look for.
+	 * @return <code>true</code> if the set contains the synset.
+	 */
+	public boolean contains(Synset synset)
+	{
+		int id = graph.getId(synset);
+		return ((id >= 0) && bits.get(id));
+	}
+
+	/**
+	 * Indicates whether this set contains a synset.
+	 *
+	 * @param  id Identifier of the synset to look for.
+	 * @return <code>true</code> if the set contains the synset.
+	 */
+	public boolean contains(int id)
+	{
+		return ((id >= 0) && bits.get(id));
+	}
+
+	/**
+	 * Returns the number of synsets in this set.
+	 *
+	 * @return Cardinality of the set.
+	 */
+	public int size()
+	{
+		return bits.cardinality();
+	}
+
+	/**
+	 * Indicates whether this set is empty.
+	 *
+	 * @return <code>true</code> if the set contains no synsets.
+	 */
+	public boolean isEmpty()
+	{
+		return bits.isEmpty();
+	}
+
+	/**
+	 * Returns a new set containing the synsets that are in this set, the
+	 * other set or both.
+	 *
+	 * @param  other Set with which to combine this one.
+	 * @return Union of the two sets.
+	 */
+	public SynsetSet union(SynsetSet other)
+	{
+		SynsetSet result = copy();
+		result.addAll(other);
+		return result;
+	}
+
+	/**
+	 * Returns a new set containing the synsets that are in both this set
+	 * and the other set.
+	 *
+	 * @param  other Set with which to combine this one.
+	 * @return Intersection of the two sets.
+	 */
+	public SynsetSet intersection(SynsetSet other)
+	{
+		SynsetSet result = copy();
+		result.retainAll(other);
+		return result;
+	}
+
+	/**
+	 * Returns a new set containing the synsets that are in this set but not
+	 * in the other set.
+	 *
+	 * @param  other Set whose synsets are to be excluded.
+	 * @return Difference of the two sets.
+	 */
+	public SynsetSet difference(SynsetSet other)
+	{
+		SynsetSet result = copy();
+		result.removeAll(other);
+		return result;
+	}
+
+	/**
+	 * Adds all of the synsets in another set to this one.
+	 *
+	 * @param  other Set whose synsets are to be added.
+	 */
+	public void addAll(SynsetSet other)
+	{
+		checkGraph(other);
+		bits.or(other.bits);
+	}
+
+	/**
+	 * Adds a collection of synsets to this set.
+	 *
+	 * @param  synsets Synsets to add.
+	 */
+	private void addAll(Collection<? extends Synset> synsets)
+	{
+		for (Synset synset : synsets)
+		{
+			add(synset);
+		}
+	}
+
+	/**
+	 * Removes the synsets that aren't in another set from this one.
+	 *
+	 * @param  other Set whose synsets are to be retained.
+	 */
+	public void retainAll(SynsetSet other)
+	{
+		checkGraph(other);
+		bits.and(other.bits);
+	}
+
+	/**
+	 * Removes all of the synsets in another set from this one.
+	 *
+	 * @param  other Set whose synsets are to be removed.
+	 */
+	public void removeAll(SynsetSet other)
+	{
+		checkGraph(other);
+		bits.andNot(other.bits);
+	}
+
+	/**
+	 * Indicates whether this set has any synsets in common with another.
+	 *
+	 * @param  other Set to compare with this one.
+	 * @return <code>true</code> if the intersection isn't empty.
+	 */
+	public boolean intersects(SynsetSet other)
+	{
+		checkGraph(other);
+		return bits.intersects(other.bits);
+	}
+
+	/**
+	 * Returns the synsets that are reached by following a single
+	 * relationship of one of the specified types from any synset in this set.
+	 *
+	 * @param  relations Types of relationship to follow.
+	 * @return New set containing the related synsets.
+	 */
+	public SynsetSet getRelated(Relation... relations)
+	{
+		BitSet related = new BitSet(graph.getSynsetCount());
+		follow(bits, getMask(relations), related);
+		return new SynsetSet(graph, related);
+	}
+
+	/**
+	 * Returns the synsets that are reached by following one or more
+	 * relationships of the specified types from any synset in this set, such
+	 * as all of the hyponyms of a synset when passed
+	 * {@link Relation#HYPONYM}. Synsets in this set are only included in the
+	 * result if they can be reached from another (or the same) synset.
+	 *
+	 * @param  relations Types of relationship to follow.
+	 * @return New set containing the transitive closure.
+	 */
+	public SynsetSet getClosure(Relation... relations)
+	{
+		int mask = getMask(relations);
+		BitSet closure = new BitSet(graph.getSynsetCount());
+		BitSet frontier = bits;
+		while (!frontier.isEmpty())
+		{
+			BitSet next = new BitSet(graph.getSynsetCount());
+			follow(frontier, mask, next);
+			next.andNot(closure);
+			closure.or(next);
+			frontier = next;
+		}
+		return new SynsetSet(graph, closure);
+	}
+
+	/**
+	 * Returns the identifiers of the synsets in this set in ascending order.
+	 *
+	 * @return Stream of synset identifiers.
+	 */
+	public IntStream ids()
+	{
+		return bits.stream();
+	}
+
+	/**
+	 * Returns the synsets in this set, reading them from the database if
+	 * necessary.
+	 *
+	 * @return Synsets in ascending order of identifier.
+	 * @throws WordNetException An error occurred reading the synsets.
+	 */
+	public Synset[] toArray() throws WordNetException
+	{
+		Synset[] synsets = new Synset[bits.cardinality()];
+		int index = 0;
+		for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1))
+		{
+			synsets[index++] = graph.getSynset(id);
+		}
+		return synsets;
+	}
+
+	/**
+	 * Returns a copy of this set that can be modified independently.
+	 *
+	 * @return Copy of this set.
+	 */
+	public SynsetSet copy()
+	{
+		return new SynsetSet(graph, (BitSet)bits.clone());
+	}
+
+	/**
+	 * Returns a hash code value for this object.
+	 *
+	 * @return Hash code value for this object.
+	 */
+	public int hashCode()
+	{
+		return bits.hashCode();
+	}
+
+	/**
+	 * Indicates whether another object is a set containing the same synsets
+	 * of the same database.
+	 *
+	 * @param  object Object to compare with this one.
+	 * @return <code>true</code> if the two sets contain the same synsets.
+	 */
+	public boolean equals(Object object)
+	{
+		return ((object instanceof SynsetSet) &&
+				(((SynsetSet)object).graph == graph) &&
+				bits.equals(((SynsetSet)object).bits));
+	}
+
+	/**
+	 * Returns a string representation of this object.
+	 *
+	 * @return String representation of this object.
+	 */
+	public String toString()
+	{
+		return bits.toString();
+	}
+
+	/**
+	 * Adds the targets of the outgoing edges of a group of synsets to a set,
+	 * if their relationships are included in a mask.
+	 *
+	 * @param  sources Synsets whose edges are followed.
+	 * @param  mask Bit mask of the relationship indices to follow.
+	 * @param  targets Receives the target synsets.
+	 */
+	private void follow(BitSet sources, int mask, BitSet targets)
+	{
+		int[] edgeOffsets = graph.getEdgeOffsets();
+		int[] edgeTargets = graph.getEdgeTargets();
+		byte[] relationships = graph.getEdgeRelationships();
+		for (int id = sources.nextSetBit(0); id >= 0;
+				id = sources.nextSetBit(id + 1))
+		{
+			for (int e = edgeOffsets[id]; e < edgeOffsets[id + 1]; e++)
+			{
+				if ((mask & (1 << relationships[e])) != 0)
+				{
+					targets.set(edgeTargets[e]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a bit mask that contains the indices of a group of
+	 * relationships.
+	 *
+	 * @param  relations Types of relationship.
+	 * @return Bit mask of relationship indices.
+	 */
+	private static int getMask(Relation[] relations)
+	{
+		int mask = 0;
+		for (Relation relation : relations)
+		{
+			mask |= (1 << relation.getIndex());
+		}
+		return mask;
+	}
+
+	/**
+	 * Verifies that an identifier is valid for the graph.
+	 *
+	 * @param  id Synset identifier.
+	 */
+	private void checkId(int id)
+	{
+		if ((id < 0) || (id >= graph.getSynsetCount()))
+		{
+			throw new IndexOutOfBoundsException("Invalid synset: " + id);
+		}
+	}
+
+	/**
+	 * Verifies that another set belongs to the same graph as this one.
+	 *
+	 * @param  other Set to be combined with this one.
+	 */
+	private void checkGraph(SynsetSet other)
+	{
+		if (other.graph != graph)
+		{
+			throw new IllegalArgumentException(
+					"Sets belong to different databases");
+		}
+	}
+
+}
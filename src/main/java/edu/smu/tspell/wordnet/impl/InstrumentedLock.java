@@ -0,0 +1,171 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl;
+
+import edu.smu.tspell.wordnet.api.LockStatistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reentrant lock that counts its acquisitions and measures the time that
+ * threads spend waiting for it and holding it, which are described by
+ * {@link LockStatistics}.
+ * <br><p>
+ * An acquisition first tries to take the lock without waiting, and only
+ * when that fails is the time spent waiting measured, so an uncontended
+ * acquisition costs the same as it would without the measurements apart
+ * from reading the system timer once to begin measuring the hold time.
+ * Reentrant acquisitions by the thread that already holds the lock aren't
+ * counted or timed, and neither are acquisitions made with
+ * {@link #lockInterruptibly()} or a timed {@link #tryLock(long,
+ * java.util.concurrent.TimeUnit)}, which this project doesn't use. The
+ * counts are kept in {@link LongAdder}s so that recording them doesn't
+ * itself cause contention.
+ */
+public class InstrumentedLock extends ReentrantLock
+{
+
+	/**
+	 * Version of the serialized form, which doesn't include the counts.
+	 */
+	private final static long serialVersionUID = 1L;
+
+	/**
+	 * Number of outermost acquisitions.
+	 */
+	private final transient LongAdder acquisitions = new LongAdder();
+
+	/**
+	 * Number of acquisitions that had to wait.
+	 */
+	private final transient LongAdder contentions = new LongAdder();
+
+	/**
+	 * Total time spent waiting, in nanoseconds.
+	 */
+	private final transient LongAdder waitTime = new LongAdder();
+
+	/**
+	 * Longest time spent waiting, in nanoseconds.
+	 */
+	private final transient AtomicLong maximumWaitTime = new AtomicLong();
+
+	/**
+	 * Total time the lock was held, in nanoseconds.
+	 */
+	private final transient LongAdder holdTime = new LongAdder();
+
+	/**
+	 * Time at which the current holder acquired the lock, or zero if its
+	 * acquisition wasn't counted, which is only accessed by the thread that
+	 * holds the lock.
+	 */
+	private transient long holdStart;
+
+	/**
+	 * Acquires the lock, measuring the time spent waiting if another thread
+	 * holds it.
+	 */
+	public void lock()
+	{
+		if (isHeldByCurrentThread())
+		{
+			super.lock();
+			return;
+		}
+		if (!super.tryLock())
+		{
+			long start = System.nanoTime();
+			super.lock();
+			long nanos = System.nanoTime() - start;
+			contentions.increment();
+			waitTime.add(nanos);
+			if (nanos > maximumWaitTime.get())
+			{
+				maximumWaitTime.accumulateAndGet(nanos, Math::max);
+			}
+		}
+		acquired();
+	}
+
+	/**
+	 * Acquires the lock only if it isn't held by another thread.
+	 *
+	 * @return <code>true</code> if the lock was acquired.
+	 */
+	public boolean tryLock()
+	{
+		boolean first = !isHeldByCurrentThread();
+		if (!super.tryLock())
+		{
+			return false;
+		}
+		if (first)
+		{
+			acquired();
+		}
+		return true;
+	}
+
+	/**
+	 * Releases the lock, recording the time it was held if this is the
+	 * outermost release by the thread that holds it.
+	 */
+	public void unlock()
+	{
+		if ((getHoldCount() == 1) && (holdStart != 0))
+		{
+			holdTime.add(System.nanoTime() - holdStart);
+			holdStart = 0;
+		}
+		super.unlock();
+	}
+
+	/**
+	 * Returns a snapshot of the lock's use.
+	 *
+	 * @param  name Name that identifies the lock in the snapshot.
+	 * @return Statistics of the lock.
+	 */
+	public LockStatistics getStatistics(String name)
+	{
+		return new LockStatistics(name, acquisitions.sum(),
+				contentions.sum(), waitTime.sum(), maximumWaitTime.get(),
+				holdTime.sum());
+	}
+
+	/**
+	 * Records an outermost acquisition by the current thread.
+	 */
+	private void acquired()
+	{
+		acquisitions.increment();
+		holdStart = System.nanoTime();
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl;
+
+import edu.smu.tspell.wordnet.api.FileAccess;
+import edu.smu.tspell.wordnet.api.IoTrace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the file regions read by a thread while a call is being traced,
+ * which are summarized by an {@link IoTrace}. A context is confined to the
+ * thread that created it, so its values are updated without
+ * synchronization.
+ * <br><p>
+ * The readers look for a context before each read, so a count of the
+ * contexts that exist is kept and the thread's context is only looked up
+ * when there's at least one; while nothing is being traced the cost of a
+ * read is increased only by reading that count.
+ */
+public final class IoTraceContext
+{
+
+	/**
+	 * Context of the call being traced by each thread, if any.
+	 */
+	private final static ThreadLocal<IoTraceContext> CURRENT =
+			new ThreadLocal<>();
+
+	/**
+	 * Number of contexts that exist across all threads.
+	 */
+	private final static AtomicInteger ACTIVE = new AtomicInteger();
+
+	/**
+	 * Context that this one replaced, which is restored when it ends.
+	 */
+	private IoTraceContext previous;
+
+	/**
+	 * Reads in the order in which they were made.
+	 */
+	private List<FileAccess> accesses = new ArrayList<>();
+
+	/**
+	 * Number of times a file pointer was moved.
+	 */
+	private int seekCount;
+
+	/**
+	 * Number of sense index lines that matched.
+	 */
+	private int indexLinesMatched;
+
+	/**
+	 * Number of synsets that were resolved.
+	 */
+	private int synsetsResolved;
+
+	/**
+	 * Returns the context of the call being traced by the current thread.
+	 *
+	 * @return Context, or <code>null</code> if the call isn't being traced.
+	 */
+	public static IoTraceContext current()
+	{
+		return (ACTIVE.get() != 0 ? CURRENT.get() : null);
+	}
+
+	/**
+	 * Creates a context for a call made by the current thread. If the
+	 * thread is already tracing a call, the new context replaces that
+	 * call's context until it ends.
+	 *
+	 * @return New context.
+	 */
+	public static IoTraceContext begin()
+	{
+		IoTraceContext context = new IoTraceContext();
+		context.previous = CURRENT.get();
+		CURRENT.set(context);
+		ACTIVE.incrementAndGet();
+		return context;
+	}
+
+	/**
+	 * Removes this context from the current thread once its call is
+	 * complete, restoring the context it replaced, if any.
+	 */
+	public void end()
+	{
+		if (previous != null)
+		{
+			CURRENT.set(previous);
+		}
+		else
+		{
+			CURRENT.remove();
+		}
+		ACTIVE.decrementAndGet();
+	}
+
+	/**
+	 * Records a change to the position of a file pointer.
+	 */
+	public void recordSeek()
+	{
+		seekCount++;
+	}
+
+	/**
+	 * Records a read from a file.
+	 *
+	 * @param  file Name of the file.
+	 * @param  offset Position of the first byte read.
+	 * @param  length Number of bytes read.
+	 * @param  probe <code>true</code> if the read was made by a binary
+	 *         search.
+	 */
+	public void recordRead(String file, long offset, long length,
+			boolean probe)
+	{
+		if (length > 0)
+		{
+			accesses.add(new FileAccess(file, offset, length, probe));
+		}
+	}
+
+	/**
+	 * Records sense index lines that matched a word form.
+	 *
+	 * @param  count Number of lines.
+	 */
+	public void recordIndexLines(int count)
+	{
+		indexLinesMatched += count;
+	}
+
+	/**
+	 * Records a synset that was resolved from a pointer.
+	 */
+	public void recordSynset()
+	{
+		synsetsResolved++;
+	}
+
+	/**
+	 * Returns a summary of the values recorded by this context.
+	 *
+	 * @param  elapsedTime Time the call took, in nanoseconds.
+	 * @return Trace describing the call.
+	 */
+	public IoTrace toTrace(long elapsedTime)
+	{
+		return new IoTrace(new ArrayList<>(accesses), seekCount,
+				indexLinesMatched, synsetsResolved, elapsedTime);
+	}
+
+}
@@ -35,8 +35,7 @@ import java.io.IOException;
  * Note that this class is designed for repetitive high-performance reading
  * of the file and for that reason doesn't open and close the file for each
  * retrieval. Instead, the file is opened when an instance of this class is
- * created and will not be closed until that instance is being finalized by
- * the garbage collector.
+ * created and remains open until the instance is closed.
  * 
  * @author Brett Spell
  */
@@ -87,107 +86,115 @@ public class LineLocator extends RandomAccessReader {
 	 *         <code>null</code> if no such line exists.
 	 * @throws IOException An error occurred reading the file.
 	 */
-	protected synchronized String getLine(String prefix) throws IOException
+	protected String getLine(String prefix) throws IOException
 	{
-		long midpoint;
-		String rightHalf;
-		String leftHalf;
-		String currentLine;
-		int comparison;
-
-		String match = null;
-		long lower = 0;
-		long upper = getFileSize();
-		long range = (upper - lower);
-		long seekTarget = getFilePointer();
-		//  Loop while we still have a part of the file to search
-		while (range > 0)
+		lock.lock();
+		try
 		{
-			//  Jump to the location in the middle of our search range
-			midpoint = lower + (range / 2);
-			seek(midpoint);
-			//  If we're not at the beginning of the file, read the "next" line.
-			if (midpoint > 0)
+			long midpoint;
+			String rightHalf;
+			String leftHalf;
+			String currentLine;
+			int comparison;
+
+			String match = null;
+			long lower = 0;
+			long upper = getFileSize();
+			long range = (upper - lower);
+			long seekTarget = getFilePointer();
+			//  Loop while we still have a part of the file to search
+			while (range > 0)
 			{
-				//  Get text that may be a fragment / portion of a line
-				rightHalf = readToNextEndOfLine();
-				//  Get what we KNOW will be a full line
-				currentLine = readToNextEndOfLine();
-				//  If we read part of the last line, there isn't one after it
-				if (currentLine.length() == 0)
+				//  Jump to the location in the middle of our search range
+				midpoint = lower + (range / 2);
+				seek(midpoint);
+				//  If we're not at the beginning of the file, read the "next" line.
+				if (midpoint > 0)
 				{
-					leftHalf = readToPriorEndOfLine(midpoint);
-					currentLine = leftHalf + rightHalf;
-					seek(getFileSize());
+					//  Get text that may be a fragment / portion of a line
+					rightHalf = readToNextEndOfLine(true);
+					//  Get what we KNOW will be a full line
+					currentLine = readToNextEndOfLine(true);
+					//  If we read part of the last line, there isn't one after it
+					if (currentLine.length() == 0)
+					{
+						leftHalf = readToPriorEndOfLine(midpoint, true);
+						currentLine = leftHalf + rightHalf;
+						seek(getFileSize());
+					}
 				}
-			}
-			//  We're at the very beginning of the file; it's a complete line
-			else
-			{
-				currentLine = readToNextEndOfLine();
-				rightHalf = "";
-			}
-			//  We have a line we can compare with our search target
-			if (currentLine.length() > 0)
-			{
-				//  If it matches, we're done
-				if (currentLine.startsWith(prefix))
+				//  We're at the very beginning of the file; it's a complete line
+				else
 				{
-					match = currentLine;
-					seekTarget = getFilePointer();
-					break;
+					currentLine = readToNextEndOfLine(true);
+					rightHalf = "";
 				}
-				//  No match; see if it's less than or greater than
-				else
+				//  We have a line we can compare with our search target
+				if (currentLine.length() > 0)
 				{
-					comparison = prefix.compareTo(currentLine);
-					//  If less than, shift lower bound
-					if (comparison > 0)
+					//  If it matches, we're done
+					if (currentLine.startsWith(prefix))
 					{
-						lower = getFilePointer();
+						match = currentLine;
+						seekTarget = getFilePointer();
+						break;
 					}
-					//  It's greater than what we're looking for
+					//  No match; see if it's less than or greater than
 					else
 					{
-						//  Get remainder of partial line and compare it
-						leftHalf = readToPriorEndOfLine(midpoint);
-						currentLine = leftHalf + rightHalf;
-						//  If the line we landed on is a match we're done
-						if (currentLine.startsWith(prefix))
-						{
-							match = currentLine;
-							seekTarget = getFilePointer() + match.length() + 1;
-							break;
-						}
-						//  No match; see if it's less than or greater than
 						comparison = prefix.compareTo(currentLine);
 						//  If less than, shift lower bound
-						if (comparison < 0)
+						if (comparison > 0)
 						{
-							upper = getFilePointer();
+							lower = getFilePointer();
 						}
-						//  If we got here the line doesn't exist in the file
+						//  It's greater than what we're looking for
 						else
 						{
-							break;
+							//  Get remainder of partial line and compare it
+							leftHalf = readToPriorEndOfLine(midpoint, true);
+							currentLine = leftHalf + rightHalf;
+							//  If the line we landed on is a match we're done
+							if (currentLine.startsWith(prefix))
+							{
+								match = currentLine;
+								seekTarget = getFilePointer() + match.length() + 1;
+								break;
+							}
+							//  No match; see if it's less than or greater than
+							comparison = prefix.compareTo(currentLine);
+							//  If less than, shift lower bound
+							if (comparison < 0)
+							{
+								upper = getFilePointer();
+							}
+							//  If we got here the line doesn't exist in the file
+							else
+							{
+								break;
+							}
 						}
 					}
 				}
+				//  If we got here, the line doesn't exist in the file
+				else
+				{
+					break;
+				}
+				//  Adjust the range
+				range = upper - lower;
 			}
-			//  If we got here, the line doesn't exist in the file
-			else
+			//  If we have a match, make sure to point past the end of the line
+			if (match != null)
 			{
-				break;
+				seek(seekTarget);
 			}
-			//  Adjust the range
-			range = upper - lower;
+			return match;
 		}
-		//  If we have a match, make sure to point past the end of the line
-		if (match != null)
+		finally
 		{
-			seek(seekTarget);
+			lock.unlock();
 		}
-		return match;
 	}
 
 	/**
@@ -206,27 +213,57 @@ public class LineLocator extends RandomAccessReader {
 	 * @throws IOException An error occurred reading the file.
 	 * @see    #readToNextEndOfLine()
 	 */
-	protected synchronized String readToPriorEndOfLine(long position)
+	protected String readToPriorEndOfLine(long position)
 			throws IOException
 	{
-		char priorChar;
+		return readToPriorEndOfLine(position, false);
+	}
 
-		StringBuilder buffer = new StringBuilder();
-		while (position > 0)
+	/**
+	 * Reads backwards to the prior line delimiter, as
+	 * {@link #readToPriorEndOfLine(long)} does, identifying whether the
+	 * line is being read by a search for another line or because it's
+	 * needed by the caller.
+	 * 
+	 * @param  position Byte position within the file from which to begin
+	 *         reading.
+	 * @param  probe <code>true</code> if the line is being read by a binary
+	 *         search, <code>false</code> if it's a record.
+	 * @return Text that was read from the file, in its normal order.
+	 * @throws IOException An error occurred reading the file.
+	 */
+	protected String readToPriorEndOfLine(long position, boolean probe)
+			throws IOException
+	{
+		lock.lock();
+		try
 		{
-			seek(--position);
-			priorChar = readNextCharacter();
-			if (priorChar != LINE_SEPARATOR)
-			{
-                seek(position);
-				buffer.insert(0, priorChar);
-			}
-			else
+			char priorChar;
+
+			long end = position;
+
+			StringBuilder buffer = new StringBuilder();
+			while (position > 0)
 			{
-				break;
+				seek(--position);
+				priorChar = readNextCharacter();
+				if (priorChar != LINE_SEPARATOR)
+				{
+	                seek(position);
+					buffer.insert(0, priorChar);
+				}
+				else
+				{
+					break;
+				}
 			}
+			recordRead(position, end - position, probe);
+			return buffer.toString();
+		}
+		finally
+		{
+			lock.unlock();
 		}
-		return buffer.toString();
 	}
 
 }
\ No newline at end of file
@@ -93,48 +93,56 @@ public abstract class MultipleLineLocator extends LineLocator {
 	 *         bound (suffix) text.
 	 * @throws IOException An error occurred reading the file.
 	 */
-	protected synchronized String[] getLines(String first, String last)
+	protected String[] getLines(String first, String last)
 			throws IOException
 	{
-		//  Create a list for storing the results
-		ArrayList<String> lineList = new ArrayList<>();
-		//  Get a matching line
-		String line = getLine(first);
-		//  If there was one, there may be others
-		if (line != null)
+		lock.lock();
+		try
 		{
-			lineList.add(line);
-			//  Remember where the match started so we can go back later
-			long start = getFilePointer() - line.length() - 2;
-			//  Read following lines and add those that also match our prefix
-			line = readToNextEndOfLine();
-			while (((line.compareTo(last) <= 0) || (line.startsWith(last))) &&
-					(line.length() > 0))
+			//  Create a list for storing the results
+			ArrayList<String> lineList = new ArrayList<>();
+			//  Get a matching line
+			String line = getLine(first);
+			//  If there was one, there may be others
+			if (line != null)
 			{
 				lineList.add(line);
+				//  Remember where the match started so we can go back later
+				long start = getFilePointer() - line.length() - 2;
+				//  Read following lines and add those that also match our prefix
 				line = readToNextEndOfLine();
-			}
-			//  We should read prior lines if we're not at start of the file
-			if (start > 0)
-			{
-				//  Read prior lines and add those that also match our prefix
-				line = readToPriorEndOfLine(start);
-				while (line.compareTo(first) >= 0)
+				while (((line.compareTo(last) <= 0) || (line.startsWith(last))) &&
+						(line.length() > 0))
+				{
+					lineList.add(line);
+					line = readToNextEndOfLine();
+				}
+				//  We should read prior lines if we're not at start of the file
+				if (start > 0)
 				{
-					lineList.add(0, line);
-					start -= (line.length() + 1);
-					if (start < 0)
+					//  Read prior lines and add those that also match our prefix
+					line = readToPriorEndOfLine(start);
+					while (line.compareTo(first) >= 0)
 					{
-						break;
+						lineList.add(0, line);
+						start -= (line.length() + 1);
+						if (start < 0)
+						{
+							break;
+						}
+						line = readToPriorEndOfLine(start);
 					}
-					line = readToPriorEndOfLine(start);
 				}
 			}
+			//  Return the matchine lines to the caller
+			String[] lineArray = new String[lineList.size()];
+			lineList.toArray(lineArray);
+			return lineArray;
+		}
+		finally
+		{
+			lock.unlock();
 		}
-		//  Return the matchine lines to the caller
-		String[] lineArray = new String[lineList.size()];
-		lineList.toArray(lineArray);
-		return lineArray;
 	}
 
 }
\ No newline at end of file
@@ -24,17 +24,21 @@
  */
 package edu.smu.tspell.wordnet.impl;
 
+import edu.smu.tspell.wordnet.api.LockStatistics;
+
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 
+
 /**
  * Used to access the data at arbitrary positions within a file.
  * 
  * @author Brett Spell
  */
-public abstract class RandomAccessReader
+public abstract class RandomAccessReader implements Closeable
 {
 
 	/**
@@ -52,6 +56,13 @@ public abstract class RandomAccessReader
 	 */
 	protected RandomAccessFile accessor;
 
+	/**
+	 * Serializes access to the file pointer. A lock is used instead of
+	 * synchronization so that a virtual thread waiting for or performing
+	 * I/O doesn't pin the carrier thread on which it runs.
+	 */
+	protected final InstrumentedLock lock = new InstrumentedLock();
+
 	/**
 	 * The file's size in bytes, which is assumed not to change.
 	 */
@@ -62,6 +73,11 @@ public abstract class RandomAccessReader
 	 */
 	private long filePointer;
 
+	/**
+	 * Name of the file, which identifies it in I/O traces.
+	 */
+	private String fileName;
+
 	/**
 	 * Constructs an instance of this class, specifying the file that is to
 	 * be read.
@@ -74,6 +90,7 @@ public abstract class RandomAccessReader
 		super();
 		accessor = new RandomAccessFile(file, ACCESS_MODE);
 		fileSize = file.length();
+		fileName = file.getName();
 		filePointer = accessor.getFilePointer();
 	}
 
@@ -85,13 +102,26 @@ public abstract class RandomAccessReader
 	 * @param  newPosition New byte position within the file.
 	 * @throws IOException An error occurred updating the file pointer.
 	 */
-	protected synchronized void seek(long newPosition) throws IOException
+	protected void seek(long newPosition) throws IOException
 	{
-		if (newPosition != filePointer)
+		lock.lock();
+		try
+		{
+			if (newPosition != filePointer)
+			{
+				RandomAccessFile reader = getAccessor();
+				reader.seek(newPosition);
+				filePointer = newPosition;
+				IoTraceContext trace = IoTraceContext.current();
+				if (trace != null)
+				{
+					trace.recordSeek();
+				}
+			}
+		}
+		finally
 		{
-			RandomAccessFile reader = getAccessor();
-			reader.seek(newPosition);
-			filePointer = newPosition;
+			lock.unlock();
 		}
 	}
 
@@ -104,24 +134,53 @@ public abstract class RandomAccessReader
 	 *         delimiter or the end of the file was encountered.
 	 * @throws IOException An error occurred reading the file.
 	 */
-	protected synchronized String readToNextEndOfLine() throws IOException
+	protected String readToNextEndOfLine() throws IOException
 	{
-		char nextChar;
+		return readToNextEndOfLine(false);
+	}
 
-		StringBuffer buffer = new StringBuffer();
-		while (filePointer < fileSize)
+	/**
+	 * Reads the rest of the current line, as {@link #readToNextEndOfLine()}
+	 * does, identifying whether the line is being read by a search for
+	 * another line or because it's needed by the caller. The distinction is
+	 * only used to describe the read in an I/O trace.
+	 * 
+	 * @param  probe <code>true</code> if the line is being read by a binary
+	 *         search, <code>false</code> if it's a record.
+	 * @return Characters read from the file position at entry until a line
+	 *         delimiter or the end of the file was encountered.
+	 * @throws IOException An error occurred reading the file.
+	 * @see    IoTraceContext
+	 */
+	protected String readToNextEndOfLine(boolean probe) throws IOException
+	{
+		lock.lock();
+		try
 		{
-			nextChar = readNextCharacter();
-			if (nextChar != LINE_SEPARATOR)
-			{
-				buffer.append(nextChar);
-			}
-			else
+			char nextChar;
+
+			long start = filePointer;
+
+			StringBuffer buffer = new StringBuffer();
+			while (filePointer < fileSize)
 			{
-				break;
+				nextChar = readNextCharacter();
+				if (nextChar != LINE_SEPARATOR)
+				{
+					buffer.append(nextChar);
+				}
+				else
+				{
+					break;
+				}
 			}
+			recordRead(start, filePointer - start, probe);
+			return buffer.toString();
+		}
+		finally
+		{
+			lock.unlock();
 		}
-		return buffer.toString();
 	}
 
 	/**
@@ -131,15 +190,55 @@ public abstract class RandomAccessReader
 	 * @throws IOException An error occurred reading the character.
 	 * @see    RandomAccessFile#read()
 	 */
-	protected synchronized char readNextCharacter() throws IOException
+	protected char readNextCharacter() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			char nextChar = (char)(-1);
+			if (filePointer < fileSize)
+			{
+				nextChar = (char)(accessor.read());
+				filePointer++;
+			}
+			return nextChar;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a read to the I/O trace of the current thread, if it has one.
+	 * Subclasses that read the file without using the methods of this class
+	 * (for example, because it's mapped into memory) should call this
+	 * method for each read.
+	 * 
+	 * @param  offset Position of the first byte that was read.
+	 * @param  length Number of bytes that were read.
+	 * @param  probe <code>true</code> if the read was made by a binary
+	 *         search, <code>false</code> if it read a record.
+	 */
+	protected void recordRead(long offset, long length, boolean probe)
 	{
-		char nextChar = (char)(-1);
-		if (filePointer < fileSize)
+		IoTraceContext trace = IoTraceContext.current();
+		if (trace != null)
 		{
-			nextChar = (char)(accessor.read());
-			filePointer++;
+			trace.recordRead(fileName, offset, length, probe);
 		}
-		return nextChar;
+	}
+
+	/**
+	 * Returns a snapshot of the use of the lock that serializes access to
+	 * the file pointer.
+	 * 
+	 * @param  name Name that identifies the lock in the snapshot.
+	 * @return Statistics of the lock.
+	 */
+	public LockStatistics getLockStatistics(String name)
+	{
+		return lock.getStatistics(name);
 	}
 
 	/**
@@ -173,14 +272,15 @@ public abstract class RandomAccessReader
 	}
 
 	/**
-	 * Called by the garbage collector when it's about to reclaim the memory
-	 * associated with this object.
-	 * <br><p>
-	 * We use this opportunity to close the file that was being read;
-	 * otherwise the file would remain open until the JVM exited.
+	 * Closes the file that's being read. Instances are intended to be kept
+	 * for as long as the file is needed and should be closed explicitly
+	 * once it no longer is.
+	 * 
+	 * @throws IOException An error occurred closing the file.
 	 */
-	protected void finalize() throws Throwable
+	public void close() throws IOException
 	{
+		lock.lock();
 		try
 		{
 			RandomAccessFile accessor = getAccessor();
@@ -189,10 +289,9 @@ public abstract class RandomAccessReader
 				accessor.close();
 			}
 		}
-		catch (IOException ioe)
+		finally
 		{
-			System.err.println("Error closing file: " + ioe.getMessage());
-			ioe.printStackTrace();
+			lock.unlock();
 		}
 	}
 
@@ -0,0 +1,424 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.impl.IoTraceContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a block-compressed copy of a WordNet database file, which is
+ * created by {@link BlockCompressedWriter}. The original file is divided
+ * into blocks of whole lines, each of which is compressed independently,
+ * so any line can be read by decompressing only the block that contains
+ * it.
+ * <br><p>
+ * A compressed file begins with a header consisting of a magic number, a
+ * format version and the length of the block table, all stored as
+ * four-byte integers. The block table follows and contains the number of
+ * blocks, the length of the original file and, for each block, its
+ * uncompressed and compressed lengths and the first field of its first
+ * line. The compressed blocks follow the table in order, so the position
+ * of each block (both within the original file and within the compressed
+ * one) is calculated from the lengths of the blocks that precede it.
+ * Because the table contains the first field of each block, a sorted file
+ * such as the sense index can be searched by decompressing at most a
+ * couple of blocks.
+ * <br><p>
+ * The most recently used decompressed blocks are cached. Blocks are read
+ * from the file using absolute positions, so any number of threads can
+ * read from the same instance simultaneously.
+ */
+public class BlockCompressedFile implements Closeable
+{
+
+	/**
+	 * Value with which every compressed file begins ("WNBK").
+	 */
+	final static int MAGIC = 0x574E424B;
+
+	/**
+	 * Version of the format that's written and read.
+	 */
+	final static int VERSION = 1;
+
+	/**
+	 * Extension appended to the name of the original file to form the name
+	 * of its compressed copy.
+	 */
+	final static String EXTENSION = ".blk";
+
+	/**
+	 * Number of bytes in the fixed part of the header.
+	 */
+	private final static int HEADER_LENGTH = 12;
+
+	/**
+	 * File that's read.
+	 */
+	private File file;
+
+	/**
+	 * Channel through which the compressed blocks are read.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Length of the original file.
+	 */
+	private long length;
+
+	/**
+	 * Position of each block within the original file.
+	 */
+	private long[] uncompressedStarts;
+
+	/**
+	 * Position of each block within the compressed file.
+	 */
+	private long[] compressedStarts;
+
+	/**
+	 * Length of each block after it's decompressed.
+	 */
+	private int[] uncompressedLengths;
+
+	/**
+	 * Length of each compressed block.
+	 */
+	private int[] compressedLengths;
+
+	/**
+	 * First field of the first line in each block.
+	 */
+	private String[] keys;
+
+	/**
+	 * Contents of the most recently used blocks, keyed by block number.
+	 */
+	private LeastRecentlyUsedCache cache;
+
+	/**
+	 * Constructor that accepts the compressed file, which is opened and
+	 * remains open until this instance is closed, and the number of
+	 * decompressed blocks to cache.
+	 *
+	 * @param  file Compressed file to read.
+	 * @param  cacheSize Number of decompressed blocks to cache.
+	 * @throws IOException An error occurred opening the file or it isn't a
+	 *         compressed database file.
+	 */
+	public BlockCompressedFile(File file, int cacheSize) throws IOException
+	{
+		this.file = file;
+		cache = new LeastRecentlyUsedCache(file.getName(), cacheSize);
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try
+		{
+			ByteBuffer header = read(0, HEADER_LENGTH);
+			if ((header.getInt() != MAGIC) || (header.getInt() != VERSION))
+			{
+				throw new IOException(file +
+						" isn't a block-compressed WordNet file");
+			}
+			int tableLength = header.getInt();
+			readTable(read(HEADER_LENGTH, tableLength),
+					HEADER_LENGTH + tableLength);
+		}
+		catch (IOException ioe)
+		{
+			channel.close();
+			throw ioe;
+		}
+	}
+
+	/**
+	 * Returns the compressed copy of a database file.
+	 *
+	 * @param  directory Directory that contains the compressed files.
+	 * @param  fileName Name of the original file (e.g.,
+	 *         <code>index.sense</code>).
+	 * @return Compressed file.
+	 */
+	static File getFile(File directory, String fileName)
+	{
+		return new File(directory, fileName + EXTENSION);
+	}
+
+	/**
+	 * Reads the block table.
+	 *
+	 * @param  table Contents of the block table.
+	 * @param  dataStart Position of the first compressed block.
+	 * @throws IOException An error occurred parsing the table.
+	 */
+	private void readTable(ByteBuffer table, long dataStart)
+			throws IOException
+	{
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				table.array(), 0, table.limit()));
+		int blockCount = in.readInt();
+		length = in.readLong();
+		uncompressedStarts = new long[blockCount];
+		compressedStarts = new long[blockCount];
+		uncompressedLengths = new int[blockCount];
+		compressedLengths = new int[blockCount];
+		keys = new String[blockCount];
+		long uncompressed = 0;
+		long compressed = dataStart;
+		for (int i = 0; i < blockCount; i++)
+		{
+			uncompressedStarts[i] = uncompressed;
+			compressedStarts[i] = compressed;
+			uncompressedLengths[i] = in.readInt();
+			compressedLengths[i] = in.readInt();
+			keys[i] = in.readUTF();
+			uncompressed += uncompressedLengths[i];
+			compressed += compressedLengths[i];
+		}
+		if (uncompressed != length)
+		{
+			throw new IOException("Block table of " + file +
+					" doesn't match the file length");
+		}
+	}
+
+	/**
+	 * Returns the length of the original file.
+	 *
+	 * @return Number of bytes in the original file.
+	 */
+	public long length()
+	{
+		return length;
+	}
+
+	/**
+	 * Returns the number of blocks into which the file is divided.
+	 *
+	 * @return Number of blocks.
+	 */
+	public int getBlockCount()
+	{
+		return keys.length;
+	}
+
+	/**
+	 * Reads the line that begins at a position within the original file.
+	 *
+	 * @param  offset Position of the line within the original file.
+	 * @return Line that begins at the offset, without its terminator.
+	 * @throws IOException An error occurred reading the file.
+	 */
+	public String readLine(long offset) throws IOException
+	{
+		int index = Arrays.binarySearch(uncompressedStarts, offset);
+		if (index < 0)
+		{
+			index = -index - 2;
+		}
+		if ((index < 0) || (offset >= length))
+		{
+			return "";
+		}
+		return SynsetReader.readLine(getBlock(index),
+				(int)(offset - uncompressedStarts[index]));
+	}
+
+	/**
+	 * Returns the lines that begin with a prefix, assuming that the lines
+	 * of the original file are sorted.
+	 *
+	 * @param  prefix Text with which the lines begin.
+	 * @return Matching lines, without their terminators.
+	 * @throws IOException An error occurred reading the file.
+	 * @see    SortedLines
+	 */
+	public List<String> readLines(String prefix) throws IOException
+	{
+		//  Matching lines may begin in the block before the first one whose
+		//  key sorts at or after the prefix
+		int first = 0;
+		int last = keys.length;
+		while (first < last)
+		{
+			int middle = (first + last) >>> 1;
+			if (keys[middle].compareTo(prefix) < 0)
+			{
+				first = middle + 1;
+			}
+			else
+			{
+				last = middle;
+			}
+		}
+		List<String> lines = new ArrayList<>();
+		for (int index = Math.max(first - 1, 0); index < keys.length; index++)
+		{
+			ByteBuffer data = getBlock(index);
+			int position = SortedLines.findFirstLine(data, prefix, 0);
+			while ((position < data.limit()) &&
+					(SortedLines.compare(data, position, prefix) == 0))
+			{
+				lines.add(SynsetReader.readLine(data, position));
+				position = SortedLines.findNextLine(data, position);
+			}
+			//  Only continue if the matches may extend into the next block
+			if (position < data.limit())
+			{
+				break;
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Decompresses the entire file, without adding its blocks to the cache.
+	 *
+	 * @return Read-only buffer containing the original file's contents.
+	 * @throws IOException An error occurred reading the file.
+	 */
+	public ByteBuffer readAll() throws IOException
+	{
+		byte[] contents = new byte[(int)length];
+		for (int i = 0; i < keys.length; i++)
+		{
+			byte[] block = decompress(i);
+			System.arraycopy(block, 0, contents,
+					(int)uncompressedStarts[i], block.length);
+		}
+		return ByteBuffer.wrap(contents).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns the decompressed contents of a block, from the cache if
+	 * they're available there.
+	 *
+	 * @param  index Number of the block.
+	 * @return Read-only buffer containing the block's contents.
+	 * @throws IOException An error occurred reading the file.
+	 */
+	private ByteBuffer getBlock(int index) throws IOException
+	{
+		Integer key = Integer.valueOf(index);
+		byte[] block = (byte[])(cache.get(key));
+		if (block == null)
+		{
+			block = decompress(index);
+			cache.put(key, block);
+		}
+		return ByteBuffer.wrap(block).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Reads and decompresses a block.
+	 *
+	 * @param  index Number of the block.
+	 * @return Contents of the block.
+	 * @throws IOException An error occurred reading the file or the block
+	 *         is corrupt.
+	 */
+	private byte[] decompress(int index) throws IOException
+	{
+		ByteBuffer compressed = read(compressedStarts[index],
+				compressedLengths[index]);
+		byte[] block = new byte[uncompressedLengths[index]];
+		Inflater inflater = new Inflater();
+		try
+		{
+			inflater.setInput(compressed.array(), 0, compressed.limit());
+			int count = inflater.inflate(block);
+			if ((count != block.length) || (!inflater.finished()))
+			{
+				throw new IOException("Block " + index + " of " + file +
+						" is corrupt");
+			}
+		}
+		catch (DataFormatException dfe)
+		{
+			throw new IOException("Block " + index + " of " + file +
+					" is corrupt: " + dfe.getMessage(), dfe);
+		}
+		finally
+		{
+			inflater.end();
+		}
+		return block;
+	}
+
+	/**
+	 * Reads bytes from an absolute position in the file.
+	 *
+	 * @param  position Position of the first byte to read.
+	 * @param  count Number of bytes to read.
+	 * @return Buffer that's backed by an array and positioned at the
+	 *         beginning of the bytes.
+	 * @throws IOException An error occurred reading the file or it ended
+	 *         before the bytes were read.
+	 */
+	private ByteBuffer read(long position, int count) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(count);
+		while (buffer.hasRemaining())
+		{
+			if (channel.read(buffer, position + buffer.position()) < 0)
+			{
+				throw new IOException("Unexpected end of " + file);
+			}
+		}
+		buffer.flip();
+		IoTraceContext trace = IoTraceContext.current();
+		if (trace != null)
+		{
+			trace.recordRead(file.getName(), position, count, false);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException An error occurred closing the file.
+	 */
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+
+}
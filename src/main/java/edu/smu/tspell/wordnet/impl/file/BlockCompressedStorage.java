@@ -0,0 +1,433 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.stream.Stream;
+
+/**
+ * Storage that reads a block-compressed copy of the WordNet database files
+ * created by {@link BlockCompressedWriter}. The data files and the sense
+ * index occupy about a third of their original size on disk and in the
+ * page cache, and each lookup decompresses only the block that contains
+ * the requested line (see {@link BlockCompressedFile}), keeping a small
+ * number of recently used blocks of each file in memory.
+ * <br><p>
+ * The compressed files are opened when an instance is created and remain
+ * open until it's closed. The exception lists and the sample sentence
+ * files, which aren't compressed, are read the first time they're needed.
+ */
+public class BlockCompressedStorage implements DictionaryStorage
+{
+
+	/**
+	 * Default number of decompressed blocks cached for each file.
+	 */
+	public final static int DEFAULT_BLOCK_CACHE_SIZE = 16;
+
+	/**
+	 * Synset types that correspond to the data files.
+	 */
+	private final static SynsetType[] FILE_TYPES = {SynsetType.NOUN,
+			SynsetType.VERB, SynsetType.ADJECTIVE, SynsetType.ADVERB};
+
+	/**
+	 * Text that indicates the end of the lemma / word form at the beginning
+	 * of each line in the sense index.
+	 */
+	private final static String LEMMA_TERMINATOR = "%";
+
+	/**
+	 * Opens the files that are read in their entirety.
+	 */
+	private DictionarySource source;
+
+	/**
+	 * Compressed data files, keyed by the type of synset each contains.
+	 */
+	private Map<SynsetType, BlockCompressedFile> dataFiles = new HashMap<>();
+
+	/**
+	 * Compressed sense index.
+	 */
+	private BlockCompressedFile senseIndex;
+
+	/**
+	 * Used to parse lines from the sense index.
+	 */
+	private SenseIndexParser parser = new SenseIndexParser();
+
+	/**
+	 * Provides the sentence frames of verb synsets.
+	 */
+	private SampleFrameFactory sampleFrameFactory;
+
+	/**
+	 * Maps verb senses to their sample sentence templates.
+	 */
+	private SampleIndexFactory sampleIndexFactory;
+
+	/**
+	 * Provides the sample sentence templates of verb synsets.
+	 */
+	private SampleTemplateFactory sampleTemplateFactory;
+
+	/**
+	 * Contents of the exception lists, which are read when they're first
+	 * needed.
+	 */
+	private volatile InflectionData inflections;
+
+	/**
+	 * Guards the reading of the exception lists.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Constructor that accepts the directory containing the compressed
+	 * files and the number of decompressed blocks to cache for each file,
+	 * and which opens the files.
+	 *
+	 * @param  directory Directory that contains the compressed files.
+	 * @param  cacheSize Number of decompressed blocks to cache for each
+	 *         file.
+	 * @throws RetrievalException An error occurred opening the files.
+	 */
+	public BlockCompressedStorage(File directory, int cacheSize)
+			throws RetrievalException
+	{
+		source = DictionarySource.directory(directory);
+		sampleFrameFactory = new SampleFrameFactory(source);
+		sampleIndexFactory = new SampleIndexFactory(source);
+		sampleTemplateFactory = new SampleTemplateFactory(source);
+		try
+		{
+			for (SynsetType type : FILE_TYPES)
+			{
+				dataFiles.put(type, new BlockCompressedFile(
+						BlockCompressedFile.getFile(directory,
+						SynsetReader.getFileName(type)), cacheSize));
+			}
+			senseIndex = new BlockCompressedFile(BlockCompressedFile.getFile(
+					directory, SenseIndexReader.SENSE_INDEX_FILE), cacheSize);
+		}
+		catch (IOException ioe)
+		{
+			try
+			{
+				close();
+			}
+			catch (RetrievalException re)
+			{
+				//  Report the original error instead
+			}
+			throw new RetrievalException("Error opening compressed files in " +
+					directory + ": " + ioe.getMessage(), ioe);
+		}
+	}
+
+	/**
+	 * Returns the compressed data file that contains synsets of a
+	 * particular type.
+	 *
+	 * @param  type Synset type for which to return the data file.
+	 * @return Compressed data file.
+	 */
+	private BlockCompressedFile getDataFile(SynsetType type)
+	{
+		return dataFiles.get(SynsetReader.getFileType(type));
+	}
+
+	/**
+	 * Returns the contents of the exception lists, reading them the first
+	 * time they're needed.
+	 *
+	 * @return Base forms of irregular inflections.
+	 * @throws RetrievalException An error occurred reading the exception
+	 *         lists.
+	 */
+	private InflectionData getInflectionData() throws RetrievalException
+	{
+		if (inflections == null)
+		{
+			lock.lock();
+			try
+			{
+				if (inflections == null)
+				{
+					inflections = new InflectionData(source);
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		return inflections;
+	}
+
+	/**
+	 * Returns the sense index entries for a lemma.
+	 *
+	 * @param  lemma Lemma for which to return entries.
+	 * @return Entries for the lemma.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public SenseIndexEntry[] getLemmaEntries(String lemma)
+			throws RetrievalException
+	{
+		return getSenseEntries(
+				TextTranslator.translateToDatabaseFormat(lemma) +
+				LEMMA_TERMINATOR);
+	}
+
+	/**
+	 * Returns the sense index entries for a group of lemmas. The lemmas
+	 * are looked up in sorted order so that lemmas stored in the same block
+	 * are found in the block cache.
+	 *
+	 * @param  lemmas Lemmas for which to return entries.
+	 * @return Entries for each of the lemmas.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public Map<String, SenseIndexEntry[]> getLemmaEntries(
+			Collection<String> lemmas) throws RetrievalException
+	{
+		//  Sort the distinct prefixes, remembering which lemmas map to each
+		Map<String, List<String>> prefixLemmas = new TreeMap<>();
+		for (String lemma : lemmas)
+		{
+			String prefix = TextTranslator.translateToDatabaseFormat(lemma) +
+					LEMMA_TERMINATOR;
+			prefixLemmas.computeIfAbsent(
+					prefix, key -> new ArrayList<>()).add(lemma);
+		}
+
+		Map<String, SenseIndexEntry[]> results = new HashMap<>();
+		for (Map.Entry<String, List<String>> prefixEntry :
+				prefixLemmas.entrySet())
+		{
+			SenseIndexEntry[] entries = getSenseEntries(prefixEntry.getKey());
+			for (String lemma : prefixEntry.getValue())
+			{
+				results.put(lemma, entries);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the sense index entries whose sense keys begin with a prefix.
+	 *
+	 * @param  prefix Text with which the sense keys begin.
+	 * @return Matching entries.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public SenseIndexEntry[] getSenseEntries(String prefix)
+			throws RetrievalException
+	{
+		try
+		{
+			List<String> lines = senseIndex.readLines(prefix);
+			SenseIndexEntry[] entries = new SenseIndexEntry[lines.size()];
+			for (int i = 0; i < entries.length; i++)
+			{
+				entries[i] = parser.parse(lines.get(i));
+			}
+			return entries;
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException(
+					"Error reading index file: " + ioe.getMessage(), ioe);
+		}
+	}
+
+	/**
+	 * Reads the line of a data file that a pointer refers to.
+	 *
+	 * @param  pointer Identifies the synset.
+	 * @return Line from the data file.
+	 * @throws RetrievalException An error occurred reading the data file.
+	 */
+	public String getSynsetRecord(SynsetPointer pointer)
+			throws RetrievalException
+	{
+		try
+		{
+			return getDataFile(pointer.getType()).readLine(
+					pointer.getOffset());
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException(
+					"An error occurred reading the synset data", ioe);
+		}
+	}
+
+	/**
+	 * Returns the lines of the data files that contain synsets of the
+	 * specified types. Each data file is decompressed in its entirety when
+	 * the stream is created.
+	 *
+	 * @param  types Types of synsets to return.
+	 * @return Stream of data file lines.
+	 * @throws RetrievalException An error occurred reading a data file.
+	 * @see    SynsetSpliterator
+	 */
+	public Stream<String> getSynsetRecords(SynsetType... types)
+			throws RetrievalException
+	{
+		return SynsetSpliterator.createStream(type ->
+		{
+			try
+			{
+				return getDataFile(type).readAll();
+			}
+			catch (IOException ioe)
+			{
+				throw new RetrievalException("Error reading data file: " +
+						ioe.getMessage(), ioe);
+			}
+		}, types);
+	}
+
+	/**
+	 * Returns the base forms of an irregular inflection.
+	 *
+	 * @param  inflection Inflected word form.
+	 * @param  type Syntactic category of the inflection.
+	 * @return Base forms of the inflection (may be empty).
+	 * @throws RetrievalException An error occurred reading the exception
+	 *         lists.
+	 */
+	public String[] getBaseForms(String inflection, SynsetType type)
+			throws RetrievalException
+	{
+		return getInflectionData().getBaseForms(inflection, type);
+	}
+
+	/**
+	 * Returns a generic sentence frame.
+	 *
+	 * @param  type Type of synset with which the frame is used.
+	 * @param  frameNumber Number that identifies the frame.
+	 * @return Text of the frame.
+	 * @throws RetrievalException An error occurred reading the frame file.
+	 */
+	public String getFrame(SynsetType type, String frameNumber)
+			throws RetrievalException
+	{
+		return sampleFrameFactory.getSample(type, frameNumber);
+	}
+
+	/**
+	 * Returns the keys of the sample sentences associated with a sense.
+	 *
+	 * @param  senseKey Key of the word sense.
+	 * @return Keys of the sample sentences.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public String[] getSampleKeys(SenseKey senseKey)
+			throws RetrievalException
+	{
+		return sampleIndexFactory.getSampleKeys(senseKey);
+	}
+
+	/**
+	 * Returns a sample sentence template.
+	 *
+	 * @param  type Type of synset with which the template is used.
+	 * @param  key Key that identifies the template.
+	 * @return Text of the template.
+	 * @throws RetrievalException An error occurred reading the sentence
+	 *         file.
+	 */
+	public String getSampleTemplate(SynsetType type, String key)
+			throws RetrievalException
+	{
+		return sampleTemplateFactory.getSample(type, key);
+	}
+
+	/**
+	 * Returns snapshots of the use of this storage's locks. The compressed
+	 * files are read using absolute positions, and the only lock guards the
+	 * loading of the exception lists, so there are none to report.
+	 *
+	 * @return Empty map.
+	 */
+	public Map<String, LockStatistics> getLockStatistics()
+	{
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Closes the compressed files that have been opened.
+	 *
+	 * @throws RetrievalException An error occurred closing a file; the
+	 *         other files are closed regardless.
+	 */
+	public void close() throws RetrievalException
+	{
+		IOException failure = null;
+		List<BlockCompressedFile> files = new ArrayList<>(
+				dataFiles.values());
+		if (senseIndex != null)
+		{
+			files.add(senseIndex);
+		}
+		for (BlockCompressedFile file : files)
+		{
+			try
+			{
+				file.close();
+			}
+			catch (IOException ioe)
+			{
+				failure = ioe;
+			}
+		}
+		if (failure != null)
+		{
+			throw new RetrievalException(
+					"Error closing file: " + failure.getMessage(), failure);
+		}
+	}
+
+}
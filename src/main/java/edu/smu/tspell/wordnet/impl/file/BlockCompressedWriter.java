@@ -0,0 +1,265 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.util.zip.Deflater;
+
+/**
+ * Creates the block-compressed copy of a WordNet database that's read when
+ * a database is built with the
+ * {@link edu.smu.tspell.wordnet.api.IoMode#BLOCK_COMPRESSED} mode. The data
+ * files and the sense index are compressed into the format described by
+ * {@link BlockCompressedFile}, and the (much smaller) exception lists and
+ * verb sample sentence files are copied unchanged.
+ * The other files in the database directory aren't used by this library
+ * and aren't copied.
+ * <br><p>
+ * The copy can be created from the command line:
+ * <pre>
+ * java edu.smu.tspell.wordnet.impl.file.BlockCompressedWriter
+ *         &lt;source directory&gt; &lt;target directory&gt; [block size]
+ * </pre>
+ */
+public class BlockCompressedWriter
+{
+
+	/**
+	 * Default approximate number of uncompressed bytes in each block.
+	 * Smaller blocks make random reads faster, while larger blocks compress
+	 * better.
+	 */
+	public final static int DEFAULT_BLOCK_SIZE = 32 * 1024;
+
+	/**
+	 * Synset types that correspond to the data files.
+	 */
+	private final static SynsetType[] FILE_TYPES = {SynsetType.NOUN,
+			SynsetType.VERB, SynsetType.ADJECTIVE, SynsetType.ADVERB};
+
+	/**
+	 * Files that are copied without being compressed.
+	 */
+	private final static String[] COPIED_FILES = {"noun.exc", "verb.exc",
+			"adj.exc", "adv.exc", "frames.vrb", "sentidx.vrb", "sents.vrb"};
+
+	/**
+	 * Constructor that prevents instances from being created.
+	 */
+	private BlockCompressedWriter()
+	{
+	}
+
+	/**
+	 * Creates a block-compressed copy of a database.
+	 *
+	 * @param  source Directory that contains the database files.
+	 * @param  target Directory in which to create the copy, which is
+	 *         created if it doesn't exist.
+	 * @param  blockSize Approximate number of uncompressed bytes in each
+	 *         block.
+	 * @throws IOException An error occurred reading or writing the files.
+	 */
+	public static void compress(File source, File target, int blockSize)
+			throws IOException
+	{
+		Files.createDirectories(target.toPath());
+		for (SynsetType type : FILE_TYPES)
+		{
+			compress(source, target, SynsetReader.getFileName(type),
+					blockSize);
+		}
+		compress(source, target, SenseIndexReader.SENSE_INDEX_FILE,
+				blockSize);
+		for (String fileName : COPIED_FILES)
+		{
+			Files.copy(new File(source, fileName).toPath(),
+					new File(target, fileName).toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Creates the block-compressed copy of a single file.
+	 *
+	 * @param  source Directory that contains the file.
+	 * @param  target Directory in which to create the copy.
+	 * @param  fileName Name of the file.
+	 * @param  blockSize Approximate number of uncompressed bytes in each
+	 *         block.
+	 * @throws IOException An error occurred reading or writing the file.
+	 */
+	private static void compress(File source, File target, String fileName,
+			int blockSize) throws IOException
+	{
+		byte[] contents = Files.readAllBytes(
+				new File(source, fileName).toPath());
+		try (OutputStream out = new FileOutputStream(
+				BlockCompressedFile.getFile(target, fileName)))
+		{
+			write(contents, out, blockSize);
+		}
+	}
+
+	/**
+	 * Writes the block-compressed form of a file's contents.
+	 *
+	 * @param  contents Contents of the original file.
+	 * @param  out Stream to which the compressed form is written.
+	 * @param  blockSize Approximate number of uncompressed bytes in each
+	 *         block; a block is extended past this size when needed so
+	 *         that it ends with a complete line.
+	 * @throws IOException An error occurred writing to the stream.
+	 */
+	public static void write(byte[] contents, OutputStream out,
+			int blockSize) throws IOException
+	{
+		if (blockSize <= 0)
+		{
+			throw new IllegalArgumentException(
+					"Invalid block size: " + blockSize);
+		}
+		ByteArrayOutputStream tableBytes = new ByteArrayOutputStream();
+		DataOutputStream table = new DataOutputStream(tableBytes);
+		ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		byte[] buffer = new byte[blockSize + 1024];
+		int blockCount = 0;
+		try
+		{
+			ByteArrayOutputStream entries = new ByteArrayOutputStream();
+			DataOutputStream entry = new DataOutputStream(entries);
+			int start = 0;
+			while (start < contents.length)
+			{
+				int end = findBlockEnd(contents, start, blockSize);
+				deflater.reset();
+				deflater.setInput(contents, start, end - start);
+				deflater.finish();
+				int compressedLength = 0;
+				while (!deflater.finished())
+				{
+					int count = deflater.deflate(buffer);
+					blocks.write(buffer, 0, count);
+					compressedLength += count;
+				}
+				entry.writeInt(end - start);
+				entry.writeInt(compressedLength);
+				entry.writeUTF(getKey(contents, start, end));
+				blockCount++;
+				start = end;
+			}
+			table.writeInt(blockCount);
+			table.writeLong(contents.length);
+			entries.writeTo(table);
+			table.flush();
+		}
+		finally
+		{
+			deflater.end();
+		}
+		DataOutputStream header = new DataOutputStream(out);
+		header.writeInt(BlockCompressedFile.MAGIC);
+		header.writeInt(BlockCompressedFile.VERSION);
+		header.writeInt(tableBytes.size());
+		tableBytes.writeTo(header);
+		blocks.writeTo(header);
+		header.flush();
+	}
+
+	/**
+	 * Returns the position following the last line of a block.
+	 *
+	 * @param  contents Contents of the original file.
+	 * @param  start Position of the block's first line.
+	 * @param  blockSize Approximate number of bytes in the block.
+	 * @return Position following the terminator of the line that contains
+	 *         the last byte of the block, or the end of the contents.
+	 */
+	private static int findBlockEnd(byte[] contents, int start,
+			int blockSize)
+	{
+		int end = Math.min(start + blockSize, contents.length);
+		while ((end < contents.length) && (contents[end - 1] != '\n'))
+		{
+			end++;
+		}
+		return end;
+	}
+
+	/**
+	 * Returns the first field of a block's first line.
+	 *
+	 * @param  contents Contents of the original file.
+	 * @param  start Position of the block's first line.
+	 * @param  end Position following the block.
+	 * @return Text preceding the first space or line terminator.
+	 */
+	private static String getKey(byte[] contents, int start, int end)
+	{
+		int index = start;
+		while ((index < end) && (contents[index] != ' ') &&
+				(contents[index] != '\n'))
+		{
+			index++;
+		}
+		return new String(contents, start, index - start,
+				StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Creates a block-compressed copy of a database from the command line.
+	 *
+	 * @param  args Source directory, target directory and, optionally,
+	 *         block size.
+	 * @throws IOException An error occurred reading or writing the files.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if ((args.length < 2) || (args.length > 3))
+		{
+			System.err.println("Usage: java " +
+					BlockCompressedWriter.class.getName() +
+					" <source directory> <target directory> [block size]");
+			System.exit(1);
+		}
+		int blockSize = (args.length > 2 ?
+				Integer.parseInt(args[2]) : DEFAULT_BLOCK_SIZE);
+		compress(new File(args[0]), new File(args[1]), blockSize);
+	}
+
+}
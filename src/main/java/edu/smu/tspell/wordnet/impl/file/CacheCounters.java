@@ -0,0 +1,131 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the hits, misses and load time of a cache. The counts are kept
+ * in {@link LongAdder}s so that recording them doesn't cause contention
+ * between the threads that use the cache, and they're only summed when a
+ * snapshot is requested.
+ */
+final class CacheCounters
+{
+
+	/**
+	 * Number of requests that were answered from the cache.
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Number of requests that required data to be loaded.
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Total time spent loading data, in nanoseconds.
+	 */
+	private final LongAdder loadTime = new LongAdder();
+
+	/**
+	 * Number of characters in the records that were loaded.
+	 */
+	private final LongAdder loadedCharacters = new LongAdder();
+
+	/**
+	 * Records a request that was answered from the cache.
+	 */
+	void recordHit()
+	{
+		hits.increment();
+	}
+
+	/**
+	 * Records requests that required data to be loaded.
+	 *
+	 * @param  count Number of requests.
+	 * @param  nanos Time spent loading the data for all of the requests.
+	 */
+	void recordMisses(int count, long nanos)
+	{
+		misses.add(count);
+		loadTime.add(nanos);
+	}
+
+	/**
+	 * Records the length of a record that was loaded, from which the size
+	 * of the cached entries is estimated.
+	 *
+	 * @param  length Number of characters in the record.
+	 */
+	void recordLoadedLength(int length)
+	{
+		loadedCharacters.add(length);
+	}
+
+	/**
+	 * Returns the number of requests that were answered from the cache.
+	 *
+	 * @return Number of hits.
+	 */
+	long getHitCount()
+	{
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of requests that required data to be loaded.
+	 *
+	 * @return Number of misses.
+	 */
+	long getMissCount()
+	{
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the total time spent loading data.
+	 *
+	 * @return Load time, in nanoseconds.
+	 */
+	long getLoadTime()
+	{
+		return loadTime.sum();
+	}
+
+	/**
+	 * Returns the average length of the records that were loaded.
+	 *
+	 * @param  defaultLength Value returned if nothing has been loaded.
+	 * @return Average number of characters in each record.
+	 */
+	long getAverageLoadedLength(long defaultLength)
+	{
+		long count = misses.sum();
+		return (count == 0 ? defaultLength : loadedCharacters.sum() / count);
+	}
+
+}
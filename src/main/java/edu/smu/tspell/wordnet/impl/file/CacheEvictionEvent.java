@@ -0,0 +1,68 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for an entry that was dropped from a
+ * {@link LeastRecentlyUsedCache} to make room for another. Evictions can
+ * be very frequent, so the event is disabled unless a recording enables
+ * it.
+ */
+@Name("edu.smu.tspell.jaws.CacheEviction")
+@Label("Cache Eviction")
+@Category("WordNet")
+@Description("Entry dropped from a cache to make room for another")
+@Enabled(false)
+@StackTrace(false)
+final class CacheEvictionEvent extends Event
+{
+
+	/**
+	 * Name of the cache.
+	 */
+	@Label("Cache")
+	String cache;
+
+	/**
+	 * Key of the entry that was dropped.
+	 */
+	@Label("Key")
+	String key;
+
+	/**
+	 * Maximum number of entries held by the cache.
+	 */
+	@Label("Maximum Entries")
+	int maximumEntries;
+
+}
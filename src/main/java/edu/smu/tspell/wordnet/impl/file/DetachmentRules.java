@@ -29,6 +29,7 @@ import edu.smu.tspell.wordnet.api.SynsetType;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Encapsulates the rules of detachment used by WordNet.
@@ -100,7 +101,12 @@ public class DetachmentRules
 	/**
 	 * Singleton instance of this class.
 	 */
-	private static DetachmentRules instance;
+	private static volatile DetachmentRules instance;
+
+	/**
+	 * Guards creation of the singleton instance.
+	 */
+	private final static ReentrantLock INSTANCE_LOCK = new ReentrantLock();
 
 	/**
 	 * Static initializer that populates the type / rules map.
@@ -119,11 +125,22 @@ public class DetachmentRules
 	 * 
 	 * @return Reference to the singleton instance of this class.
 	 */
-	public synchronized static DetachmentRules getInstance()
+	public static DetachmentRules getInstance()
 	{
 		if (instance == null)
 		{
-			instance = new DetachmentRules();
+			INSTANCE_LOCK.lock();
+			try
+			{
+				if (instance == null)
+				{
+					instance = new DetachmentRules();
+				}
+			}
+			finally
+			{
+				INSTANCE_LOCK.unlock();
+			}
 		}
 		return instance;
 	}
@@ -0,0 +1,99 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Opens the WordNet database files by name, regardless of whether they're
+ * stored in a directory, on the class path or within a zip (JAR) file.
+ * 
+ * @see TextFileStorage
+ * @see ResourceStorage
+ */
+public interface DictionarySource extends Closeable
+{
+
+	/**
+	 * Opens a database file for reading.
+	 * 
+	 * @param  fileName Name of the file (e.g., <code>index.sense</code>).
+	 * @return Stream from which the file's contents can be read, which the
+	 *         caller must close.
+	 * @throws IOException The file doesn't exist or couldn't be opened.
+	 */
+	public InputStream open(String fileName) throws IOException;
+
+	/**
+	 * Releases any resources held by this source. This implementation does
+	 * nothing.
+	 * 
+	 * @throws IOException An error occurred releasing the resources.
+	 */
+	public default void close() throws IOException
+	{
+	}
+
+	/**
+	 * Returns a source that opens the files in a directory.
+	 * 
+	 * @param  directory Directory that contains the database files.
+	 * @return Source of the files in the directory.
+	 */
+	public static DictionarySource directory(File directory)
+	{
+		return fileName -> new FileInputStream(new File(directory, fileName));
+	}
+
+	/**
+	 * Returns a source that opens the files as class path resources.
+	 * 
+	 * @param  loader Class loader from which to load the resources.
+	 * @param  path Path of the resources that contain the database files,
+	 *         such as <code>wordnet/dict</code>, relative to the root of the
+	 *         class path.
+	 * @return Source of the resources.
+	 */
+	public static DictionarySource classpath(ClassLoader loader, String path)
+	{
+		String prefix = ZipSource.toPrefix(path);
+		return fileName ->
+		{
+			InputStream stream = loader.getResourceAsStream(prefix + fileName);
+			if (stream == null)
+			{
+				throw new FileNotFoundException(
+						"Class path resource not found: " + prefix + fileName);
+			}
+			return stream;
+		};
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.util.Collection;
+import java.util.Map;
+
+import java.util.stream.Stream;
+
+/**
+ * Provides the primitive operations that a {@link FileDatabase} needs in
+ * order to read WordNet data, independently of how that data is stored.
+ * <br><p>
+ * Records are returned in the format used by the WordNet database files:
+ * synsets as the text of a line from a data file (see {@link SynsetParser})
+ * and senses as parsed lines from the sense index. A storage only retrieves
+ * data, while the database parses it and caches the resulting synsets, so
+ * an implementation doesn't need to cache anything in order for repeated
+ * lookups to be fast. {@link TextFileStorage} reads the standard WordNet
+ * files, and other implementations (for example, ones that hold the entire
+ * database in memory or read a different file layout) can be passed to
+ * {@link FileDatabase#FileDatabase(DictionaryStorage,
+ * edu.smu.tspell.wordnet.api.WordNetDatabase.Builder)}.
+ * <br><p>
+ * Implementations must be safe for use by multiple threads.
+ * 
+ * @see <a href="http://wordnet.princeton.edu/man/wndb.5WN">Format of
+ *      WordNet database files</a>
+ */
+public interface DictionaryStorage extends AutoCloseable
+{
+
+	/**
+	 * Returns the sense index entries for a lemma.
+	 * 
+	 * @param  lemma Lemma (word form) in any case and with spaces separating
+	 *         the words of a collocation.
+	 * @return Entries for the lemma, in sense index order; the array is
+	 *         empty if there are none.
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public SenseIndexEntry[] getLemmaEntries(String lemma)
+			throws RetrievalException;
+
+	/**
+	 * Returns the sense index entries for each of a group of lemmas.
+	 * Implementations should retrieve the entries for the group more
+	 * efficiently than they could retrieve them for each lemma individually.
+	 * 
+	 * @param  lemmas Lemmas for which to return entries.
+	 * @return Map in which the keys are the specified lemmas and the values
+	 *         are their entries; lemmas without entries are mapped to an
+	 *         empty array.
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public Map<String, SenseIndexEntry[]> getLemmaEntries(
+			Collection<String> lemmas) throws RetrievalException;
+
+	/**
+	 * Returns the sense index entries whose sense keys begin with a prefix,
+	 * which is used to look up the entries for a full or partial sense key.
+	 * An empty prefix returns every entry, which is how
+	 * {@link SynsetGraph} reads the senses of all synsets.
+	 * 
+	 * @param  prefix Text with which the sense keys begin, in the format
+	 *         used by the sense index.
+	 * @return Matching entries, in sense index order.
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public SenseIndexEntry[] getSenseEntries(String prefix)
+			throws RetrievalException;
+
+	/**
+	 * Returns the record of the synset that a pointer refers to.
+	 * 
+	 * @param  pointer Identifies the synset.
+	 * @return Synset record, in the format of a data file line.
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public String getSynsetRecord(SynsetPointer pointer)
+			throws RetrievalException;
+
+	/**
+	 * Returns the records of every synset of the specified types, in the
+	 * order in which they're stored. Implementations should support
+	 * splitting the stream efficiently so that it can be parsed in
+	 * parallel.
+	 * 
+	 * @param  types Types of synsets to return; all synsets are returned if
+	 *         none are specified.
+	 * @return Stream of synset records.
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public Stream<String> getSynsetRecords(SynsetType... types)
+			throws RetrievalException;
+
+	/**
+	 * Returns the base forms of an irregular inflection from the exception
+	 * lists.
+	 * 
+	 * @param  inflection Inflected word form.
+	 * @param  type Syntactic category of the inflection.
+	 * @return Base forms of the inflection (may be empty).
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public String[] getBaseForms(String inflection, SynsetType type)
+			throws RetrievalException;
+
+	/**
+	 * Returns a generic sentence frame.
+	 * 
+	 * @param  type Type of synset with which the frame is used.
+	 * @param  frameNumber Number that identifies the frame.
+	 * @return Text of the frame, or <code>null</code> if there is none.
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public String getFrame(SynsetType type, String frameNumber)
+			throws RetrievalException;
+
+	/**
+	 * Returns the keys of the sample sentences associated with a sense.
+	 * 
+	 * @param  senseKey Key of the word sense.
+	 * @return Keys of the sample sentences (may be empty).
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public String[] getSampleKeys(SenseKey senseKey)
+			throws RetrievalException;
+
+	/**
+	 * Returns a sample sentence template.
+	 * 
+	 * @param  type Type of synset with which the template is used.
+	 * @param  key Key that identifies the template.
+	 * @return Text of the template, or <code>null</code> if there is none.
+	 * @throws RetrievalException An error occurred reading the data.
+	 */
+	public String getSampleTemplate(SynsetType type, String key)
+			throws RetrievalException;
+
+	/**
+	 * Returns snapshots of the use of the locks that serialize access to
+	 * this storage's files, keyed by lock name (such as
+	 * {@link LockStatistics#SENSE_INDEX_READER}).
+	 * 
+	 * @return Statistics of each lock, which is empty if the storage
+	 *         doesn't use any.
+	 */
+	public Map<String, LockStatistics> getLockStatistics();
+
+	/**
+	 * Releases any resources, such as open files, held by this storage.
+	 * 
+	 * @throws RetrievalException An error occurred releasing the resources.
+	 */
+	public void close() throws RetrievalException;
+
+}
@@ -24,16 +24,49 @@
  */
 package edu.smu.tspell.wordnet.impl.file;
 
+import edu.smu.tspell.wordnet.api.CacheStatistics;
+import edu.smu.tspell.wordnet.api.IoMode;
+import edu.smu.tspell.wordnet.api.IoTrace;
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.LookupStage;
+import edu.smu.tspell.wordnet.api.SlowQueryListener;
+import edu.smu.tspell.wordnet.api.StageHistogram;
 import edu.smu.tspell.wordnet.api.Synset;
 import edu.smu.tspell.wordnet.api.SynsetType;
 import edu.smu.tspell.wordnet.api.WordNetDatabase;
 import edu.smu.tspell.wordnet.api.WordNetException;
+import edu.smu.tspell.wordnet.impl.IoTraceContext;
+
+import java.io.IOException;
+
+import java.time.Duration;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.stream.Stream;
 
 /**
  * Reference implementation of a file-based Java API for WordNet.
  * <br><p>
  * This is essentially a facade that delegates the requests to the appropriate
- * implementation classes.
+ * implementation classes. Each instance has its own set of those classes,
+ * so the caches, open files and configuration of one instance are
+ * independent of those of any other.
+ * <br><p>
+ * The data itself is retrieved from a {@link DictionaryStorage}, which by
+ * default is a {@link TextFileStorage} that reads the standard WordNet
+ * files. The synsets and word form lookups are cached by this class
+ * regardless of which storage is used. The storage is opened when an
+ * instance is created and remains open until the instance is closed, after
+ * which it can no longer be used.
+ * <br><p>
+ * The static <code>getInstance()</code> methods of the implementation
+ * classes return the objects that belong to the instance returned by
+ * {@link #getDefault()}.
  * 
  * @author Brett Spell
  */
@@ -41,10 +74,209 @@ public class FileDatabase extends WordNetDatabase
 {
 
 	/**
-	 * No-argument constructor.
+	 * Retrieves the data.
+	 */
+	private DictionaryStorage storage;
+
+	/**
+	 * Executor for asynchronous lookups.
+	 */
+	private Executor executor;
+
+	/**
+	 * Reads and caches synsets.
+	 */
+	private SynsetFactory synsetFactory;
+
+	/**
+	 * Looks up and caches the synsets that contain word forms.
+	 */
+	private WordFormLookup wordFormLookup;
+
+	/**
+	 * Applies the morphology rules.
+	 */
+	private Morphology morphology;
+
+	/**
+	 * Creates synsets from the records returned by the storage.
+	 */
+	private SynsetParser parser;
+
+	/**
+	 * Counts the requests for the relationships of this database's synsets
+	 * and the time spent resolving them.
+	 */
+	private final CacheCounters relationCounters = new CacheCounters();
+
+	/**
+	 * Records the latencies of the stages of this database's lookups.
+	 */
+	private StageTimer stageTimer;
+
+	/**
+	 * Reports lookups that take longer than a threshold.
+	 */
+	private SlowQueryLog slowQueryLog;
+
+	/**
+	 * Records the calls made through this instance, or <code>null</code>
+	 * if they aren't recorded.
+	 */
+	private QueryLog queryLog;
+
+	/**
+	 * Graph of this database's synsets, which is built when it's first
+	 * requested.
+	 */
+	private volatile SynsetGraph graph;
+
+	/**
+	 * Guards the building of the graph.
+	 */
+	private final ReentrantLock graphLock = new ReentrantLock();
+
+	/**
+	 * Guards the closing of the storage.
 	 */
-	public FileDatabase()
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Indicates whether this instance has been closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * No-argument constructor, which opens the database files using the
+	 * configuration specified by the system properties.
+	 * 
+	 * @throws WordNetException An error occurred opening the files.
+	 * @see    PropertyNames
+	 */
+	public FileDatabase() throws WordNetException
 	{
+		this(WordNetDatabase.builder());
+	}
+
+	/**
+	 * Constructor that accepts a builder's configuration and opens the
+	 * database files in the builder's directory, zip file or class path
+	 * location.
+	 * 
+	 * @param  builder Configuration of this instance.
+	 * @throws WordNetException An error occurred opening the files.
+	 * @see    WordNetDatabase#builder()
+	 */
+	public FileDatabase(WordNetDatabase.Builder builder)
+			throws WordNetException
+	{
+		this(createStorage(builder), builder);
+	}
+
+	/**
+	 * Constructor that accepts the storage from which data is retrieved
+	 * and a builder's configuration, of which the directory and I/O mode
+	 * are ignored. The storage is closed when this instance is closed, or
+	 * immediately if the query log can't be created.
+	 * 
+	 * @param  storage Storage from which data is retrieved.
+	 * @param  builder Configuration of this instance.
+	 * @throws RetrievalException An error occurred creating the query log.
+	 */
+	public FileDatabase(DictionaryStorage storage,
+			WordNetDatabase.Builder builder)
+	{
+		this.storage = storage;
+		executor = builder.getExecutor();
+		stageTimer = new StageTimer(builder.isLookupMetricsEnabled());
+		slowQueryLog = new SlowQueryLog(builder.getSlowQueryThreshold(),
+				builder.getSlowQueryListener(), builder.getSlowQueryLimit());
+		stageTimer.setTracing(slowQueryLog.isEnabled());
+		synsetFactory = new SynsetFactory(this, builder.getSynsetCacheSize());
+		wordFormLookup = new WordFormLookup(this, builder.getWordCacheSize());
+		morphology = new Morphology(storage, stageTimer);
+		parser = new SynsetParser(this);
+		if (builder.getQueryLog() != null)
+		{
+			try
+			{
+				queryLog = new QueryLog(builder.getQueryLog());
+			}
+			catch (RetrievalException re)
+			{
+				//  the storage belongs to this instance, which won't exist
+				closeStorage(re);
+				throw re;
+			}
+		}
+	}
+
+	/**
+	 * Closes the storage after this instance couldn't be created, adding
+	 * any error that occurs to the one that prevented its creation.
+	 * 
+	 * @param  cause Error that prevented this instance's creation.
+	 */
+	private void closeStorage(RetrievalException cause)
+	{
+		try
+		{
+			storage.close();
+		}
+		catch (RuntimeException re)
+		{
+			cause.addSuppressed(re);
+		}
+	}
+
+	/**
+	 * Creates the storage that reads the database files from the location
+	 * specified by a builder.
+	 * 
+	 * @param  builder Configuration of the database.
+	 * @return Storage for the database files.
+	 * @throws RetrievalException An error occurred opening the files.
+	 */
+	private static DictionaryStorage createStorage(
+			WordNetDatabase.Builder builder) throws RetrievalException
+	{
+		if (builder.getClassLoader() != null)
+		{
+			return new ResourceStorage(DictionarySource.classpath(
+					builder.getClassLoader(), builder.getResourcePath()));
+		}
+		if (builder.getZipFile() != null)
+		{
+			try
+			{
+				return new ResourceStorage(new ZipSource(
+						builder.getZipFile(), builder.getResourcePath()));
+			}
+			catch (IOException ioe)
+			{
+				throw new RetrievalException("Error opening zip file " +
+						builder.getZipFile() + ": " + ioe.getMessage(), ioe);
+			}
+		}
+		if (builder.getIoMode() == IoMode.BLOCK_COMPRESSED)
+		{
+			return new BlockCompressedStorage(builder.getDirectory(),
+					BlockCompressedStorage.DEFAULT_BLOCK_CACHE_SIZE);
+		}
+		return new TextFileStorage(builder.getDirectory(), builder.getIoMode());
+	}
+
+	/**
+	 * Returns the instance that's returned by
+	 * {@link WordNetDatabase#getFileInstance()}, which is configured using
+	 * the system properties and isn't closed by {@link #close()}.
+	 * 
+	 * @return Default instance of this class.
+	 * @throws WordNetException An error occurred opening the database files.
+	 */
+	public static FileDatabase getDefault() throws WordNetException
+	{
+		return (FileDatabase)(WordNetDatabase.getFileInstance());
 	}
 
 	/**
@@ -81,10 +313,77 @@ public class FileDatabase extends WordNetDatabase
 	public Synset[] getSynsets(String wordForm, SynsetType type,
 			boolean useMorphology) throws WordNetException
 	{
+		checkOpen();
+		if (queryLog != null)
+		{
+			queryLog.recordLookup(wordForm, type, useMorphology);
+		}
 		SynsetType[] typeArray = (type != null ?
 				new SynsetType[] {type} : SynsetType.ALL_TYPES);
-		WordFormLookup factory = WordFormLookup.getInstance();
-		return factory.getSynsets(wordForm, typeArray, useMorphology);
+		QueryContext context = slowQueryLog.begin();
+		if (context == null)
+		{
+			return wordFormLookup.getSynsets(
+					wordForm, typeArray, useMorphology);
+		}
+		long start = System.nanoTime();
+		try
+		{
+			return wordFormLookup.getSynsets(
+					wordForm, typeArray, useMorphology);
+		}
+		finally
+		{
+			slowQueryLog.end(context, System.nanoTime() - start, wordForm,
+					type, useMorphology);
+		}
+	}
+
+	/**
+	 * Returns the synsets that contain each of a group of word forms, using
+	 * a single sorted pass through the sense index and reading the synsets
+	 * in ascending order of their location within each data file.
+	 * 
+	 * @param  wordForms Text representing words or collocations (phrases).
+	 * @param  type Type of synsets (e.g., noun) to return; if this
+	 *         argument is <code>null</code>, all synsets will be returned
+	 *         that contain the word forms.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations of the word forms should
+	 *         also be returned.
+	 * @return Map in which the keys are the distinct word forms, in the
+	 *         order in which they were specified, and the values are the
+	 *         synsets that contain them.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 * @see    WordFormLookup#getSynsets(Collection, SynsetType[], boolean)
+	 */
+	public Map<String, Synset[]> getSynsets(Collection<String> wordForms,
+			SynsetType type, boolean useMorphology) throws WordNetException
+	{
+		checkOpen();
+		if (queryLog != null)
+		{
+			queryLog.recordBatchLookup(wordForms, type, useMorphology);
+		}
+		SynsetType[] typeArray = (type != null ?
+				new SynsetType[] {type} : SynsetType.ALL_TYPES);
+		QueryContext context = slowQueryLog.begin();
+		if (context == null)
+		{
+			return wordFormLookup.getSynsets(
+					wordForms, typeArray, useMorphology);
+		}
+		long start = System.nanoTime();
+		try
+		{
+			return wordFormLookup.getSynsets(
+					wordForms, typeArray, useMorphology);
+		}
+		finally
+		{
+			slowQueryLog.end(context, System.nanoTime() - start, wordForms,
+					type, useMorphology);
+		}
 	}
 
 	/**
@@ -100,8 +399,344 @@ public class FileDatabase extends WordNetDatabase
 	 */
 	public String[] getBaseFormCandidates(String inflection, SynsetType type)
 	{
-		Morphology morphology = Morphology.getInstance();
+		checkOpen();
+		if (queryLog != null)
+		{
+			queryLog.recordBaseForms(inflection, type);
+		}
 		return morphology.getBaseFormCandidates(inflection, type);
 	}
 
+	/**
+	 * Returns every synset of the specified types by parsing all of the
+	 * storage's records, bypassing the synset cache.
+	 * 
+	 * @param  types Types of synsets (e.g., noun) to return; if none are
+	 *         specified, all synsets are returned.
+	 * @return Stream of all synsets of the specified types.
+	 * @throws WordNetException An error occurred opening the data files.
+	 * @see    DictionaryStorage#getSynsetRecords(SynsetType...)
+	 */
+	public Stream<Synset> allSynsets(SynsetType... types)
+			throws WordNetException
+	{
+		checkOpen();
+		if (queryLog != null)
+		{
+			queryLog.recordAllSynsets(types);
+		}
+		return storage.getSynsetRecords(types).map(parser::createSynset);
+	}
+
+	/**
+	 * Returns the storage from which data is retrieved.
+	 * 
+	 * @return Storage used by this instance.
+	 */
+	public DictionaryStorage getStorage()
+	{
+		return storage;
+	}
+
+	/**
+	 * Returns the executor on which asynchronous lookups are run.
+	 * 
+	 * @return Executor for asynchronous lookups.
+	 */
+	public Executor getExecutor()
+	{
+		return executor;
+	}
+
+	/**
+	 * Returns the object that reads and caches this database's synsets.
+	 * 
+	 * @return Synset factory.
+	 */
+	public SynsetFactory getSynsetFactory()
+	{
+		return synsetFactory;
+	}
+
+	/**
+	 * Returns the object that looks up the synsets containing word forms.
+	 * 
+	 * @return Word form lookup.
+	 */
+	public WordFormLookup getWordFormLookup()
+	{
+		return wordFormLookup;
+	}
+
+	/**
+	 * Returns the morphology processing for this database.
+	 * 
+	 * @return Morphology processing.
+	 */
+	public Morphology getMorphology()
+	{
+		return morphology;
+	}
+
+	/**
+	 * Returns the graph of this database's synsets and the relationships
+	 * between them, building it from the storage's records the first time
+	 * that it's requested.
+	 * 
+	 * @return Synset graph of this database.
+	 * @throws WordNetException An error occurred reading the records.
+	 */
+	public SynsetGraph getGraph() throws WordNetException
+	{
+		checkOpen();
+		if (graph == null)
+		{
+			graphLock.lock();
+			try
+			{
+				if (graph == null)
+				{
+					graph = new SynsetGraph(this);
+				}
+			}
+			finally
+			{
+				graphLock.unlock();
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Returns the statistics of the word form cache, the synset cache, the
+	 * weakly referenced synsets behind it and the resolved relationships
+	 * of synsets. The relationships are kept by the synsets themselves, so
+	 * only their requests and resolution time are tracked.
+	 * 
+	 * @return Snapshot of the statistics of each cache.
+	 */
+	public Map<String, CacheStatistics> getCacheStatistics()
+	{
+		Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+		statistics.put(CacheStatistics.WORD_CACHE,
+				wordFormLookup.getStatistics());
+		statistics.put(CacheStatistics.SYNSET_CACHE,
+				synsetFactory.getStatistics());
+		statistics.put(CacheStatistics.WEAK_SYNSETS,
+				synsetFactory.getWeakStatistics());
+		statistics.put(CacheStatistics.RELATION_REFERENCES,
+				new CacheStatistics(CacheStatistics.RELATION_REFERENCES,
+				relationCounters.getHitCount(),
+				relationCounters.getMissCount(),
+				relationCounters.getLoadTime(), -1, -1, -1, -1));
+		return statistics;
+	}
+
+	/**
+	 * Returns the statistics of the locks that guard the synset cache and
+	 * the word form cache, followed by those of the storage's locks.
+	 * 
+	 * @return Snapshot of the statistics of each lock.
+	 */
+	public Map<String, LockStatistics> getLockStatistics()
+	{
+		Map<String, LockStatistics> statistics = new LinkedHashMap<>();
+		statistics.put(LockStatistics.SYNSET_FACTORY,
+				synsetFactory.getLockStatistics());
+		statistics.put(LockStatistics.WORD_FORM_LOOKUP,
+				wordFormLookup.getLockStatistics());
+		statistics.putAll(storage.getLockStatistics());
+		return statistics;
+	}
+
+	/**
+	 * Changes the maximum number of entries held by the word form cache
+	 * or the synset cache.
+	 * 
+	 * @param  cacheName {@link CacheStatistics#WORD_CACHE} or
+	 *         {@link CacheStatistics#SYNSET_CACHE}.
+	 * @param  size Maximum number of entries.
+	 * @throws IllegalArgumentException The cache can't be resized or the
+	 *         size is negative.
+	 */
+	public void setCacheSize(String cacheName, int size)
+	{
+		if (CacheStatistics.WORD_CACHE.equals(cacheName))
+		{
+			wordFormLookup.setCacheSize(size);
+		}
+		else if (CacheStatistics.SYNSET_CACHE.equals(cacheName))
+		{
+			synsetFactory.setCacheSize(size);
+		}
+		else
+		{
+			super.setCacheSize(cacheName, size);
+		}
+	}
+
+	/**
+	 * Returns the latency histograms of the stages of this database's
+	 * lookups, which are empty unless lookup metrics have been enabled.
+	 * 
+	 * @return Snapshot of the histogram of each stage.
+	 */
+	public Map<LookupStage, StageHistogram> getLookupMetrics()
+	{
+		return stageTimer.getHistograms();
+	}
+
+	/**
+	 * Indicates whether the latencies of this database's lookups are being
+	 * recorded.
+	 * 
+	 * @return <code>true</code> if lookup metrics are enabled.
+	 */
+	public boolean isLookupMetricsEnabled()
+	{
+		return stageTimer.isEnabled();
+	}
+
+	/**
+	 * Enables or disables the recording of the latencies of this
+	 * database's lookups. The values already recorded are kept.
+	 * 
+	 * @param  enabled <code>true</code> if latencies should be recorded.
+	 */
+	public void setLookupMetricsEnabled(boolean enabled)
+	{
+		stageTimer.setEnabled(enabled);
+	}
+
+	/**
+	 * Returns the time above which this database's lookups are reported
+	 * to its slow query listener.
+	 * 
+	 * @return Threshold, or <code>null</code> if lookups aren't reported.
+	 */
+	public Duration getSlowQueryThreshold()
+	{
+		return slowQueryLog.getThreshold();
+	}
+
+	/**
+	 * Changes the time above which this database's lookups are reported
+	 * to its slow query listener.
+	 * 
+	 * @param  threshold New threshold, or <code>null</code> to stop
+	 *         reporting lookups.
+	 * @throws IllegalArgumentException The threshold is negative.
+	 */
+	public void setSlowQueryThreshold(Duration threshold)
+	{
+		slowQueryLog.setThreshold(threshold);
+		stageTimer.setTracing(slowQueryLog.isEnabled());
+	}
+
+	/**
+	 * Makes a call on the current thread and returns a summary of the file
+	 * regions it read.
+	 * 
+	 * @param  call Call to trace.
+	 * @return Summary of the reads made by the call.
+	 */
+	public IoTrace trace(Runnable call)
+	{
+		IoTraceContext context = IoTraceContext.begin();
+		long start = System.nanoTime();
+		try
+		{
+			call.run();
+		}
+		finally
+		{
+			context.end();
+		}
+		return context.toTrace(System.nanoTime() - start);
+	}
+
+	/**
+	 * Returns the timer that records the latencies of this database's
+	 * lookups.
+	 * 
+	 * @return Stage timer.
+	 */
+	StageTimer getStageTimer()
+	{
+		return stageTimer;
+	}
+
+	/**
+	 * Returns the counters for the relationships resolved by this
+	 * database's synsets.
+	 * 
+	 * @return Relationship counters.
+	 */
+	CacheCounters getRelationCounters()
+	{
+		return relationCounters;
+	}
+
+	/**
+	 * Returns the log in which the calls made through this instance are
+	 * recorded.
+	 * 
+	 * @return Query log, or <code>null</code> if calls aren't recorded.
+	 */
+	QueryLog getQueryLog()
+	{
+		return queryLog;
+	}
+
+	/**
+	 * Closes this instance, its storage and its query log. This has no
+	 * effect on the instance returned by {@link #getDefault()}, which is
+	 * shared by every caller.
+	 * 
+	 * @throws WordNetException An error occurred closing the storage.
+	 */
+	public void close() throws WordNetException
+	{
+		lock.lock();
+		try
+		{
+			if ((!closed) && (!isShared()))
+			{
+				closed = true;
+				if (queryLog != null)
+				{
+					queryLog.close();
+				}
+				storage.close();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Indicates whether this instance has been closed.
+	 * 
+	 * @return <code>true</code> if this instance has been closed.
+	 */
+	public boolean isClosed()
+	{
+		return closed;
+	}
+
+	/**
+	 * Ensures that this instance hasn't been closed.
+	 * 
+	 * @throws IllegalStateException This instance has been closed.
+	 */
+	private void checkOpen()
+	{
+		if (closed)
+		{
+			throw new IllegalStateException("The database has been closed");
+		}
+	}
+
 }
\ No newline at end of file
@@ -27,9 +27,8 @@ package edu.smu.tspell.wordnet.impl.file;
 import edu.smu.tspell.wordnet.api.SynsetType;
 
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -75,9 +74,9 @@ public class InflectionData
 			InflectionData.class.getName());
 
 	/**
-	 * Singleton instance of this class.
+	 * Opens the exception files.
 	 */
-	private static InflectionData instance;
+	private DictionarySource source;
 
 	/**
 	 * Maps words to their inflected form(s). For each entry in this map,
@@ -89,28 +88,27 @@ public class InflectionData
 	private Map<String, Map<SynsetType, String[]>> inflectionMaps = new HashMap<>();
 
 	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Returns the inflection data of the storage returned by
+	 * {@link TextFileStorage#getDefault()}.
 	 * 
-	 * @return Reference to the singleton instance of this class.
+	 * @return Inflection data of the default database.
 	 */
-	public synchronized static InflectionData getInstance()
+	public static InflectionData getInstance()
 	{
-		if (instance == null)
-		{
-			instance = new InflectionData();
-		}
-		return instance;
+		return TextFileStorage.getDefault().getInflectionData();
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Constructor that accepts the source of the exception files and which
+	 * reads them.
 	 * 
+	 * @param  source Opens the database files.
 	 * @throws RetrievalException An error occurred reading the exception data.
 	 */
-	private InflectionData() throws RetrievalException
+	InflectionData(DictionarySource source) throws RetrievalException
 	{
 		super();
+		this.source = source;
 		loadExceptions();
 	}
 
@@ -161,9 +159,8 @@ public class InflectionData
 		String inflection;
 		String[] baseForms;
 
-		String dir = System.getProperty(PropertyNames.DATABASE_DIRECTORY, ".");
-		File file = new File(dir, fileName);
-		BufferedReader reader = new BufferedReader(new FileReader(file));
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(source.open(fileName)));
 		String line = reader.readLine();
 		//  Loop through all lines in the file
 		while (line != null)
@@ -27,6 +27,7 @@ package edu.smu.tspell.wordnet.impl.file;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implements a least-recently-used (LRU) cache. In other words, it caches up
@@ -44,6 +45,11 @@ import java.util.TreeMap;
  */
 public class LeastRecentlyUsedCache {
 
+	/**
+	 * Name that identifies the cache in flight recorder events.
+	 */
+	private String name;
+
 	/**
 	 * The maximum number of entries that are allowed to be cached.
 	 */
@@ -86,12 +92,37 @@ public class LeastRecentlyUsedCache {
 	 */
 	private long lastTime = 0;
 
+	/**
+	 * Number of entries that have been dropped to make room for others.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Guards the maps, which are updated by retrievals as well as stores.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
 	/**
 	 * Constructor that accepts a count indicating the maximum number of
 	 * entries that should be cached.
 	 */
 	public LeastRecentlyUsedCache(int maximumEntries)
 	{
+		this("unnamed", maximumEntries);
+	}
+
+	/**
+	 * Constructor that accepts the name of the cache, which identifies it
+	 * in the flight recorder events for its evictions, and a count
+	 * indicating the maximum number of entries that should be cached.
+	 * 
+	 * @param  name Name of the cache.
+	 * @param  maximumEntries Maximum number of entries to cache.
+	 * @see    CacheEvictionEvent
+	 */
+	public LeastRecentlyUsedCache(String name, int maximumEntries)
+	{
+		this.name = name;
 		this.maximumEntries = maximumEntries;
 		data = new HashMap(maximumEntries);
 		keyTimes = new HashMap(maximumEntries);
@@ -105,42 +136,43 @@ public class LeastRecentlyUsedCache {
 	 * @param  key Key of the entry to store in the cache.
 	 * @param  value Value for the entry to store in the cache.
 	 */
-	public synchronized void put(Object key, Object value)
+	public void put(Object key, Object value)
 	{
-		//  Do we cache anything at all? If not, don't do anything now
-		if (maximumEntries > 0)
+		lock.lock();
+		try
 		{
-			//  Get the last time the key was stored or retrieved
-			Object keyTime = keyTimes.get(key);
-			//  If no entry exists we should add the pair to the cache
-			if (keyTime == null)
+			//  Do we cache anything at all? If not, don't do anything now
+			if (maximumEntries > 0)
 			{
-				//  Will we need to drop the least recently used entry?
-				if (data.size() >= maximumEntries)
+				//  Get the last time the key was stored or retrieved
+				Object keyTime = keyTimes.get(key);
+				//  If no entry exists we should add the pair to the cache
+				if (keyTime == null)
 				{
-					//  Get the longest time ago an entry was referenced
-					Object timeKey = timeKeys.firstKey();
-					//  Remove entry from time/key map and get its key
-					Object dataKey = timeKeys.remove(timeKey);
-					//  Remove entry from the key/time map
-					keyTimes.remove(dataKey);
-					//  Remove entry from the data map
-					data.remove(dataKey);
+					//  Will we need to drop the least recently used entry?
+					if (data.size() >= maximumEntries)
+					{
+						evictLeastRecentlyUsed();
+					}
+					//  Store the new key / value pair in the data map
+					data.put(key, value);
 				}
-				//  Store the new key / value pair in the data map
-				data.put(key, value);
-			}
-			//  Entry was already cached; remove its old time entry
-			else
-			{
-				key = timeKeys.remove(keyTime);
+				//  Entry was already cached; remove its old time entry
+				else
+				{
+					key = timeKeys.remove(keyTime);
+				}
+				//  Get a new / updated time for this pair
+				keyTime = getUniqueTimeKey();
+				//  Create the time/key map entry
+				timeKeys.put(keyTime, key);
+				//  Create the key/time entry or update old one with new time
+				keyTimes.put(key, keyTime);
 			}
-			//  Get a new / updated time for this pair
-			keyTime = getUniqueTimeKey();
-			//  Create the time/key map entry
-			timeKeys.put(keyTime, key);
-			//  Create the key/time entry or update old one with new time
-			keyTimes.put(key, keyTime);
+		}
+		finally
+		{
+			lock.unlock();
 		}
 	}
 
@@ -151,16 +183,153 @@ public class LeastRecentlyUsedCache {
 	 * @param  key Key for which to return the value.
 	 * @return Value associated with the specified key.
 	 */
-	public synchronized Object get(Object key)
+	public Object get(Object key)
+	{
+		lock.lock();
+		try
+		{
+			//  Get a value for the key (if there is one)
+			Object value = data.get(key);
+			//  If an entry exists for the key, mark it as referenced
+			if ((value != null) || (data.containsKey(key)))
+			{
+				markReferenced(key);
+			}
+			return value;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Indicates whether an entry exists for a key, without marking the
+	 * entry as having been referenced.
+	 * 
+	 * @param  key Key for which to check.
+	 * @return <code>true</code> if the key is in the cache.
+	 */
+	public boolean containsKey(Object key)
+	{
+		lock.lock();
+		try
+		{
+			return data.containsKey(key);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of entries currently in the cache.
+	 * 
+	 * @return Number of cached entries.
+	 */
+	public int size()
+	{
+		lock.lock();
+		try
+		{
+			return data.size();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of entries that are cached.
+	 * 
+	 * @return Maximum number of entries.
+	 */
+	public int getMaximumEntries()
+	{
+		lock.lock();
+		try
+		{
+			return maximumEntries;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Changes the maximum number of entries that are cached, dropping the
+	 * least recently used entries if the cache now holds too many.
+	 * 
+	 * @param  maximumEntries Maximum number of entries.
+	 * @throws IllegalArgumentException The number is negative.
+	 */
+	public void setMaximumEntries(int maximumEntries)
+	{
+		if (maximumEntries < 0)
+		{
+			throw new IllegalArgumentException(
+					"Invalid cache size: " + maximumEntries);
+		}
+		lock.lock();
+		try
+		{
+			this.maximumEntries = maximumEntries;
+			while (data.size() > maximumEntries)
+			{
+				evictLeastRecentlyUsed();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of entries that have been dropped, either to make
+	 * room for others or because the cache was made smaller.
+	 * 
+	 * @return Number of evicted entries.
+	 */
+	public long getEvictionCount()
+	{
+		lock.lock();
+		try
+		{
+			return evictionCount;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops the entry that was referenced the longest time ago. The lock
+	 * must be held by the caller.
+	 */
+	private void evictLeastRecentlyUsed()
 	{
-		//  Get a value for the key (if there is one)
-		Object value = data.get(key);
-		//  If an entry exists for the key, mark it as referenced
-		if ((value != null) || (data.containsKey(key)))
+		//  Get the longest time ago an entry was referenced
+		Object timeKey = timeKeys.firstKey();
+		//  Remove entry from time/key map and get its key
+		Object dataKey = timeKeys.remove(timeKey);
+		//  Remove entry from the key/time map
+		keyTimes.remove(dataKey);
+		//  Remove entry from the data map
+		data.remove(dataKey);
+		evictionCount++;
+		CacheEvictionEvent event = new CacheEvictionEvent();
+		if (event.shouldCommit())
 		{
-			markReferenced(key);
+			event.cache = name;
+			event.key = String.valueOf(dataKey);
+			event.maximumEntries = maximumEntries;
+			event.commit();
 		}
-		return value;
 	}
 
 	/**
@@ -0,0 +1,80 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for a lookup of the synsets that contain a word
+ * form, or for the group of word forms whose synsets are loaded together
+ * by a batch lookup. Its duration includes searching the sense index and
+ * reading the synsets when they aren't already cached.
+ */
+@Name("edu.smu.tspell.jaws.LemmaLookup")
+@Label("Lemma Lookup")
+@Category("WordNet")
+@Description("Lookup of the synsets that contain one or more word forms")
+@Threshold("20 us")
+final class LemmaLookupEvent extends Event
+{
+
+	/**
+	 * Word form that was looked up, or the word forms of a batch separated
+	 * by commas.
+	 */
+	@Label("Lemma")
+	String lemma;
+
+	/**
+	 * Number of word forms that were looked up.
+	 */
+	@Label("Lemma Count")
+	int lemmaCount;
+
+	/**
+	 * Code of the part of speech whose synsets were returned, or
+	 * <code>null</code> for a batch, which loads every part of speech.
+	 */
+	@Label("Part of Speech")
+	String partOfSpeech;
+
+	/**
+	 * Indicates whether the synsets were already cached.
+	 */
+	@Label("Cache Hit")
+	boolean cacheHit;
+
+	/**
+	 * Number of synsets that were found.
+	 */
+	@Label("Synset Count")
+	int synsetCount;
+
+}
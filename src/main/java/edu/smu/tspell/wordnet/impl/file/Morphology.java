@@ -24,6 +24,7 @@
  */
 package edu.smu.tspell.wordnet.impl.file;
 
+import edu.smu.tspell.wordnet.api.LookupStage;
 import edu.smu.tspell.wordnet.api.SynsetType;
 
 /**
@@ -35,30 +36,37 @@ public class Morphology
 {
 
 	/**
-	 * Singleton instance of this class.
+	 * Storage that contains the exception lists.
 	 */
-	private static Morphology instance;
+	private DictionaryStorage storage;
 
 	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Records the time spent finding base form candidates.
+	 */
+	private StageTimer timer;
+
+	/**
+	 * Returns the morphology of the database returned by
+	 * {@link FileDatabase#getDefault()}.
 	 * 
-	 * @return Reference to the singleton instance of this class.
+	 * @return Morphology of the default database.
 	 */
-	public static synchronized Morphology getInstance()
+	public static Morphology getInstance()
 	{
-		if (instance == null)
-		{
-			instance = new Morphology();
-		}
-		return instance;
+		return FileDatabase.getDefault().getMorphology();
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Constructor that accepts the storage of a database and the timer
+	 * that records the latencies of its lookups.
+	 * 
+	 * @param  storage Storage that contains the exception lists.
+	 * @param  timer Records the time spent finding base form candidates.
 	 */
-	private Morphology()
+	Morphology(DictionaryStorage storage, StageTimer timer)
 	{
+		this.storage = storage;
+		this.timer = timer;
 	}
 
 	/**
@@ -104,8 +112,10 @@ public class Morphology
 	public String[] getBaseFormCandidates(String inflection,
 			SynsetType type)
 	{
-		InflectionData inflections = InflectionData.getInstance();
-		String[] exceptions = inflections.getBaseForms(inflection, type);
+		MorphologyEvent event = new MorphologyEvent();
+		event.begin();
+		long start = timer.start();
+		String[] exceptions = storage.getBaseForms(inflection, type);
 		DetachmentRules rules = DetachmentRules.getInstance();
 		String[] detachments = rules.getCandidateForms(inflection, type);
 		String[] candidates =
@@ -113,6 +123,16 @@ public class Morphology
 		System.arraycopy(exceptions, 0, candidates, 0, exceptions.length);
 		System.arraycopy(detachments, 0,
 				candidates, exceptions.length, detachments.length);
+		timer.record(LookupStage.MORPHOLOGY, start);
+		if (event.shouldCommit())
+		{
+			event.inflection = inflection;
+			event.partOfSpeech = String.valueOf(
+					SynsetTypeConverter.getCode(type));
+			event.exceptionCount = exceptions.length;
+			event.candidateCount = candidates.length;
+			event.commit();
+		}
 		return candidates;
 	}
 
@@ -0,0 +1,70 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for the generation of the base form candidates of
+ * a word form from the exception lists and the detachment rules.
+ */
+@Name("edu.smu.tspell.jaws.Morphology")
+@Label("Morphology")
+@Category("WordNet")
+@Description("Generation of the base form candidates of a word form")
+@Threshold("20 us")
+final class MorphologyEvent extends Event
+{
+
+	/**
+	 * Word form whose base forms were requested.
+	 */
+	@Label("Inflection")
+	String inflection;
+
+	/**
+	 * Code of the part of speech of the base forms.
+	 */
+	@Label("Part of Speech")
+	String partOfSpeech;
+
+	/**
+	 * Number of candidates found in the exception lists.
+	 */
+	@Label("Exception Count")
+	int exceptionCount;
+
+	/**
+	 * Total number of candidates.
+	 */
+	@Label("Candidate Count")
+	int candidateCount;
+
+}
@@ -0,0 +1,185 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.LookupStage;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Accumulates the work done by a single database call on the thread that
+ * performs it, such as the time spent in each stage and the number of
+ * bytes read. A context is only created for calls that are being
+ * measured, and it's confined to the thread that made the call, so its
+ * values are updated without synchronization.
+ *
+ * @see StageTimer
+ */
+final class QueryContext
+{
+
+	/**
+	 * Context of the call being made by each thread, if any.
+	 */
+	private final static ThreadLocal<QueryContext> CURRENT =
+			new ThreadLocal<>();
+
+	/**
+	 * Stages whose time is accumulated.
+	 */
+	private final static LookupStage[] STAGES = LookupStage.values();
+
+	/**
+	 * Nanoseconds spent in each stage.
+	 */
+	private final long[] stageTimes = new long[STAGES.length];
+
+	/**
+	 * Number of bytes read by the stages.
+	 */
+	private long bytesRead;
+
+	/**
+	 * Number of sense index entries read.
+	 */
+	private int indexEntries;
+
+	/**
+	 * Number of synsets read from the data files.
+	 */
+	private int synsetsLoaded;
+
+	/**
+	 * Returns the context of the call being made by the current thread.
+	 *
+	 * @return Context, or <code>null</code> if the call isn't being
+	 *         measured.
+	 */
+	static QueryContext current()
+	{
+		return CURRENT.get();
+	}
+
+	/**
+	 * Creates a context for a call made by the current thread, unless the
+	 * call is nested within another one that's already being measured.
+	 *
+	 * @return New context, or <code>null</code> if the thread already has
+	 *         one.
+	 */
+	static QueryContext begin()
+	{
+		if (CURRENT.get() != null)
+		{
+			return null;
+		}
+		QueryContext context = new QueryContext();
+		CURRENT.set(context);
+		return context;
+	}
+
+	/**
+	 * Removes this context from the current thread once its call is
+	 * complete.
+	 */
+	void end()
+	{
+		CURRENT.remove();
+	}
+
+	/**
+	 * Records the time spent in a stage and the number of bytes it read.
+	 *
+	 * @param  stage Stage that was performed.
+	 * @param  nanos Time spent in the stage.
+	 * @param  bytes Number of bytes read.
+	 */
+	void recordStage(LookupStage stage, long nanos, long bytes)
+	{
+		stageTimes[stage.ordinal()] += nanos;
+		bytesRead += bytes;
+		if (stage == LookupStage.DATA_READ)
+		{
+			synsetsLoaded++;
+		}
+	}
+
+	/**
+	 * Records sense index entries that were read.
+	 *
+	 * @param  count Number of entries.
+	 */
+	void recordIndexEntries(int count)
+	{
+		indexEntries += count;
+	}
+
+	/**
+	 * Returns the time spent in each stage.
+	 *
+	 * @return Map of the nanoseconds spent in each stage.
+	 */
+	Map<LookupStage, Long> getStageTimes()
+	{
+		Map<LookupStage, Long> times = new EnumMap<>(LookupStage.class);
+		for (LookupStage stage : STAGES)
+		{
+			times.put(stage, Long.valueOf(stageTimes[stage.ordinal()]));
+		}
+		return times;
+	}
+
+	/**
+	 * Returns the number of bytes read by the stages.
+	 *
+	 * @return Number of bytes read.
+	 */
+	long getBytesRead()
+	{
+		return bytesRead;
+	}
+
+	/**
+	 * Returns the number of sense index entries read.
+	 *
+	 * @return Number of index entries.
+	 */
+	int getIndexEntries()
+	{
+		return indexEntries;
+	}
+
+	/**
+	 * Returns the number of synsets read from the data files.
+	 *
+	 * @return Number of synsets loaded.
+	 */
+	int getSynsetsLoaded()
+	{
+		return synsetsLoaded;
+	}
+
+}
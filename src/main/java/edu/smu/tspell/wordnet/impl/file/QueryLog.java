@@ -0,0 +1,447 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records the lookups made through a database and the relationships
+ * requested from its synsets in a binary file, which is read by
+ * {@link QueryLogReader}.
+ * <br><p>
+ * The file begins with a header that contains {@link #MAGIC},
+ * {@link #VERSION} and the time at which the log began, in milliseconds
+ * since the epoch. Each record that follows begins with the ordinal of its
+ * {@link QueryLogRecord.Kind} and the number of nanoseconds since the
+ * previous record, followed by the arguments of the call. To keep the
+ * file small, numbers are written as variable length integers, synset
+ * types as their codes (zero meaning all types), and each string is only
+ * written the first time it occurs; later occurrences refer to it by
+ * number. A string is written as the length of its UTF-8 encoding followed
+ * by the encoded bytes. To bound the memory used by long recordings, the
+ * numbers are forgotten once {@link #MAXIMUM_STRINGS} strings have been
+ * numbered, after which the next new string is numbered zero again; the
+ * reader forgets them at the same point.
+ * <br><p>
+ * An error writing the file stops the recording and is reported to the
+ * platform logger rather than to the caller, whose lookup was successful.
+ */
+final class QueryLog
+{
+
+	/**
+	 * First four bytes of a query log.
+	 */
+	final static int MAGIC = 0x4A514C47;
+
+	/**
+	 * Version of the format.
+	 */
+	final static int VERSION = 2;
+
+	/**
+	 * Reference written in place of a <code>null</code> string.
+	 */
+	final static int NULL_STRING = 0;
+
+	/**
+	 * Reference written before a string that hasn't occurred before, which
+	 * is assigned the next number.
+	 */
+	final static int NEW_STRING = 1;
+
+	/**
+	 * Value added to a string's number to form its reference.
+	 */
+	final static int FIRST_STRING = 2;
+
+	/**
+	 * Number of strings that are numbered before the numbers are forgotten
+	 * and assigned again.
+	 */
+	final static int MAXIMUM_STRINGS = 64 * 1024;
+
+	/**
+	 * Size of the buffer in which records are accumulated.
+	 */
+	private final static int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Receives the errors that stop the recording.
+	 */
+	private final static System.Logger LOGGER =
+			System.getLogger("edu.smu.tspell.jaws.QueryLog");
+
+	/**
+	 * File in which the calls are recorded.
+	 */
+	private Path file;
+
+	/**
+	 * Writes the records to the file.
+	 */
+	private DataOutputStream output;
+
+	/**
+	 * Numbers assigned to the strings that have been written.
+	 */
+	private Map<String, Integer> strings = new HashMap<>();
+
+	/**
+	 * Time at which the previous record was written.
+	 */
+	private long previousTime;
+
+	/**
+	 * Guards the output, which is shared by all of the threads making
+	 * calls, and the strings.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Constructor that accepts the file in which to record calls and
+	 * writes its header, replacing the file if it exists.
+	 *
+	 * @param  file File in which to record calls.
+	 * @throws RetrievalException An error occurred creating the file.
+	 */
+	QueryLog(Path file) throws RetrievalException
+	{
+		this.file = file;
+		try
+		{
+			output = new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(file), BUFFER_SIZE));
+			output.writeInt(MAGIC);
+			output.writeByte(VERSION);
+			output.writeLong(System.currentTimeMillis());
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException("Error creating query log " +
+					file + ": " + ioe.getMessage(), ioe);
+		}
+		previousTime = System.nanoTime();
+	}
+
+	/**
+	 * Records a lookup of the synsets that contain a word form.
+	 *
+	 * @param  wordForm Word form that was looked up.
+	 * @param  type Type of synsets requested, or <code>null</code>.
+	 * @param  morphology <code>true</code> if variants were requested.
+	 */
+	void recordLookup(String wordForm, SynsetType type, boolean morphology)
+	{
+		lock.lock();
+		try
+		{
+			if (begin(QueryLogRecord.Kind.LOOKUP))
+			{
+				writeType(type);
+				output.writeBoolean(morphology);
+				writeString(wordForm);
+			}
+		}
+		catch (IOException ioe)
+		{
+			stop(ioe);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a lookup of the synsets that contain each of a group of word
+	 * forms.
+	 *
+	 * @param  wordForms Word forms that were looked up.
+	 * @param  type Type of synsets requested, or <code>null</code>.
+	 * @param  morphology <code>true</code> if variants were requested.
+	 */
+	void recordBatchLookup(Collection<String> wordForms, SynsetType type,
+			boolean morphology)
+	{
+		lock.lock();
+		try
+		{
+			if (begin(QueryLogRecord.Kind.BATCH_LOOKUP))
+			{
+				writeType(type);
+				output.writeBoolean(morphology);
+				writeNumber(wordForms.size());
+				for (String wordForm : wordForms)
+				{
+					writeString(wordForm);
+				}
+			}
+		}
+		catch (IOException ioe)
+		{
+			stop(ioe);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a request for the base form candidates of an inflection.
+	 *
+	 * @param  inflection Inflection whose base forms were requested.
+	 * @param  type Syntactic type of the request.
+	 */
+	void recordBaseForms(String inflection, SynsetType type)
+	{
+		lock.lock();
+		try
+		{
+			if (begin(QueryLogRecord.Kind.BASE_FORMS))
+			{
+				writeType(type);
+				writeString(inflection);
+			}
+		}
+		catch (IOException ioe)
+		{
+			stop(ioe);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a request for every synset of some types.
+	 *
+	 * @param  types Types of synsets requested, which are empty if all
+	 *         types were requested.
+	 */
+	void recordAllSynsets(SynsetType[] types)
+	{
+		lock.lock();
+		try
+		{
+			if (begin(QueryLogRecord.Kind.ALL_SYNSETS))
+			{
+				writeNumber(types.length);
+				for (SynsetType type : types)
+				{
+					writeType(type);
+				}
+			}
+		}
+		catch (IOException ioe)
+		{
+			stop(ioe);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a request for the relationships of a synset.
+	 *
+	 * @param  type Type of the synset.
+	 * @param  offset Offset of the synset within its data file.
+	 * @param  relationship Type of relationship that was requested.
+	 * @param  targetType Type of the related synsets requested, or
+	 *         <code>null</code> if they may be of any type.
+	 * @param  wordForm Word form whose lexical relationships were
+	 *         requested, or <code>null</code> for semantic relationships.
+	 */
+	void recordRelation(SynsetType type, int offset,
+			RelationshipType relationship, SynsetType targetType,
+			String wordForm)
+	{
+		lock.lock();
+		try
+		{
+			if (begin(QueryLogRecord.Kind.RELATION))
+			{
+				writeType(type);
+				writeNumber(offset);
+				writeString(relationship.getSymbol());
+				writeType(targetType);
+				writeString(wordForm);
+			}
+		}
+		catch (IOException ioe)
+		{
+			stop(ioe);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the remaining records to the file and closes it.
+	 */
+	void close()
+	{
+		lock.lock();
+		try
+		{
+			if (output != null)
+			{
+				output.close();
+				output = null;
+			}
+		}
+		catch (IOException ioe)
+		{
+			stop(ioe);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the kind and time of a record, unless the recording has been
+	 * stopped.
+	 *
+	 * @param  kind Kind of call being recorded.
+	 * @return <code>true</code> if the record should be completed.
+	 * @throws IOException An error occurred writing the file.
+	 */
+	private boolean begin(QueryLogRecord.Kind kind) throws IOException
+	{
+		if (output == null)
+		{
+			return false;
+		}
+		long now = System.nanoTime();
+		output.writeByte(kind.ordinal());
+		writeNumber(Math.max(now - previousTime, 0));
+		previousTime = now;
+		return true;
+	}
+
+	/**
+	 * Writes a synset type as its code.
+	 *
+	 * @param  type Type to write, or <code>null</code> for all types.
+	 * @throws IOException An error occurred writing the file.
+	 */
+	private void writeType(SynsetType type) throws IOException
+	{
+		output.writeByte(type != null ? type.getCode() : 0);
+	}
+
+	/**
+	 * Writes a string, or a reference to it if it was written since the
+	 * numbers were last forgotten.
+	 *
+	 * @param  text String to write, which may be <code>null</code>.
+	 * @throws IOException An error occurred writing the file.
+	 */
+	private void writeString(String text) throws IOException
+	{
+		if (text == null)
+		{
+			writeNumber(NULL_STRING);
+			return;
+		}
+		Integer number = strings.get(text);
+		if (number != null)
+		{
+			writeNumber(number.intValue() + FIRST_STRING);
+			return;
+		}
+		if (strings.size() == MAXIMUM_STRINGS)
+		{
+			strings.clear();
+		}
+		strings.put(text, Integer.valueOf(strings.size()));
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		writeNumber(NEW_STRING);
+		writeNumber(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Writes a non-negative number using seven bits in each byte, with the
+	 * high bit set in every byte but the last.
+	 *
+	 * @param  value Number to write.
+	 * @throws IOException An error occurred writing the file.
+	 */
+	private void writeNumber(long value) throws IOException
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			output.writeByte((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		output.writeByte((int)value);
+	}
+
+	/**
+	 * Stops the recording after an error and reports it.
+	 *
+	 * @param  ioe Error that occurred writing the file.
+	 */
+	private void stop(IOException ioe)
+	{
+		LOGGER.log(System.Logger.Level.WARNING,
+				"Query log " + file + " stopped", ioe);
+		try
+		{
+			if (output != null)
+			{
+				output.close();
+			}
+		}
+		catch (IOException ignored)
+		{
+			//  The error that stopped the recording has been reported
+		}
+		output = null;
+	}
+
+}
@@ -0,0 +1,299 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the calls recorded in a query log, which is written by a database
+ * configured with
+ * {@link edu.smu.tspell.wordnet.api.WordNetDatabase.Builder#queryLog(Path)}.
+ * Each record can be replayed against another database, for example to
+ * compare cache sizes or storage implementations using the calls made by
+ * an application.
+ * <br><p>
+ * A log whose database wasn't closed may end with an incomplete record,
+ * which is ignored.
+ *
+ * @see QueryLogRecord#replay(FileDatabase)
+ */
+public class QueryLogReader implements Closeable
+{
+
+	/**
+	 * Kinds of records, indexed by their ordinals.
+	 */
+	private final static QueryLogRecord.Kind[] KINDS =
+			QueryLogRecord.Kind.values();
+
+	/**
+	 * Value returned for records that don't have word forms.
+	 */
+	private final static String[] NO_WORD_FORMS = new String[0];
+
+	/**
+	 * Value returned for records that don't have synset types.
+	 */
+	private final static SynsetType[] NO_TYPES = new SynsetType[0];
+
+	/**
+	 * File from which the records are read.
+	 */
+	private Path file;
+
+	/**
+	 * Reads the file.
+	 */
+	private DataInputStream input;
+
+	/**
+	 * Time at which the log began, in milliseconds since the epoch.
+	 */
+	private long startTime;
+
+	/**
+	 * Strings read since the numbers were last forgotten, indexed by their
+	 * numbers.
+	 */
+	private List<String> strings = new ArrayList<>();
+
+	/**
+	 * Time of the most recent record, in nanoseconds since the log began.
+	 */
+	private long time;
+
+	/**
+	 * Constructor that accepts the log to read and reads its header.
+	 *
+	 * @param  file Query log to read.
+	 * @throws RetrievalException The file can't be read or isn't a query
+	 *         log.
+	 */
+	public QueryLogReader(Path file) throws RetrievalException
+	{
+		this.file = file;
+		try
+		{
+			input = new DataInputStream(new BufferedInputStream(
+					Files.newInputStream(file)));
+			if ((input.readInt() != QueryLog.MAGIC) ||
+					(input.readByte() != QueryLog.VERSION))
+			{
+				input.close();
+				throw new RetrievalException("Not a query log: " + file);
+			}
+			startTime = input.readLong();
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException("Error reading query log " + file +
+					": " + ioe.getMessage(), ioe);
+		}
+	}
+
+	/**
+	 * Returns the time at which the log began.
+	 *
+	 * @return Milliseconds since the epoch.
+	 */
+	public long getStartTime()
+	{
+		return startTime;
+	}
+
+	/**
+	 * Reads the next record.
+	 *
+	 * @return Next record, or <code>null</code> if there aren't any more.
+	 * @throws RetrievalException An error occurred reading the file.
+	 */
+	public QueryLogRecord read() throws RetrievalException
+	{
+		try
+		{
+			int ordinal = input.read();
+			if (ordinal < 0)
+			{
+				return null;
+			}
+			if (ordinal >= KINDS.length)
+			{
+				throw new RetrievalException("Invalid record kind " +
+						ordinal + " in query log " + file);
+			}
+			QueryLogRecord.Kind kind = KINDS[ordinal];
+			time += readNumber();
+			String[] wordForms = NO_WORD_FORMS;
+			SynsetType type = null;
+			SynsetType[] types = NO_TYPES;
+			boolean morphology = false;
+			int offset = 0;
+			String relationship = null;
+			SynsetType targetType = null;
+			switch (kind)
+			{
+				case LOOKUP:
+					type = readType();
+					morphology = input.readBoolean();
+					wordForms = new String[] {readString()};
+					break;
+				case BATCH_LOOKUP:
+					type = readType();
+					morphology = input.readBoolean();
+					wordForms = new String[(int)readNumber()];
+					for (int i = 0; i < wordForms.length; i++)
+					{
+						wordForms[i] = readString();
+					}
+					break;
+				case BASE_FORMS:
+					type = readType();
+					wordForms = new String[] {readString()};
+					break;
+				case ALL_SYNSETS:
+					types = new SynsetType[(int)readNumber()];
+					for (int i = 0; i < types.length; i++)
+					{
+						types[i] = readType();
+					}
+					break;
+				default:
+					type = readType();
+					offset = (int)readNumber();
+					relationship = readString();
+					targetType = readType();
+					String wordForm = readString();
+					if (wordForm != null)
+					{
+						wordForms = new String[] {wordForm};
+					}
+					break;
+			}
+			return new QueryLogRecord(kind, time, wordForms, type, types,
+					morphology, offset, relationship, targetType);
+		}
+		catch (EOFException eofe)
+		{
+			//  The last record wasn't completely written
+			return null;
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException("Error reading query log " + file +
+					": " + ioe.getMessage(), ioe);
+		}
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException An error occurred closing the file.
+	 */
+	public void close() throws IOException
+	{
+		input.close();
+	}
+
+	/**
+	 * Reads a synset type from its code.
+	 *
+	 * @return Synset type, or <code>null</code> for all types.
+	 * @throws IOException An error occurred reading the file.
+	 */
+	private SynsetType readType() throws IOException
+	{
+		int code = input.readUnsignedByte();
+		return (code != 0 ? SynsetTypeConverter.getType(code) : null);
+	}
+
+	/**
+	 * Reads a string, or a reference to one that was read before.
+	 *
+	 * @return String that was read, which may be <code>null</code>.
+	 * @throws IOException An error occurred reading the file.
+	 */
+	private String readString() throws IOException
+	{
+		int reference = (int)readNumber();
+		if (reference == QueryLog.NULL_STRING)
+		{
+			return null;
+		}
+		if (reference == QueryLog.NEW_STRING)
+		{
+			byte[] bytes = new byte[(int)readNumber()];
+			input.readFully(bytes);
+			String text = new String(bytes, StandardCharsets.UTF_8);
+			//  The writer forgets the numbers at the same point
+			if (strings.size() == QueryLog.MAXIMUM_STRINGS)
+			{
+				strings.clear();
+			}
+			strings.add(text);
+			return text;
+		}
+		int number = reference - QueryLog.FIRST_STRING;
+		if (number >= strings.size())
+		{
+			throw new IOException("Invalid string reference " + reference);
+		}
+		return strings.get(number);
+	}
+
+	/**
+	 * Reads a number written by {@link QueryLog}.
+	 *
+	 * @return Number that was read.
+	 * @throws IOException An error occurred reading the file.
+	 */
+	private long readNumber() throws IOException
+	{
+		long value = 0;
+		int shift = 0;
+		int b;
+		do
+		{
+			b = input.readUnsignedByte();
+			value |= (long)(b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+
+}
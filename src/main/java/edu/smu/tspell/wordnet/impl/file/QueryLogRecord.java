@@ -0,0 +1,292 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import java.util.Arrays;
+
+/**
+ * A call recorded in a query log: either a lookup made through one of a
+ * database's public methods or a request for the relationships of one of
+ * its synsets. A record contains the arguments of the call, which allow it
+ * to be replayed against any database, and the time at which it was made.
+ * <br><p>
+ * Instances of this class are immutable.
+ *
+ * @see QueryLogReader
+ */
+public class QueryLogRecord
+{
+
+	/**
+	 * The kinds of calls that are recorded.
+	 */
+	public enum Kind
+	{
+		/**
+		 * Lookup of the synsets that contain a word form.
+		 */
+		LOOKUP,
+		/**
+		 * Lookup of the synsets that contain each of a group of word forms.
+		 */
+		BATCH_LOOKUP,
+		/**
+		 * Request for the base form candidates of an inflection.
+		 */
+		BASE_FORMS,
+		/**
+		 * Request for every synset of some types.
+		 */
+		ALL_SYNSETS,
+		/**
+		 * Request for the semantic relationships of a synset, or for the
+		 * lexical relationships of one of its word forms.
+		 */
+		RELATION
+	}
+
+	/**
+	 * Kind of call that was made.
+	 */
+	private Kind kind;
+
+	/**
+	 * Time at which the call was made, in nanoseconds since the log began.
+	 */
+	private long time;
+
+	/**
+	 * Word forms that were looked up, the inflection whose base forms were
+	 * requested or the word form whose lexical relationships were
+	 * requested.
+	 */
+	private String[] wordForms;
+
+	/**
+	 * Type of synsets requested, or the type of the synset whose
+	 * relationships were requested.
+	 */
+	private SynsetType type;
+
+	/**
+	 * Types of the synsets requested by {@link Kind#ALL_SYNSETS}.
+	 */
+	private SynsetType[] types;
+
+	/**
+	 * Indicates whether synsets containing variants were requested.
+	 */
+	private boolean morphology;
+
+	/**
+	 * Offset of the synset whose relationships were requested.
+	 */
+	private int offset;
+
+	/**
+	 * Symbol of the relationship type that was requested.
+	 */
+	private String relationship;
+
+	/**
+	 * Type of the related synsets that were requested, or <code>null</code>
+	 * if synsets of any type were.
+	 */
+	private SynsetType targetType;
+
+	/**
+	 * Constructor that accepts the values of the record.
+	 *
+	 * @param  kind Kind of call that was made.
+	 * @param  time Time of the call, in nanoseconds since the log began.
+	 * @param  wordForms Word forms passed to the call, which are empty if
+	 *         there weren't any.
+	 * @param  type Type of synsets requested, or type of the synset whose
+	 *         relationships were requested.
+	 * @param  types Types of the synsets requested by
+	 *         {@link Kind#ALL_SYNSETS}.
+	 * @param  morphology <code>true</code> if variants were requested.
+	 * @param  offset Offset of the synset whose relationships were
+	 *         requested.
+	 * @param  relationship Symbol of the relationship type requested.
+	 * @param  targetType Type of the related synsets requested, or
+	 *         <code>null</code> if synsets of any type were.
+	 */
+	QueryLogRecord(Kind kind, long time, String[] wordForms,
+			SynsetType type, SynsetType[] types, boolean morphology,
+			int offset, String relationship, SynsetType targetType)
+	{
+		this.kind = kind;
+		this.time = time;
+		this.wordForms = wordForms;
+		this.type = type;
+		this.types = types;
+		this.morphology = morphology;
+		this.offset = offset;
+		this.relationship = relationship;
+		this.targetType = targetType;
+	}
+
+	/**
+	 * Returns the kind of call that was made.
+	 *
+	 * @return Kind of call.
+	 */
+	public Kind getKind()
+	{
+		return kind;
+	}
+
+	/**
+	 * Returns the time at which the call was made.
+	 *
+	 * @return Nanoseconds since the log began.
+	 */
+	public long getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * Returns the word forms that were passed to the call.
+	 *
+	 * @return Word forms that were looked up, the inflection whose base
+	 *         forms were requested or the word form whose lexical
+	 *         relationships were requested; empty if there weren't any.
+	 */
+	public String[] getWordForms()
+	{
+		return wordForms.clone();
+	}
+
+	/**
+	 * Returns the type of synsets that were requested, or the type of the
+	 * synset whose relationships were requested.
+	 *
+	 * @return Synset type, or <code>null</code> if all types were
+	 *         requested.
+	 */
+	public SynsetType getType()
+	{
+		return type;
+	}
+
+	/**
+	 * Indicates whether synsets containing morphological variants of the
+	 * word forms were requested.
+	 *
+	 * @return <code>true</code> if morphology was used.
+	 */
+	public boolean isMorphology()
+	{
+		return morphology;
+	}
+
+	/**
+	 * Returns the offset of the synset whose relationships were requested.
+	 *
+	 * @return Offset within the synset's data file.
+	 */
+	public int getOffset()
+	{
+		return offset;
+	}
+
+	/**
+	 * Returns the symbol of the relationship type that was requested.
+	 *
+	 * @return Relationship symbol, or <code>null</code> if the call wasn't
+	 *         a relationship request.
+	 */
+	public String getRelationship()
+	{
+		return relationship;
+	}
+
+	/**
+	 * Returns the type of the related synsets that were requested, which
+	 * determines the type of array in which they're returned.
+	 *
+	 * @return Synset type, or <code>null</code> if synsets of any type (or
+	 *         word senses) were requested.
+	 */
+	public SynsetType getTargetType()
+	{
+		return targetType;
+	}
+
+	/**
+	 * Makes the same call against a database. A relationship request first
+	 * retrieves the synset from the database's synset factory, as the
+	 * caller would have retrieved it from an earlier lookup.
+	 *
+	 * @param  database Database against which to make the call.
+	 * @return Result of the call.
+	 * @throws WordNetException An error occurred retrieving data.
+	 */
+	public Object replay(FileDatabase database) throws WordNetException
+	{
+		switch (kind)
+		{
+			case LOOKUP:
+				return database.getSynsets(wordForms[0], type, morphology);
+			case BATCH_LOOKUP:
+				return database.getSynsets(
+						Arrays.asList(wordForms), type, morphology);
+			case BASE_FORMS:
+				return database.getBaseFormCandidates(wordForms[0], type);
+			case ALL_SYNSETS:
+				return Long.valueOf(database.allSynsets(types).count());
+			default:
+				ReferenceSynset synset = (ReferenceSynset)(database
+						.getSynsetFactory().getSynset(
+								new SynsetPointer(type, offset)));
+				return synset.resolve(
+						RelationshipType.getRelationshipType(relationship),
+						targetType,
+						(wordForms.length > 0 ? wordForms[0] : null));
+		}
+	}
+
+	/**
+	 * Returns a description of the call.
+	 *
+	 * @return Text describing the call.
+	 */
+	public String toString()
+	{
+		return kind + "@" + time + (type != null ? " type=" + type : "") +
+				(types.length > 0 ? " types=" + Arrays.toString(types) : "") +
+				(morphology ? " morphology" : "") +
+				(relationship != null ? " synset=" + offset +
+						" relationship=" + relationship : "") +
+				(wordForms.length > 0 ?
+						" " + Arrays.toString(wordForms) : "");
+	}
+
+}
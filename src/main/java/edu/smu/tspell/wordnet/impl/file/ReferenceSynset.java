@@ -34,6 +34,9 @@ import edu.smu.tspell.wordnet.api.WordSense;
 
 import edu.smu.tspell.wordnet.impl.AbstractSynset;
 
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
 /**
  * A synset implementation that supports the concept of unresolved semantic
  * and lexical relationships to other synsets. An "unresolved" relationship
@@ -53,6 +56,12 @@ import edu.smu.tspell.wordnet.impl.AbstractSynset;
  * information is assumed to no longer be needed and is dropped. As a result,
  * it's not practical (and probably isn't ever necessary) to convert a
  * resolved object reference back to an unresolved relationship. 
+ * <br><p>
+ * Related synsets are read without holding a lock, so threads that resolve
+ * relationships of the same synset don't wait for one another's I/O. The
+ * lock only guards the pointers and references themselves, and when two
+ * threads resolve the same relationship at once, both receive the result
+ * that was stored first.
  * 
  * @author Brett Spell
  */
@@ -90,9 +99,20 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 */
 	private RelationshipReferences references = new RelationshipReferences();
 
+	/**
+	 * Guards the unresolved and resolved relationships.
+	 */
+	protected final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Database from which related synsets and sense index entries are read.
+	 */
+	private FileDatabase database;
+
 	/**
 	 * Constructor that accepts the basic synset properties.
 	 * 
+	 * @param  database Database from which related data is retrieved.
 	 * @param  type Type of synset this instance represents.
 	 * @param  definition Short description / definition of the meaning.
 	 * @param  examples Examples of how the synset is used.
@@ -101,11 +121,12 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 * @param  lexicalFile Number of the lexical file containing synset.
 	 * @param  offset Byte offset into the data file where synset is defined.
 	 */
-	protected ReferenceSynset(SynsetType type, String definition,
-			String[] examples, SenseKey[] senseKeys,
+	protected ReferenceSynset(FileDatabase database, SynsetType type,
+			String definition, String[] examples, SenseKey[] senseKeys,
 			RelationshipPointers pointers, int lexicalFile, int offset)
 	{
 		super(type, definition, examples);
+		this.database = database;
 		this.senseKeys = senseKeys;
 		this.pointers = pointers;
 		this.lexicalFileNumber = lexicalFile;
@@ -118,6 +139,16 @@ public abstract class ReferenceSynset extends AbstractSynset
 		}
 	}
 
+	/**
+	 * Returns the database from which this synset was read.
+	 * 
+	 * @return Database that contains this synset.
+	 */
+	protected FileDatabase getDatabase()
+	{
+		return database;
+	}
+
 	/**
 	 * Retrieve the word forms.
 	 * 
@@ -145,7 +176,7 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 * @see    <a href="http://wordnet.princeton.edu/man/cntlist.5WN">Format
 	 *         of <i>cntlist</i> File.</a>
 	 */
-	public synchronized int getTagCount(String wordForm) throws WordNetException
+	public int getTagCount(String wordForm) throws WordNetException
 	{
 		int index = getWordIndex(
 				TextTranslator.translateToExternalFormat(wordForm));
@@ -154,12 +185,15 @@ public abstract class ReferenceSynset extends AbstractSynset
 			throw new WordNetException("Attempted to get the tag count for '" +
 					wordForm + "' from a synset that does not contain it.");
 		}
-		if (tagCounts[index] < 0)
+		//  A race only causes the same count to be read more than once
+		int tagCount = tagCounts[index];
+		if (tagCount < 0)
 		{
 			SenseIndexEntry entry = getIndexEntry(senseKeys[index]);
-			tagCounts[index] = entry.getTagCount();
+			tagCount = entry.getTagCount();
+			tagCounts[index] = tagCount;
 		}
-		return tagCounts[index];
+		return tagCount;
 	}
 
 	/**
@@ -243,15 +277,10 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 * @return Synsets that have the specified relationship type.
 	 * @throws WordNetException An error occurred retrieving data.
 	 */
-	protected synchronized Synset[] getSynsets(RelationshipType type)
+	protected Synset[] getSynsets(RelationshipType type)
 			throws WordNetException
 	{
-		Synset[] synsets = (Synset[])(getReferences(type));
-		if (synsets == null)
-		{
-			synsets = resolvePointers(type);
-		}
-		return synsets;
+		return resolvePointers(type, null, Synset[]::new);
 	}
 
 	/**
@@ -262,18 +291,10 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 * @return Noun synsets that have the specified relationship type.
 	 * @throws WordNetException An error occurred retrieving data.
 	 */
-	protected synchronized NounSynset[] getNounSynsets(RelationshipType type)
+	protected NounSynset[] getNounSynsets(RelationshipType type)
 			throws WordNetException
 	{
-		NounSynset[] nounSynsets = (NounSynset[])(getReferences(type));
-		if (nounSynsets == null)
-		{
-			Synset[] synsets = resolvePointers(type);
-			nounSynsets = new NounSynset[synsets.length];
-			System.arraycopy(synsets, 0, nounSynsets, 0, synsets.length);
-			putReferences(type, nounSynsets);
-		}
-		return nounSynsets;
+		return resolvePointers(type, SynsetType.NOUN, NounSynset[]::new);
 	}
 
 	/**
@@ -284,18 +305,10 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 * @return Verb synsets that have the specified relationship type.
 	 * @throws WordNetException An error occurred retrieving data.
 	 */
-	protected synchronized VerbSynset[] getVerbSynsets(RelationshipType type)
+	protected VerbSynset[] getVerbSynsets(RelationshipType type)
 			throws WordNetException
 	{
-		VerbSynset[] verbSynsets = (VerbSynset[])(getReferences(type));
-		if (verbSynsets == null)
-		{
-			Synset[] synsets = resolvePointers(type);
-			verbSynsets = new VerbSynset[synsets.length];
-			System.arraycopy(synsets, 0, verbSynsets, 0, synsets.length);
-			putReferences(type, verbSynsets);
-		}
-		return verbSynsets;
+		return resolvePointers(type, SynsetType.VERB, VerbSynset[]::new);
 	}
 
 	/**
@@ -306,19 +319,11 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 * @return Adjective synsets that have the specified relationship type.
 	 * @throws WordNetException An error occurred retrieving data.
 	 */
-	protected synchronized AdjectiveSynset[] getAdjectiveSynsets(
+	protected AdjectiveSynset[] getAdjectiveSynsets(
 			RelationshipType type) throws WordNetException
 	{
-		AdjectiveSynset[] nounSynsets =
-				(AdjectiveSynset[])(getReferences(type));
-		if (nounSynsets == null)
-		{
-			Synset[] synsets = resolvePointers(type);
-			nounSynsets = new AdjectiveSynset[synsets.length];
-			System.arraycopy(synsets, 0, nounSynsets, 0, synsets.length);
-			putReferences(type, nounSynsets);
-		}
-		return nounSynsets;
+		return resolvePointers(
+				type, SynsetType.ADJECTIVE, AdjectiveSynset[]::new);
 	}
 
 	/**
@@ -346,8 +351,9 @@ public abstract class ReferenceSynset extends AbstractSynset
 	}
 
 	/**
-	 * Converts unresolved pointers of a particular type to resolved
-	 * references to the corresponding synsets.
+	 * Returns the synsets that have a particular type of relationship to
+	 * this synset, converting the unresolved pointers to resolved references
+	 * the first time they're requested.
 	 * <br><p>
 	 * Note that on successful completion of this method that the pointers
 	 * that were resolved will be removed. This is done to reduce memory
@@ -356,26 +362,68 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 * corresponding synsets.
 	 * 
 	 * @param  type Type of relationships to resolve and return.
-	 * @return Synsets that were referenced by pointers or <code>null</code>
-	 *         if no pointers existed for the specified type.
+	 * @param  targetType Type of the synsets to be returned, or
+	 *         <code>null</code> if they may be of any type.
+	 * @param  arrayType Creates an array of the type to be returned.
+	 * @return Synsets that have the specified relationship type.
 	 * @throws WordNetException An error occurred retrieving data.
 	 */
-	private Synset[] resolvePointers(RelationshipType type)
+	@SuppressWarnings("unchecked")
+	private <T extends Synset> T[] resolvePointers(RelationshipType type,
+			SynsetType targetType, IntFunction<T[]> arrayType)
 			throws WordNetException
 	{
-		Synset[] synsets = null;
-		SynsetPointer[] pointers = getPointers(type);
-		if (pointers != null)
+		SynsetPointer[] unresolved;
+		QueryLog log = database.getQueryLog();
+		if (log != null)
 		{
-			SynsetFactory factory = SynsetFactory.getInstance();
-			synsets = new Synset[pointers.length];
-			for (int i = 0; i < synsets.length; i++)
+			log.recordRelation(getType(), offset, type, targetType, null);
+		}
+		RelationResolutionEvent event = new RelationResolutionEvent();
+		event.begin();
+		lock.lock();
+		try
+		{
+			Synset[] synsets = getReferences(type);
+			if (synsets != null)
 			{
-				synsets[i] = factory.getSynset(pointers[i]);
+				database.getRelationCounters().recordHit();
+				commitEvent(event, type, null, true, synsets.length);
+				return (T[])synsets;
 			}
-			clearPointers(type);
+			unresolved = getPointers(type);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		long start = System.nanoTime();
+		SynsetFactory factory = database.getSynsetFactory();
+		T[] synsets = arrayType.apply(unresolved.length);
+		for (int i = 0; i < synsets.length; i++)
+		{
+			synsets[i] = (T)(factory.getSynset(unresolved[i]));
+		}
+		database.getRelationCounters().recordMisses(
+				1, System.nanoTime() - start);
+		lock.lock();
+		try
+		{
+			//  Another thread may have resolved them in the meantime
+			Synset[] resolved = getReferences(type);
+			if (resolved == null)
+			{
+				putReferences(type, synsets);
+				clearPointers(type);
+				resolved = synsets;
+			}
+			commitEvent(event, type, null, false, resolved.length);
+			return (T[])resolved;
+		}
+		finally
+		{
+			lock.unlock();
 		}
-		return synsets;
 	}
 
 	/**
@@ -490,38 +538,139 @@ public abstract class ReferenceSynset extends AbstractSynset
 	 *         form.
 	 * @throws WordNetException An error occurred retrieving data.
 	 */
-	protected synchronized WordSense[] getReferences(
+	protected WordSense[] getReferences(
 			RelationshipType type, String wordForm) throws WordNetException
 	{
 		Synset synset;
 		String[] wordForms;
+		WordSensePointer[] sensePtrs;
 
+		QueryLog log = database.getQueryLog();
+		if (log != null)
+		{
+			log.recordRelation(getType(), offset, type, null, wordForm);
+		}
 		wordForm = TextTranslator.translateToExternalFormat(wordForm);
-		//  Get relationship we already resolved
-		WordSense[] senses = references.getLexicalRelationships(wordForm, type);
-		//  If we haven't resolved them, do it now
-		if (senses == null)
+		RelationResolutionEvent event = new RelationResolutionEvent();
+		event.begin();
+		lock.lock();
+		try
 		{
+			//  Get relationship we already resolved
+			WordSense[] senses =
+					references.getLexicalRelationships(wordForm, type);
+			if (senses != null)
+			{
+				database.getRelationCounters().recordHit();
+				commitEvent(event, type, wordForm, true, senses.length);
+				return senses;
+			}
 			//  Get the lexical relationship pointers
-			WordSensePointer[] sensePtrs = pointers.getLexicalRelationships(
-					wordForm, type);
-			//  Create a new array for the relationships
-			senses = new WordSense[sensePtrs.length];
-			SynsetFactory factory = SynsetFactory.getInstance();
-			//  Loop through the pointers and resolve each one
-			for (int i = 0; i < senses.length; i++)
+			sensePtrs = pointers.getLexicalRelationships(wordForm, type);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		long start = System.nanoTime();
+		//  Create a new array for the relationships
+		WordSense[] senses = new WordSense[sensePtrs.length];
+		SynsetFactory factory = database.getSynsetFactory();
+		//  Loop through the pointers and resolve each one
+		for (int i = 0; i < senses.length; i++)
+		{
+			//  Get (and possibly create) the synset
+			synset = factory.getSynset(sensePtrs[i]);
+			//  Now get the word form in the target synset
+			wordForms = synset.getWordForms();
+			senses[i] = new WordSense(
+					wordForms[sensePtrs[i].getWordNumber() - 1], synset);
+		}
+		database.getRelationCounters().recordMisses(
+				1, System.nanoTime() - start);
+		lock.lock();
+		try
+		{
+			//  Another thread may have resolved them in the meantime
+			WordSense[] resolved =
+					references.getLexicalRelationships(wordForm, type);
+			if (resolved == null)
 			{
-				//  Get (and possibly create) the synset
-				synset = factory.getSynset(sensePtrs[i]);
-				//  Now get the word form in the target synset
-				wordForms = synset.getWordForms();
-				senses[i] = new WordSense(
-						wordForms[sensePtrs[i].getWordNumber() - 1], synset);
+				references.putLexicalRelationships(wordForm, type, senses);
+				resolved = senses;
 			}
-			references.putLexicalRelationships(
-					wordForm, type, senses);
+			commitEvent(event, type, wordForm, false, resolved.length);
+			return resolved;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Requests the relationships of a particular type in the same way as
+	 * the method that a query log recorded, so that the request can be
+	 * replayed.
+	 * 
+	 * @param  type Type of relationships to return.
+	 * @param  targetType Type of the related synsets that were requested,
+	 *         or <code>null</code> if they may be of any type.
+	 * @param  wordForm Word form whose lexical relationships were
+	 *         requested, or <code>null</code> for semantic relationships.
+	 * @return Related synsets or word senses.
+	 * @throws WordNetException An error occurred retrieving data.
+	 * @see    QueryLogRecord#replay(FileDatabase)
+	 */
+	Object resolve(RelationshipType type, SynsetType targetType,
+			String wordForm) throws WordNetException
+	{
+		if (wordForm != null)
+		{
+			return getReferences(type, wordForm);
+		}
+		if (targetType == null)
+		{
+			return getSynsets(type);
+		}
+		if (targetType.equals(SynsetType.NOUN))
+		{
+			return getNounSynsets(type);
+		}
+		if (targetType.equals(SynsetType.VERB))
+		{
+			return getVerbSynsets(type);
+		}
+		return getAdjectiveSynsets(type);
+	}
+
+	/**
+	 * Commits a flight recorder event for a relationship request if the
+	 * event is enabled and exceeded its threshold.
+	 * 
+	 * @param  event Event that began when the relationship was requested.
+	 * @param  type Type of relationship that was requested.
+	 * @param  wordForm Word form whose lexical relationships were
+	 *         requested, or <code>null</code> for semantic relationships.
+	 * @param  cacheHit <code>true</code> if the relationship had already
+	 *         been resolved.
+	 * @param  targetCount Number of related synsets or word senses.
+	 */
+	private void commitEvent(RelationResolutionEvent event,
+			RelationshipType type, String wordForm, boolean cacheHit,
+			int targetCount)
+	{
+		if (event.shouldCommit())
+		{
+			event.partOfSpeech = String.valueOf(
+					SynsetTypeConverter.getCode(getType()));
+			event.offset = getOffset();
+			event.relationship = type.getSymbol();
+			event.wordForm = wordForm;
+			event.cacheHit = cacheHit;
+			event.targetCount = targetCount;
+			event.commit();
 		}
-		return senses;
 	}
 
 	/**
@@ -557,8 +706,8 @@ public abstract class ReferenceSynset extends AbstractSynset
 	{
 		SenseIndexEntry match = null;
 
-		SenseIndexReader reader = SenseIndexReader.getInstance();
-		SenseIndexEntry[] entries = reader.getAllEntries(
+		DictionaryStorage storage = database.getStorage();
+		SenseIndexEntry[] entries = storage.getSenseEntries(
 				senseKey.getPartialSenseKeyText());
 		for (int i = 0; i < entries.length; i++)
 		{
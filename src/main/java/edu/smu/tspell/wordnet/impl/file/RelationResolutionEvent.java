@@ -0,0 +1,85 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for a request for the synsets or word senses that
+ * have a particular relationship to a synset, whose pointers are resolved
+ * the first time the relationship is requested.
+ */
+@Name("edu.smu.tspell.jaws.RelationResolution")
+@Label("Relation Resolution")
+@Category("WordNet")
+@Description("Request for the synsets or word senses related to a synset")
+@Threshold("20 us")
+final class RelationResolutionEvent extends Event
+{
+
+	/**
+	 * Code of the synset's part of speech.
+	 */
+	@Label("Part of Speech")
+	String partOfSpeech;
+
+	/**
+	 * Offset of the synset within its data file.
+	 */
+	@Label("Offset")
+	int offset;
+
+	/**
+	 * Pointer symbol of the relationship (e.g., <code>@</code> for
+	 * hypernyms).
+	 */
+	@Label("Relationship")
+	String relationship;
+
+	/**
+	 * Word form whose lexical relationships were requested, or
+	 * <code>null</code> for a semantic relationship.
+	 */
+	@Label("Word Form")
+	String wordForm;
+
+	/**
+	 * Indicates whether the relationship had already been resolved.
+	 */
+	@Label("Cache Hit")
+	boolean cacheHit;
+
+	/**
+	 * Number of related synsets or word senses.
+	 */
+	@Label("Target Count")
+	int targetCount;
+
+}
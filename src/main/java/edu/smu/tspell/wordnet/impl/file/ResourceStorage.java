@@ -0,0 +1,419 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.ByteBuffer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.stream.Stream;
+
+/**
+ * Storage that reads the standard WordNet database files from a
+ * {@link DictionarySource}, such as class path resources or the entries of
+ * a zip (JAR) file, which can't be opened by a
+ * <code>RandomAccessFile</code>.
+ * <br><p>
+ * Each data file and the sense index are read into a buffer in their
+ * entirety the first time they're needed, and then searched and read
+ * within memory exactly as {@link TextFileStorage} searches and reads the
+ * files themselves, so the database files never need to be copied to the
+ * file system. The buffers together occupy about as much memory as the
+ * files (roughly 30 megabytes for WordNet 3.0).
+ */
+public class ResourceStorage implements DictionaryStorage
+{
+
+	/**
+	 * Text that indicates the end of the lemma / word form at the beginning
+	 * of each line in the sense index.
+	 */
+	private final static String LEMMA_TERMINATOR = "%";
+
+	/**
+	 * Opens the database files.
+	 */
+	private DictionarySource source;
+
+	/**
+	 * Contents of the files that have been read, keyed by file name.
+	 */
+	private Map<String, ByteBuffer> contents = new ConcurrentHashMap<>();
+
+	/**
+	 * Used to parse lines from the sense index.
+	 */
+	private SenseIndexParser parser = new SenseIndexParser();
+
+	/**
+	 * Provides the sentence frames of verb synsets.
+	 */
+	private SampleFrameFactory sampleFrameFactory;
+
+	/**
+	 * Maps verb senses to their sample sentence templates.
+	 */
+	private SampleIndexFactory sampleIndexFactory;
+
+	/**
+	 * Provides the sample sentence templates of verb synsets.
+	 */
+	private SampleTemplateFactory sampleTemplateFactory;
+
+	/**
+	 * Contents of the exception lists, which are read when they're first
+	 * needed.
+	 */
+	private volatile InflectionData inflections;
+
+	/**
+	 * Guards the reading of the files.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Constructor that accepts the source of the database files, which is
+	 * closed when this storage is closed.
+	 *
+	 * @param  source Opens the database files.
+	 */
+	public ResourceStorage(DictionarySource source)
+	{
+		this.source = source;
+		sampleFrameFactory = new SampleFrameFactory(source);
+		sampleIndexFactory = new SampleIndexFactory(source);
+		sampleTemplateFactory = new SampleTemplateFactory(source);
+	}
+
+	/**
+	 * Returns the contents of a database file, reading them the first time
+	 * they're needed.
+	 *
+	 * @param  fileName Name of the file.
+	 * @return Read-only buffer containing the file's contents.
+	 * @throws RetrievalException An error occurred reading the file.
+	 */
+	private ByteBuffer getContents(String fileName) throws RetrievalException
+	{
+		ByteBuffer data = contents.get(fileName);
+		if (data == null)
+		{
+			lock.lock();
+			try
+			{
+				data = contents.get(fileName);
+				if (data == null)
+				{
+					try (InputStream stream = source.open(fileName))
+					{
+						data = ByteBuffer.wrap(
+								stream.readAllBytes()).asReadOnlyBuffer();
+					}
+					catch (IOException ioe)
+					{
+						throw new RetrievalException("Error reading file " +
+								fileName + ": " + ioe.getMessage(), ioe);
+					}
+					contents.put(fileName, data);
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Returns the contents of the data file that contains synsets of a
+	 * particular type.
+	 *
+	 * @param  type Synset type for which to return the data file.
+	 * @return Contents of the data file.
+	 * @throws RetrievalException An error occurred reading the file.
+	 */
+	private ByteBuffer getData(SynsetType type) throws RetrievalException
+	{
+		return getContents(SynsetReader.getFileName(
+				SynsetReader.getFileType(type)));
+	}
+
+	/**
+	 * Returns the contents of the exception lists, reading them the first
+	 * time they're needed.
+	 *
+	 * @return Base forms of irregular inflections.
+	 * @throws RetrievalException An error occurred reading the exception
+	 *         lists.
+	 */
+	private InflectionData getInflectionData() throws RetrievalException
+	{
+		if (inflections == null)
+		{
+			lock.lock();
+			try
+			{
+				if (inflections == null)
+				{
+					inflections = new InflectionData(source);
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		return inflections;
+	}
+
+	/**
+	 * Returns the sense index entries for a lemma.
+	 *
+	 * @param  lemma Lemma for which to return entries.
+	 * @return Entries for the lemma.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public SenseIndexEntry[] getLemmaEntries(String lemma)
+			throws RetrievalException
+	{
+		return getSenseEntries(
+				TextTranslator.translateToDatabaseFormat(lemma) +
+				LEMMA_TERMINATOR);
+	}
+
+	/**
+	 * Returns the sense index entries for a group of lemmas. The lemmas
+	 * are sorted so that each one is searched for only within the part of
+	 * the index that follows the entries of the previous lemma.
+	 *
+	 * @param  lemmas Lemmas for which to return entries.
+	 * @return Entries for each of the lemmas.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public Map<String, SenseIndexEntry[]> getLemmaEntries(
+			Collection<String> lemmas) throws RetrievalException
+	{
+		//  Sort the distinct prefixes, remembering which lemmas map to each
+		Map<String, List<String>> prefixLemmas = new TreeMap<>();
+		for (String lemma : lemmas)
+		{
+			String prefix = TextTranslator.translateToDatabaseFormat(lemma) +
+					LEMMA_TERMINATOR;
+			prefixLemmas.computeIfAbsent(
+					prefix, key -> new ArrayList<>()).add(lemma);
+		}
+
+		ByteBuffer data = getContents(SenseIndexReader.SENSE_INDEX_FILE);
+		Map<String, SenseIndexEntry[]> results = new HashMap<>();
+		int lower = 0;
+		for (Map.Entry<String, List<String>> prefixEntry :
+				prefixLemmas.entrySet())
+		{
+			List<SenseIndexEntry> entries = new ArrayList<>();
+			lower = readEntries(data, prefixEntry.getKey(), lower, entries);
+			SenseIndexEntry[] entryArray =
+					entries.toArray(new SenseIndexEntry[entries.size()]);
+			for (String lemma : prefixEntry.getValue())
+			{
+				results.put(lemma, entryArray);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the sense index entries whose sense keys begin with a prefix.
+	 *
+	 * @param  prefix Text with which the sense keys begin.
+	 * @return Matching entries.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public SenseIndexEntry[] getSenseEntries(String prefix)
+			throws RetrievalException
+	{
+		List<SenseIndexEntry> entries = new ArrayList<>();
+		readEntries(getContents(SenseIndexReader.SENSE_INDEX_FILE),
+				prefix, 0, entries);
+		return entries.toArray(new SenseIndexEntry[entries.size()]);
+	}
+
+	/**
+	 * Performs a binary search of the sense index for the lines that begin
+	 * with a prefix and parses them.
+	 *
+	 * @param  data Contents of the sense index.
+	 * @param  prefix Text with which the lines begin.
+	 * @param  lower Position of a line that precedes (or is) the first
+	 *         matching line.
+	 * @param  entries List to which the parsed entries are added.
+	 * @return Position of the line that follows the matching lines.
+	 */
+	private int readEntries(ByteBuffer data, String prefix, int lower,
+			List<SenseIndexEntry> entries)
+	{
+		int position = SortedLines.findFirstLine(data, prefix, lower);
+		while ((position < data.limit()) &&
+				(SortedLines.compare(data, position, prefix) == 0))
+		{
+			String line = SynsetReader.readLine(data, position);
+			entries.add(parser.parse(line));
+			position = SortedLines.findNextLine(data, position);
+		}
+		return position;
+	}
+
+	/**
+	 * Reads the line of a data file that a pointer refers to.
+	 *
+	 * @param  pointer Identifies the synset.
+	 * @return Line from the data file.
+	 * @throws RetrievalException An error occurred reading the data file.
+	 */
+	public String getSynsetRecord(SynsetPointer pointer)
+			throws RetrievalException
+	{
+		return SynsetReader.readLine(
+				getData(pointer.getType()), pointer.getOffset());
+	}
+
+	/**
+	 * Returns the lines of the data files that contain synsets of the
+	 * specified types.
+	 *
+	 * @param  types Types of synsets to return.
+	 * @return Stream of data file lines.
+	 * @throws RetrievalException An error occurred reading a data file.
+	 * @see    SynsetSpliterator
+	 */
+	public Stream<String> getSynsetRecords(SynsetType... types)
+			throws RetrievalException
+	{
+		return SynsetSpliterator.createStream(this::getData, types);
+	}
+
+	/**
+	 * Returns the base forms of an irregular inflection.
+	 *
+	 * @param  inflection Inflected word form.
+	 * @param  type Syntactic category of the inflection.
+	 * @return Base forms of the inflection (may be empty).
+	 * @throws RetrievalException An error occurred reading the exception
+	 *         lists.
+	 */
+	public String[] getBaseForms(String inflection, SynsetType type)
+			throws RetrievalException
+	{
+		return getInflectionData().getBaseForms(inflection, type);
+	}
+
+	/**
+	 * Returns a generic sentence frame.
+	 *
+	 * @param  type Type of synset with which the frame is used.
+	 * @param  frameNumber Number that identifies the frame.
+	 * @return Text of the frame.
+	 * @throws RetrievalException An error occurred reading the frame file.
+	 */
+	public String getFrame(SynsetType type, String frameNumber)
+			throws RetrievalException
+	{
+		return sampleFrameFactory.getSample(type, frameNumber);
+	}
+
+	/**
+	 * Returns the keys of the sample sentences associated with a sense.
+	 *
+	 * @param  senseKey Key of the word sense.
+	 * @return Keys of the sample sentences.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public String[] getSampleKeys(SenseKey senseKey)
+			throws RetrievalException
+	{
+		return sampleIndexFactory.getSampleKeys(senseKey);
+	}
+
+	/**
+	 * Returns a sample sentence template.
+	 *
+	 * @param  type Type of synset with which the template is used.
+	 * @param  key Key that identifies the template.
+	 * @return Text of the template.
+	 * @throws RetrievalException An error occurred reading the sentence
+	 *         file.
+	 */
+	public String getSampleTemplate(SynsetType type, String key)
+			throws RetrievalException
+	{
+		return sampleTemplateFactory.getSample(type, key);
+	}
+
+	/**
+	 * Returns snapshots of the use of this storage's locks. The files are
+	 * read from buffers, and the only lock guards the loading of each
+	 * buffer, so there are none to report.
+	 *
+	 * @return Empty map.
+	 */
+	public Map<String, LockStatistics> getLockStatistics()
+	{
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Releases the buffers and closes the source of the database files.
+	 *
+	 * @throws RetrievalException An error occurred closing the source.
+	 */
+	public void close() throws RetrievalException
+	{
+		contents.clear();
+		try
+		{
+			source.close();
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException(
+					"Error closing source: " + ioe.getMessage(), ioe);
+		}
+	}
+
+}
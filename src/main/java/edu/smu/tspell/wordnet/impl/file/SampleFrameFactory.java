@@ -43,30 +43,24 @@ public class SampleFrameFactory extends SampleSentenceData
 {
 
 	/**
-	 * Singleton instance of this class.
-	 */
-	private static SampleFrameFactory instance;
-
-	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Returns the sentence frames of the storage returned by
+	 * {@link TextFileStorage#getDefault()}.
 	 * 
-	 * @return Reference to the singleton instance of this class.
+	 * @return Reference to the default database's instance of this class.
 	 */
-	public static synchronized SampleFrameFactory getInstance()
+	public static SampleFrameFactory getInstance()
 	{
-		if (instance == null)
-		{
-			instance = new SampleFrameFactory();
-		}
-		return instance;
+		return TextFileStorage.getDefault().getSampleFrameFactory();
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Constructor that accepts the source of the data files.
+	 * 
+	 * @param  source Opens the database files.
 	 */
-	private SampleFrameFactory()
+	SampleFrameFactory(DictionarySource source)
 	{
+		super(source);
 	}
 
 	/**
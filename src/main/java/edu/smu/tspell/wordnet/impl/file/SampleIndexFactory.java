@@ -42,31 +42,24 @@ public class SampleIndexFactory extends SampleSentenceData
 	private final static String KEY_DELIMITER = ",";
 
 	/**
-	 * Singleton instance of this class.
-	 */
-	private static SampleIndexFactory instance;
-
-	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Returns the sample sentence index of the storage returned by
+	 * {@link TextFileStorage#getDefault()}.
 	 * 
-	 * @return Reference to the singleton instance of this class.
+	 * @return Reference to the default database's instance of this class.
 	 */
-	public synchronized static SampleIndexFactory getInstance()
+	public static SampleIndexFactory getInstance()
 	{
-		if (instance == null)
-		{
-			instance = new SampleIndexFactory();
-		}
-		return instance;
+		return TextFileStorage.getDefault().getSampleIndexFactory();
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Constructor that accepts the source of the data files.
+	 * 
+	 * @param  source Opens the database files.
 	 */
-	private SampleIndexFactory() throws RetrievalException
+	SampleIndexFactory(DictionarySource source)
 	{
-		super();
+		super(source);
 	}
 
 	/**
@@ -100,7 +93,7 @@ public class SampleIndexFactory extends SampleSentenceData
 	 * @param  senseKey Word sense for which to return the ID numbers.
 	 * @return Template identifiers that correspond to the specified word sense.
 	 */
-	public synchronized String[] getSampleKeys(SenseKey senseKey)
+	public String[] getSampleKeys(SenseKey senseKey)
 	{
 		String[] keys =
 				(String[])(super.getValue(senseKey.getType(), senseKey));
@@ -27,14 +27,14 @@ package edu.smu.tspell.wordnet.impl.file;
 import edu.smu.tspell.wordnet.api.SynsetType;
 
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Caches data related to sample sentences, loading and caching the data
@@ -63,10 +63,23 @@ public abstract class SampleSentenceData
 	private ResourceBundle bundle;
 
 	/**
-	 * No-argument constructor.
+	 * Guards the map of data that has been loaded.
 	 */
-	protected SampleSentenceData()
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Opens the data files.
+	 */
+	private DictionarySource source;
+
+	/**
+	 * Constructor that accepts the source of the data files.
+	 * 
+	 * @param  source Opens the database files.
+	 */
+	protected SampleSentenceData(DictionarySource source)
 	{
+		this.source = source;
 	}
 
 	/**
@@ -92,20 +105,28 @@ public abstract class SampleSentenceData
 	 *         values available for the specified synset type.
 	 * @throws RetrievalException An error occurred reading the data.
 	 */
-	private synchronized Map getSubMap(SynsetType type)
+	private Map getSubMap(SynsetType type)
 			throws RetrievalException
 	{
-		Map<String, String> subMap;
-		if (!typeMaps.containsKey(type))
+		lock.lock();
+		try
 		{
-			subMap = loadData(type);
-			typeMaps.put(type, subMap);
+			Map<String, String> subMap;
+			if (!typeMaps.containsKey(type))
+			{
+				subMap = loadData(type);
+				typeMaps.put(type, subMap);
+			}
+			else
+			{
+				subMap = typeMaps.get(type);
+			}
+			return subMap;
 		}
-		else
+		finally
 		{
-			subMap = typeMaps.get(type);
+			lock.unlock();
 		}
-		return subMap;
 	}
 
 	/**
@@ -201,9 +222,8 @@ public abstract class SampleSentenceData
 		//  Create a map to hold the results
 		Map<String, String> keySentences = new HashMap<>();
 		//  Open the file and start reading it
-		File file = new File(System.getProperty(
-				PropertyNames.DATABASE_DIRECTORY, "."), fileName);
-		BufferedReader reader = new BufferedReader(new FileReader(file));
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(source.open(fileName)));
 		String line = reader.readLine();
 		//  Loop until there are no more lines to read
 		while (line != null)
@@ -53,30 +53,24 @@ public class SampleTemplateFactory extends SampleSentenceData
 	private final static String REPLACEMENT_SUBSTITUTION_TEXT = "{0}";
 
 	/**
-	 * Singleton instance of this class.
-	 */
-	private static SampleTemplateFactory instance;
-
-	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Returns the sample sentence templates of the storage returned by
+	 * {@link TextFileStorage#getDefault()}.
 	 * 
-	 * @return Reference to the singleton instance of this class.
+	 * @return Reference to the default database's instance of this class.
 	 */
-	public static synchronized SampleTemplateFactory getInstance()
+	public static SampleTemplateFactory getInstance()
 	{
-		if (instance == null)
-		{
-			instance = new SampleTemplateFactory();
-		}
-		return instance;
+		return TextFileStorage.getDefault().getSampleTemplateFactory();
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Constructor that accepts the source of the data files.
+	 * 
+	 * @param  source Opens the database files.
 	 */
-	private SampleTemplateFactory()
+	SampleTemplateFactory(DictionarySource source)
 	{
+		super(source);
 	}
 
 	/**
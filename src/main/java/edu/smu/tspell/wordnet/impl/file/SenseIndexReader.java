@@ -26,9 +26,18 @@ package edu.smu.tspell.wordnet.impl.file;
 
 import edu.smu.tspell.wordnet.impl.MultipleLineLocator;
 
+import java.io.File;
 import java.io.IOException;
 
-import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Locates entries in the <code>index.sense</code> file.
@@ -41,7 +50,7 @@ public class SenseIndexReader extends MultipleLineLocator
 	/**
 	 * Name of the sense index file.
 	 */
-	private final static String SENSE_INDEX_FILE = "index.sense";
+	final static String SENSE_INDEX_FILE = "index.sense";
 
 	/**
 	 * Text that indicates the end of the lemma / word form at the beginning
@@ -50,9 +59,10 @@ public class SenseIndexReader extends MultipleLineLocator
 	private final static String LEMMA_TERMINATOR = "%";
 
 	/**
-	 * Reference to the singleton instance of this class.
+	 * Number of bytes read at a time once the first matching line of a
+	 * prefix has been found.
 	 */
-	private static WeakReference<SenseIndexReader> reference;
+	private final static int BUFFER_SIZE = 8 * 1024;
 
 	/**
 	 * Used to parse lines read from the sense index file.
@@ -60,46 +70,28 @@ public class SenseIndexReader extends MultipleLineLocator
 	private SenseIndexParser parser = new SenseIndexParser();
 
 	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Returns the index reader of the storage returned by
+	 * {@link TextFileStorage#getDefault()}.
 	 * 
-	 * @return Singleton instance of this class.
+	 * @return Index reader of the default database.
 	 * @throws RetrievalException An error occurred opening the index file.
 	 */
-	public synchronized static SenseIndexReader getInstance()
+	public static SenseIndexReader getInstance()
 			throws RetrievalException
 	{
-		SenseIndexReader instance = null;
-		//  See if there's one we can get to through the weak reference
-		if (reference != null)
-		{
-			instance = reference.get();
-		}
-		//  It was either garbage collected or never created in the first place
-		if (instance == null)
-		{
-			//  Create a new one and create a weak reference to it
-			try
-			{
-				instance = new SenseIndexReader();
-				reference = new WeakReference<>(instance);
-			}
-			catch (IOException ioe)
-			{
-				throw new RetrievalException(
-						"Error opening index file: " + ioe.getMessage(), ioe);
-			}
-		}
-		return instance;
+		return TextFileStorage.getDefault().getSenseIndexReader();
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Constructor that accepts the directory containing the index file,
+	 * which is opened and remains open until this instance is closed.
+	 * 
+	 * @param  directory Directory that contains the database files.
+	 * @throws IOException An error occurred opening the index file.
 	 */
-	private SenseIndexReader() throws IOException
+	SenseIndexReader(File directory) throws IOException
 	{
-		super(System.getProperty(PropertyNames.DATABASE_DIRECTORY, "."),
-				SENSE_INDEX_FILE);
+		super(new File(directory, SENSE_INDEX_FILE));
 	}
 
 	/**
@@ -151,11 +143,86 @@ public class SenseIndexReader extends MultipleLineLocator
 				LEMMA_TERMINATOR);
 	}
 
+	/**
+	 * Returns the index file entries for a group of lemmas in a single pass
+	 * through the index file. The lemmas are converted to the format used
+	 * by the file (see {@link #getLemmaEntries(String)}) and sorted, and
+	 * since the file itself is sorted, each lemma's entries are located by
+	 * searching only the part of the file that follows the entries of the
+	 * previous lemma. The file is therefore read in ascending order instead
+	 * of performing an independent search for each lemma.
+	 * 
+	 * @param  lemmas Lemmas for which to return index file entries.
+	 * @return Map in which the keys are the specified lemmas and the values
+	 *         are their index file entries; lemmas that don't appear in the
+	 *         file are mapped to an empty array.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public Map<String, SenseIndexEntry[]> getLemmaEntries(
+			Collection<String> lemmas) throws RetrievalException
+	{
+		lock.lock();
+		try
+		{
+			//  Sort the distinct prefixes, remembering which lemmas map to each
+			Map<String, List<String>> prefixLemmas = new TreeMap<>();
+			for (String lemma : lemmas)
+			{
+				String prefix = TextTranslator.translateToDatabaseFormat(lemma) +
+						LEMMA_TERMINATOR;
+				prefixLemmas.computeIfAbsent(
+						prefix, key -> new ArrayList<>()).add(lemma);
+			}
+
+			Map<String, SenseIndexEntry[]> results = new HashMap<>();
+			try
+			{
+				long lower = 0;
+				for (Map.Entry<String, List<String>> prefixEntry :
+						prefixLemmas.entrySet())
+				{
+					String prefix = prefixEntry.getKey();
+					List<SenseIndexEntry> entries = new ArrayList<>();
+					seek(findFirstLine(prefix, lower));
+					lower = getFilePointer();
+					String line = readToNextEndOfLine();
+					while ((line.length() > 0) && (line.startsWith(prefix)))
+					{
+						entries.add(parser.parse(line));
+						lower = getFilePointer();
+						line = readToNextEndOfLine();
+					}
+					SenseIndexEntry[] entryArray =
+							entries.toArray(new SenseIndexEntry[entries.size()]);
+					for (String lemma : prefixEntry.getValue())
+					{
+						results.put(lemma, entryArray);
+					}
+				}
+			}
+			catch (IOException ioe)
+			{
+				throw new RetrievalException(
+						"Error reading index file: " + ioe.getMessage(), ioe);
+			}
+			return results;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
 	/**
 	 * Given a word form, returns all entries from the index file that begin
 	 * with the specified text. No modifications or additions are made to the
 	 * specified prefix before it is compared with the index file lines, so
 	 * only those that match it exactly will be returned.
+	 * <br><p>
+	 * The first matching line is located with a binary search and the
+	 * entries are then read forward from it in blocks rather than one byte
+	 * at a time, so an empty prefix, which matches every line, reads the
+	 * whole file in a single pass.
 	 * 
 	 * @param  prefix Prefix for which to return index file lines.
 	 * @return All entries that begin with the specified text.
@@ -164,23 +231,124 @@ public class SenseIndexReader extends MultipleLineLocator
 	public SenseIndexEntry[] getAllEntries(String prefix)
 			throws RetrievalException
 	{
-		SenseIndexEntry[] entries;
+		lock.lock();
 		try
 		{
-			//  Get all index file lines associated with the word form
-			String[] lines = super.getLines(prefix);
-			entries = new SenseIndexEntry[lines.length];
-			for (int i = 0; i < entries.length; i++)
+			List<SenseIndexEntry> entries = new ArrayList<>();
+			long start = findFirstLine(prefix, 0);
+			FileChannel channel = getAccessor().getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			StringBuilder line = new StringBuilder();
+			long position = start;
+			boolean matching = true;
+			while ((matching) && (position < getFileSize()))
+			{
+				buffer.clear();
+				int count = channel.read(buffer, position);
+				if (count <= 0)
+				{
+					break;
+				}
+				position += count;
+				for (int i = 0; (matching) && (i < count); i++)
+				{
+					char nextChar = (char)(buffer.get(i) & 0xFF);
+					if (nextChar != LINE_SEPARATOR)
+					{
+						line.append(nextChar);
+					}
+					else
+					{
+						matching = addEntry(line, prefix, entries);
+						line.setLength(0);
+					}
+				}
+			}
+			//  The last line of the file may not be terminated
+			if (matching)
 			{
-				entries[i] = parser.parse(lines[i]);
+				addEntry(line, prefix, entries);
 			}
+			recordRead(start, position - start, false);
+			return entries.toArray(new SenseIndexEntry[entries.size()]);
 		}
 		catch (IOException ioe)
 		{
 			throw new RetrievalException(
 					"Error reading index file: " + ioe.getMessage(), ioe);
 		}
-		return entries;
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Parses a line and adds its entry to a list if it begins with a prefix.
+	 * 
+	 * @param  line Text of the line.
+	 * @param  prefix Text with which matching lines begin.
+	 * @param  entries Receives the entry of a matching line.
+	 * @return <code>true</code> if the line matched, in which case the lines
+	 *         that follow it may also match.
+	 */
+	private boolean addEntry(CharSequence line, String prefix,
+			List<SenseIndexEntry> entries)
+	{
+		String text = line.toString();
+		if ((text.length() == 0) || (!text.startsWith(prefix)))
+		{
+			return false;
+		}
+		entries.add(parser.parse(text));
+		return true;
+	}
+
+	/**
+	 * Returns the position of the first line at or after a starting position
+	 * that is greater than or equal to a prefix, using a binary search.
+	 * 
+	 * @param  prefix Text with which to compare the lines.
+	 * @param  lower Position of a line at or before the line to be found,
+	 *         all lines before which are known to be less than the prefix.
+	 * @return Position of the first line greater than or equal to the
+	 *         prefix, or the file size if there is no such line.
+	 * @throws IOException An error occurred reading the index file.
+	 */
+	private long findFirstLine(String prefix, long lower) throws IOException
+	{
+		long result = getFileSize();
+		long upper = result;
+		while (lower < upper)
+		{
+			long midpoint = lower + ((upper - lower) / 2);
+			//  Move to the start of the first line at or after the midpoint
+			if (midpoint > lower)
+			{
+				seek(midpoint - 1);
+				readToNextEndOfLine(true);
+			}
+			else
+			{
+				seek(midpoint);
+			}
+			long lineStart = getFilePointer();
+			if (lineStart >= upper)
+			{
+				//  No lines start within the upper half of the range
+				upper = midpoint;
+			}
+			else if (readToNextEndOfLine(true).compareTo(prefix) < 0)
+			{
+				lower = getFilePointer();
+			}
+			else
+			{
+				result = lineStart;
+				upper = lineStart;
+			}
+		}
+		return result;
 	}
 
 }
\ No newline at end of file
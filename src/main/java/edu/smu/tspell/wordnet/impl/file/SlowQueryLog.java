@@ -0,0 +1,281 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.SlowQuery;
+import edu.smu.tspell.wordnet.api.SlowQueryListener;
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.time.Duration;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reports the lookups of a database that take longer than a threshold,
+ * along with the work they did, to a {@link SlowQueryListener}.
+ * <br><p>
+ * Reports are limited to a maximum number per minute so that the log can
+ * remain enabled when a problem (such as a slow disk) makes every lookup
+ * slow; the number of lookups that weren't reported is included in the
+ * next report. While no threshold is set, lookups aren't measured at all.
+ */
+final class SlowQueryLog
+{
+
+	/**
+	 * Listener that writes slow lookups to the platform logger, which is
+	 * used when no other listener is configured.
+	 */
+	final static SlowQueryListener LOGGER = new SlowQueryListener()
+	{
+		private final System.Logger logger =
+				System.getLogger("edu.smu.tspell.jaws.SlowQuery");
+
+		public void slowQuery(SlowQuery query)
+		{
+			logger.log(System.Logger.Level.WARNING, query.toString());
+		}
+	};
+
+	/**
+	 * Length of the interval to which the rate limit applies.
+	 */
+	private final static long INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+	/**
+	 * Value of the threshold when slow lookups aren't being reported.
+	 */
+	private final static long DISABLED = -1;
+
+	/**
+	 * Receives the slow lookups.
+	 */
+	private SlowQueryListener listener;
+
+	/**
+	 * Maximum number of lookups reported in each minute.
+	 */
+	private int limit;
+
+	/**
+	 * Time above which a lookup is reported, in nanoseconds.
+	 */
+	private volatile long threshold;
+
+	/**
+	 * Time at which the current rate limit interval began.
+	 */
+	private long intervalStart;
+
+	/**
+	 * Number of lookups reported during the current interval.
+	 */
+	private int reportCount;
+
+	/**
+	 * Number of slow lookups that haven't been reported.
+	 */
+	private long suppressedCount;
+
+	/**
+	 * Guards the rate limit.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Constructor that accepts the threshold, the listener and the maximum
+	 * number of lookups reported each minute.
+	 *
+	 * @param  threshold Time above which lookups are reported, or
+	 *         <code>null</code> if they aren't.
+	 * @param  listener Receives the slow lookups, or <code>null</code> to
+	 *         write them to the platform logger.
+	 * @param  limit Maximum number of lookups reported each minute.
+	 */
+	SlowQueryLog(Duration threshold, SlowQueryListener listener, int limit)
+	{
+		this.listener = (listener != null ? listener : LOGGER);
+		this.limit = limit;
+		setThreshold(threshold);
+		intervalStart = System.nanoTime();
+	}
+
+	/**
+	 * Returns the time above which lookups are reported.
+	 *
+	 * @return Threshold, or <code>null</code> if lookups aren't reported.
+	 */
+	Duration getThreshold()
+	{
+		long nanos = threshold;
+		return (nanos == DISABLED ? null : Duration.ofNanos(nanos));
+	}
+
+	/**
+	 * Changes the time above which lookups are reported.
+	 *
+	 * @param  threshold New threshold, or <code>null</code> to stop
+	 *         reporting lookups.
+	 * @throws IllegalArgumentException The threshold is negative.
+	 */
+	void setThreshold(Duration threshold)
+	{
+		if ((threshold != null) && (threshold.isNegative()))
+		{
+			throw new IllegalArgumentException(
+					"Invalid threshold: " + threshold);
+		}
+		this.threshold = (threshold != null ?
+				threshold.toNanos() : DISABLED);
+	}
+
+	/**
+	 * Indicates whether lookups are being measured.
+	 *
+	 * @return <code>true</code> if a threshold is set.
+	 */
+	boolean isEnabled()
+	{
+		return (threshold != DISABLED);
+	}
+
+	/**
+	 * Begins measuring a lookup made by the current thread.
+	 *
+	 * @return Context that accumulates the lookup's work, or
+	 *         <code>null</code> if it isn't being measured.
+	 */
+	QueryContext begin()
+	{
+		return (isEnabled() ? QueryContext.begin() : null);
+	}
+
+	/**
+	 * Completes the measurement of a lookup and reports it if it took
+	 * longer than the threshold.
+	 *
+	 * @param  context Value returned by {@link #begin()}.
+	 * @param  elapsedTime Time the lookup took, in nanoseconds.
+	 * @param  query Word form that was looked up.
+	 * @param  type Type of synsets requested, or <code>null</code>.
+	 * @param  morphology <code>true</code> if variants were requested.
+	 */
+	void end(QueryContext context, long elapsedTime, String query,
+			SynsetType type, boolean morphology)
+	{
+		context.end();
+		long suppressed = admit(elapsedTime);
+		if (suppressed >= 0)
+		{
+			report(context, elapsedTime, query, type, morphology, suppressed);
+		}
+	}
+
+	/**
+	 * Completes the measurement of a batch lookup and reports it if it
+	 * took longer than the threshold. The word forms are only joined into
+	 * a single string when the lookup is reported.
+	 *
+	 * @param  context Value returned by {@link #begin()}.
+	 * @param  elapsedTime Time the lookup took, in nanoseconds.
+	 * @param  wordForms Word forms that were looked up.
+	 * @param  type Type of synsets requested, or <code>null</code>.
+	 * @param  morphology <code>true</code> if variants were requested.
+	 */
+	void end(QueryContext context, long elapsedTime,
+			Collection<String> wordForms, SynsetType type, boolean morphology)
+	{
+		context.end();
+		long suppressed = admit(elapsedTime);
+		if (suppressed >= 0)
+		{
+			report(context, elapsedTime, String.join(",", wordForms), type,
+					morphology, suppressed);
+		}
+	}
+
+	/**
+	 * Determines whether a lookup should be reported, which it is if it
+	 * took longer than the threshold and the rate limit hasn't been
+	 * reached.
+	 *
+	 * @param  elapsedTime Time the lookup took, in nanoseconds.
+	 * @return Number of slow lookups that weren't reported since the last
+	 *         report, or <code>-1</code> if this lookup isn't reported.
+	 */
+	private long admit(long elapsedTime)
+	{
+		long nanos = threshold;
+		if ((nanos == DISABLED) || (elapsedTime < nanos))
+		{
+			return -1;
+		}
+		lock.lock();
+		try
+		{
+			long now = System.nanoTime();
+			if (now - intervalStart >= INTERVAL)
+			{
+				intervalStart = now;
+				reportCount = 0;
+			}
+			if (reportCount >= limit)
+			{
+				suppressedCount++;
+				return -1;
+			}
+			reportCount++;
+			long suppressed = suppressedCount;
+			suppressedCount = 0;
+			return suppressed;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Sends a slow lookup to the listener.
+	 *
+	 * @param  context Context that accumulated the lookup's work.
+	 * @param  elapsedTime Time the lookup took, in nanoseconds.
+	 * @param  query Word form or word forms that were looked up.
+	 * @param  type Type of synsets requested, or <code>null</code>.
+	 * @param  morphology <code>true</code> if variants were requested.
+	 * @param  suppressed Number of slow lookups that weren't reported.
+	 */
+	private void report(QueryContext context, long elapsedTime, String query,
+			SynsetType type, boolean morphology, long suppressed)
+	{
+		listener.slowQuery(new SlowQuery(System.currentTimeMillis(), query,
+				type, morphology, elapsedTime, context.getIndexEntries(),
+				context.getSynsetsLoaded(), context.getBytesRead(),
+				context.getStageTimes(), suppressed));
+	}
+
+}
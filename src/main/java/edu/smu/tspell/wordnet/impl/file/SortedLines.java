@@ -0,0 +1,139 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Searches the contents of a sorted file, such as the sense index, that
+ * are held in a buffer. Lines are compared character by character with
+ * the ISO-8859-1 encoding of the search text, which is the order in which
+ * the WordNet index files are sorted.
+ */
+final class SortedLines
+{
+
+	/**
+	 * Constructor that prevents instances from being created.
+	 */
+	private SortedLines()
+	{
+	}
+
+	/**
+	 * Performs a binary search for the first line that doesn't sort before
+	 * a prefix.
+	 *
+	 * @param  data Contents of the file.
+	 * @param  prefix Text with which the lines are compared.
+	 * @param  lower Position of a line that precedes (or is) the line to be
+	 *         found.
+	 * @return Position of the first line that begins with the prefix or
+	 *         sorts after it, or the end of the contents if there is none.
+	 */
+	static int findFirstLine(ByteBuffer data, String prefix, int lower)
+	{
+		int low = lower;
+		int high = data.limit();
+		while (low < high)
+		{
+			int middle = findLineStart(data, low + (high - low) / 2);
+			if (compare(data, middle, prefix) < 0)
+			{
+				low = findNextLine(data, middle);
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the position at which the line containing a position begins.
+	 *
+	 * @param  data Contents of the file.
+	 * @param  position Position within the line.
+	 * @return Position of the line's first character.
+	 */
+	static int findLineStart(ByteBuffer data, int position)
+	{
+		int index = position;
+		while ((index > 0) && (data.get(index - 1) != '\n'))
+		{
+			index--;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the position at which the line following a position begins.
+	 *
+	 * @param  data Contents of the file.
+	 * @param  position Position within the line.
+	 * @return Position of the next line's first character, or the end of
+	 *         the contents if there is no next line.
+	 */
+	static int findNextLine(ByteBuffer data, int position)
+	{
+		int limit = data.limit();
+		int index = position;
+		while ((index < limit) && (data.get(index) != '\n'))
+		{
+			index++;
+		}
+		return Math.min(index + 1, limit);
+	}
+
+	/**
+	 * Compares the beginning of a line with a prefix.
+	 *
+	 * @param  data Contents of the file.
+	 * @param  start Position of the line's first character.
+	 * @param  prefix Text with which to compare the line.
+	 * @return Zero if the line begins with the prefix, or a negative or
+	 *         positive value if the line sorts before or after it.
+	 */
+	static int compare(ByteBuffer data, int start, String prefix)
+	{
+		int limit = data.limit();
+		for (int i = 0; i < prefix.length(); i++)
+		{
+			int index = start + i;
+			if ((index >= limit) || (data.get(index) == '\n'))
+			{
+				return -1;
+			}
+			int difference = (data.get(index) & 0xff) - prefix.charAt(i);
+			if (difference != 0)
+			{
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,289 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.LookupStage;
+import edu.smu.tspell.wordnet.api.StageHistogram;
+import edu.smu.tspell.wordnet.impl.IoTraceContext;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the latency of each stage of a database's lookups, along with
+ * the number of bytes that were read, in histograms that are described
+ * by {@link StageHistogram}.
+ * <br><p>
+ * The values are spread across several stripes of counters, and each
+ * thread updates the stripe selected by its identifier, so threads
+ * performing lookups at the same time rarely update the same counters;
+ * the stripes are only added together when a snapshot is requested.
+ * Stripes are used instead of a set of counters for each thread because
+ * lookups may be run in any number of short-lived virtual threads.
+ * <br><p>
+ * Recording can be enabled and disabled at any time. While it's disabled,
+ * timing a stage costs no more than reading a volatile field.
+ * <br><p>
+ * Separately, while tracing is enabled the time and bytes of each stage
+ * are also added to the {@link QueryContext} of the calling thread, if it
+ * has one, which describes the work done by an individual call.
+ */
+final class StageTimer
+{
+
+	/**
+	 * Value returned by {@link #start()} when recording is disabled.
+	 */
+	final static long NOT_STARTED = Long.MIN_VALUE;
+
+	/**
+	 * Stages whose latencies are recorded.
+	 */
+	private final static LookupStage[] STAGES = LookupStage.values();
+
+	/**
+	 * Position of the total latency within each stage's counters.
+	 */
+	private final static int TOTAL_TIME = 0;
+
+	/**
+	 * Position of the longest latency within each stage's counters.
+	 */
+	private final static int MAXIMUM_TIME = 1;
+
+	/**
+	 * Position of the number of bytes read within each stage's counters.
+	 */
+	private final static int BYTES_READ = 2;
+
+	/**
+	 * Position of the first bucket within each stage's counters.
+	 */
+	private final static int FIRST_BUCKET = 3;
+
+	/**
+	 * Number of counters for each stage.
+	 */
+	private final static int STAGE_LENGTH =
+			FIRST_BUCKET + StageHistogram.BUCKET_COUNT;
+
+	/**
+	 * Counters of each stripe, with the counters of each stage stored
+	 * consecutively.
+	 */
+	private final AtomicLongArray[] stripes;
+
+	/**
+	 * Mask applied to a thread identifier to select its stripe.
+	 */
+	private final int mask;
+
+	/**
+	 * Indicates whether latencies are being recorded.
+	 */
+	private volatile boolean enabled;
+
+	/**
+	 * Indicates whether stages are added to the context of the calling
+	 * thread.
+	 */
+	private volatile boolean tracing;
+
+	/**
+	 * Constructor that accepts whether latencies are initially recorded.
+	 *
+	 * @param  enabled <code>true</code> if latencies should be recorded.
+	 */
+	StageTimer(boolean enabled)
+	{
+		this.enabled = enabled;
+		int count = Integer.highestOneBit(
+				Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+		stripes = new AtomicLongArray[count];
+		for (int i = 0; i < count; i++)
+		{
+			stripes[i] = new AtomicLongArray(STAGES.length * STAGE_LENGTH);
+		}
+		mask = count - 1;
+	}
+
+	/**
+	 * Indicates whether latencies are being recorded.
+	 *
+	 * @return <code>true</code> if latencies are being recorded.
+	 */
+	boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables the recording of latencies. The values already
+	 * recorded are kept.
+	 *
+	 * @param  enabled <code>true</code> if latencies should be recorded.
+	 */
+	void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Enables or disables adding the stages to the context of the calling
+	 * thread.
+	 *
+	 * @param  tracing <code>true</code> if stages should be added to the
+	 *         thread's context.
+	 * @see    QueryContext#current()
+	 */
+	void setTracing(boolean tracing)
+	{
+		this.tracing = tracing;
+	}
+
+	/**
+	 * Returns the time at which a stage begins.
+	 *
+	 * @return Current value of the system timer, or {@link #NOT_STARTED}
+	 *         if latencies aren't being recorded or traced.
+	 */
+	long start()
+	{
+		return ((enabled || tracing) ? System.nanoTime() : NOT_STARTED);
+	}
+
+	/**
+	 * Records the latency of a stage that didn't read any data.
+	 *
+	 * @param  stage Stage that was performed.
+	 * @param  start Value returned by {@link #start()} when the stage
+	 *         began.
+	 */
+	void record(LookupStage stage, long start)
+	{
+		record(stage, start, 0);
+	}
+
+	/**
+	 * Records the latency of a stage and the number of bytes it read.
+	 *
+	 * @param  stage Stage that was performed.
+	 * @param  start Value returned by {@link #start()} when the stage
+	 *         began.
+	 * @param  bytes Number of bytes read by the stage.
+	 */
+	void record(LookupStage stage, long start, long bytes)
+	{
+		if (start == NOT_STARTED)
+		{
+			return;
+		}
+		long nanos = Math.max(System.nanoTime() - start, 0);
+		if (tracing)
+		{
+			QueryContext context = QueryContext.current();
+			if (context != null)
+			{
+				context.recordStage(stage, nanos, bytes);
+			}
+		}
+		if (!enabled)
+		{
+			return;
+		}
+		AtomicLongArray stripe = stripes[
+				(int)Thread.currentThread().threadId() & mask];
+		int base = stage.ordinal() * STAGE_LENGTH;
+		stripe.getAndAdd(base + TOTAL_TIME, nanos);
+		stripe.getAndAdd(base + FIRST_BUCKET +
+				StageHistogram.getBucket(nanos), 1);
+		if (bytes != 0)
+		{
+			stripe.getAndAdd(base + BYTES_READ, bytes);
+		}
+		if (nanos > stripe.get(base + MAXIMUM_TIME))
+		{
+			stripe.accumulateAndGet(base + MAXIMUM_TIME, nanos, Math::max);
+		}
+	}
+
+	/**
+	 * Adds sense index entries that were read to the context of the
+	 * calling thread, if it has one, and to its I/O trace.
+	 *
+	 * @param  count Number of entries.
+	 */
+	void recordIndexEntries(int count)
+	{
+		IoTraceContext trace = IoTraceContext.current();
+		if (trace != null)
+		{
+			trace.recordIndexLines(count);
+		}
+		if (tracing)
+		{
+			QueryContext context = QueryContext.current();
+			if (context != null)
+			{
+				context.recordIndexEntries(count);
+			}
+		}
+	}
+
+	/**
+	 * Returns the histograms of all of the stages.
+	 *
+	 * @return Snapshot of the histogram of each stage.
+	 */
+	Map<LookupStage, StageHistogram> getHistograms()
+	{
+		Map<LookupStage, StageHistogram> histograms =
+				new EnumMap<>(LookupStage.class);
+		for (LookupStage stage : STAGES)
+		{
+			int base = stage.ordinal() * STAGE_LENGTH;
+			long totalTime = 0;
+			long maximumTime = 0;
+			long bytesRead = 0;
+			long[] buckets = new long[StageHistogram.BUCKET_COUNT];
+			for (AtomicLongArray stripe : stripes)
+			{
+				totalTime += stripe.get(base + TOTAL_TIME);
+				maximumTime = Math.max(maximumTime,
+						stripe.get(base + MAXIMUM_TIME));
+				bytesRead += stripe.get(base + BYTES_READ);
+				for (int i = 0; i < buckets.length; i++)
+				{
+					buckets[i] += stripe.get(base + FIRST_BUCKET + i);
+				}
+			}
+			histograms.put(stage, new StageHistogram(
+					stage, totalTime, maximumTime, bytesRead, buckets));
+		}
+		return histograms;
+	}
+
+}
@@ -24,15 +24,19 @@
  */
 package edu.smu.tspell.wordnet.impl.file;
 
+import edu.smu.tspell.wordnet.api.CacheStatistics;
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.LookupStage;
 import edu.smu.tspell.wordnet.api.Synset;
 import edu.smu.tspell.wordnet.api.WordNetException;
-
-import java.io.IOException;
+import edu.smu.tspell.wordnet.impl.InstrumentedLock;
+import edu.smu.tspell.wordnet.impl.IoTraceContext;
 
 import java.lang.ref.WeakReference;
 
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Provides a central location from which synset instances can be retrieved.
@@ -41,6 +45,16 @@ import java.util.WeakHashMap;
  * and when a synset is requested, the cache is first checked and the cached
  * instance will be returned if one exists. If the synset isn't found in the
  * cache, however, it will be read from disk and possibly added to the cache.
+ * <br><p>
+ * Synsets are read and parsed without holding the lock that guards the
+ * cache, so lookups of different synsets don't wait for one another's I/O.
+ * If two threads read the same synset at once, both receive the instance
+ * that was cached first.
+ * <br><p>
+ * Statistics are kept for both the bounded cache of strong references and
+ * the weakly referenced tier behind it, which still finds synsets that
+ * were evicted from the bounded cache as long as the application holds a
+ * reference to them.
  * 
  * @author Brett Spell
  * @see <a href="http://java.sun.com/developer/technicalArticles/ALT/RefObj/">
@@ -50,19 +64,26 @@ public class SynsetFactory
 {
 
 	/**
-	 * Default number of synsets to cache.
+	 * Rough number of bytes retained by a synset in addition to its
+	 * record, used to estimate the memory retained by the caches.
+	 */
+	private final static long SYNSET_OVERHEAD = 256;
+
+	/**
+	 * Number of bytes retained by a synset for each character of its
+	 * record, which is held as parsed strings and arrays.
 	 */
-	private final static int DEFAULT_CACHE_SIZE = 500;
+	private final static long BYTES_PER_CHARACTER = 3;
 
 	/**
-	 * Number of synsets that will be cached.
+	 * Record length assumed before any synset has been read.
 	 */
-	private static int cacheSize = DEFAULT_CACHE_SIZE;
+	private final static long DEFAULT_RECORD_LENGTH = 200;
 
 	/**
-	 * Singleton instance of this class.
+	 * Database whose synsets are read and cached.
 	 */
-	private static SynsetFactory instance;
+	private FileDatabase database;
 
 	/**
 	 * Maps pointers to their corresponding synsets.
@@ -93,52 +114,52 @@ public class SynsetFactory
 	 * Maintains "strong" references to the synsets to ensure that they
 	 * don't get garbage collected.
 	 */
-	private LeastRecentlyUsedCache cache =
-			new LeastRecentlyUsedCache(cacheSize);
+	private LeastRecentlyUsedCache cache;
 
 	/**
-	 * Static initializer that updates the cache size if one was specified.
+	 * Guards the maps and the cache; it isn't held while synsets are read.
 	 */
-	static
-	{
-		String propertyName = PropertyNames.SYNSET_CACHE_SIZE;
-		String propertyValue = System.getProperty(propertyName);
-		if (propertyValue != null)
-		{
-			try
-			{
-				cacheSize = Integer.parseInt(propertyValue);
-			}
-			catch (NumberFormatException nfe)
-			{
-				System.err.println("'" + propertyValue + "' is an invalid " +
-						"value for " + propertyName + " and will be ignored.");
-			}
-		}
-	}
+	private final InstrumentedLock lock = new InstrumentedLock();
+
+	/**
+	 * Counts the requests for synsets and the time spent reading them.
+	 */
+	private final CacheCounters counters = new CacheCounters();
 
 	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Number of requests answered by the weak maps for synsets that were
+	 * no longer in the bounded cache.
+	 */
+	private final LongAdder weakHits = new LongAdder();
+
+	/**
+	 * Number of synsets that have been added to the weak maps.
+	 */
+	private final LongAdder weakAdds = new LongAdder();
+
+	/**
+	 * Returns the synset factory of the database returned by
+	 * {@link FileDatabase#getDefault()}.
 	 * 
-	 * @return Reference to the singleton instance of this class.
+	 * @return Synset factory of the default database.
 	 */
-	public synchronized static SynsetFactory getInstance()
+	public static SynsetFactory getInstance()
 	{
-		if (instance == null)
-		{
-			instance = new SynsetFactory();
-		}
-		return instance;
+		return FileDatabase.getDefault().getSynsetFactory();
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Constructor that accepts the database whose synsets are returned and
+	 * the number of synsets to which strong references are maintained.
 	 * 
-	 * @throws RetrievalException An error occurred reading the frame text file.
+	 * @param  database Database from which synsets are read.
+	 * @param  cacheSize Number of synsets that will be cached.
 	 */
-	private SynsetFactory()
+	SynsetFactory(FileDatabase database, int cacheSize)
 	{
+		this.database = database;
+		cache = new LeastRecentlyUsedCache(
+				CacheStatistics.SYNSET_CACHE, cacheSize);
 	}
 
 	/**
@@ -152,19 +173,150 @@ public class SynsetFactory
 	 * @throws WordNetException An error occurred reading or parsing the
 	 *         synset.
 	 */
-	public synchronized Synset getSynset(SynsetPointer pointer)
+	public Synset getSynset(SynsetPointer pointer)
 			throws WordNetException
 	{
-		Synset synset = getCachedSynset(pointer);
-		if (synset == null)
+		Synset synset;
+		boolean strong = false;
+		SynsetLoadEvent event = new SynsetLoadEvent();
+		event.begin();
+		lock.lock();
+		try
+		{
+			synset = getCachedSynset(pointer);
+			if (synset != null)
+			{
+				strong = cache.containsKey(pointer);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		if (synset != null)
+		{
+			event.cacheHit = true;
+			counters.recordHit();
+			if (!strong)
+			{
+				weakHits.increment();
+			}
+		}
+		else
+		{
+			//  Read without holding the lock so that other lookups can proceed
+			long start = System.nanoTime();
+			Synset loaded = readSynset(pointer, event);
+			counters.recordMisses(1, System.nanoTime() - start);
+			lock.lock();
+			try
+			{
+				//  Another thread may have read the same synset meanwhile
+				synset = getCachedSynset(pointer);
+				if (synset == null)
+				{
+					synset = loaded;
+					addToCache(synset, pointer);
+				}
+				cache.put(pointer, synset);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		if (event.shouldCommit())
 		{
-			synset = readSynset(pointer);
-			addToCache(synset, pointer);
-			cache.put(pointer, synset);
+			event.partOfSpeech = String.valueOf(
+					SynsetTypeConverter.getCode(pointer.getType()));
+			event.offset = pointer.getOffset();
+			event.commit();
+		}
+		IoTraceContext trace = IoTraceContext.current();
+		if (trace != null)
+		{
+			trace.recordSynset();
 		}
 		return synset;
 	}
 
+	/**
+	 * Returns the maximum number of synsets to which strong references are
+	 * maintained.
+	 * 
+	 * @return Synset cache size.
+	 */
+	public int getCacheSize()
+	{
+		return cache.getMaximumEntries();
+	}
+
+	/**
+	 * Changes the maximum number of synsets to which strong references are
+	 * maintained, dropping the least recently used references if there are
+	 * now too many.
+	 * 
+	 * @param  cacheSize Number of synsets that will be cached.
+	 * @throws IllegalArgumentException The size is negative.
+	 */
+	public void setCacheSize(int cacheSize)
+	{
+		cache.setMaximumEntries(cacheSize);
+	}
+
+	/**
+	 * Returns the statistics of the bounded synset cache. Requests that are
+	 * answered by the weakly referenced tier are counted as hits.
+	 * 
+	 * @return Snapshot of the synset cache's statistics.
+	 */
+	public CacheStatistics getStatistics()
+	{
+		long size = cache.size();
+		return new CacheStatistics(CacheStatistics.SYNSET_CACHE,
+				counters.getHitCount(), counters.getMissCount(),
+				counters.getLoadTime(), cache.getEvictionCount(), size,
+				cache.getMaximumEntries(), size * getEstimatedSynsetBytes());
+	}
+
+	/**
+	 * Returns the statistics of the weakly referenced tier, which receives
+	 * the requests for synsets that aren't in the bounded cache. Its size
+	 * is the number of synsets that are still alive, and its evictions are
+	 * the synsets that have been garbage collected.
+	 * 
+	 * @return Snapshot of the weak tier's statistics.
+	 */
+	public CacheStatistics getWeakStatistics()
+	{
+		long size;
+		lock.lock();
+		try
+		{
+			size = pointerSynsets.size();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return new CacheStatistics(CacheStatistics.WEAK_SYNSETS,
+				weakHits.sum(), counters.getMissCount(),
+				counters.getLoadTime(), Math.max(weakAdds.sum() - size, 0),
+				size, -1, size * getEstimatedSynsetBytes());
+	}
+
+	/**
+	 * Returns a rough estimate of the memory retained by each synset, based
+	 * upon the average length of the records that have been read.
+	 * 
+	 * @return Approximate number of bytes per synset.
+	 */
+	private long getEstimatedSynsetBytes()
+	{
+		return SYNSET_OVERHEAD + BYTES_PER_CHARACTER *
+				counters.getAverageLoadedLength(DEFAULT_RECORD_LENGTH);
+	}
+
 	/**
 	 * Attempts to return a synset that was previously stored in the cache.
 	 * 
@@ -204,37 +356,50 @@ public class SynsetFactory
 	{
 		pointerSynsets.put(pointer, new WeakReference(synset));
 		synsetPointers.put(synset, pointer);
+		weakAdds.increment();
 	}
 
 	/**
 	 * Reads and returns a synset from the WordNet database.
 	 * 
 	 * @param  pointer Identifies the location from which to read the synset.
+	 * @param  event Flight recorder event that receives the length of the
+	 *         record and the time spent parsing it, if it's enabled.
 	 * @return Newly created synset instance.
 	 * @throws RetrievalException An error occurred reading the data.
 	 * @throws ParseException An error occurred parsing the data.
 	 */
-	private Synset readSynset(SynsetPointer pointer)
+	private Synset readSynset(SynsetPointer pointer, SynsetLoadEvent event)
 			throws RetrievalException, ParseException
 	{
 		Synset synset;
 		String data = null;
 		try
 		{
-			SynsetReader reader = SynsetReader.getInstance(
-					pointer.getType());
-			data = reader.readData(pointer);
-			SynsetParser parser = new SynsetParser();
+			StageTimer timer = database.getStageTimer();
+			long start = timer.start();
+			data = database.getStorage().getSynsetRecord(pointer);
+			timer.record(LookupStage.DATA_READ, start, data.length());
+			counters.recordLoadedLength(data.length());
+			boolean recorded = event.isEnabled();
+			long parseStart = (recorded ? System.nanoTime() : 0);
+			start = timer.start();
+			SynsetParser parser = new SynsetParser(database);
 			synset = parser.createSynset(data);
+			timer.record(LookupStage.PARSE, start);
+			if (recorded)
+			{
+				event.recordLength = data.length();
+				event.parseTime = System.nanoTime() - parseStart;
+			}
 		}
 		catch (ParseException pe)
 		{
 			throw pe;
 		}
-		catch (IOException ioe)
+		catch (RetrievalException re)
 		{
-			throw new RetrievalException(
-					"An error occurred reading the synset data", ioe);
+			throw re;
 		}
 		catch (Exception e)
 		{
@@ -244,4 +409,14 @@ public class SynsetFactory
 		return synset;
 	}
 
+	/**
+	 * Returns a snapshot of the use of the lock that guards the synset cache.
+	 *
+	 * @return Statistics of the lock.
+	 */
+	public LockStatistics getLockStatistics()
+	{
+		return lock.getStatistics(LockStatistics.SYNSET_FACTORY);
+	}
+
 }
\ No newline at end of file
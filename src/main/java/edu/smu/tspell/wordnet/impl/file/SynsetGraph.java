@@ -0,0 +1,674 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import java.util.Arrays;
+import java.util.StringTokenizer;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.stream.Stream;
+
+/**
+ * A compact, primitive representation of every synset in a database and
+ * of the relationships between them, intended for algorithms that need to
+ * visit the whole lexicon (graph ranking, random walks, sampling, etc.)
+ * and for which creating synset objects would be far too expensive.
+ * <br><p>
+ * Each synset is assigned a dense identifier between zero (inclusive) and
+ * {@link #getSynsetCount()} (exclusive). Identifiers are assigned in data
+ * file order, beginning with <code>data.noun</code> and followed by the
+ * verb, adjective and adverb files, so within a file they increase with the
+ * synset offset. The relationships are stored in compressed sparse row
+ * form: the outgoing edges of synset <i>n</i> are the positions from
+ * <code>getEdgeOffsets()[n]</code> (inclusive) to
+ * <code>getEdgeOffsets()[n + 1]</code> (exclusive) of the target and
+ * relationship arrays. Both semantic and lexical pointers are included,
+ * the latter being treated as a relationship between the containing synsets.
+ * <br><p>
+ * The graph is built by reading every synset record from the database's
+ * storage once, which takes a few seconds, so each database creates its
+ * graph only when it's first requested (see {@link FileDatabase#getGraph()})
+ * and synsets are read through that database's {@link SynsetFactory}. The
+ * arrays returned by this class are shared and must not be modified.
+ */
+public class SynsetGraph
+{
+
+	/**
+	 * Synset types associated with each data file, in identifier order.
+	 */
+	private final static SynsetType[] FILE_TYPES = {SynsetType.NOUN,
+			SynsetType.VERB, SynsetType.ADJECTIVE, SynsetType.ADVERB};
+
+	/**
+	 * Types of the synset records stored in each data file; the adjective
+	 * file contains both adjective and adjective satellite synsets.
+	 */
+	private final static SynsetType[][] RECORD_TYPES = {
+			{SynsetType.NOUN}, {SynsetType.VERB},
+			{SynsetType.ADJECTIVE, SynsetType.ADJECTIVE_SATELLITE},
+			{SynsetType.ADVERB}};
+
+	/**
+	 * Separates fields within a line.
+	 */
+	private final static String FIELD_DELIMITER = " ";
+
+	/**
+	 * Used for parsing hexadecimal (base-16) number text.
+	 */
+	private final static int HEX = 16;
+
+	/**
+	 * Prefix that matches the key of every entry in the sense index.
+	 */
+	private final static String ALL_SENSES = "";
+
+	/**
+	 * Database whose synsets are represented by this graph.
+	 */
+	private FileDatabase database;
+
+	/**
+	 * Sorted synset offsets for each data file.
+	 */
+	private int[][] fileOffsets = new int[FILE_TYPES.length][];
+
+	/**
+	 * Identifier of the first synset in each data file.
+	 */
+	private int[] fileBases = new int[FILE_TYPES.length];
+
+	/**
+	 * Type code (see {@link SynsetType#getCode()}) of each synset.
+	 */
+	private byte[] typeCodes;
+
+	/**
+	 * Position of the first outgoing edge of each synset, plus a final entry
+	 * that's equal to the total number of edges.
+	 */
+	private int[] edgeOffsets;
+
+	/**
+	 * Target synset identifier of each edge.
+	 */
+	private int[] edgeTargets;
+
+	/**
+	 * Relationship of each edge, as an index into
+	 * {@link RelationshipType#ALL_TYPES}.
+	 */
+	private byte[] edgeRelationships;
+
+	/**
+	 * Position of the first sense of each synset within the sense arrays,
+	 * plus a final entry that's equal to the total number of senses; this
+	 * and the other sense arrays are loaded when they're first needed.
+	 */
+	private int[] senseOffsets;
+
+	/**
+	 * Sense key text of each sense.
+	 */
+	private String[] senseKeys;
+
+	/**
+	 * Tag count of each sense.
+	 */
+	private int[] senseTagCounts;
+
+	/**
+	 * Guards the loading of the sense data.
+	 */
+	private final ReentrantLock senseLock = new ReentrantLock();
+
+	/**
+	 * Returns the graph of the database returned by
+	 * {@link FileDatabase#getDefault()}.
+	 *
+	 * @return Graph of the default database.
+	 * @throws WordNetException An error occurred reading the database.
+	 */
+	public static SynsetGraph getInstance() throws WordNetException
+	{
+		return FileDatabase.getDefault().getGraph();
+	}
+
+	/**
+	 * Returns the graph of a database, building it if necessary.
+	 *
+	 * @param  database Database whose graph is returned.
+	 * @return Graph of the database.
+	 * @throws IllegalArgumentException The database isn't a
+	 *         {@link FileDatabase}, which is the only implementation whose
+	 *         synsets can be represented by a graph.
+	 * @throws WordNetException An error occurred reading the database.
+	 */
+	public static SynsetGraph getInstance(WordNetDatabase database)
+			throws WordNetException
+	{
+		if (!(database instanceof FileDatabase))
+		{
+			throw new IllegalArgumentException(
+					"Not a file database: " + database);
+		}
+		return ((FileDatabase)database).getGraph();
+	}
+
+	/**
+	 * Constructor that accepts the database whose synsets are represented
+	 * and builds the graph from the records of its storage.
+	 *
+	 * @param  database Database whose synsets are represented.
+	 * @throws RetrievalException An error occurred reading the records.
+	 */
+	SynsetGraph(FileDatabase database) throws RetrievalException
+	{
+		this.database = database;
+		load();
+	}
+
+	/**
+	 * Returns the number of synsets in the database.
+	 *
+	 * @return Number of synsets, which is also one more than the largest
+	 *         synset identifier.
+	 */
+	public int getSynsetCount()
+	{
+		return typeCodes.length;
+	}
+
+	/**
+	 * Returns the number of relationships (edges) in the graph.
+	 *
+	 * @return Total number of edges.
+	 */
+	public int getEdgeCount()
+	{
+		return edgeTargets.length;
+	}
+
+	/**
+	 * Returns the identifier of the synset at a particular location.
+	 *
+	 * @param  pointer Location of the synset in the database.
+	 * @return Identifier of the synset or -1 if no synset begins at the
+	 *         specified location.
+	 */
+	public int getId(SynsetPointer pointer)
+	{
+		return getId(pointer.getType(), pointer.getOffset());
+	}
+
+	/**
+	 * Returns the identifier of a synset.
+	 *
+	 * @param  synset Synset for which to return the identifier.
+	 * @return Identifier of the synset or -1 if it isn't part of this graph.
+	 */
+	public int getId(Synset synset)
+	{
+		int id = -1;
+		if (synset instanceof ReferenceSynset)
+		{
+			id = getId(synset.getType(), ((ReferenceSynset)synset).getOffset());
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the identifier of the synset at a particular data file offset.
+	 *
+	 * @param  type Type of the synset, which identifies the data file.
+	 * @param  offset Offset of the synset within the data file.
+	 * @return Identifier of the synset or -1 if no synset begins at the
+	 *         specified offset.
+	 */
+	public int getId(SynsetType type, int offset)
+	{
+		int file = getFileIndex(type);
+		int index = Arrays.binarySearch(fileOffsets[file], offset);
+		return (index >= 0 ? fileBases[file] + index : -1);
+	}
+
+	/**
+	 * Returns the type of a synset.
+	 *
+	 * @param  id Identifier of the synset.
+	 * @return Type of the synset.
+	 */
+	public SynsetType getType(int id)
+	{
+		return SynsetTypeConverter.getType((int)typeCodes[id]);
+	}
+
+	/**
+	 * Returns the location of a synset in the database.
+	 *
+	 * @param  id Identifier of the synset.
+	 * @return Pointer to the synset.
+	 */
+	public SynsetPointer getPointer(int id)
+	{
+		int file = FILE_TYPES.length - 1;
+		while (id < fileBases[file])
+		{
+			file--;
+		}
+		return new SynsetPointer(getType(id),
+				fileOffsets[file][id - fileBases[file]]);
+	}
+
+	/**
+	 * Returns the database whose synsets are represented by this graph.
+	 *
+	 * @return Database from which the graph was built.
+	 */
+	public FileDatabase getDatabase()
+	{
+		return database;
+	}
+
+	/**
+	 * Returns a synset object, reading it from the database if necessary.
+	 *
+	 * @param  id Identifier of the synset.
+	 * @return Synset with the specified identifier.
+	 * @throws WordNetException An error occurred reading the synset.
+	 */
+	public Synset getSynset(int id) throws WordNetException
+	{
+		return database.getSynsetFactory().getSynset(getPointer(id));
+	}
+
+	/**
+	 * Returns the position of the first outgoing edge of each synset; the
+	 * array contains one more entry than there are synsets.
+	 *
+	 * @return Edge offsets indexed by synset identifier.
+	 */
+	public int[] getEdgeOffsets()
+	{
+		return edgeOffsets;
+	}
+
+	/**
+	 * Returns the target synset identifier of each edge.
+	 *
+	 * @return Target identifiers indexed by edge position.
+	 */
+	public int[] getEdgeTargets()
+	{
+		return edgeTargets;
+	}
+
+	/**
+	 * Returns the relationship of each edge as an index into
+	 * {@link RelationshipType#ALL_TYPES}.
+	 *
+	 * @return Relationship indices indexed by edge position.
+	 */
+	public byte[] getEdgeRelationships()
+	{
+		return edgeRelationships;
+	}
+
+	/**
+	 * Returns the position of the first sense (word form) of each synset
+	 * within the sense key and tag count arrays; the array contains one more
+	 * entry than there are synsets. The senses are read from the storage's
+	 * sense index the first time that this or another sense method is
+	 * called.
+	 *
+	 * @return Sense offsets indexed by synset identifier.
+	 * @throws RetrievalException An error occurred reading the sense index.
+	 */
+	public int[] getSenseOffsets() throws RetrievalException
+	{
+		loadSenses();
+		return senseOffsets;
+	}
+
+	/**
+	 * Returns the sense key text of each sense.
+	 *
+	 * @return Sense keys indexed by sense position.
+	 * @throws RetrievalException An error occurred reading the sense index.
+	 */
+	public String[] getSenseKeys() throws RetrievalException
+	{
+		loadSenses();
+		return senseKeys;
+	}
+
+	/**
+	 * Returns the tag count of each sense, which is the number of times that
+	 * the sense was tagged in the semantic concordance texts.
+	 *
+	 * @return Tag counts indexed by sense position.
+	 * @throws RetrievalException An error occurred reading the sense index.
+	 */
+	public int[] getSenseTagCounts() throws RetrievalException
+	{
+		loadSenses();
+		return senseTagCounts;
+	}
+
+	/**
+	 * Returns the index of the data file that contains synsets of a type.
+	 *
+	 * @param  type Synset type.
+	 * @return Index into {@link #FILE_TYPES}.
+	 */
+	private static int getFileIndex(SynsetType type)
+	{
+		return (type.equals(SynsetType.ADJECTIVE_SATELLITE) ?
+				getFileIndex(SynsetType.ADJECTIVE) : type.getCode() - 1);
+	}
+
+	/**
+	 * Reads the records of each data file from the storage and builds the
+	 * graph. The pointer targets are collected as (file, offset) pairs
+	 * while reading and converted into identifiers once the offsets of all
+	 * synsets are known.
+	 *
+	 * @throws RetrievalException An error occurred reading the records.
+	 */
+	private void load() throws RetrievalException
+	{
+		IntList offsets = new IntList();
+		ByteList types = new ByteList();
+		IntList sources = new IntList();
+		IntList targetFiles = new IntList();
+		IntList targetOffsets = new IntList();
+		ByteList relationships = new ByteList();
+		DictionaryStorage storage = database.getStorage();
+
+		for (int file = 0; file < FILE_TYPES.length; file++)
+		{
+			fileBases[file] = types.size();
+			offsets.clear();
+			try (Stream<String> records =
+					storage.getSynsetRecords(RECORD_TYPES[file]))
+			{
+				records.forEachOrdered(record ->
+						parseLine(record, types.size(), offsets, types,
+								sources, targetFiles, targetOffsets,
+								relationships));
+			}
+			fileOffsets[file] = offsets.toArray();
+		}
+		typeCodes = types.toArray();
+
+		//  Count the outgoing edges of each synset and convert to offsets
+		edgeOffsets = new int[typeCodes.length + 1];
+		for (int i = 0; i < sources.size(); i++)
+		{
+			edgeOffsets[sources.get(i) + 1]++;
+		}
+		for (int i = 0; i < typeCodes.length; i++)
+		{
+			edgeOffsets[i + 1] += edgeOffsets[i];
+		}
+		//  The pointers were read in source order, so they're already sorted
+		edgeTargets = new int[sources.size()];
+		edgeRelationships = relationships.toArray();
+		for (int i = 0; i < edgeTargets.length; i++)
+		{
+			int file = targetFiles.get(i);
+			int index = Arrays.binarySearch(fileOffsets[file],
+					targetOffsets.get(i));
+			if (index < 0)
+			{
+				throw new RetrievalException("Pointer to nonexistent synset " +
+						FILE_TYPES[file] + "@" + targetOffsets.get(i));
+			}
+			edgeTargets[i] = fileBases[file] + index;
+		}
+	}
+
+	/**
+	 * Reads every entry of the storage's sense index and groups the entries
+	 * by synset.
+	 *
+	 * @throws RetrievalException An error occurred reading the sense index.
+	 */
+	private void loadSenses() throws RetrievalException
+	{
+		senseLock.lock();
+		try
+		{
+			if (senseOffsets != null)
+			{
+				return;
+			}
+			SenseIndexEntry[] entries =
+					database.getStorage().getSenseEntries(ALL_SENSES);
+			int[] ids = new int[entries.length];
+			int count = 0;
+			for (int i = 0; i < entries.length; i++)
+			{
+				ids[i] = getId(entries[i].getSenseKey().getType(),
+						entries[i].getSynsetOffset());
+				if (ids[i] >= 0)
+				{
+					count++;
+				}
+			}
+
+			//  Sort the senses by synset, keeping the index order within each
+			int[] offsets = new int[typeCodes.length + 1];
+			for (int id : ids)
+			{
+				if (id >= 0)
+				{
+					offsets[id + 1]++;
+				}
+			}
+			for (int i = 0; i < typeCodes.length; i++)
+			{
+				offsets[i + 1] += offsets[i];
+			}
+			int[] positions = Arrays.copyOf(offsets, typeCodes.length);
+			String[] sortedKeys = new String[count];
+			int[] sortedCounts = new int[count];
+			for (int i = 0; i < entries.length; i++)
+			{
+				if (ids[i] >= 0)
+				{
+					int position = positions[ids[i]]++;
+					sortedKeys[position] =
+							entries[i].getSenseKey().getFullSenseKeyText();
+					sortedCounts[position] = entries[i].getTagCount();
+				}
+			}
+			senseKeys = sortedKeys;
+			senseTagCounts = sortedCounts;
+			senseOffsets = offsets;
+		}
+		finally
+		{
+			senseLock.unlock();
+		}
+	}
+
+	/**
+	 * Parses the fields of a data file line that are needed for the graph.
+	 *
+	 * @param  line Line from a data file.
+	 * @param  id Identifier to assign to the synset.
+	 * @param  offsets Receives the synset offset.
+	 * @param  types Receives the synset type code.
+	 * @param  sources Receives the source identifier of each pointer.
+	 * @param  targetFiles Receives the target file index of each pointer.
+	 * @param  targetOffsets Receives the target offset of each pointer.
+	 * @param  relationships Receives the relationship index of each pointer.
+	 */
+	private void parseLine(String line, int id, IntList offsets,
+			ByteList types, IntList sources, IntList targetFiles,
+			IntList targetOffsets, ByteList relationships)
+	{
+		StringTokenizer tokenizer = new StringTokenizer(line, FIELD_DELIMITER);
+		offsets.add(Integer.parseInt(tokenizer.nextToken()));
+		//  Skip the lexical file number
+		tokenizer.nextToken();
+		SynsetType type = SynsetTypeConverter.getType(
+				tokenizer.nextToken().charAt(0));
+		types.add((byte)type.getCode());
+		//  Skip the word forms and their lexical identifiers
+		int wordCount = Integer.parseInt(tokenizer.nextToken(), HEX);
+		for (int i = 0; i < wordCount * 2; i++)
+		{
+			tokenizer.nextToken();
+		}
+		int pointerCount = Integer.parseInt(tokenizer.nextToken());
+		for (int i = 0; i < pointerCount; i++)
+		{
+			RelationshipType relationship =
+					RelationshipType.getRelationshipType(tokenizer.nextToken());
+			int targetOffset = Integer.parseInt(tokenizer.nextToken());
+			SynsetType targetType = SynsetTypeConverter.getType(
+					tokenizer.nextToken().charAt(0));
+			//  Skip the source / target word numbers
+			tokenizer.nextToken();
+			if (relationship != null)
+			{
+				sources.add(id);
+				targetFiles.add(getFileIndex(targetType));
+				targetOffsets.add(targetOffset);
+				relationships.add((byte)getRelationshipIndex(relationship));
+			}
+		}
+	}
+
+	/**
+	 * Returns the position of a relationship type within
+	 * {@link RelationshipType#ALL_TYPES}.
+	 *
+	 * @param  relationship Relationship type.
+	 * @return Index of the relationship type.
+	 */
+	private static int getRelationshipIndex(RelationshipType relationship)
+	{
+		int index = 0;
+		while (!RelationshipType.ALL_TYPES[index].equals(relationship))
+		{
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * A growable array of <code>int</code> values.
+	 */
+	private static class IntList
+	{
+
+		/**
+		 * Values stored in the list.
+		 */
+		private int[] values = new int[1024];
+
+		/**
+		 * Number of values stored in the list.
+		 */
+		private int size;
+
+		public void add(int value)
+		{
+			if (size == values.length)
+			{
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		public int get(int index)
+		{
+			return values[index];
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		public void clear()
+		{
+			size = 0;
+		}
+
+		public int[] toArray()
+		{
+			return Arrays.copyOf(values, size);
+		}
+
+	}
+
+	/**
+	 * A growable array of <code>byte</code> values.
+	 */
+	private static class ByteList
+	{
+
+		/**
+		 * Values stored in the list.
+		 */
+		private byte[] values = new byte[1024];
+
+		/**
+		 * Number of values stored in the list.
+		 */
+		private int size;
+
+		public void add(byte value)
+		{
+			if (size == values.length)
+			{
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		public byte[] toArray()
+		{
+			return Arrays.copyOf(values, size);
+		}
+
+	}
+
+}
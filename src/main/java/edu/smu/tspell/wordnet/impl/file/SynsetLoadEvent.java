@@ -0,0 +1,81 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a request for the synset at a location in a
+ * data file, which is either answered by the synset cache or read from the
+ * storage and parsed.
+ */
+@Name("edu.smu.tspell.jaws.SynsetLoad")
+@Label("Synset Load")
+@Category("WordNet")
+@Description("Request for a synset, from the cache or the data files")
+@Threshold("20 us")
+@StackTrace(false)
+final class SynsetLoadEvent extends Event
+{
+
+	/**
+	 * Code of the synset's part of speech.
+	 */
+	@Label("Part of Speech")
+	String partOfSpeech;
+
+	/**
+	 * Offset of the synset within its data file.
+	 */
+	@Label("Offset")
+	int offset;
+
+	/**
+	 * Indicates whether the synset was already cached.
+	 */
+	@Label("Cache Hit")
+	boolean cacheHit;
+
+	/**
+	 * Number of characters in the record that was read.
+	 */
+	@Label("Record Length")
+	int recordLength;
+
+	/**
+	 * Time spent creating the synset from its record.
+	 */
+	@Label("Parse Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long parseTime;
+
+}
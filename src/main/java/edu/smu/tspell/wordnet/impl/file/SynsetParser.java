@@ -85,11 +85,21 @@ public class SynsetParser
 	private final static int HEX = 16;
 
 	/**
-	 * No-argument constructor.
+	 * Database with which the synsets that are created are associated.
 	 */
-	public SynsetParser()
+	private FileDatabase database;
+
+	/**
+	 * Constructor that accepts the database with which the synsets that
+	 * are created are associated, and from which the sample sentences and
+	 * related synsets are read.
+	 * 
+	 * @param  database Database to which the parsed data belongs.
+	 */
+	public SynsetParser(FileDatabase database)
 	{
 		super();
+		this.database = database;
 	}
 
 	/**
@@ -139,9 +149,7 @@ public class SynsetParser
 		//  Word form count (e.g., "2").
 		int wordCount = Integer.parseInt(tokenizer.nextToken(), HEX);
 		senseKeys = new SenseKey[wordCount];
-		SampleIndexFactory indexFactory = SampleIndexFactory.getInstance();
-		SampleTemplateFactory templateFactory =
-				SampleTemplateFactory.getInstance();
+		DictionaryStorage storage = database.getStorage();
 		ExampleSentences sentences = new ExampleSentences();
 
 		WordPositions positions = null;
@@ -171,11 +179,11 @@ public class SynsetParser
 			lexicalID = Integer.parseInt(tokenizer.nextToken(), HEX);
 			senseKeys[i] = new SenseKey(wordForm, synsetType, lexicalFile,
 					lexicalID);
-			keyText = indexFactory.getSampleKeys(senseKeys[i]);
+			keyText = storage.getSampleKeys(senseKeys[i]);
 			templates = new String[keyText.length];
 			for (int j = 0; j < keyText.length; j++)
 			{
-				templates[j] = templateFactory.getSample(
+				templates[j] = storage.getSampleTemplate(
 						synsetType, keyText[j]);
 			}
 			sentences.setTemplates(senseKeys[i].getLemma(), templates);
@@ -220,7 +228,6 @@ public class SynsetParser
 		if (!(nextToken.equals(FRAME_TERMINATOR)))
 		{
 			int frameCount = Integer.parseInt(nextToken);
-			SampleFrameFactory factory = SampleFrameFactory.getInstance();
 			//  Loop through the list of frame entries
 			for (int i = 0; i < frameCount; i++)
 			{
@@ -234,7 +241,7 @@ public class SynsetParser
 				}
 				//  Get the frame number and resolve it to frame text
 				nextToken = tokenizer.nextToken();
-				frameText = factory.getSample(synsetType, nextToken);
+				frameText = storage.getFrame(synsetType, nextToken);
 				//  Get index of word that frame is associated with
 				sourceWord = Integer.parseInt(tokenizer.nextToken(), HEX);
 				//  If word number is zero, frame is for the entire synset
@@ -273,25 +280,27 @@ public class SynsetParser
 		switch (synsetTypeCode)
 		{
 			case SynsetTypeConverter.NOUN_CODE:
-				synset = new NounReferenceSynset(definition, examples,
-						senseKeys, pointers, lexicalFile, offset);
+				synset = new NounReferenceSynset(database, definition,
+						examples, senseKeys, pointers, lexicalFile, offset);
 				break;
 			case SynsetTypeConverter.VERB_CODE:
-				synset = new VerbReferenceSynset(definition, examples,
-						senseKeys, pointers, sentences, lexicalFile, offset);
+				synset = new VerbReferenceSynset(database, definition,
+						examples, senseKeys, pointers, sentences, lexicalFile,
+						offset);
 				break;
 			case SynsetTypeConverter.ADJECTIVE_CODE:
-				synset = new AdjectiveReferenceSynset(definition, examples,
-						senseKeys, pointers, lexicalFile, offset, positions);
+				synset = new AdjectiveReferenceSynset(database, definition,
+						examples, senseKeys, pointers, lexicalFile, offset,
+						positions);
 				break;
 			case SynsetTypeConverter.ADVERB_CODE:
-				synset = new AdverbReferenceSynset(definition, examples,
-						senseKeys, pointers, lexicalFile, offset);
+				synset = new AdverbReferenceSynset(database, definition,
+						examples, senseKeys, pointers, lexicalFile, offset);
 				break;
 			case SynsetTypeConverter.ADJECTIVE_SATELLITE_CODE:
-				synset = new AdjectiveSatelliteReferenceSynset(definition,
-						examples, senseKeys, pointers, lexicalFile, offset,
-						positions);
+				synset = new AdjectiveSatelliteReferenceSynset(database,
+						definition, examples, senseKeys, pointers, lexicalFile,
+						offset, positions);
 				break;
 			default:
 				throw new ParseException("The synset type code '" +
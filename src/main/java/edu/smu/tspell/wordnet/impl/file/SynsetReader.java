@@ -24,6 +24,7 @@
  */
 package edu.smu.tspell.wordnet.impl.file;
 
+import edu.smu.tspell.wordnet.api.IoMode;
 import edu.smu.tspell.wordnet.api.SynsetType;
 
 import edu.smu.tspell.wordnet.impl.RandomAccessReader;
@@ -31,10 +32,10 @@ import edu.smu.tspell.wordnet.impl.RandomAccessReader;
 import java.io.File;
 import java.io.IOException;
 
-import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.ResourceBundle;
 
 /**
@@ -43,14 +44,16 @@ import java.util.ResourceBundle;
  * the location within the file to begin reading and this class reads and
  * returns a line of text beginning at the specified location.
  * <br><p>
- * Note that when an instance of this class is created it opens a data file
- * and leaves it open until the instance is reclaimed by the garbage
- * collector. That provides better performance than opening the file each
- * time a read is needed.
+ * Each {@link TextFileStorage} creates an instance of this class for each
+ * distinct data file that it reads, which opens the file and leaves it open
+ * until the storage is closed. That provides better performance than
+ * opening the file each time a read is needed.
  * <br><p>
- * An instance of this class is created for each distinct data file that's
- * read, which means that a multi-threaded application could theoretically
- * be reading from more than one data file simultaneously.
+ * When the file is mapped into memory, lines are read from the mapped
+ * contents without changing any shared position, so any number of threads
+ * (including virtual threads) can read synsets from the same file
+ * simultaneously without waiting for one another. Otherwise reads are
+ * performed through the random access file, one thread at a time.
  *  
  * @author Brett Spell
  */
@@ -64,76 +67,100 @@ public class SynsetReader extends RandomAccessReader
 			SynsetReader.class.getName());
 
 	/**
-	 * Contains references to the instances of this file that have already
-	 * been created.
+	 * Contents of the data file, which are only read using absolute
+	 * positions, or <code>null</code> if the file isn't mapped into memory.
 	 */
-	private final static Map READER_MAP = new HashMap();
+	private ByteBuffer data;
 
 	/**
 	 * Returns an instance of this file that can be used to read from the
-	 * data file associated with a specific syntactic category.
-	 * <br><p>
-	 * Instances of this class are cached internally using weak references,
-	 * which means that when an instance is no longer strongly accessible it
-	 * becomes eligible for garbage collection. When it is finally garbage
-	 * collected, the data file it was used to read from will be closed.
+	 * data file associated with a specific syntactic category, using the
+	 * storage returned by {@link TextFileStorage#getDefault()}.
 	 * 
 	 * @param  type Synset type for which to perform reads.
 	 * @return Instance of this class that can be used to read synsets.
+	 * @throws RetrievalException An error occurred opening the data file.
 	 */
-	public synchronized static SynsetReader getInstance(SynsetType type)
+	public static SynsetReader getInstance(SynsetType type)
 	{
-		SynsetReader instance = null;
-		WeakReference ref = (WeakReference)(READER_MAP.get(type));
-		//  If we already created an instance for this type, try to use it
-		if (ref != null)
-		{
-			//  May return null if the referent object was garbage collected
-			instance = (SynsetReader)(ref.get());
-		}
-		//  If we don't have an existing instance, we'll need to create one
-		if (instance == null)
-		{
-			try
-			{
-				instance = new SynsetReader(getFile(type));
-				//  Cache it at least temporarily
-				ref = new WeakReference(instance);
-				READER_MAP.put(type, ref);
-			}
-			catch (IOException ioe)
-			{
-				throw new RetrievalException(
-						"Error accessing file: " + ioe.getMessage(), ioe);
-			}
-		}
-		return instance;
+		return TextFileStorage.getDefault().getSynsetReader(type);
+	}
+
+	/**
+	 * Returns the synset type whose data file contains the synsets of a
+	 * particular type, which is the same type except that adjective
+	 * satellites are stored in the adjective file.
+	 * 
+	 * @param  type Synset type.
+	 * @return Type associated with the data file.
+	 */
+	static SynsetType getFileType(SynsetType type)
+	{
+		return (type.equals(SynsetType.ADJECTIVE_SATELLITE) ?
+				SynsetType.ADJECTIVE : type);
 	}
 
 	/**
 	 * Returns a {@link File} object that represents a WordNet data file.
 	 * 
+	 * @param  directory Directory that contains the database files.
 	 * @param  type Synset type for which to return a file.
 	 * @return File that can be used to read synsets of the specified category.
 	 */
-	private static File getFile(SynsetType type)
+	static File getFile(File directory, SynsetType type)
+	{
+		return new File(directory, getFileName(type));
+	}
+
+	/**
+	 * Returns the name of a WordNet data file.
+	 * 
+	 * @param  type Synset type for which to return a file name.
+	 * @return Name of the file that contains synsets of the specified
+	 *         category.
+	 */
+	static String getFileName(SynsetType type)
 	{
 		String key = Integer.toString(type.getCode());
-		String file = FILE_NAMES.getString(key);
-		String dir = System.getProperty(PropertyNames.DATABASE_DIRECTORY, ".");
-		return new File(dir, file);
+		return FILE_NAMES.getString(key);
+	}
+
+	/**
+	 * Returns a line from the contents of a file that are held in a buffer.
+	 * 
+	 * @param  data Contents of the file.
+	 * @param  offset Position at which the line begins.
+	 * @return Line that begins at the offset, without its terminator.
+	 */
+	static String readLine(ByteBuffer data, int offset)
+	{
+		int start = Math.min(offset, data.limit());
+		int end = start;
+		while ((end < data.limit()) && (data.get(end) != LINE_SEPARATOR))
+		{
+			end++;
+		}
+		byte[] line = new byte[end - start];
+		data.get(start, line);
+		return new String(line, StandardCharsets.ISO_8859_1);
 	}
 
 	/**
-	 * Constructor that accepts a file and which ensures that instances of
-	 * this class aren't created externally.
+	 * Constructor that accepts a file and how it's to be read.
 	 * 
 	 * @param  file File from which this instance will read synsets.
+	 * @param  ioMode Indicates whether the file is mapped into memory.
 	 * @throws IOException An error occurred opening the data file.
 	 */
-	private SynsetReader(File file) throws IOException
+	SynsetReader(File file, IoMode ioMode) throws IOException
 	{
 		super(file);
+		if (ioMode == IoMode.MEMORY_MAPPED)
+		{
+			FileChannel channel = getAccessor().getChannel();
+			data = channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
 	}
 
 	/**
@@ -143,11 +170,25 @@ public class SynsetReader extends RandomAccessReader
 	 * @return Text that represents a line of data from the data file.
 	 * @throws IOException An error occurred reading the synset data.
 	 */
-	public synchronized String readData(SynsetPointer pointer)
+	public String readData(SynsetPointer pointer)
 			throws IOException
 	{
-		seek(pointer.getOffset());
-		return readToNextEndOfLine();
+		if (data == null)
+		{
+			lock.lock();
+			try
+			{
+				seek(pointer.getOffset());
+				return readToNextEndOfLine();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		String line = readLine(data, pointer.getOffset());
+		recordRead(pointer.getOffset(), line.length() + 1, false);
+		return line;
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,313 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.SynsetType;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the synset records (lines) stored within a range of bytes
+ * from a data file, for use by streams that enumerate the entire database.
+ * <br><p>
+ * The file is mapped into memory (or otherwise held in a buffer) and
+ * splitting divides the range into two halves, with the boundary moved
+ * forward to the start of the next line so that each line is parsed by
+ * exactly one spliterator. This allows a
+ * parallel stream to parse the file on all of the available processors.
+ * The license text at the beginning of each file is skipped.
+ */
+public class SynsetSpliterator implements Spliterator<String>
+{
+
+	/**
+	 * Ranges smaller than this number of bytes aren't split.
+	 */
+	private final static int MINIMUM_SPLIT_SIZE = 64 * 1024;
+
+	/**
+	 * Approximate number of bytes in each line, used to estimate the number
+	 * of synsets in a range.
+	 */
+	private final static int AVERAGE_LINE_LENGTH = 200;
+
+	/**
+	 * Synset types that correspond to the data files.
+	 */
+	private final static SynsetType[] FILE_TYPES = {SynsetType.NOUN,
+			SynsetType.VERB, SynsetType.ADJECTIVE, SynsetType.ADVERB};
+
+	/**
+	 * Contents of the data file, through a view whose position is used only
+	 * by this spliterator.
+	 */
+	private ByteBuffer data;
+
+	/**
+	 * Synset type characters to be returned, or <code>null</code> if all of
+	 * the synsets in the file are to be returned.
+	 */
+	private String typeFilter;
+
+	/**
+	 * Position of the next line to be read.
+	 */
+	private int position;
+
+	/**
+	 * Position following the last line to be read.
+	 */
+	private int end;
+
+	/**
+	 * Constructor that accepts the file contents and the range to be read.
+	 *
+	 * @param  data Contents of the data file.
+	 * @param  typeFilter Synset type characters to be returned, or
+	 *         <code>null</code> to return all synsets.
+	 * @param  position Position of the first line to be read.
+	 * @param  end Position following the last line to be read.
+	 */
+	private SynsetSpliterator(ByteBuffer data, String typeFilter,
+			int position, int end)
+	{
+		this.data = data.duplicate();
+		this.typeFilter = typeFilter;
+		this.position = position;
+		this.end = end;
+	}
+
+	/**
+	 * Creates a stream containing the records of all of the synsets of the
+	 * specified types, in data file order.
+	 *
+	 * @param  directory Directory that contains the data files.
+	 * @param  types Types of synsets to return; all synsets are returned if
+	 *         none are specified.
+	 * @return Sequential stream of records, which can be made parallel.
+	 * @throws RetrievalException An error occurred opening a data file.
+	 */
+	public static Stream<String> createStream(File directory,
+			SynsetType... types) throws RetrievalException
+	{
+		return createStream(fileType ->
+				map(SynsetReader.getFile(directory, fileType)), types);
+	}
+
+	/**
+	 * Creates a stream containing the records of all of the synsets of the
+	 * specified types from data files whose contents are already available
+	 * as buffers.
+	 *
+	 * @param  contents Returns the contents of the data file that contains
+	 *         synsets of a particular type.
+	 * @param  types Types of synsets to return; all synsets are returned if
+	 *         none are specified.
+	 * @return Sequential stream of records, which can be made parallel.
+	 * @throws RetrievalException An error occurred reading a data file.
+	 */
+	public static Stream<String> createStream(
+			Function<SynsetType, ByteBuffer> contents, SynsetType... types)
+			throws RetrievalException
+	{
+		Set<SynsetType> requested = new LinkedHashSet<>(Arrays.asList(
+				types.length > 0 ? types : SynsetType.ALL_TYPES));
+		Stream<String> stream = Stream.empty();
+		for (SynsetType fileType : FILE_TYPES)
+		{
+			StringBuilder filter = new StringBuilder();
+			for (SynsetType type : requested)
+			{
+				if (SynsetReader.getFileType(type).equals(fileType))
+				{
+					filter.append(SynsetTypeConverter.getCode(type));
+				}
+			}
+			if (filter.length() > 0)
+			{
+				//  Only the adjective file contains more than one type
+				boolean complete = (!fileType.equals(SynsetType.ADJECTIVE) ||
+						(filter.length() > 1));
+				ByteBuffer data = contents.apply(fileType);
+				stream = Stream.concat(stream, StreamSupport.stream(
+						new SynsetSpliterator(data,
+						(complete ? null : filter.toString()),
+						0, data.limit()), false));
+			}
+		}
+		return stream;
+	}
+
+	/**
+	 * Maps a data file into memory.
+	 *
+	 * @param  file File to map.
+	 * @return Read-only buffer containing the file's contents.
+	 * @throws RetrievalException An error occurred mapping the file.
+	 */
+	private static ByteBuffer map(File file) throws RetrievalException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ))
+		{
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException("Error reading file " +
+					file + ": " + ioe.getMessage(), ioe);
+		}
+	}
+
+	/**
+	 * Passes the next synset record in the range to an action.
+	 *
+	 * @param  action Action that accepts the record.
+	 * @return <code>true</code> if a synset was found.
+	 */
+	public boolean tryAdvance(Consumer<? super String> action)
+	{
+		while (position < end)
+		{
+			int start = position;
+			int lineEnd = findLineEnd(start);
+			position = lineEnd + 1;
+			//  Lines beginning with a space are the license text
+			if ((lineEnd > start) && (data.get(start) != ' '))
+			{
+				byte[] line = new byte[lineEnd - start];
+				data.position(start);
+				data.get(line);
+				if ((typeFilter == null) || isIncluded(line))
+				{
+					action.accept(
+							new String(line, StandardCharsets.ISO_8859_1));
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Divides the remaining range in two at a line boundary.
+	 *
+	 * @return Spliterator for the first half of the range or
+	 *         <code>null</code> if the range is too small to split.
+	 */
+	public Spliterator<String> trySplit()
+	{
+		if (end - position < MINIMUM_SPLIT_SIZE)
+		{
+			return null;
+		}
+		int middle = findLineEnd(position + (end - position) / 2) + 1;
+		if (middle >= end)
+		{
+			return null;
+		}
+		Spliterator<String> prefix =
+				new SynsetSpliterator(data, typeFilter, position, middle);
+		position = middle;
+		return prefix;
+	}
+
+	/**
+	 * Returns an estimate of the number of synsets remaining.
+	 *
+	 * @return Estimated number of synsets.
+	 */
+	public long estimateSize()
+	{
+		return (end - position) / AVERAGE_LINE_LENGTH;
+	}
+
+	/**
+	 * Returns the characteristics of this spliterator.
+	 *
+	 * @return Characteristics of this spliterator.
+	 */
+	public int characteristics()
+	{
+		return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Returns the position of the line terminator that ends a line.
+	 *
+	 * @param  start Position within the line.
+	 * @return Position of the terminator, or of the end of the range if the
+	 *         last line isn't terminated.
+	 */
+	private int findLineEnd(int start)
+	{
+		int limit = data.limit();
+		int index = start;
+		while ((index < limit) && (data.get(index) != '\n'))
+		{
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Indicates whether a line's synset is of one of the requested types.
+	 *
+	 * @param  line Line from the data file.
+	 * @return <code>true</code> if the synset should be returned.
+	 */
+	private boolean isIncluded(byte[] line)
+	{
+		//  The type is the first character of the third field
+		int field = 0;
+		int index = 0;
+		while ((field < 2) && (index < line.length))
+		{
+			if (line[index++] == ' ')
+			{
+				field++;
+			}
+		}
+		return ((index < line.length) &&
+				(typeFilter.indexOf((char)line[index]) >= 0));
+	}
+
+}
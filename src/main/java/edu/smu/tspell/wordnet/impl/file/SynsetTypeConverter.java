@@ -114,4 +114,37 @@ public class SynsetTypeConverter
 		return type;
 	}
 
+	/**
+	 * Returns the part of speech code that represents a syntactic category.
+	 * 
+	 * @param  type Type for which to return the part of speech code.
+	 * @return Code used in the database files for the specified type.
+	 */
+	public static char getCode(SynsetType type)
+	{
+		char code;
+
+		if (type.equals(SynsetType.NOUN))
+		{
+			code = NOUN_CODE;
+		}
+		else if (type.equals(SynsetType.VERB))
+		{
+			code = VERB_CODE;
+		}
+		else if (type.equals(SynsetType.ADJECTIVE))
+		{
+			code = ADJECTIVE_CODE;
+		}
+		else if (type.equals(SynsetType.ADVERB))
+		{
+			code = ADVERB_CODE;
+		}
+		else
+		{
+			code = ADJECTIVE_SATELLITE_CODE;
+		}
+		return code;
+	}
+
 }
\ No newline at end of file
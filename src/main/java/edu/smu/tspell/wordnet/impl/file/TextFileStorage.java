@@ -0,0 +1,460 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.api.IoMode;
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.stream.Stream;
+
+/**
+ * Storage that reads the standard WordNet database files from a directory:
+ * the data files, the sense index, the exception lists and the verb frame
+ * and sample sentence files.
+ * <br><p>
+ * The data files and the sense index are opened when an instance is
+ * created and remain open until it's closed. The exception lists are read
+ * the first time an inflection is looked up, and the sample sentence files
+ * the first time a verb is read.
+ */
+public class TextFileStorage implements DictionaryStorage
+{
+
+	/**
+	 * Synset types that correspond to the data files.
+	 */
+	private final static SynsetType[] FILE_TYPES = {SynsetType.NOUN,
+			SynsetType.VERB, SynsetType.ADJECTIVE, SynsetType.ADVERB};
+
+	/**
+	 * Directory that contains the database files.
+	 */
+	private File directory;
+
+	/**
+	 * How synsets are read from the data files.
+	 */
+	private IoMode ioMode;
+
+	/**
+	 * Opens the files that are read in their entirety.
+	 */
+	private DictionarySource source;
+
+	/**
+	 * Readers of the data files, keyed by the type of synset each contains.
+	 */
+	private Map<SynsetType, SynsetReader> synsetReaders = new HashMap<>();
+
+	/**
+	 * Reader of the sense index file.
+	 */
+	private SenseIndexReader senseIndexReader;
+
+	/**
+	 * Provides the sentence frames of verb synsets.
+	 */
+	private SampleFrameFactory sampleFrameFactory;
+
+	/**
+	 * Maps verb senses to their sample sentence templates.
+	 */
+	private SampleIndexFactory sampleIndexFactory;
+
+	/**
+	 * Provides the sample sentence templates of verb synsets.
+	 */
+	private SampleTemplateFactory sampleTemplateFactory;
+
+	/**
+	 * Contents of the exception lists, which are read when they're first
+	 * needed.
+	 */
+	private volatile InflectionData inflections;
+
+	/**
+	 * Guards the reading of the exception lists.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Constructor that accepts the directory containing the database files
+	 * and how the data files are to be read, and which opens the files.
+	 * 
+	 * @param  directory Directory that contains the database files.
+	 * @param  ioMode How synsets are read from the data files.
+	 * @throws RetrievalException An error occurred opening the files.
+	 */
+	public TextFileStorage(File directory, IoMode ioMode)
+			throws RetrievalException
+	{
+		this.directory = directory;
+		this.ioMode = ioMode;
+		source = DictionarySource.directory(directory);
+		sampleFrameFactory = new SampleFrameFactory(source);
+		sampleIndexFactory = new SampleIndexFactory(source);
+		sampleTemplateFactory = new SampleTemplateFactory(source);
+		try
+		{
+			for (SynsetType type : FILE_TYPES)
+			{
+				synsetReaders.put(type, new SynsetReader(
+						SynsetReader.getFile(directory, type), ioMode));
+			}
+			senseIndexReader = new SenseIndexReader(directory);
+		}
+		catch (IOException ioe)
+		{
+			try
+			{
+				close();
+			}
+			catch (RetrievalException re)
+			{
+				//  Report the original error instead
+			}
+			throw new RetrievalException("Error opening database files in " +
+					directory + ": " + ioe.getMessage(), ioe);
+		}
+	}
+
+	/**
+	 * Returns the storage of the database returned by
+	 * {@link FileDatabase#getDefault()}, which always reads the text files.
+	 * 
+	 * @return Storage of the default database.
+	 * @throws WordNetException An error occurred opening the database files.
+	 */
+	public static TextFileStorage getDefault() throws WordNetException
+	{
+		return (TextFileStorage)(FileDatabase.getDefault().getStorage());
+	}
+
+	/**
+	 * Returns the directory that contains the database files.
+	 * 
+	 * @return Directory containing the database files.
+	 */
+	public File getDirectory()
+	{
+		return directory;
+	}
+
+	/**
+	 * Returns how synsets are read from the data files.
+	 * 
+	 * @return How the data files are read.
+	 */
+	public IoMode getIoMode()
+	{
+		return ioMode;
+	}
+
+	/**
+	 * Returns the reader of the data file that contains synsets of a
+	 * particular type.
+	 * 
+	 * @param  type Synset type for which to perform reads.
+	 * @return Reader of the data file.
+	 */
+	public SynsetReader getSynsetReader(SynsetType type)
+	{
+		return synsetReaders.get(SynsetReader.getFileType(type));
+	}
+
+	/**
+	 * Returns the reader of the sense index file.
+	 * 
+	 * @return Reader of the sense index file.
+	 */
+	public SenseIndexReader getSenseIndexReader()
+	{
+		return senseIndexReader;
+	}
+
+	/**
+	 * Returns the object that provides the sentence frames of verbs.
+	 * 
+	 * @return Sentence frame factory.
+	 */
+	public SampleFrameFactory getSampleFrameFactory()
+	{
+		return sampleFrameFactory;
+	}
+
+	/**
+	 * Returns the object that maps verb senses to sample sentences.
+	 * 
+	 * @return Sample sentence index.
+	 */
+	public SampleIndexFactory getSampleIndexFactory()
+	{
+		return sampleIndexFactory;
+	}
+
+	/**
+	 * Returns the object that provides the sample sentences of verbs.
+	 * 
+	 * @return Sample sentence template factory.
+	 */
+	public SampleTemplateFactory getSampleTemplateFactory()
+	{
+		return sampleTemplateFactory;
+	}
+
+	/**
+	 * Returns the contents of the exception lists, reading them the first
+	 * time they're needed.
+	 * 
+	 * @return Base forms of irregular inflections.
+	 * @throws RetrievalException An error occurred reading the exception
+	 *         lists.
+	 */
+	public InflectionData getInflectionData() throws RetrievalException
+	{
+		if (inflections == null)
+		{
+			lock.lock();
+			try
+			{
+				if (inflections == null)
+				{
+					inflections = new InflectionData(source);
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		return inflections;
+	}
+
+	/**
+	 * Returns the sense index entries for a lemma.
+	 * 
+	 * @param  lemma Lemma for which to return entries.
+	 * @return Entries for the lemma.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public SenseIndexEntry[] getLemmaEntries(String lemma)
+			throws RetrievalException
+	{
+		return senseIndexReader.getLemmaEntries(lemma);
+	}
+
+	/**
+	 * Returns the sense index entries for a group of lemmas in a single
+	 * pass through the index file.
+	 * 
+	 * @param  lemmas Lemmas for which to return entries.
+	 * @return Entries for each of the lemmas.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 * @see    SenseIndexReader#getLemmaEntries(Collection)
+	 */
+	public Map<String, SenseIndexEntry[]> getLemmaEntries(
+			Collection<String> lemmas) throws RetrievalException
+	{
+		return senseIndexReader.getLemmaEntries(lemmas);
+	}
+
+	/**
+	 * Returns the sense index entries whose sense keys begin with a prefix.
+	 * 
+	 * @param  prefix Text with which the sense keys begin.
+	 * @return Matching entries.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public SenseIndexEntry[] getSenseEntries(String prefix)
+			throws RetrievalException
+	{
+		return senseIndexReader.getAllEntries(prefix);
+	}
+
+	/**
+	 * Reads the line of a data file that a pointer refers to.
+	 * 
+	 * @param  pointer Identifies the synset.
+	 * @return Line from the data file.
+	 * @throws RetrievalException An error occurred reading the data file.
+	 */
+	public String getSynsetRecord(SynsetPointer pointer)
+			throws RetrievalException
+	{
+		try
+		{
+			return getSynsetReader(pointer.getType()).readData(pointer);
+		}
+		catch (IOException ioe)
+		{
+			throw new RetrievalException(
+					"An error occurred reading the synset data", ioe);
+		}
+	}
+
+	/**
+	 * Returns the lines of the data files that contain synsets of the
+	 * specified types.
+	 * 
+	 * @param  types Types of synsets to return.
+	 * @return Stream of data file lines.
+	 * @throws RetrievalException An error occurred opening a data file.
+	 * @see    SynsetSpliterator
+	 */
+	public Stream<String> getSynsetRecords(SynsetType... types)
+			throws RetrievalException
+	{
+		return SynsetSpliterator.createStream(directory, types);
+	}
+
+	/**
+	 * Returns the base forms of an irregular inflection.
+	 * 
+	 * @param  inflection Inflected word form.
+	 * @param  type Syntactic category of the inflection.
+	 * @return Base forms of the inflection (may be empty).
+	 * @throws RetrievalException An error occurred reading the exception
+	 *         lists.
+	 */
+	public String[] getBaseForms(String inflection, SynsetType type)
+			throws RetrievalException
+	{
+		return getInflectionData().getBaseForms(inflection, type);
+	}
+
+	/**
+	 * Returns a generic sentence frame.
+	 * 
+	 * @param  type Type of synset with which the frame is used.
+	 * @param  frameNumber Number that identifies the frame.
+	 * @return Text of the frame.
+	 * @throws RetrievalException An error occurred reading the frame file.
+	 */
+	public String getFrame(SynsetType type, String frameNumber)
+			throws RetrievalException
+	{
+		return sampleFrameFactory.getSample(type, frameNumber);
+	}
+
+	/**
+	 * Returns the keys of the sample sentences associated with a sense.
+	 * 
+	 * @param  senseKey Key of the word sense.
+	 * @return Keys of the sample sentences.
+	 * @throws RetrievalException An error occurred reading the index file.
+	 */
+	public String[] getSampleKeys(SenseKey senseKey)
+			throws RetrievalException
+	{
+		return sampleIndexFactory.getSampleKeys(senseKey);
+	}
+
+	/**
+	 * Returns a sample sentence template.
+	 * 
+	 * @param  type Type of synset with which the template is used.
+	 * @param  key Key that identifies the template.
+	 * @return Text of the template.
+	 * @throws RetrievalException An error occurred reading the sentence
+	 *         file.
+	 */
+	public String getSampleTemplate(SynsetType type, String key)
+			throws RetrievalException
+	{
+		return sampleTemplateFactory.getSample(type, key);
+	}
+
+	/**
+	 * Returns snapshots of the use of the locks of the sense index reader
+	 * and of the reader of each data file.
+	 * 
+	 * @return Statistics of each lock.
+	 */
+	public Map<String, LockStatistics> getLockStatistics()
+	{
+		Map<String, LockStatistics> statistics = new LinkedHashMap<>();
+		statistics.put(LockStatistics.SENSE_INDEX_READER,
+				senseIndexReader.getLockStatistics(
+				LockStatistics.SENSE_INDEX_READER));
+		for (SynsetType type : FILE_TYPES)
+		{
+			String name = LockStatistics.SYNSET_READER +
+					SynsetReader.getFile(directory, type).getName();
+			statistics.put(name,
+					synsetReaders.get(type).getLockStatistics(name));
+		}
+		return statistics;
+	}
+
+	/**
+	 * Closes the files that have been opened.
+	 * 
+	 * @throws RetrievalException An error occurred closing a file; the
+	 *         other files are closed regardless.
+	 */
+	public void close() throws RetrievalException
+	{
+		IOException failure = null;
+		for (SynsetReader reader : synsetReaders.values())
+		{
+			try
+			{
+				reader.close();
+			}
+			catch (IOException ioe)
+			{
+				failure = ioe;
+			}
+		}
+		if (senseIndexReader != null)
+		{
+			try
+			{
+				senseIndexReader.close();
+			}
+			catch (IOException ioe)
+			{
+				failure = ioe;
+			}
+		}
+		if (failure != null)
+		{
+			throw new RetrievalException(
+					"Error closing file: " + failure.getMessage(), failure);
+		}
+	}
+
+}
@@ -24,14 +24,24 @@
  */
 package edu.smu.tspell.wordnet.impl.file;
 
+import edu.smu.tspell.wordnet.api.CacheStatistics;
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.LookupStage;
 import edu.smu.tspell.wordnet.api.Synset;
 import edu.smu.tspell.wordnet.api.SynsetType;
 import edu.smu.tspell.wordnet.api.WordNetException;
+import edu.smu.tspell.wordnet.impl.InstrumentedLock;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
 
@@ -58,19 +68,16 @@ public class WordFormLookup
 {
 
 	/**
-	 * Default number of synsets to cache.
+	 * Rough number of bytes retained by the cached data of a word form,
+	 * excluding the synsets themselves, which are shared with the synset
+	 * cache.
 	 */
-	private final static int DEFAULT_CACHE_SIZE = 500;
+	private final static long WORD_FORM_BYTES = 200;
 
 	/**
-	 * Number of word forms that will be cached.
+	 * Database whose word forms are looked up.
 	 */
-	private static int cacheSize = DEFAULT_CACHE_SIZE;
-
-	/**
-	 * Singleton instance of this class.
-	 */
-	private static WordFormLookup instance;
+	private FileDatabase database;
 
 	/**
 	 * Map in which the retrieved data is cached.
@@ -81,50 +88,92 @@ public class WordFormLookup
 	 * Maintains "strong" references to the word forms to ensure that they
 	 * don't get garbage collected.
 	 */
-	private LeastRecentlyUsedCache cache =
-			new LeastRecentlyUsedCache(cacheSize);
+	private LeastRecentlyUsedCache cache;
 
 	/**
-	 * Static initializer that updates the cache size if one was specified.
+	 * Guards the cached data; it isn't held while synsets are loaded.
 	 */
-	static
+	private final InstrumentedLock lock = new InstrumentedLock();
+
+	/**
+	 * Counts the requests for word forms and the time spent loading them.
+	 */
+	private final CacheCounters counters = new CacheCounters();
+
+	/**
+	 * Returns the word form lookup of the database returned by
+	 * {@link FileDatabase#getDefault()}.
+	 *
+	 * @return Word form lookup of the default database.
+	 */
+	public static WordFormLookup getInstance()
 	{
-		String propertyName = PropertyNames.WORD_CACHE_SIZE;
-		String propertyValue = System.getProperty(propertyName);
-		if (propertyValue != null)
-		{
-			try
-			{
-				cacheSize = Integer.parseInt(propertyValue);
-			}
-			catch (NumberFormatException nfe)
-			{
-				System.err.println("'" + propertyValue + "' is an invalid " +
-						"value for " + propertyName + " and will be ignored.");
-			}
-		}
+		return FileDatabase.getDefault().getWordFormLookup();
 	}
 
 	/**
-	 * Returns a reference to the singleton instance of this class.
+	 * Constructor that accepts the database whose word forms are looked up
+	 * and the number of word forms whose synsets are kept in the cache.
 	 *
-	 * @return Singleton instance of this class.
+	 * @param  database Database from which synsets are read.
+	 * @param  cacheSize Number of word forms that will be cached.
 	 */
-	public synchronized static WordFormLookup getInstance()
+	WordFormLookup(FileDatabase database, int cacheSize)
 	{
-		if (instance == null)
-		{
-			instance = new WordFormLookup();
-		}
-		return instance;
+		this.database = database;
+		cache = new LeastRecentlyUsedCache(
+				CacheStatistics.WORD_CACHE, cacheSize);
 	}
 
 	/**
-	 * This constructor ensures that instances of this class can't be
-	 * constructed by other classes.
+	 * Returns the maximum number of word forms whose synsets are kept in
+	 * the cache.
+	 *
+	 * @return Word form cache size.
 	 */
-	private WordFormLookup()
+	public int getCacheSize()
 	{
+		return cache.getMaximumEntries();
+	}
+
+	/**
+	 * Changes the maximum number of word forms whose synsets are kept in
+	 * the cache, dropping the least recently used word forms if there are
+	 * now too many.
+	 *
+	 * @param  cacheSize Number of word forms that will be cached.
+	 * @throws IllegalArgumentException The size is negative.
+	 */
+	public void setCacheSize(int cacheSize)
+	{
+		cache.setMaximumEntries(cacheSize);
+	}
+
+	/**
+	 * Returns the statistics of the word form cache. The estimated size
+	 * covers every word form whose synsets are still reachable, including
+	 * those that were evicted but are still referenced by the application,
+	 * but not the synsets themselves.
+	 *
+	 * @return Snapshot of the word form cache's statistics.
+	 */
+	public CacheStatistics getStatistics()
+	{
+		long reachable;
+		lock.lock();
+		try
+		{
+			reachable = wordCategories.size();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return new CacheStatistics(CacheStatistics.WORD_CACHE,
+				counters.getHitCount(), counters.getMissCount(),
+				counters.getLoadTime(), cache.getEvictionCount(),
+				cache.size(), cache.getMaximumEntries(),
+				reachable * WORD_FORM_BYTES);
 	}
 
 	/**
@@ -156,9 +205,156 @@ public class WordFormLookup
 	 *         form are returned.
 	 * @throws WordNetException An error occurred retrieving the data.
 	 */
-	public synchronized Synset[] getSynsets(
+	public Synset[] getSynsets(
 			String wordForm, SynsetType[] types, boolean useMorphology)
 			throws WordNetException
+	{
+		return getSynsets(wordForm, types, useMorphology, null, null);
+	}
+
+	/**
+	 * Returns the synsets of the specified types that contain each of a
+	 * group of word forms and / or possibly synsets that contain one of the
+	 * word forms' variants, as {@link #getSynsets(String, SynsetType[],
+	 * boolean)} does for a single word form.
+	 * <br><p>
+	 * Instead of searching the sense index and reading the synsets for each
+	 * word form separately, the distinct forms (including the base form
+	 * candidates when morphology is used) that aren't already cached are
+	 * looked up in a single, sorted pass through the sense index. The
+	 * synsets they refer to are then read in ascending order of their
+	 * offsets within each data file, so that the database is read mostly
+	 * sequentially rather than at random.
+	 * 
+	 * @param  wordForms Word forms for which to return synsets.
+	 * @param  types Types of synsets (e.g., noun) to return.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations of the word forms should
+	 *         also be returned.
+	 * @return Map in which the keys are the distinct word forms, in the
+	 *         order in which they were specified, and the values are the
+	 *         synsets that contain them.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public Map<String, Synset[]> getSynsets(
+			Collection<String> wordForms, SynsetType[] types,
+			boolean useMorphology) throws WordNetException
+	{
+		//  Determine which of the forms that will be needed aren't cached,
+		//  keeping each word's base form candidates so that they're only
+		//  produced once
+		Set<String> words = new LinkedHashSet<>(wordForms);
+		Map<String, Map<SynsetType, List<Synset>>> loaded = new HashMap<>();
+		Map<String, Map<SynsetType, String[]>> baseForms = new HashMap<>();
+		Set<String> missing = new LinkedHashSet<>();
+		for (String word : words)
+		{
+			addIfMissing(word, loaded, missing);
+			if (useMorphology)
+			{
+				Map<SynsetType, String[]> wordBaseForms = new HashMap<>();
+				for (SynsetType type : types)
+				{
+					String[] candidates = getBaseFormCandidates(word, type);
+					wordBaseForms.put(type, candidates);
+					for (String candidate : candidates)
+					{
+						addIfMissing(candidate, loaded, missing);
+					}
+				}
+				baseForms.put(word, wordBaseForms);
+			}
+		}
+
+		if (!missing.isEmpty())
+		{
+			LemmaLookupEvent event = new LemmaLookupEvent();
+			event.begin();
+			long start = System.nanoTime();
+			//  Find the index entries with one pass through the sense index
+			DictionaryStorage storage = database.getStorage();
+			StageTimer timer = database.getStageTimer();
+			long indexStart = timer.start();
+			Map<String, SenseIndexEntry[]> formEntries =
+					storage.getLemmaEntries(missing);
+			timer.record(LookupStage.SENSE_INDEX, indexStart);
+			//  Read the synsets in file and offset order
+			List<SynsetPointer> pointers = new ArrayList<>();
+			Set<SynsetPointer> uniquePointers = new LinkedHashSet<>();
+			for (SenseIndexEntry[] entries : formEntries.values())
+			{
+				timer.recordIndexEntries(entries.length);
+				for (SenseIndexEntry entry : entries)
+				{
+					if (uniquePointers.add(entry.getSynsetPointer()))
+					{
+						pointers.add(entry.getSynsetPointer());
+					}
+				}
+			}
+			pointers.sort(Comparator.comparingInt(
+					WordFormLookup::getFileCode).thenComparingInt(
+					SynsetPointer::getOffset));
+			SynsetFactory factory = database.getSynsetFactory();
+			Map<SynsetPointer, Synset> synsets = new HashMap<>();
+			for (SynsetPointer pointer : pointers)
+			{
+				synsets.put(pointer, factory.getSynset(pointer));
+			}
+			//  Group each form's synsets by type and cache them
+			for (String form : missing)
+			{
+				SenseIndexEntry[] entries = formEntries.get(form);
+				Arrays.sort(entries);
+				Map<SynsetType, List<Synset>> subMap = new TreeMap<>();
+				for (SenseIndexEntry entry : entries)
+				{
+					Synset synset = synsets.get(entry.getSynsetPointer());
+					subMap.computeIfAbsent(synset.getType(),
+							type -> new ArrayList<>()).add(synset);
+				}
+				loaded.put(form, putCached(form, subMap));
+			}
+			counters.recordMisses(missing.size(), System.nanoTime() - start);
+			if (event.shouldCommit())
+			{
+				event.lemma = String.join(",", missing);
+				event.lemmaCount = missing.size();
+				event.synsetCount = pointers.size();
+				event.commit();
+			}
+		}
+
+		Map<String, Synset[]> results = new LinkedHashMap<>();
+		for (String word : words)
+		{
+			results.put(word, getSynsets(word, types, useMorphology, loaded,
+					baseForms.get(word)));
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the synsets of the specified types that contain a word form
+	 * and optionally its variants, using synsets that were already loaded
+	 * for a group of word forms when they're available.
+	 * 
+	 * @param  wordForm Text representing a word or collocation (phrase).
+	 * @param  types Types of synsets (e.g., noun) to return.
+	 * @param  useMorphology When <code>true</code>, indicates that synsets
+	 *         containing morphological variations should also be returned.
+	 * @param  loaded Synsets already loaded for each word form, or
+	 *         <code>null</code> if only the cache should be used.
+	 * @param  baseForms Base form candidates of the word form for each
+	 *         type, or <code>null</code> if they haven't been produced yet.
+	 * @return Synsets that contain the specified word form.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	private Synset[] getSynsets(String wordForm, SynsetType[] types,
+			boolean useMorphology,
+			Map<String, Map<SynsetType, List<Synset>>> loaded,
+			Map<SynsetType, String[]> baseForms)
+			throws WordNetException
 	{
 		Synset[] synsetArray;
 		String[] candidates;
@@ -168,7 +364,7 @@ public class WordFormLookup
 		//  Loop through the synset types
         for (SynsetType type : types) {
             //  Get all synsets for the current type
-            synsetArray = getSynsets(wordForm, type);
+            synsetArray = getSynsets(wordForm, type, loaded);
             for (Synset aSynsetArray : synsetArray) {
                 //  Add (non-duplicate) synsets to the list
                 if (!synsetList.contains(aSynsetArray)) {
@@ -178,10 +374,11 @@ public class WordFormLookup
             //  Does caller also want synsets containing base form candidates?
             if (useMorphology) {
                 //  Find possible base forms and loop through each one
-                candidates = getBaseFormCandidates(wordForm, type);
+                candidates = (baseForms != null ? baseForms.get(type) :
+                        getBaseFormCandidates(wordForm, type));
                 for (String candidate : candidates) {
                     //  Get synsets for the candidate and loop through them
-                    synsetArray = getSynsets(candidate, type);
+                    synsetArray = getSynsets(candidate, type, loaded);
                     for (Synset aSynsetArray : synsetArray) {
                         //  Add (non-duplicate) synsets to the list
                         if (!synsetList.contains(aSynsetArray)) {
@@ -206,23 +403,36 @@ public class WordFormLookup
 	 *
 	 * @param  wordForm Word form for which to return containing synsets.
 	 * @param  type Type of synsets to be returned.
+	 * @param  loaded Synsets already loaded for each word form, or
+	 *         <code>null</code> if only the cache should be used.
 	 * @return Synsets of a single type that contain the specified word form.
 	 * @throws WordNetException An error occurred retrieving the synsets.
 	 */
-	private Synset[] getSynsets(String wordForm, SynsetType type)
+	private Synset[] getSynsets(String wordForm, SynsetType type,
+			Map<String, Map<SynsetType, List<Synset>>> loaded)
 	{
 		int count;
 
+		LemmaLookupEvent event = new LemmaLookupEvent();
+		event.begin();
+		event.cacheHit = true;
 		//  Create a list to hold the synsets we'll return
 		List<Synset> synsetList = new ArrayList<>();
 		//  Get the map that contains a List per synset type
-		Map<SynsetType, List<Synset>> subMap = wordCategories.get(wordForm);
+		Map<SynsetType, List<Synset>> subMap = (loaded != null ?
+				loaded.get(wordForm) : null);
+		if (subMap == null)
+		{
+			subMap = getCached(wordForm);
+		}
 		//  If there isn't already one, load them now
 		if (subMap == null)
 		{
-			subMap = loadSynsets(wordForm);
-			wordCategories.put(wordForm, subMap);
-			cache.put(wordForm, wordForm);
+			event.cacheHit = false;
+			long start = System.nanoTime();
+			Map<SynsetType, List<Synset>> synsets = loadSynsets(wordForm);
+			counters.recordMisses(1, System.nanoTime() - start);
+			subMap = putCached(wordForm, synsets);
 		}
 		//  Get the synsets for this type
 		List<Synset> typeList = subMap.get(type);
@@ -241,12 +451,117 @@ public class WordFormLookup
 				}
 			}
 		}
+		if (event.shouldCommit())
+		{
+			event.lemma = wordForm;
+			event.lemmaCount = 1;
+			event.partOfSpeech = String.valueOf(
+					SynsetTypeConverter.getCode(type));
+			event.synsetCount = synsetList.size();
+			event.commit();
+		}
 		//  Convert the list to an array and return it
 		Synset[] synsetArray = new Synset[synsetList.size()];
 		synsetList.toArray(synsetArray);
 		return synsetArray;
 	}
 
+	/**
+	 * Records a word form as needing to be loaded unless its synsets are
+	 * already cached, in which case they're added to the loaded forms so
+	 * that they can't be discarded while a batch is being processed.
+	 *
+	 * @param  wordForm Word form whose synsets will be needed.
+	 * @param  loaded Receives the synsets of cached word forms.
+	 * @param  missing Receives the word forms that must be loaded.
+	 */
+	private void addIfMissing(String wordForm,
+			Map<String, Map<SynsetType, List<Synset>>> loaded,
+			Set<String> missing)
+	{
+		if (!loaded.containsKey(wordForm))
+		{
+			Map<SynsetType, List<Synset>> subMap = getCached(wordForm);
+			if (subMap != null)
+			{
+				loaded.put(wordForm, subMap);
+			}
+			else
+			{
+				missing.add(wordForm);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached synsets for a word form.
+	 *
+	 * @param  wordForm Word form for which to return synsets.
+	 * @return Synsets grouped by type, or <code>null</code> if they aren't
+	 *         cached.
+	 */
+	private Map<SynsetType, List<Synset>> getCached(String wordForm)
+	{
+		lock.lock();
+		try
+		{
+			Map<SynsetType, List<Synset>> subMap = wordCategories.get(wordForm);
+			if (subMap != null)
+			{
+				counters.recordHit();
+			}
+			return subMap;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Caches the synsets that were loaded for a word form unless another
+	 * thread cached them first.
+	 *
+	 * @param  wordForm Word form whose synsets were loaded.
+	 * @param  subMap Synsets grouped by type.
+	 * @return Synsets that are cached for the word form.
+	 */
+	private Map<SynsetType, List<Synset>> putCached(String wordForm,
+			Map<SynsetType, List<Synset>> subMap)
+	{
+		lock.lock();
+		try
+		{
+			Map<SynsetType, List<Synset>> cached = wordCategories.get(wordForm);
+			if (cached == null)
+			{
+				cached = subMap;
+				wordCategories.put(wordForm, cached);
+			}
+			cache.put(wordForm, wordForm);
+			return cached;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a value that identifies the data file containing a synset,
+	 * which is the type code except that adjective satellites are stored
+	 * in the same file as adjectives.
+	 *
+	 * @param  pointer Location of a synset.
+	 * @return Code that identifies the synset's data file.
+	 */
+	private static int getFileCode(SynsetPointer pointer)
+	{
+		SynsetType type = pointer.getType();
+		return (type.equals(SynsetType.ADJECTIVE_SATELLITE) ?
+				SynsetType.ADJECTIVE : type).getCode();
+	}
+
 	/**
 	 * Loads from the database all synsets from the database that contain a
 	 * particular word form.
@@ -261,11 +576,15 @@ public class WordFormLookup
 		//  Create a new entry for the word form in the map
 		Map<SynsetType, List<Synset>> subMap = new TreeMap<>();
 		//  Read lines from the sense index that correspond to the word form
-		SenseIndexReader reader = SenseIndexReader.getInstance();
-		SenseIndexEntry[] indexEntries = reader.getLemmaEntries(wordForm);
+		DictionaryStorage storage = database.getStorage();
+		StageTimer timer = database.getStageTimer();
+		long start = timer.start();
+		SenseIndexEntry[] indexEntries = storage.getLemmaEntries(wordForm);
+		timer.record(LookupStage.SENSE_INDEX, start);
+		timer.recordIndexEntries(indexEntries.length);
 		Arrays.sort(indexEntries);
 
-		SynsetFactory factory = SynsetFactory.getInstance();
+		SynsetFactory factory = database.getSynsetFactory();
 		//  Loop through the list of index entries
         for (SenseIndexEntry indexEntry : indexEntries) {
             Synset synset = factory.getSynset(indexEntry.getSynsetPointer());
@@ -296,8 +615,18 @@ public class WordFormLookup
 	 */
 	private String[] getBaseFormCandidates(String inflection, SynsetType type)
 	{
-		Morphology morphology = Morphology.getInstance();
+		Morphology morphology = database.getMorphology();
 		return morphology.getBaseFormCandidates(inflection, type);
 	}
 
+	/**
+	 * Returns a snapshot of the use of the lock that guards the word form cache.
+	 *
+	 * @return Statistics of the lock.
+	 */
+	public LockStatistics getLockStatistics()
+	{
+		return lock.getStatistics(LockStatistics.WORD_FORM_LOOKUP);
+	}
+
 }
\ No newline at end of file
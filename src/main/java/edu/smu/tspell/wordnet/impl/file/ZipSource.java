@@ -0,0 +1,113 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.impl.file;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Opens the WordNet database files that are stored as entries within a zip
+ * or JAR file, without extracting them to the file system.
+ * <br><p>
+ * The zip file is opened when an instance is created and remains open
+ * until the instance is closed.
+ */
+public class ZipSource implements DictionarySource
+{
+
+	/**
+	 * Zip file that contains the database files.
+	 */
+	private ZipFile zipFile;
+
+	/**
+	 * Text prepended to each file name to form the name of its entry.
+	 */
+	private String prefix;
+
+	/**
+	 * Constructor that accepts the zip file and the location of the
+	 * database files within it.
+	 * 
+	 * @param  file Zip or JAR file that contains the database files.
+	 * @param  path Path of the directory within the zip file that contains
+	 *         the database files, such as <code>dict</code>.
+	 * @throws IOException An error occurred opening the zip file.
+	 */
+	public ZipSource(File file, String path) throws IOException
+	{
+		zipFile = new ZipFile(file);
+		prefix = toPrefix(path);
+	}
+
+	/**
+	 * Converts a path to a prefix that can be prepended to file names,
+	 * which ends with a slash unless it's empty.
+	 * 
+	 * @param  path Path of a directory, which may or may not end with a
+	 *         slash.
+	 * @return Prefix for the names of the files within the directory.
+	 */
+	static String toPrefix(String path)
+	{
+		String prefix = (path.startsWith("/") ? path.substring(1) : path);
+		return ((prefix.isEmpty() || prefix.endsWith("/")) ?
+				prefix : prefix + "/");
+	}
+
+	/**
+	 * Opens the entry that contains a database file.
+	 * 
+	 * @param  fileName Name of the file.
+	 * @return Stream from which the entry's contents can be read.
+	 * @throws IOException The entry doesn't exist or couldn't be opened.
+	 */
+	public InputStream open(String fileName) throws IOException
+	{
+		ZipEntry entry = zipFile.getEntry(prefix + fileName);
+		if (entry == null)
+		{
+			throw new FileNotFoundException("Entry " + prefix + fileName +
+					" not found in " + zipFile.getName());
+		}
+		return zipFile.getInputStream(entry);
+	}
+
+	/**
+	 * Closes the zip file.
+	 * 
+	 * @throws IOException An error occurred closing the zip file.
+	 */
+	public void close() throws IOException
+	{
+		zipFile.close();
+	}
+
+}
@@ -30,6 +30,7 @@ import edu.smu.tspell.wordnet.api.SynsetType;
 import edu.smu.tspell.wordnet.api.WordNetException;
 import edu.smu.tspell.wordnet.api.WordSense;
 
+import edu.smu.tspell.wordnet.impl.file.FileDatabase;
 import edu.smu.tspell.wordnet.impl.file.ReferenceSynset;
 import edu.smu.tspell.wordnet.impl.file.RelationshipPointers;
 import edu.smu.tspell.wordnet.impl.file.RelationshipType;
@@ -61,6 +62,7 @@ public class AdjectiveReferenceSynset extends ReferenceSynset
 	/**
 	 * Constructor that accepts adjective synset properties.
 	 * 
+	 * @param  database Database from which related data is retrieved.
 	 * @param  definition Short description / definition of the meaning.
 	 * @param  examples Examples of how the synset is used.
 	 * @param  senseKeys Keys of word senses associated with this synset.
@@ -69,18 +71,21 @@ public class AdjectiveReferenceSynset extends ReferenceSynset
 	 * @param  offset Byte offset into the data file where synset is defined.
 	 * @param  positions Positions that the words in this synset can occupy.
 	 */
-	public AdjectiveReferenceSynset(String definition, String[] examples,
-			SenseKey[] senseKeys, RelationshipPointers pointers,
-			int lexFile, int offset, WordPositions positions)
+	public AdjectiveReferenceSynset(FileDatabase database, String definition,
+			String[] examples, SenseKey[] senseKeys,
+			RelationshipPointers pointers, int lexFile, int offset,
+			WordPositions positions)
 	{
-		this(SynsetType.ADJECTIVE, definition, examples, senseKeys, pointers,
-			lexFile, offset, positions);
+		this(database, SynsetType.ADJECTIVE, definition, examples, senseKeys,
+			pointers, lexFile, offset, positions);
 	}
 
 	/**
 	 * Constructor that accepts the basic synset properties and that is used
 	 * to construct instances of adjective and adjective satellite synsets.
 	 * 
+	 * @param  database Database from which related data is retrieved.
+	 * @param  type Type of synset this instance represents.
 	 * @param  definition Short description / definition of the meaning.
 	 * @param  examples Examples of how the synset is used.
 	 * @param  senseKeys Keys of word senses associated with this synset.
@@ -89,12 +94,13 @@ public class AdjectiveReferenceSynset extends ReferenceSynset
 	 * @param  offset Byte offset into the data file where synset is defined.
 	 * @param  positions Positions that the words in this synset can occupy.
 	 */
-	AdjectiveReferenceSynset(SynsetType type, String definition,
-			String[] examples, SenseKey[] senseKeys,
+	AdjectiveReferenceSynset(FileDatabase database, SynsetType type,
+			String definition, String[] examples, SenseKey[] senseKeys,
 			RelationshipPointers pointers, int lexFile, int offset,
 			WordPositions positions)
 	{
-		super(type, definition, examples, senseKeys, pointers, lexFile, offset);
+		super(database, type, definition, examples, senseKeys, pointers,
+				lexFile, offset);
 		this.wordPositions = positions;
 	}
 
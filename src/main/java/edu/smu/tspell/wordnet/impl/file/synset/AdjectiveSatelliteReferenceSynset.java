@@ -30,10 +30,11 @@ import edu.smu.tspell.wordnet.api.Synset;
 import edu.smu.tspell.wordnet.api.SynsetType;
 import edu.smu.tspell.wordnet.api.WordNetException;
 
+import edu.smu.tspell.wordnet.impl.file.DictionaryStorage;
+import edu.smu.tspell.wordnet.impl.file.FileDatabase;
 import edu.smu.tspell.wordnet.impl.file.RelationshipPointers;
 import edu.smu.tspell.wordnet.impl.file.RetrievalException;
 import edu.smu.tspell.wordnet.impl.file.SenseIndexEntry;
-import edu.smu.tspell.wordnet.impl.file.SenseIndexReader;
 import edu.smu.tspell.wordnet.impl.file.SenseKey;
 import edu.smu.tspell.wordnet.impl.file.SynsetFactory;
 import edu.smu.tspell.wordnet.impl.file.WordPositions;
@@ -50,13 +51,16 @@ public class AdjectiveSatelliteReferenceSynset extends AdjectiveReferenceSynset
 	/**
 	 * Used to save a reference to the head synset for adjective satellites.
 	 * This will be <code>null</code> if this synset is not an adjective
-	 * satellite or if the head synset has never be retrieved.
+	 * satellite or if the head synset has never be retrieved. No lock is
+	 * needed, since threads that retrieve it at the same time receive the
+	 * same synset from the factory.
 	 */
-	private AdjectiveSynset headSynset;
+	private volatile AdjectiveSynset headSynset;
 
 	/**
 	 * Constructor that accepts adjective satellite synset properties.
 	 * 
+	 * @param  database Database from which related data is retrieved.
 	 * @param  definition Short description / definition of the meaning.
 	 * @param  examples Examples of how the synset is used.
 	 * @param  senseKeys Keys of word senses associated with this synset.
@@ -65,13 +69,13 @@ public class AdjectiveSatelliteReferenceSynset extends AdjectiveReferenceSynset
 	 * @param  offset Byte offset into the data file where synset is defined.
 	 * @param  positions Positions that the words in this synset can occupy.
 	 */
-	public AdjectiveSatelliteReferenceSynset(String definition,
-			String[] examples, SenseKey[] senseKeys,
+	public AdjectiveSatelliteReferenceSynset(FileDatabase database,
+			String definition, String[] examples, SenseKey[] senseKeys,
 			RelationshipPointers pointers, int lexFile, int offset,
 			WordPositions positions)
 	{
-		super(SynsetType.ADJECTIVE_SATELLITE, definition, examples, senseKeys,
-				pointers, lexFile, offset, positions);
+		super(database, SynsetType.ADJECTIVE_SATELLITE, definition, examples,
+				senseKeys, pointers, lexFile, offset, positions);
 	}
 
 	/**
@@ -80,13 +84,15 @@ public class AdjectiveSatelliteReferenceSynset extends AdjectiveReferenceSynset
 	 * @return Reference to the head synset.
 	 * @throws WordNetException An error occurred retrieving data.
 	 */
-	public synchronized AdjectiveSynset getHeadSynset() throws WordNetException
+	public AdjectiveSynset getHeadSynset() throws WordNetException
 	{
-		if (headSynset == null)
+		AdjectiveSynset head = headSynset;
+		if (head == null)
 		{
-			headSynset = retrieveHeadSynset();
+			head = retrieveHeadSynset();
+			headSynset = head;
 		}
-		return headSynset;
+		return head;
 	}
 
 	/**
@@ -118,12 +124,14 @@ public class AdjectiveSatelliteReferenceSynset extends AdjectiveReferenceSynset
 			SenseKey headKey = indexEntry.getSenseKey().getHeadWord();
 			if (headKey != null)
 			{
-				//  Read head word entry from the sense index file
-				SenseIndexReader reader = SenseIndexReader.getInstance();
-				indexEntry = reader.getEntry(headKey.getFullSenseKeyText());
+				//  Read head word entry from the sense index
+				DictionaryStorage storage = getDatabase().getStorage();
+				SenseIndexEntry[] entries = storage.getSenseEntries(
+						headKey.getFullSenseKeyText());
+				indexEntry = (entries.length == 1 ? entries[0] : null);
 				if (indexEntry != null)
 				{
-					SynsetFactory factory = SynsetFactory.getInstance();
+					SynsetFactory factory = getDatabase().getSynsetFactory();
 					synset = factory.getSynset(indexEntry.getSynsetPointer());
 				}
 				else
@@ -29,6 +29,7 @@ import edu.smu.tspell.wordnet.api.SynsetType;
 import edu.smu.tspell.wordnet.api.WordNetException;
 import edu.smu.tspell.wordnet.api.WordSense;
 
+import edu.smu.tspell.wordnet.impl.file.FileDatabase;
 import edu.smu.tspell.wordnet.impl.file.ReferenceSynset;
 import edu.smu.tspell.wordnet.impl.file.RelationshipPointers;
 import edu.smu.tspell.wordnet.impl.file.RelationshipType;
@@ -47,6 +48,7 @@ public class AdverbReferenceSynset extends ReferenceSynset
 	/**
 	 * Constructor that accepts adverb synset properties.
 	 * 
+	 * @param  database Database from which related data is retrieved.
 	 * @param  definition Short description / definition of the meaning.
 	 * @param  examples Examples of how the synset is used.
 	 * @param  senseKeys Keys of word senses associated with this synset.
@@ -54,11 +56,11 @@ public class AdverbReferenceSynset extends ReferenceSynset
 	 * @param  lexFile Lexical file that contains the synset.
 	 * @param  offset Byte offset into the data file where synset is defined.
 	 */
-	public AdverbReferenceSynset(String definition, String[] examples,
-			SenseKey[] senseKeys, RelationshipPointers pointers,
-			int lexFile, int offset)
+	public AdverbReferenceSynset(FileDatabase database, String definition,
+			String[] examples, SenseKey[] senseKeys,
+			RelationshipPointers pointers, int lexFile, int offset)
 	{
-		super(SynsetType.ADVERB, definition, examples, senseKeys,
+		super(database, SynsetType.ADVERB, definition, examples, senseKeys,
 				pointers, lexFile, offset);
 	}
 
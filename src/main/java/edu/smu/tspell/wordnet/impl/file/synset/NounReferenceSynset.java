@@ -29,6 +29,7 @@ import edu.smu.tspell.wordnet.api.NounSynset;
 import edu.smu.tspell.wordnet.api.Synset;
 import edu.smu.tspell.wordnet.api.SynsetType;
 
+import edu.smu.tspell.wordnet.impl.file.FileDatabase;
 import edu.smu.tspell.wordnet.impl.file.ReferenceSynset;
 import edu.smu.tspell.wordnet.impl.file.RelationshipPointers;
 import edu.smu.tspell.wordnet.impl.file.RelationshipType;
@@ -47,6 +48,7 @@ public class NounReferenceSynset extends ReferenceSynset
 	/**
 	 * Constructor that accepts noun synset properties.
 	 * 
+	 * @param  database Database from which related data is retrieved.
 	 * @param  definition Short description / definition of the meaning.
 	 * @param  examples Examples of how the synset is used.
 	 * @param  senseKeys Keys of word senses associated with this synset.
@@ -54,11 +56,11 @@ public class NounReferenceSynset extends ReferenceSynset
 	 * @param  lexFile Lexical file that contains the synset.
 	 * @param  offset Byte offset into the data file where synset is defined.
 	 */
-	public NounReferenceSynset(String definition, String[] examples,
-			SenseKey[] senseKeys, RelationshipPointers pointers,
-			int lexFile, int offset)
+	public NounReferenceSynset(FileDatabase database, String definition,
+			String[] examples, SenseKey[] senseKeys,
+			RelationshipPointers pointers, int lexFile, int offset)
 	{
-		super(SynsetType.NOUN, definition, examples, senseKeys,
+		super(database, SynsetType.NOUN, definition, examples, senseKeys,
 				pointers, lexFile, offset);
 	}
 
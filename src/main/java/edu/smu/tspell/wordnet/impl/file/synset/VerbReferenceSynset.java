@@ -31,6 +31,7 @@ import edu.smu.tspell.wordnet.api.WordSense;
 
 import edu.smu.tspell.wordnet.impl.ExampleSentences;
 
+import edu.smu.tspell.wordnet.impl.file.FileDatabase;
 import edu.smu.tspell.wordnet.impl.file.ReferenceSynset;
 import edu.smu.tspell.wordnet.impl.file.RelationshipPointers;
 import edu.smu.tspell.wordnet.impl.file.RelationshipType;
@@ -54,6 +55,7 @@ public class VerbReferenceSynset extends ReferenceSynset implements VerbSynset
 	/**
 	 * Constructor that accepts verb synset properties.
 	 * 
+	 * @param  database Database from which related data is retrieved.
 	 * @param  definition Short description / definition of the meaning.
 	 * @param  examples Examples of how the synset is used.
 	 * @param  senseKeys Keys of word senses associated with this synset.
@@ -62,11 +64,12 @@ public class VerbReferenceSynset extends ReferenceSynset implements VerbSynset
 	 * @param  lexFile Lexical file that contains the synset.
 	 * @param  offset Byte offset into the data file where synset is defined.
 	 */
-	public VerbReferenceSynset(String definition, String[] examples,
-			SenseKey[] senseKeys, RelationshipPointers pointers,
-			ExampleSentences frames, int lexFile, int offset)
+	public VerbReferenceSynset(FileDatabase database, String definition,
+			String[] examples, SenseKey[] senseKeys,
+			RelationshipPointers pointers, ExampleSentences frames,
+			int lexFile, int offset)
 	{
-		super(SynsetType.VERB, definition, examples, senseKeys,
+		super(database, SynsetType.VERB, definition, examples, senseKeys,
 				pointers, lexFile, offset);
 		this.examples = frames;
 	}
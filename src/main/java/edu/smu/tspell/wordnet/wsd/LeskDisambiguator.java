@@ -0,0 +1,522 @@
+/*
+
+  Java API for WordNet Searching 1.0
+  Copyright (c) 2007 by Brett Spell.
+
+  This software is being provided to you, the LICENSEE, by under the following
+  license.  By obtaining, using and/or copying this software, you agree that
+  you have read, understood, and will comply with these terms and conditions:
+   
+  Permission to use, copy, modify and distribute this software and its
+  documentation for any purpose and without fee or royalty is hereby granted,
+  provided that you agree to comply with the following copyright notice and
+  statements, including the disclaimer, and that the same appear on ALL copies
+  of the software, database and documentation, including modifications that you
+  make for internal use or for distribution.
+
+  THIS SOFTWARE AND DATABASE IS PROVIDED "AS IS" WITHOUT REPRESENTATIONS OR
+  WARRANTIES, EXPRESS OR IMPLIED.  BY WAY OF EXAMPLE, BUT NOT LIMITATION,  
+  LICENSOR MAKES NO REPRESENTATIONS OR WARRANTIES OF MERCHANTABILITY OR FITNESS
+  FOR ANY PARTICULAR PURPOSE OR THAT THE USE OF THE LICENSED SOFTWARE OR
+  DOCUMENTATION WILL NOT INFRINGE ANY THIRD PARTY PATENTS, COPYRIGHTS,
+  TRADEMARKS OR OTHER RIGHTS.
+
+ */
+package edu.smu.tspell.wordnet.wsd;
+
+import edu.smu.tspell.wordnet.api.AdjectiveSynset;
+import edu.smu.tspell.wordnet.api.NounSynset;
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.VerbSynset;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import edu.smu.tspell.wordnet.api.WordNetException;
+
+import edu.smu.tspell.wordnet.impl.file.SynsetGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the most appropriate synset for each token of a sentence using
+ * the simplified (or optionally the extended) Lesk algorithm. A candidate
+ * synset's score is the number of distinct content words that its gloss
+ * signature has in common with the sentence in which the token occurs and
+ * the candidate with the highest score is chosen. When no candidate overlaps
+ * the context at all the first candidate returned by the database is chosen,
+ * which for WordNet is the most frequently tagged sense.
+ * <br><p>
+ * Gloss signatures are computed once per synset and cached for the lifetime
+ * of this object in an array indexed by the synset's dense identifier
+ * within the {@link SynsetGraph}, so the cache can never hold more than one
+ * signature per synset and doesn't keep the synsets themselves reachable.
+ * A signature is stored as a sorted array of term numbers
+ * and the context of a sentence is represented by a vector that's indexed by
+ * those same numbers, so that scoring a candidate is a single pass over its
+ * signature and disambiguating a sentence costs roughly time proportional to
+ * the total length of its candidates' signatures. The context vector is
+ * allocated once per batch (a document) and reset between sentences simply
+ * by incrementing a generation number.
+ * <br><p>
+ * Instances of this class are safe for use by multiple threads, and
+ * {@link #disambiguateDocuments(List)} processes documents in parallel.
+ *
+ * @see <a href="https://dl.acm.org/doi/10.1145/318723.318728">Lesk, M.
+ *      "Automatic Sense Disambiguation Using Machine Readable Dictionaries"</a>
+ */
+public class LeskDisambiguator
+{
+
+	/**
+	 * Words that are ignored both in glosses and in sentence context since
+	 * they carry little or no information about the meaning of a word.
+	 */
+	private final static Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+			"a", "about", "an", "and", "are", "as", "at", "be", "been", "but",
+			"by", "for", "from", "has", "have", "he", "her", "his", "i", "in",
+			"into", "is", "it", "its", "of", "on", "or", "she", "so", "some",
+			"something", "that", "the", "their", "them", "there", "they",
+			"this", "to", "was", "were", "which", "who", "with", "you"));
+
+	/**
+	 * Used to look up the candidate synsets for each token.
+	 */
+	private WordNetDatabase database;
+
+	/**
+	 * Indicates whether the glosses of related synsets (hypernyms, hyponyms,
+	 * etc.) are included in a synset's signature.
+	 */
+	private boolean extended;
+
+	/**
+	 * Maps gloss terms to the numbers used to represent them in signatures.
+	 * Only terms that occur in at least one signature are assigned a number.
+	 */
+	private Map<String, Integer> termNumbers = new ConcurrentHashMap<>();
+
+	/**
+	 * Next number to assign to a term that's seen for the first time.
+	 */
+	private AtomicInteger nextTermNumber = new AtomicInteger();
+
+	/**
+	 * Graph that assigns the identifiers by which signatures are cached.
+	 */
+	private SynsetGraph graph;
+
+	/**
+	 * Previously computed gloss signatures, indexed by synset identifier.
+	 */
+	private AtomicReferenceArray<int[]> signatures;
+
+	/**
+	 * Constructor that accepts the database from which candidate synsets are
+	 * retrieved and which creates a simplified Lesk disambiguator.
+	 *
+	 * @param  database Database used to look up candidate synsets.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the database.
+	 * @see    SynsetGraph#getInstance(WordNetDatabase)
+	 */
+	public LeskDisambiguator(WordNetDatabase database)
+			throws WordNetException
+	{
+		this(database, false);
+	}
+
+	/**
+	 * Constructor that accepts the database from which candidate synsets are
+	 * retrieved and a flag that selects the extended variant of the algorithm.
+	 *
+	 * @param  database Database used to look up candidate synsets.
+	 * @param  extended <code>true</code> if the glosses of directly related
+	 *         synsets should be added to each candidate's signature.
+	 * @throws IllegalArgumentException The database doesn't have a graph.
+	 * @throws WordNetException An error occurred reading the database.
+	 * @see    SynsetGraph#getInstance(WordNetDatabase)
+	 */
+	public LeskDisambiguator(WordNetDatabase database, boolean extended)
+			throws WordNetException
+	{
+		this.database = database;
+		this.extended = extended;
+		graph = SynsetGraph.getInstance(database);
+		signatures = new AtomicReferenceArray<>(graph.getSynsetCount());
+	}
+
+	/**
+	 * Returns the synset chosen for each token of a sentence.
+	 *
+	 * @param  tokens Tokens (words or collocations) of the sentence.
+	 * @return Array of the same length as <code>tokens</code> containing the
+	 *         synset chosen for each token or <code>null</code> for tokens
+	 *         that are stop words or that aren't found in WordNet.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public Synset[] disambiguate(String[] tokens) throws WordNetException
+	{
+		return disambiguate(tokens, null);
+	}
+
+	/**
+	 * Returns the synset chosen for each token of a sentence, optionally
+	 * restricting the candidates for each token to a single part of speech.
+	 *
+	 * @param  tokens Tokens (words or collocations) of the sentence.
+	 * @param  types Part of speech of each token; either this array or any
+	 *         of its elements can be <code>null</code>, in which case the
+	 *         candidates for the corresponding tokens aren't restricted.
+	 * @return Array of the same length as <code>tokens</code> containing the
+	 *         synset chosen for each token or <code>null</code> for tokens
+	 *         that are stop words or that aren't found in WordNet.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	public Synset[] disambiguate(String[] tokens, SynsetType[] types)
+			throws WordNetException
+	{
+		return disambiguate(tokens, types, new ContextVector());
+	}
+
+	/**
+	 * Disambiguates all of the sentences in a document. A single context
+	 * vector is used for the entire document.
+	 *
+	 * @param  document Sentences of the document, each one represented as
+	 *         an array of tokens.
+	 * @return Chosen synsets for each sentence, in the same order as the
+	 *         sentences.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 * @see    #disambiguate(String[])
+	 */
+	public List<Synset[]> disambiguate(List<String[]> document)
+			throws WordNetException
+	{
+		ContextVector context = new ContextVector();
+		List<Synset[]> results = new ArrayList<>(document.size());
+		for (String[] sentence : document)
+		{
+			results.add(disambiguate(sentence, null, context));
+		}
+		return results;
+	}
+
+	/**
+	 * Disambiguates a collection of documents, processing the documents
+	 * in parallel.
+	 *
+	 * @param  documents Documents to process, each one represented as a list
+	 *         of tokenized sentences.
+	 * @return Chosen synsets for each document, in the same order as the
+	 *         documents.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 * @see    #disambiguate(List)
+	 */
+	public List<List<Synset[]>> disambiguateDocuments(
+			List<List<String[]>> documents) throws WordNetException
+	{
+		return documents.parallelStream()
+				.map(this::disambiguate)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Disambiguates a sentence using the specified context vector.
+	 *
+	 * @param  tokens Tokens (words or collocations) of the sentence.
+	 * @param  types Part of speech of each token (may be <code>null</code>).
+	 * @param  context Context vector to populate for this sentence.
+	 * @return Synset chosen for each token.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	private Synset[] disambiguate(String[] tokens, SynsetType[] types,
+			ContextVector context) throws WordNetException
+	{
+		Synset[] choices = new Synset[tokens.length];
+		//  Find the candidates, which also creates any missing signatures
+		Synset[][] candidates = new Synset[tokens.length][];
+		for (int i = 0; i < tokens.length; i++)
+		{
+			if (!STOP_WORDS.contains(tokens[i].toLowerCase(Locale.ROOT)))
+			{
+				SynsetType type = (types != null ? types[i] : null);
+				candidates[i] = database.getSynsets(tokens[i], type, true);
+				for (Synset candidate : candidates[i])
+				{
+					getSignature(candidate);
+				}
+			}
+		}
+		//  Load the context vector with the terms in the sentence
+		context.reset();
+		for (String token : tokens)
+		{
+			addTerms(token, context);
+		}
+		//  Score the candidates for each token
+		for (int i = 0; i < tokens.length; i++)
+		{
+			if (candidates[i] == null)
+			{
+				continue;
+			}
+			int bestScore = -1;
+			for (Synset candidate : candidates[i])
+			{
+				int score = context.overlap(getSignature(candidate));
+				//  Ties are resolved in favor of the more frequent sense
+				if (score > bestScore)
+				{
+					bestScore = score;
+					choices[i] = candidate;
+				}
+			}
+		}
+		return choices;
+	}
+
+	/**
+	 * Adds the terms in a token to a context vector, ignoring terms that
+	 * don't appear in any signature since they can't contribute to a score.
+	 *
+	 * @param  token Token (word or collocation) from a sentence.
+	 * @param  context Context vector to which the terms are added.
+	 */
+	private void addTerms(String token, ContextVector context)
+	{
+		for (String term : tokenize(token))
+		{
+			Integer number = termNumbers.get(term);
+			if (number != null)
+			{
+				context.add(number);
+			}
+		}
+	}
+
+	/**
+	 * Returns the gloss signature of a synset, creating it if necessary.
+	 *
+	 * @param  synset Synset for which to return the signature.
+	 * @return Sorted array of the distinct term numbers in the signature.
+	 * @throws WordNetException An error occurred retrieving related synsets.
+	 */
+	private int[] getSignature(Synset synset) throws WordNetException
+	{
+		int id = graph.getId(synset);
+		if (id < 0)
+		{
+			return createSignature(synset);
+		}
+		int[] signature = signatures.get(id);
+		if (signature == null)
+		{
+			signature = createSignature(synset);
+			signatures.set(id, signature);
+		}
+		return signature;
+	}
+
+	/**
+	 * Creates the gloss signature of a synset.
+	 *
+	 * @param  synset Synset for which to create a signature.
+	 * @return Sorted array of the distinct term numbers in the signature.
+	 * @throws WordNetException An error occurred retrieving related synsets.
+	 */
+	private int[] createSignature(Synset synset) throws WordNetException
+	{
+		Set<String> terms = new HashSet<>();
+		addGlossTerms(synset, terms);
+		if (extended)
+		{
+			for (Synset related : getRelatedSynsets(synset))
+			{
+				addGlossTerms(related, terms);
+			}
+		}
+		int[] signature = new int[terms.size()];
+		int count = 0;
+		for (String term : terms)
+		{
+			signature[count++] = getTermNumber(term);
+		}
+		Arrays.sort(signature);
+		return signature;
+	}
+
+	/**
+	 * Adds the terms from a synset's word forms, definition and examples to
+	 * a set.
+	 *
+	 * @param  synset Synset whose gloss is to be added.
+	 * @param  terms Set to which the terms are added.
+	 */
+	private void addGlossTerms(Synset synset, Set<String> terms)
+	{
+		for (String wordForm : synset.getWordForms())
+		{
+			terms.addAll(tokenize(wordForm));
+		}
+		if (synset.getDefinition() != null)
+		{
+			terms.addAll(tokenize(synset.getDefinition()));
+		}
+		for (String example : synset.getUsageExamples())
+		{
+			terms.addAll(tokenize(example));
+		}
+	}
+
+	/**
+	 * Returns the synsets whose glosses are added to a synset's signature
+	 * by the extended variant of the algorithm.
+	 *
+	 * @param  synset Synset for which to return related synsets.
+	 * @return Directly related synsets.
+	 * @throws WordNetException An error occurred retrieving the data.
+	 */
+	private List<Synset> getRelatedSynsets(Synset synset)
+			throws WordNetException
+	{
+		List<Synset> related = new ArrayList<>();
+		if (synset instanceof NounSynset)
+		{
+			NounSynset noun = (NounSynset)synset;
+			Collections.addAll(related, noun.getHypernyms());
+			Collections.addAll(related, noun.getHyponyms());
+			Collections.addAll(related, noun.getPartMeronyms());
+			Collections.addAll(related, noun.getPartHolonyms());
+		}
+		else if (synset instanceof VerbSynset)
+		{
+			VerbSynset verb = (VerbSynset)synset;
+			Collections.addAll(related, verb.getHypernyms());
+			Collections.addAll(related, verb.getTroponyms());
+		}
+		else if (synset instanceof AdjectiveSynset)
+		{
+			AdjectiveSynset adjective = (AdjectiveSynset)synset;
+			Collections.addAll(related, adjective.getSimilar());
+			Collections.addAll(related, adjective.getAttributes());
+		}
+		return related;
+	}
+
+	/**
+	 * Returns the number assigned to a term, assigning one if necessary.
+	 *
+	 * @param  term Term for which to return the number.
+	 * @return Number that represents the term.
+	 */
+	private int getTermNumber(String term)
+	{
+		return termNumbers.computeIfAbsent(term,
+				t -> nextTermNumber.getAndIncrement());
+	}
+
+	/**
+	 * Splits text into lower case terms, dropping punctuation and stop words.
+	 *
+	 * @param  text Text to split.
+	 * @return Terms found in the text.
+	 */
+	private static List<String> tokenize(String text)
+	{
+		List<String> terms = new ArrayList<>();
+		StringBuilder buffer = new StringBuilder();
+		int length = text.length();
+		for (int i = 0; i <= length; i++)
+		{
+			char c = (i < length ? text.charAt(i) : ' ');
+			if (Character.isLetterOrDigit(c))
+			{
+				buffer.append(Character.toLowerCase(c));
+			}
+			else if (buffer.length() > 0)
+			{
+				String term = buffer.toString();
+				if (!STOP_WORDS.contains(term))
+				{
+					terms.add(term);
+				}
+				buffer.setLength(0);
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * Set of term numbers representing the context of a sentence. Membership
+	 * is recorded by storing the current generation number at a term's
+	 * position, so the vector can be emptied in constant time.
+	 */
+	private class ContextVector
+	{
+
+		/**
+		 * Generation in which each term was last added.
+		 */
+		private int[] generations = new int[0];
+
+		/**
+		 * Current generation; terms marked with it are in the context.
+		 */
+		private int generation;
+
+		/**
+		 * Empties the vector.
+		 */
+		public void reset()
+		{
+			generation++;
+		}
+
+		/**
+		 * Adds a term to the vector.
+		 *
+		 * @param  number Number of the term to add.
+		 */
+		public void add(int number)
+		{
+			if (number >= generations.length)
+			{
+				int size = Math.max(number + 1, nextTermNumber.get());
+				generations = Arrays.copyOf(generations, size);
+			}
+			generations[number] = generation;
+		}
+
+		/**
+		 * Returns the number of terms of a signature that are in the vector.
+		 *
+		 * @param  signature Term numbers of a gloss signature.
+		 * @return Number of signature terms that are part of the context.
+		 */
+		public int overlap(int[] signature)
+		{
+			int count = 0;
+			for (int number : signature)
+			{
+				if ((number < generations.length) &&
+						(generations[number] == generation))
+				{
+					count++;
+				}
+			}
+			return count;
+		}
+
+	}
+
+}
@@ -1,3 +1,8 @@
 module edu.smu.tspell.jaws {
+    requires transitive java.management;
+    requires jdk.jfr;
+
     exports edu.smu.tspell.wordnet.api;
+    exports edu.smu.tspell.wordnet.graph;
+    exports edu.smu.tspell.wordnet.wsd;
 }
\ No newline at end of file
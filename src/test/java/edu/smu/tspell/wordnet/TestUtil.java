@@ -1,9 +1,12 @@
 package edu.smu.tspell.wordnet;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 
+import static org.junit.Assert.assertTrue;
+
 public class TestUtil {
     public static File fileFromClasspath(String location) {
         try {
@@ -14,4 +17,20 @@ public class TestUtil {
             throw new AssertionError("The URI should not be invalid.", ex);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the directory to which the WordNet database is downloaded and points the wordnet.database.dir
+     * property at it.
+     */
+    public static File wordNetDirectory() throws IOException {
+        String workingDir = System.getProperty("user.dir");
+        File wordnetDatabaseDir = new File(workingDir, "target/WordNet-3.0/dict").getCanonicalFile();
+
+        assertTrue("The WordNet database should be downloaded to '" + wordnetDatabaseDir.getPath() +
+                        "'.  Please run maven generate-test-resources.",
+                wordnetDatabaseDir.exists());
+
+        System.setProperty("wordnet.database.dir", wordnetDatabaseDir.getPath());
+        return wordnetDatabaseDir;
+    }
+}
@@ -0,0 +1,82 @@
+package edu.smu.tspell.wordnet.api;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+public class AsyncWordNetDatabaseTest {
+    private static WordNetDatabase wndb;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+        wndb = WordNetDatabase.getFileInstance();
+    }
+
+    @Test
+    public void lookups_run_on_virtual_threads() {
+        AsyncWordNetDatabase async = new AsyncWordNetDatabase(wndb);
+        assertArrayEquals(wndb.getSynsets("dog", SynsetType.NOUN), async.getSynsetsAsync("dog", SynsetType.NOUN).join());
+        NounSynset dog = (NounSynset) wndb.getSynsets("dog", SynsetType.NOUN)[0];
+        assertArrayEquals(dog.getHypernyms(), async.getRelatedAsync(dog, NounSynset::getHypernyms).join());
+        Map<String, Synset[]> batch = async.getSynsetsAsync(Arrays.asList("cat", "mouse"), null, true).join();
+        assertThat(batch.size(), is(2));
+    }
+
+    @Test
+    public void concurrent_requests_for_the_same_key_share_one_lookup() {
+        List<Runnable> tasks = new ArrayList<>();
+        AsyncWordNetDatabase async = new AsyncWordNetDatabase(wndb, tasks::add);
+        CompletableFuture<Synset[]> first = async.getSynsetsAsync("bank");
+        CompletableFuture<Synset[]> second = async.getSynsetsAsync("bank");
+        async.getSynsetsAsync("bank", SynsetType.VERB);
+        assertThat(tasks.size(), is(2));
+        assertFalse(first.isDone());
+
+        tasks.get(0).run();
+        Synset[] firstResult = first.join();
+        Synset[] secondResult = second.join();
+        assertThat(firstResult, not(sameInstance(secondResult)));
+        assertArrayEquals(firstResult, secondResult);
+        firstResult[0] = null;
+        assertThat(secondResult[0], is(wndb.getSynsets("bank")[0]));
+
+        async.getSynsetsAsync("bank");
+        assertThat(tasks.size(), is(3));
+    }
+
+    @Test
+    public void combined_batch_and_relationship_requests_receive_their_own_arrays() {
+        List<Runnable> tasks = new ArrayList<>();
+        AsyncWordNetDatabase async = new AsyncWordNetDatabase(wndb, tasks::add);
+        List<String> words = Arrays.asList("cat", "mouse");
+        CompletableFuture<Map<String, Synset[]>> firstBatch = async.getSynsetsAsync(words, null, true);
+        CompletableFuture<Map<String, Synset[]>> secondBatch = async.getSynsetsAsync(words, null, true);
+        NounSynset dog = (NounSynset) wndb.getSynsets("dog", SynsetType.NOUN)[0];
+        Function<NounSynset, NounSynset[]> hypernyms = NounSynset::getHypernyms;
+        CompletableFuture<NounSynset[]> firstRelated = async.getRelatedAsync(dog, hypernyms);
+        CompletableFuture<NounSynset[]> secondRelated = async.getRelatedAsync(dog, hypernyms);
+        assertThat(tasks.size(), is(2));
+        tasks.forEach(Runnable::run);
+
+        assertThat(firstBatch.join().get("cat"), not(sameInstance(secondBatch.join().get("cat"))));
+        assertArrayEquals(firstBatch.join().get("cat"), secondBatch.join().get("cat"));
+        assertThat(firstRelated.join(), not(sameInstance(secondRelated.join())));
+        assertArrayEquals(firstRelated.join(), secondRelated.join());
+    }
+}
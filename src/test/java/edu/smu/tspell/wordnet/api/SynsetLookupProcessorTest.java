@@ -0,0 +1,215 @@
+package edu.smu.tspell.wordnet.api;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SynsetLookupProcessorTest {
+    private static WordNetDatabase wndb;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+        wndb = WordNetDatabase.getFileInstance();
+    }
+
+    @Test
+    public void results_are_published_in_order_with_bounded_demand() throws Exception {
+        List<String> words = Arrays.asList("dog", "cat", "running", "geese", "xyzzy", "bank", "fly");
+        int count = 5000;
+        int batchSize = 16;
+        WordSource source = new WordSource(words, count);
+        SynsetLookupProcessor processor = new SynsetLookupProcessor(wndb, SynsetType.NOUN, true, batchSize,
+                Executors.newVirtualThreadPerTaskExecutor());
+        SlowSubscriber subscriber = new SlowSubscriber(source);
+        processor.subscribe(subscriber);
+        source.subscribe(processor);
+
+        List<LookupResult> results = subscriber.done.get(60, TimeUnit.SECONDS);
+        assertThat(results.size(), is(count));
+        for (int i = 0; i < count; i++) {
+            String word = words.get(i % words.size());
+            assertThat(results.get(i).getWordForm(), is(word));
+            assertArrayEquals(wndb.getSynsets(word, SynsetType.NOUN), results.get(i).getSynsets());
+        }
+        // two batches requested upstream plus one buffered downstream
+        assertTrue("in flight: " + subscriber.maxInFlight, subscriber.maxInFlight <= 3 * batchSize);
+    }
+
+    @Test
+    public void a_single_thread_executor_does_not_deadlock() throws Exception {
+        int count = 500;
+        WordSource source = new WordSource(Arrays.asList("dog", "cat", "geese"), count);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            SynsetLookupProcessor processor = new SynsetLookupProcessor(wndb, null, true, 4, executor);
+            // requesting from another thread makes delivery wait for the executor while a batch is resolved
+            SlowSubscriber subscriber = new SlowSubscriber(source) {
+                @Override
+                void requestNext() {
+                    CompletableFuture.runAsync(super::requestNext);
+                }
+            };
+            processor.subscribe(subscriber);
+            source.subscribe(processor);
+
+            assertThat(subscriber.done.get(60, TimeUnit.SECONDS).size(), is(count));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void null_word_forms_are_rejected() {
+        new SynsetLookupProcessor(wndb, null, true).onNext(null);
+    }
+
+    @Test
+    public void nothing_is_requested_until_a_subscriber_subscribes() {
+        WordSource source = new WordSource(Arrays.asList("dog"), 10);
+        SynsetLookupProcessor processor = new SynsetLookupProcessor(wndb, null, true);
+        source.subscribe(processor);
+        assertThat(source.emitted.get(), is(0L));
+    }
+
+    @Test
+    public void an_error_from_the_database_closes_the_subscribers() throws Exception {
+        WordNetDatabase failing = new WordNetDatabase() {
+            @Override
+            public Synset[] getSynsets(String wordForm, SynsetType type, boolean useMorphology) {
+                throw new AssertionError("lookup failed");
+            }
+
+            @Override
+            public String[] getBaseFormCandidates(String inflection, SynsetType type) {
+                return new String[0];
+            }
+        };
+        WordSource source = new WordSource(Arrays.asList("dog"), 100);
+        SynsetLookupProcessor processor = new SynsetLookupProcessor(failing, null, true, 16,
+                Executors.newVirtualThreadPerTaskExecutor());
+        SlowSubscriber subscriber = new SlowSubscriber(source);
+        processor.subscribe(subscriber);
+        source.subscribe(processor);
+
+        try {
+            subscriber.done.get(60, TimeUnit.SECONDS);
+            fail("The subscriber should have been closed exceptionally");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(AssertionError.class));
+            assertThat(e.getCause().getMessage(), is("lookup failed"));
+        }
+    }
+
+    /**
+     * Emits a repeating list of words only as they're requested.
+     */
+    private static class WordSource implements Flow.Publisher<String> {
+        private final List<String> words;
+        private final long count;
+        private final AtomicLong emitted = new AtomicLong();
+
+        WordSource(List<String> words, long count) {
+            this.words = words;
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super String> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private long demand;
+                private boolean emitting;
+
+                @Override
+                public void request(long n) {
+                    synchronized (this) {
+                        demand += n;
+                        if (emitting) {
+                            return;
+                        }
+                        emitting = true;
+                    }
+                    while (true) {
+                        synchronized (this) {
+                            if ((demand == 0) || (emitted.get() == count)) {
+                                emitting = false;
+                                break;
+                            }
+                            demand--;
+                        }
+                        long index = emitted.getAndIncrement();
+                        subscriber.onNext(words.get((int) (index % words.size())));
+                        if (index + 1 == count) {
+                            subscriber.onComplete();
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        }
+    }
+
+    /**
+     * Requests one result at a time and records how many words had been emitted but not yet received.
+     */
+    private static class SlowSubscriber implements Flow.Subscriber<LookupResult> {
+        private final WordSource source;
+        private final List<LookupResult> results = new ArrayList<>();
+        private final CompletableFuture<List<LookupResult>> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private long maxInFlight;
+
+        SlowSubscriber(WordSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            requestNext();
+        }
+
+        @Override
+        public void onNext(LookupResult item) {
+            results.add(item);
+            maxInFlight = Math.max(maxInFlight, source.emitted.get() - results.size());
+            requestNext();
+        }
+
+        void requestNext() {
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(results);
+        }
+    }
+}
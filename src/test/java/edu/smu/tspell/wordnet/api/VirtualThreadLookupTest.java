@@ -0,0 +1,177 @@
+package edu.smu.tspell.wordnet.api;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import edu.smu.tspell.wordnet.graph.SynsetSampler;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualThreadLookupTest {
+    private static final int LOOKUPS_PER_RUN = 1024;
+    // the per-lookup throughput with many virtual threads must stay within this fraction of one thread's
+    private static final double MINIMUM_SCALING = 0.5;
+    private static final int RUNS = 3;
+    // packages whose classes a word lookup passes through
+    private static final String[] LOOKUP_PACKAGES = {
+            "edu/smu/tspell/wordnet/api", "edu/smu/tspell/wordnet/impl", "edu/smu/tspell/wordnet/impl/file"};
+
+    private static WordNetDatabase wndb;
+    private static List<String> words;
+    private static int nextWord;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+        wndb = WordNetDatabase.getFileInstance();
+
+        // distinct words, so that each run reads from the files instead of the caches
+        SynsetSampler sampler = new SynsetSampler(SynsetSampler.Weighting.UNIFORM);
+        Random random = new Random(34);
+        Set<String> distinct = new LinkedHashSet<>();
+        while (distinct.size() < 8 * LOOKUPS_PER_RUN) {
+            distinct.add(sampler.nextLemma(random));
+        }
+        words = new ArrayList<>(distinct);
+    }
+
+    @Test(timeout = 120000)
+    public void concurrent_lookups_match_sequential_lookups() throws Exception {
+        List<String> sample = nextWords();
+        Map<String, Synset[]> results = new ConcurrentHashMap<>();
+        runLookups(sample, sample.size(), results);
+
+        assertThat(results.size(), is(sample.size()));
+        for (String word : sample) {
+            assertArrayEquals(word, wndb.getSynsets(word), results.get(word));
+        }
+    }
+
+    @Test(timeout = 300000)
+    public void throughput_scales_with_virtual_thread_load() throws Exception {
+        // without caches, every run of the same sample reads from the files
+        try (WordNetDatabase uncached = WordNetDatabase.builder().synsetCacheSize(0).wordCacheSize(0).build()) {
+            List<String> sample = nextWords();
+            // warm up
+            runLookups(uncached, sample, 64, null);
+            double single = throughput(uncached, sample, 1);
+            for (int threads : new int[]{8, 64, 512}) {
+                double concurrent = throughput(uncached, sample, threads);
+                assertTrue(threads + " virtual threads managed " + Math.round(concurrent) +
+                        " lookups per second; one managed " + Math.round(single),
+                        concurrent >= MINIMUM_SCALING * single);
+            }
+        }
+    }
+
+    @Test
+    public void lookup_path_has_no_monitors() throws Exception {
+        // monitors pin virtual threads, so the lookup path uses locks instead
+        File sources = new File(System.getProperty("user.dir"), "src/main/java");
+        List<String> synchronizedCode = new ArrayList<>();
+        for (String lookupPackage : LOOKUP_PACKAGES) {
+            List<Path> files;
+            try (Stream<Path> list = Files.list(new File(sources, lookupPackage).toPath())) {
+                files = list.filter(f -> f.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String className = lookupPackage.replace('/', '.') + "." +
+                        file.getFileName().toString().replace(".java", "");
+                for (Method method : Class.forName(className).getDeclaredMethods()) {
+                    if (Modifier.isSynchronized(method.getModifiers())) {
+                        synchronizedCode.add(method.toString());
+                    }
+                }
+                String code = stripComments(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                if (code.matches("(?s).*\\bsynchronized\\s*\\(.*")) {
+                    synchronizedCode.add(file.toString());
+                }
+            }
+        }
+        assertTrue("synchronized code on the lookup path: " + synchronizedCode, synchronizedCode.isEmpty());
+    }
+
+    private static List<String> nextWords() {
+        List<String> next = words.subList(nextWord, nextWord + LOOKUPS_PER_RUN);
+        nextWord += LOOKUPS_PER_RUN;
+        return next;
+    }
+
+    /**
+     * Returns the best of several runs' lookups per second with a number of virtual threads.
+     */
+    private static double throughput(WordNetDatabase database, List<String> sample, int threads)
+            throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            // clears the weakly referenced synsets and word forms behind the caches
+            System.gc();
+            long start = System.nanoTime();
+            runLookups(database, sample, threads, null);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return sample.size() * 1e9 / best;
+    }
+
+    private static void runLookups(List<String> sample, int threads, Map<String, Synset[]> results)
+            throws InterruptedException {
+        runLookups(wndb, sample, threads, results);
+    }
+
+    /**
+     * Looks up each word on one of a number of virtual threads.
+     */
+    private static void runLookups(WordNetDatabase database, List<String> sample, int threads,
+                                   Map<String, Synset[]> results) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        for (int i = next.getAndIncrement(); i < sample.size(); i = next.getAndIncrement()) {
+                            Synset[] synsets = database.getSynsets(sample.get(i));
+                            if (results != null) {
+                                results.put(sample.get(i), synsets);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.peek());
+        }
+    }
+
+    private static String stripComments(String code) {
+        return code.replaceAll("(?s)/\\*.*?\\*/", "").replaceAll("//[^\\n]*", "");
+    }
+}
@@ -3,10 +3,25 @@ package edu.smu.tspell.wordnet.api;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class WordNetDatabaseTest {
     private static WordNetDatabase wndb;
@@ -53,4 +68,239 @@ public class WordNetDatabaseTest {
         Synset[] result = wndb.getSynsets("freely", SynsetType.ADVERB);
         assertTrue(result.length > 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void all_synsets_are_enumerated() {
+        assertThat(wndb.allSynsets(SynsetType.NOUN).count(), is(82115L));
+        assertThat(wndb.allSynsets().parallel().count(), is(117659L));
+    }
+
+    @Test
+    public void adjective_satellites_are_enumerated_separately() {
+        long adjectives = wndb.allSynsets(SynsetType.ADJECTIVE).parallel()
+                .filter(synset -> synset.getType().equals(SynsetType.ADJECTIVE)).count();
+        long satellites = wndb.allSynsets(SynsetType.ADJECTIVE_SATELLITE).count();
+        assertThat(adjectives + satellites, is(18156L));
+        assertThat(wndb.allSynsets(SynsetType.ADJECTIVE).count(), is(adjectives));
+    }
+
+    @Test
+    public void batch_lookup_matches_single_lookups() {
+        String[] words = {"masses", "dog", "geese", "qwzxv", "bank", "dog", "ran", "free"};
+        Map<String, Synset[]> result = wndb.getSynsets(Arrays.asList(words), null, true);
+        assertThat(result.size(), is(7));
+        for (String word : words) {
+            assertArrayEquals(word, wndb.getSynsets(word, null, true), result.get(word));
+        }
+        String[] boundaries = {"zyrian", "'hood", "zymurgy", "aardvark"};
+        Map<String, Synset[]> uncached = wndb.getSynsets(Arrays.asList(boundaries), SynsetType.NOUN, false);
+        for (String word : boundaries) {
+            assertThat(word, uncached.get(word).length, is(1));
+        }
+        Map<String, Synset[]> nouns = wndb.getSynsets(Arrays.asList(words), SynsetType.NOUN, false);
+        assertThat(nouns.get("geese").length, is(0));
+        assertArrayEquals(wndb.getSynsets("bank", SynsetType.NOUN, false), nouns.get("bank"));
+    }
+
+    @Test
+    public void cache_statistics_track_each_layer_and_resize() {
+        try (WordNetDatabase database = WordNetDatabase.builder().synsetCacheSize(5).wordCacheSize(2).build()) {
+            Synset[] dogs = database.getSynsets("dog", SynsetType.NOUN, false);
+            database.getSynsets("dog", SynsetType.NOUN, false);
+            ((NounSynset) dogs[0]).getHypernyms();
+            ((NounSynset) dogs[0]).getHypernyms();
+
+            Map<String, CacheStatistics> statistics = database.getCacheStatistics();
+            CacheStatistics words = statistics.get(CacheStatistics.WORD_CACHE);
+            assertThat(words.getMissCount(), is(1L));
+            assertThat(words.getHitCount(), is(1L));
+            assertThat(words.getHitRatio(), is(0.5));
+            assertTrue(words.getTotalLoadTime() > 0);
+
+            CacheStatistics synsets = statistics.get(CacheStatistics.SYNSET_CACHE);
+            assertTrue(synsets.getMissCount() > 5);
+            assertThat(synsets.getSize(), is(5L));
+            assertThat(synsets.getMaximumSize(), is(5L));
+            assertThat(synsets.getEvictionCount(), is(synsets.getMissCount() - 5));
+            assertTrue(synsets.getEstimatedBytes() > 0);
+
+            CacheStatistics weak = statistics.get(CacheStatistics.WEAK_SYNSETS);
+            assertTrue(weak.getSize() >= dogs.length);
+            assertThat(weak.getMaximumSize(), is(-1L));
+
+            CacheStatistics relations = statistics.get(CacheStatistics.RELATION_REFERENCES);
+            assertThat(relations.getMissCount(), is(1L));
+            assertThat(relations.getHitCount(), is(1L));
+
+            database.setCacheSize(CacheStatistics.SYNSET_CACHE, 2);
+            synsets = database.getCacheStatistics().get(CacheStatistics.SYNSET_CACHE);
+            assertThat(synsets.getSize(), is(2L));
+            assertThat(synsets.getMaximumSize(), is(2L));
+            try {
+                database.setCacheSize(CacheStatistics.WEAK_SYNSETS, 10);
+                fail("The weak tier isn't bounded");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void cache_statistics_are_published_through_jmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try (WordNetDatabase database = WordNetDatabase.builder().build()) {
+            ObjectName name = DatabaseCaches.register(database, "statistics-test");
+            try {
+                database.getSynsets("cat");
+                CompositeData synsets = (CompositeData) server.getAttribute(name, "SynsetCache");
+                assertTrue((Long) synsets.get("missCount") > 0);
+                assertThat(synsets.get("name"), is(CacheStatistics.SYNSET_CACHE));
+                TabularData locks = (TabularData) server.getAttribute(name, "Locks");
+                CompositeData factoryLock = (CompositeData) locks.get(
+                        new Object[] {LockStatistics.SYNSET_FACTORY}).get("value");
+                assertTrue((Long) factoryLock.get("acquisitionCount") > 0);
+
+                server.setAttribute(name, new Attribute("WordCacheSize", 42));
+                assertThat(server.getAttribute(name, "WordCacheSize"), is(42));
+                assertThat(database.getCacheStatistics().get(CacheStatistics.WORD_CACHE).getMaximumSize(), is(42L));
+            } finally {
+                server.unregisterMBean(name);
+            }
+        }
+    }
+
+    @Test
+    public void lookup_metrics_record_each_stage_while_enabled() {
+        try (WordNetDatabase database = WordNetDatabase.builder().lookupMetrics(true).build()) {
+            List<Map<LookupStage, StageHistogram>> reports = new ArrayList<>();
+            database.addLookupMetricsListener((source, histograms) -> reports.add(histograms));
+            database.getSynsets("geese", SynsetType.NOUN);
+
+            Map<LookupStage, StageHistogram> metrics = database.getLookupMetrics();
+            for (LookupStage stage : LookupStage.values()) {
+                StageHistogram histogram = metrics.get(stage);
+                assertTrue(stage + " wasn't recorded", histogram.getCount() > 0);
+                assertTrue(histogram.getPercentile(50) <= histogram.getPercentile(100));
+                assertThat(histogram.getPercentile(100), is(histogram.getMaximumTime()));
+            }
+            assertTrue(metrics.get(LookupStage.DATA_READ).getBytesRead() > 0);
+            assertThat(metrics.get(LookupStage.PARSE).getCount(), is(metrics.get(LookupStage.DATA_READ).getCount()));
+
+            database.setLookupMetricsEnabled(false);
+            database.getSynsets("cats", SynsetType.NOUN);
+            assertThat(database.getLookupMetrics().get(LookupStage.DATA_READ).getCount(),
+                    is(metrics.get(LookupStage.DATA_READ).getCount()));
+
+            database.reportLookupMetrics();
+            assertThat(reports.size(), is(1));
+            assertThat(reports.get(0).get(LookupStage.SENSE_INDEX).getCount(),
+                    is(metrics.get(LookupStage.SENSE_INDEX).getCount()));
+        }
+    }
+
+    @Test
+    public void stage_histograms_estimate_percentiles_from_power_of_two_buckets() {
+        long[] buckets = new long[StageHistogram.BUCKET_COUNT];
+        buckets[StageHistogram.getBucket(1000)] = 90;
+        buckets[StageHistogram.getBucket(100000)] = 10;
+        StageHistogram histogram = new StageHistogram(LookupStage.PARSE, 1090000, 100000, 0, buckets);
+
+        assertThat(histogram.getCount(), is(100L));
+        assertThat(histogram.getMeanTime(), is(10900.0));
+        assertThat(histogram.getPercentile(50), is(1023L));
+        assertThat(histogram.getPercentile(90), is(1023L));
+        assertThat(histogram.getPercentile(95), is(100000L));
+        assertThat(StageHistogram.getBucket(0), is(0));
+        assertThat(StageHistogram.getBucket(2), is(1));
+        assertThat(StageHistogram.getUpperBound(1), is(3L));
+    }
+
+    @Test
+    public void slow_queries_are_reported_with_their_work_up_to_the_limit() {
+        List<SlowQuery> reports = new ArrayList<>();
+        try (WordNetDatabase database = WordNetDatabase.builder().slowQueryThreshold(Duration.ZERO)
+                .slowQueryLimit(2).slowQueryListener(reports::add).build()) {
+            database.getSynsets("break", SynsetType.VERB, true);
+            database.getSynsets(Arrays.asList("dogs", "cats"), SynsetType.NOUN, false);
+            database.getSynsets("run");
+
+            assertThat(reports.size(), is(2));
+            SlowQuery slow = reports.get(0);
+            assertThat(slow.getQuery(), is("break"));
+            assertThat(slow.getType(), is(SynsetType.VERB));
+            assertTrue(slow.isMorphology());
+            assertThat(slow.getIndexEntries(), is(75));
+            assertThat(slow.getSynsetsLoaded(), is(75));
+            assertTrue(slow.getBytesRead() > 0);
+            assertTrue(slow.getStageTimes().get(LookupStage.SENSE_INDEX) > 0);
+            assertTrue(slow.getStageTimes().get(LookupStage.MORPHOLOGY) > 0);
+            assertTrue(slow.getElapsedTime() >= slow.getStageTimes().get(LookupStage.PARSE));
+            assertThat(reports.get(1).getQuery(), is("dogs,cats"));
+            assertThat(reports.get(1).isMorphology(), is(false));
+
+            database.setSlowQueryThreshold(null);
+            assertThat(database.getSlowQueryThreshold(), is((Duration) null));
+            database.getSynsets("walk");
+            assertThat(reports.size(), is(2));
+        }
+    }
+
+    @Test
+    public void traces_record_the_file_regions_read_by_a_call() {
+        try (WordNetDatabase database = WordNetDatabase.builder().build()) {
+            IoTrace cold = database.trace(() -> database.getSynsets("break", SynsetType.VERB, true));
+
+            assertThat(cold.getIndexLinesMatched(), is(75));
+            assertThat(cold.getSynsetsResolved(), is(75));
+            assertTrue(cold.getProbeCount() > 0);
+            assertTrue(cold.getSeekCount() > 0);
+            int synsetReads = 0;
+            for (FileAccess access : cold.getAccesses()) {
+                assertTrue(access.getLength() > 0);
+                if (access.getFile().startsWith("data.")) {
+                    assertThat(access.isProbe(), is(false));
+                    synsetReads++;
+                } else if (access.isProbe()) {
+                    assertThat(access.getFile(), is("index.sense"));
+                }
+            }
+            assertThat(synsetReads, is(75));
+            assertThat(cold.getRecordCount(), is(cold.getAccesses().size() - cold.getProbeCount()));
+
+            IoTrace warm = database.trace(() -> database.getSynsets("break", SynsetType.VERB, true));
+            assertThat(warm.getIndexLinesMatched(), is(0));
+            for (FileAccess access : warm.getAccesses()) {
+                assertThat(access.getFile().startsWith("data."), is(false));
+            }
+            assertTrue(warm.getBytesRead() < cold.getBytesRead());
+        }
+    }
+
+    @Test
+    public void lock_statistics_count_the_acquisitions_of_each_lock_site() throws Exception {
+        try (WordNetDatabase database = WordNetDatabase.builder().ioMode(IoMode.RANDOM_ACCESS).build()) {
+            Thread[] threads = new Thread[4];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = Thread.ofVirtual().start(() -> {
+                    for (String word : new String[] {"dog", "cat", "run", "fly", "green", "quickly"}) {
+                        database.getSynsets(word);
+                    }
+                });
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            Map<String, LockStatistics> statistics = database.getLockStatistics();
+            assertThat(statistics.size(), is(7));
+            for (String lock : new String[] {LockStatistics.SYNSET_FACTORY, LockStatistics.WORD_FORM_LOOKUP,
+                    LockStatistics.SENSE_INDEX_READER, LockStatistics.SYNSET_READER + "data.noun"}) {
+                LockStatistics lockStatistics = statistics.get(lock);
+                assertThat(lockStatistics.getName(), is(lock));
+                assertTrue(lockStatistics.getAcquisitionCount() > 0);
+                assertTrue(lockStatistics.getContendedCount() <= lockStatistics.getAcquisitionCount());
+                assertTrue(lockStatistics.getTotalHoldTime() > 0);
+                assertTrue(lockStatistics.getMaximumWaitTime() <= lockStatistics.getTotalWaitTime());
+            }
+        }
+    }
+}
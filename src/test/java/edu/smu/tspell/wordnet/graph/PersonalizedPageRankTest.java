@@ -0,0 +1,65 @@
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PersonalizedPageRankTest {
+    private static PersonalizedPageRank pageRank;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+        pageRank = new PersonalizedPageRank(WordNetDatabase.getFileInstance());
+    }
+
+    @Test
+    public void seed_synset_is_ranked_highly() {
+        RankedSynset[] ranked = pageRank.rank(Collections.singleton("aardvark"), 5);
+        assertThat(ranked.length, is(5));
+        assertThat(Arrays.asList(ranked[0].getSynset().getWordForms()), hasItem("aardvark"));
+        assertTrue(ranked[0].getScore() >= ranked[4].getScore());
+    }
+
+    @Test
+    public void related_words_score_higher_than_unrelated_words() {
+        assertTrue(pageRank.getRelatedness("dog", "cat") > pageRank.getRelatedness("dog", "theorem"));
+    }
+
+    @Test
+    public void batched_ranking_matches_single_ranking() {
+        List<RankedSynset[]> batch = pageRank.rank(Arrays.asList(
+                Collections.singleton("aardvark"), Collections.singleton("car")), 3);
+        assertThat(batch.size(), is(2));
+        RankedSynset[] single = pageRank.rank(Collections.singleton("car"), 3);
+        assertThat(batch.get(1)[0].getSynset(), is(single[0].getSynset()));
+    }
+
+    @Test
+    public void unknown_words_produce_no_ranking() {
+        assertThat(pageRank.rank(Collections.singleton("qwzxv"), 5).length, is(0));
+    }
+
+    @Test
+    public void zero_limit_produces_no_ranking() {
+        assertThat(pageRank.rank(Collections.singleton("dog"), 0).length, is(0));
+        assertThat(pageRank.rank(Arrays.asList(Collections.singleton("dog"), Collections.singleton("cat")), 0).size(),
+                is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative_limit_is_rejected() {
+        pageRank.rank(Collections.singleton("dog"), -1);
+    }
+}
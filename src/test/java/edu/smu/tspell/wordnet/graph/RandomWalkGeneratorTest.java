@@ -0,0 +1,74 @@
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class RandomWalkGeneratorTest {
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+    }
+
+    private static RandomWalkGenerator hypernymWalks() {
+        RandomWalkGenerator generator = new RandomWalkGenerator();
+        for (Relation relation : Relation.values()) {
+            generator.setWeight(relation, 0);
+        }
+        generator.setWeight(Relation.HYPERNYM, 1);
+        generator.setWalkLength(4);
+        generator.setWalksPerSynset(1);
+        generator.setSeed(42);
+        return generator;
+    }
+
+    private static byte[] generate(RandomWalkGenerator generator) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long walks = generator.generate(Channels.newChannel(out));
+        assertTrue(walks > 0);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void same_seed_produces_same_walks() throws IOException {
+        assertArrayEquals(generate(hypernymWalks()), generate(hypernymWalks()));
+    }
+
+    @Test
+    public void walks_stop_at_the_root_of_the_hierarchy() {
+        RandomWalkGenerator generator = hypernymWalks();
+        int[] path = new int[50];
+        int length = generator.walk(0, new SplittableRandom(1), path);
+        assertThat(length, is(1));
+    }
+
+    @Test
+    public void walks_are_written_as_sense_keys() throws IOException {
+        RandomWalkGenerator generator = hypernymWalks();
+        generator.setLabel(RandomWalkGenerator.Label.SENSE_KEY);
+        String text = new String(generate(generator), StandardCharsets.ISO_8859_1);
+        String firstWalk = text.substring(0, text.indexOf('\n'));
+        String[] keys = firstWalk.split(" ");
+        assertTrue(keys.length >= 2 && keys.length <= 4);
+        for (String key : keys) {
+            assertTrue(key, key.contains("%1:"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void walks_per_synset_must_be_positive() {
+        new RandomWalkGenerator().setWalksPerSynset(0);
+    }
+}
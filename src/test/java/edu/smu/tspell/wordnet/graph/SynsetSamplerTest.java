@@ -0,0 +1,60 @@
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import edu.smu.tspell.wordnet.api.Synset;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class SynsetSamplerTest {
+    private static SynsetSampler uniform;
+    private static SynsetSampler weighted;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+        uniform = new SynsetSampler(SynsetSampler.Weighting.UNIFORM);
+        weighted = new SynsetSampler(SynsetSampler.Weighting.TAG_COUNT);
+    }
+
+    private static int countLemma(SynsetSampler sampler, String lemma) {
+        Random random = new Random(7);
+        int count = 0;
+        for (int i = 0; i < 20000; i++) {
+            if (sampler.nextLemma(random).equals(lemma)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void samples_are_valid_synsets() {
+        for (int i = 0; i < 100; i++) {
+            int id = uniform.nextId();
+            assertTrue(id >= 0 && id < uniform.getSynsetCount());
+        }
+        Synset synset = weighted.nextSynset();
+        assertNotNull(synset.getDefinition());
+    }
+
+    @Test
+    public void frequent_lemmas_are_favoured_when_weighted() {
+        assertTrue(countLemma(weighted, "be") > 500);
+        assertTrue(countLemma(uniform, "be") < 10);
+    }
+
+    @Test
+    public void same_generator_produces_same_samples() {
+        Random first = new Random(3);
+        Random second = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(weighted.nextId(first) == weighted.nextId(second));
+        }
+    }
+}
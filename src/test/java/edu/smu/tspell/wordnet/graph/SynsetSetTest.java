@@ -0,0 +1,82 @@
+package edu.smu.tspell.wordnet.graph;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SynsetSetTest {
+    private static File wordnetDatabaseDir;
+    private static WordNetDatabase database;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        wordnetDatabaseDir = TestUtil.wordNetDirectory();
+        database = WordNetDatabase.getFileInstance();
+    }
+
+    private static Synset firstNoun(String word) {
+        return database.getSynsets(word, SynsetType.NOUN)[0];
+    }
+
+    @Test
+    public void hyponym_closure_contains_indirect_hyponyms() {
+        SynsetSet dogs = SynsetSet.of(firstNoun("dog")).getClosure(Relation.HYPONYM);
+        assertTrue(dogs.contains(firstNoun("poodle")));
+        assertFalse(dogs.contains(firstNoun("cat")));
+        assertTrue(dogs.size() > dogs.intersection(SynsetSet.of(firstNoun("dog")).getRelated(Relation.HYPONYM)).size());
+    }
+
+    @Test
+    public void common_hypernyms_are_found_by_intersection() {
+        SynsetSet dogAncestors = SynsetSet.of(firstNoun("dog")).getClosure(Relation.HYPERNYM);
+        SynsetSet catAncestors = SynsetSet.of(firstNoun("cat")).getClosure(Relation.HYPERNYM);
+        SynsetSet common = dogAncestors.intersection(catAncestors);
+        assertTrue(common.contains(firstNoun("carnivore")));
+        assertTrue(common.contains(firstNoun("entity")));
+        assertThat(dogAncestors.union(catAncestors).size(),
+                is(dogAncestors.size() + catAncestors.size() - common.size()));
+        assertFalse(dogAncestors.difference(catAncestors).intersects(common));
+    }
+
+    @Test
+    public void synsets_can_be_added_and_removed() {
+        SynsetSet set = new SynsetSet();
+        Synset dog = firstNoun("dog");
+        assertTrue(set.add(dog));
+        assertFalse(set.add(dog));
+        assertThat(set.toArray()[0], is(dog));
+        assertTrue(set.remove(dog));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void sets_contain_the_synsets_of_their_own_database() {
+        try (WordNetDatabase other = WordNetDatabase.builder().directory(wordnetDatabaseDir).build()) {
+            Synset dog = other.getSynsets("dog", SynsetType.NOUN)[0];
+            SynsetSet set = SynsetSet.of(other, dog);
+            assertThat(set.toArray()[0], sameInstance(dog));
+            assertThat(set.toArray()[0], not(sameInstance(firstNoun("dog"))));
+            assertThat(set, not(SynsetSet.of(firstNoun("dog"))));
+            try {
+                set.addAll(SynsetSet.of(firstNoun("dog")));
+                fail("Sets of different databases shouldn't be combined");
+            } catch (IllegalArgumentException expected) {
+                assertThat(set.size(), is(1));
+            }
+        }
+    }
+}
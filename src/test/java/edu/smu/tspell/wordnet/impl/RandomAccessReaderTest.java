@@ -1,6 +1,7 @@
 package edu.smu.tspell.wordnet.impl;
 
 import edu.smu.tspell.wordnet.TestUtil;
+import edu.smu.tspell.wordnet.api.LockStatistics;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -96,14 +97,39 @@ public class RandomAccessReaderTest {
     }
 
     @Test
-    public void finalize_closes_random_access_file() throws Throwable {
+    public void close_closes_random_access_file() throws Throwable {
         RandomAccessFile raf = reader.getAccessor();
         assertTrue(raf.getChannel().isOpen());
-        //noinspection FinalizeCalledExplicitly
-        reader.finalize();
+        reader.close();
         assertFalse(raf.getChannel().isOpen());
     }
 
+    @Test
+    public void lock_statistics_measure_time_waited_and_held() throws InterruptedException {
+        reader.lock.lock();
+        Thread waiter = new Thread(() -> {
+            reader.lock.lock();
+            reader.lock.unlock();
+        });
+        waiter.start();
+        while (!reader.lock.hasQueuedThread(waiter)) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(20);
+        reader.lock.lock();
+        reader.lock.unlock();
+        reader.lock.unlock();
+        waiter.join();
+
+        LockStatistics statistics = reader.getLockStatistics("sample");
+        assertThat(statistics.getName(), is("sample"));
+        assertThat(statistics.getAcquisitionCount(), is(2L));
+        assertThat(statistics.getContendedCount(), is(1L));
+        assertTrue(statistics.getTotalWaitTime() >= 20_000_000L);
+        assertThat(statistics.getMaximumWaitTime(), is(statistics.getTotalWaitTime()));
+        assertTrue(statistics.getTotalHoldTime() >= 20_000_000L);
+    }
+
     private class MaliciousSubclass extends RandomAccessReader {
         protected MaliciousSubclass(File file) throws IOException {
             super(file);
@@ -112,10 +138,9 @@ public class RandomAccessReaderTest {
     }
 
     @Test
-    public void finalize_with_null_accessor() throws Throwable {
+    public void close_with_null_accessor() throws Throwable {
         MaliciousSubclass subClass = new MaliciousSubclass(sampleFile);
-        //noinspection FinalizeCalledExplicitly
-        subClass.finalize();
+        subClass.close();
     }
 
     private class MaliciousSubclass2 extends RandomAccessReader {
@@ -132,7 +157,7 @@ public class RandomAccessReaderTest {
                 return new RandomAccessFile(originalFile, ACCESS_MODE) {
                     @Override
                     public void close() throws IOException {
-                        throw new IOException("This exception should be ignored, it is part of the test.");
+                        throw new IOException("This exception is expected, it is part of the test.");
                     }
                 };
             } catch(FileNotFoundException ex) {
@@ -141,11 +166,10 @@ public class RandomAccessReaderTest {
         }
     }
 
-    @Test
-    public void finalize_doesnt_blow_up_on_IOException() throws Throwable {
+    @Test(expected = IOException.class)
+    public void close_reports_IOException() throws Throwable {
         RandomAccessReader rar = new MaliciousSubclass2(sampleFile);
-        //noinspection FinalizeCalledExplicitly
-        rar.finalize();
+        rar.close();
     }
 
 }
\ No newline at end of file
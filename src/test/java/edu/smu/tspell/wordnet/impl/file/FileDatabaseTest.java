@@ -0,0 +1,492 @@
+package edu.smu.tspell.wordnet.impl.file;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import edu.smu.tspell.wordnet.api.IoMode;
+import edu.smu.tspell.wordnet.api.LockStatistics;
+import edu.smu.tspell.wordnet.api.NounSynset;
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.SynsetType;
+import edu.smu.tspell.wordnet.api.VerbSynset;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FileDatabaseTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+    }
+
+    @Test
+    public void readers_stay_open_across_garbage_collection() {
+        try (FileDatabase database = new FileDatabase()) {
+            TextFileStorage storage = (TextFileStorage) database.getStorage();
+            WeakReference<SynsetReader> nouns = new WeakReference<>(storage.getSynsetReader(SynsetType.NOUN));
+            WeakReference<SenseIndexReader> index = new WeakReference<>(storage.getSenseIndexReader());
+            System.gc();
+            assertThat(nouns.get(), is(sameInstance(storage.getSynsetReader(SynsetType.NOUN))));
+            assertThat(index.get(), is(sameInstance(storage.getSenseIndexReader())));
+            assertThat(storage.getSynsetReader(SynsetType.ADJECTIVE_SATELLITE),
+                    is(sameInstance(storage.getSynsetReader(SynsetType.ADJECTIVE))));
+            assertThat(database.getSynsets("dog").length, is(8));
+        }
+    }
+
+    @Test
+    public void built_databases_have_separate_caches_and_readers() {
+        try (FileDatabase batch = (FileDatabase) WordNetDatabase.builder().synsetCacheSize(10000).build();
+             FileDatabase interactive = (FileDatabase) WordNetDatabase.builder().wordCacheSize(0).build()) {
+            assertThat(batch.getSynsetFactory(), is(not(sameInstance(interactive.getSynsetFactory()))));
+            assertThat(batch.getStorage(), is(not(sameInstance(interactive.getStorage()))));
+
+            Synset[] fromBatch = batch.getSynsets("dog");
+            Synset[] fromInteractive = interactive.getSynsets("dog");
+            assertThat(fromInteractive, is(equalTo(fromBatch)));
+            assertThat(fromInteractive[0], is(not(sameInstance(fromBatch[0]))));
+            assertThat(batch.getSynsets("dog")[0], is(sameInstance(fromBatch[0])));
+
+            // closing one database leaves the other usable
+            batch.close();
+            assertThat(interactive.getSynsets("cat").length, is(10));
+        }
+    }
+
+    @Test
+    public void random_access_mode_reads_the_same_synsets() {
+        try (WordNetDatabase mapped = WordNetDatabase.builder().build();
+             WordNetDatabase random = WordNetDatabase.builder().ioMode(IoMode.RANDOM_ACCESS).build()) {
+            for (String word : new String[] {"dog", "run", "quickly", "beautiful", "geese"}) {
+                Synset[] expected = mapped.getSynsets(word);
+                Synset[] actual = random.getSynsets(word);
+                assertThat(actual, is(equalTo(expected)));
+                for (int i = 0; i < actual.length; i++) {
+                    assertThat(actual[i].getDefinition(), is(expected[i].getDefinition()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void builder_applies_and_validates_configuration() throws IOException {
+        File directory = new File(System.getProperty("wordnet.database.dir"));
+        Executor executor = Runnable::run;
+        WordNetDatabase.Builder builder = WordNetDatabase.builder().directory(directory).executor(executor);
+        try (WordNetDatabase database = builder.build()) {
+            assertThat(((TextFileStorage) ((FileDatabase) database).getStorage()).getDirectory(), is(directory));
+            assertThat(database.getExecutor(), is(sameInstance(executor)));
+        }
+        try {
+            builder.synsetCacheSize(-1);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            WordNetDatabase.builder().directory(new File(directory, "missing")).build();
+            fail("Expected a RetrievalException");
+        } catch (RetrievalException expected) {
+        }
+    }
+
+    @Test
+    public void closed_database_rejects_lookups() {
+        WordNetDatabase shared = WordNetDatabase.getFileInstance();
+        WordNetDatabase database = WordNetDatabase.builder().build();
+        assertFalse(database.isClosed());
+        database.close();
+        database.close();
+        assertTrue(database.isClosed());
+        try {
+            database.getSynsets("dog");
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        // other open instances are unaffected
+        assertThat(shared.getSynsets("dog").length, is(8));
+    }
+
+    @Test
+    public void file_instance_is_shared_and_never_closed() {
+        WordNetDatabase shared = WordNetDatabase.getFileInstance();
+        assertThat(WordNetDatabase.getFileInstance(), is(sameInstance(shared)));
+        shared.close();
+        assertFalse(shared.isClosed());
+        assertThat(WordNetDatabase.getFileInstance(), is(sameInstance(shared)));
+        assertThat(shared.getSynsets("dog").length, is(8));
+    }
+
+    @Test
+    public void custom_storage_is_cached_by_the_database() {
+        File directory = new File(System.getProperty("wordnet.database.dir"));
+        CountingStorage storage = new CountingStorage(new TextFileStorage(directory, IoMode.MEMORY_MAPPED));
+        try (WordNetDatabase database = new FileDatabase(storage, WordNetDatabase.builder())) {
+            Synset[] synsets = database.getSynsets("dog", SynsetType.NOUN);
+            assertThat(synsets.length, is(7));
+            int records = storage.records.get();
+            assertTrue(records >= 7);
+            assertThat(database.getSynsets("dog", SynsetType.NOUN), is(equalTo(synsets)));
+            assertThat(storage.records.get(), is(records));
+            assertThat(database.allSynsets(SynsetType.ADVERB).count(), is(3621L));
+        }
+        assertTrue(storage.closed);
+    }
+
+    @Test
+    public void databases_read_from_the_class_path_without_extraction() throws IOException {
+        File dict = new File(System.getProperty("wordnet.database.dir"));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {dict.getParentFile().toURI().toURL()}, null);
+             WordNetDatabase resources = WordNetDatabase.builder().classpath(loader, "/dict").build();
+             WordNetDatabase files = WordNetDatabase.builder().build()) {
+            assertSameContents(resources, files);
+        }
+    }
+
+    @Test
+    public void databases_read_from_a_zip_file_without_extraction() throws IOException {
+        File dict = new File(System.getProperty("wordnet.database.dir"));
+        File zip = File.createTempFile("wordnet", ".jar");
+        zip.deleteOnExit();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            for (File file : dict.listFiles()) {
+                out.putNextEntry(new ZipEntry("wordnet/dict/" + file.getName()));
+                Files.copy(file.toPath(), out);
+                out.closeEntry();
+            }
+        }
+        try (WordNetDatabase resources = WordNetDatabase.builder().zip(zip, "wordnet/dict").build();
+             WordNetDatabase files = WordNetDatabase.builder().build()) {
+            assertSameContents(resources, files);
+        }
+        try (WordNetDatabase missing = WordNetDatabase.builder().zip(zip, "dict").build()) {
+            missing.getSynsets("dog");
+            fail("Expected a RetrievalException for a path without database files");
+        } catch (RetrievalException expected) {
+        }
+    }
+
+    @Test
+    public void block_compressed_databases_match_the_text_files() throws IOException {
+        File dict = new File(System.getProperty("wordnet.database.dir"));
+        File compressed = folder.newFolder("wordnet");
+        BlockCompressedWriter.compress(dict, compressed, BlockCompressedWriter.DEFAULT_BLOCK_SIZE);
+        long original = new File(dict, "data.noun").length();
+        assertTrue(new File(compressed, "data.noun.blk").length() < original / 2);
+
+        try (WordNetDatabase blocks = WordNetDatabase.builder()
+                     .directory(compressed).ioMode(IoMode.BLOCK_COMPRESSED).build();
+             WordNetDatabase files = WordNetDatabase.builder().build()) {
+            assertSameContents(blocks, files);
+        }
+    }
+
+    @Test
+    public void sorted_lines_are_found_across_block_boundaries() throws IOException {
+        File dict = new File(System.getProperty("wordnet.database.dir"));
+        File index = File.createTempFile("index.sense", ".blk");
+        index.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(index)) {
+            BlockCompressedWriter.write(Files.readAllBytes(new File(dict, "index.sense").toPath()), out, 256);
+        }
+        try (BlockCompressedFile file = new BlockCompressedFile(index, 2);
+             TextFileStorage storage = new TextFileStorage(dict, IoMode.MEMORY_MAPPED)) {
+            assertTrue(file.getBlockCount() > 10000);
+            for (String prefix : new String[] {"a%", "dog%", "run%", "zyrian%", "notaword%"}) {
+                SenseIndexEntry[] expected = storage.getSenseEntries(prefix);
+                assertThat(prefix, file.readLines(prefix).size(), is(expected.length));
+            }
+            assertThat(file.length(), is(new File(dict, "index.sense").length()));
+        }
+    }
+
+    private static void assertSameContents(WordNetDatabase resources, WordNetDatabase files) {
+        for (String word : new String[] {"dog", "run", "quickly", "beautiful", "geese", "zygote"}) {
+            Synset[] expected = files.getSynsets(word);
+            Synset[] actual = resources.getSynsets(word);
+            assertThat(actual, is(equalTo(expected)));
+            for (int i = 0; i < actual.length; i++) {
+                assertThat(actual[i].getDefinition(), is(expected[i].getDefinition()));
+            }
+        }
+        Collection<String> words = Arrays.asList("cat", "ran", "aardvark", "notaword");
+        assertThat(resources.getSynsets(words, null, true).get("ran"),
+                is(equalTo(files.getSynsets(words, null, true).get("ran"))));
+        assertThat(resources.getSynsets(words, null, true).get("notaword").length, is(0));
+        assertThat(resources.getBaseFormCandidates("geese", SynsetType.NOUN),
+                is(equalTo(files.getBaseFormCandidates("geese", SynsetType.NOUN))));
+        VerbSynset verb = (VerbSynset) resources.getSynsets("give", SynsetType.VERB)[0];
+        VerbSynset fileVerb = (VerbSynset) files.getSynsets("give", SynsetType.VERB)[0];
+        assertThat(verb.getSentenceFrames(), is(equalTo(fileVerb.getSentenceFrames())));
+        assertThat(verb.getSentenceTemplates("give"), is(equalTo(fileVerb.getSentenceTemplates("give"))));
+        assertThat(resources.allSynsets(SynsetType.ADVERB).count(), is(3621L));
+        assertSameGraph(resources);
+    }
+
+    private static void assertSameGraph(WordNetDatabase resources) {
+        SynsetGraph expected = FileDatabase.getDefault().getGraph();
+        SynsetGraph actual = SynsetGraph.getInstance(resources);
+        assertThat(actual, not(sameInstance(expected)));
+        assertArrayEquals(expected.getEdgeOffsets(), actual.getEdgeOffsets());
+        assertArrayEquals(expected.getEdgeTargets(), actual.getEdgeTargets());
+        assertArrayEquals(expected.getEdgeRelationships(), actual.getEdgeRelationships());
+        assertArrayEquals(expected.getSenseOffsets(), actual.getSenseOffsets());
+        assertArrayEquals(expected.getSenseKeys(), actual.getSenseKeys());
+        assertArrayEquals(expected.getSenseTagCounts(), actual.getSenseTagCounts());
+        Synset dog = resources.getSynsets("dog", SynsetType.NOUN)[0];
+        assertThat(actual.getSynset(actual.getId(dog)), sameInstance(dog));
+    }
+
+    /**
+     * Delegates to another storage, counting the synset records it returns.
+     */
+    private static class CountingStorage implements DictionaryStorage {
+
+        private final DictionaryStorage delegate;
+
+        private final AtomicInteger records = new AtomicInteger();
+
+        private volatile boolean closed;
+
+        CountingStorage(DictionaryStorage delegate) {
+            this.delegate = delegate;
+        }
+
+        public SenseIndexEntry[] getLemmaEntries(String lemma) {
+            return delegate.getLemmaEntries(lemma);
+        }
+
+        public Map<String, SenseIndexEntry[]> getLemmaEntries(Collection<String> lemmas) {
+            return delegate.getLemmaEntries(lemmas);
+        }
+
+        public SenseIndexEntry[] getSenseEntries(String prefix) {
+            return delegate.getSenseEntries(prefix);
+        }
+
+        public String getSynsetRecord(SynsetPointer pointer) {
+            records.incrementAndGet();
+            return delegate.getSynsetRecord(pointer);
+        }
+
+        public Stream<String> getSynsetRecords(SynsetType... types) {
+            return delegate.getSynsetRecords(types);
+        }
+
+        public String[] getBaseForms(String inflection, SynsetType type) {
+            return delegate.getBaseForms(inflection, type);
+        }
+
+        public String getFrame(SynsetType type, String frameNumber) {
+            return delegate.getFrame(type, frameNumber);
+        }
+
+        public String[] getSampleKeys(SenseKey senseKey) {
+            return delegate.getSampleKeys(senseKey);
+        }
+
+        public String getSampleTemplate(SynsetType type, String key) {
+            return delegate.getSampleTemplate(type, key);
+        }
+
+        public Map<String, LockStatistics> getLockStatistics() {
+            return delegate.getLockStatistics();
+        }
+
+        public void close() {
+            closed = true;
+            delegate.close();
+        }
+    }
+
+    @Test
+    public void flight_recorder_events_describe_each_operation() throws IOException {
+        String[] names = {"LemmaLookup", "SynsetLoad", "RelationResolution", "Morphology", "CacheEviction"};
+        Path output = Files.createTempFile("wordnet", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : names) {
+                recording.enable("edu.smu.tspell.jaws." + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            try (WordNetDatabase database = WordNetDatabase.builder().synsetCacheSize(2).build()) {
+                Synset[] geese = database.getSynsets("geese", SynsetType.NOUN);
+                ((NounSynset) geese[0]).getHypernyms();
+                ((NounSynset) geese[0]).getHypernyms();
+                database.getSynsets("geese", SynsetType.NOUN);
+            }
+            recording.stop();
+            recording.dump(output);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(output);
+            Map<String, List<RecordedEvent>> byName = events.stream().collect(
+                    Collectors.groupingBy(event -> event.getEventType().getName()));
+            for (String name : names) {
+                assertTrue(name + " wasn't recorded", byName.containsKey("edu.smu.tspell.jaws." + name));
+            }
+
+            RecordedEvent load = byName.get("edu.smu.tspell.jaws.SynsetLoad").stream()
+                    .filter(event -> !event.getBoolean("cacheHit")).findFirst().get();
+            assertThat(load.getString("partOfSpeech"), is("n"));
+            assertTrue(load.getInt("offset") > 0);
+            assertTrue(load.getInt("recordLength") > 0);
+            assertTrue(load.getDuration("parseTime").toNanos() > 0);
+
+            List<RecordedEvent> relations = byName.get("edu.smu.tspell.jaws.RelationResolution");
+            assertThat(relations.size(), is(2));
+            assertThat(relations.get(0).getString("relationship"), is("@"));
+            assertFalse(relations.get(0).getBoolean("cacheHit"));
+            assertTrue(relations.get(1).getBoolean("cacheHit"));
+
+            List<RecordedEvent> lookups = byName.get("edu.smu.tspell.jaws.LemmaLookup");
+            assertTrue(lookups.stream().anyMatch(event -> event.getString("lemma").equals("goose")
+                    && !event.getBoolean("cacheHit") && event.getInt("synsetCount") > 0));
+            assertTrue(lookups.stream().anyMatch(event -> event.getBoolean("cacheHit")));
+
+            RecordedEvent morphology = byName.get("edu.smu.tspell.jaws.Morphology").get(0);
+            assertThat(morphology.getString("inflection"), is("geese"));
+            assertTrue(morphology.getInt("exceptionCount") > 0);
+
+            RecordedEvent eviction = byName.get("edu.smu.tspell.jaws.CacheEviction").get(0);
+            assertThat(eviction.getString("cache"), is("synsets"));
+            assertThat(eviction.getInt("maximumEntries"), is(2));
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void storage_is_closed_when_the_query_log_cannot_be_created() throws IOException {
+        File directory = new File(System.getProperty("wordnet.database.dir"));
+        CountingStorage storage = new CountingStorage(new TextFileStorage(directory, IoMode.MEMORY_MAPPED));
+        Path log = folder.getRoot().toPath().resolve("missing").resolve("queries.log");
+        try {
+            new FileDatabase(storage, WordNetDatabase.builder().queryLog(log));
+            fail("Expected a RetrievalException");
+        } catch (RetrievalException expected) {
+        }
+        assertTrue(storage.closed);
+    }
+
+    @Test
+    public void query_logs_record_calls_that_replay_against_another_database() throws IOException {
+        Path log = Files.createTempFile("queries", ".log");
+        try {
+            NounSynset[] hypernyms;
+            try (WordNetDatabase recorded = WordNetDatabase.builder().queryLog(log).build()) {
+                NounSynset dog = (NounSynset) recorded.getSynsets("dog", SynsetType.NOUN)[0];
+                hypernyms = dog.getHypernyms();
+                dog.getDerivationallyRelatedForms("dog");
+                recorded.getSynsets(Arrays.asList("cat", "dog"), null, false);
+                recorded.getBaseFormCandidates("geese", SynsetType.NOUN);
+                recorded.getSynsets("dog", SynsetType.NOUN);
+            }
+
+            List<QueryLogRecord> records = new ArrayList<>();
+            try (QueryLogReader reader = new QueryLogReader(log)) {
+                assertTrue(reader.getStartTime() <= System.currentTimeMillis());
+                for (QueryLogRecord record = reader.read(); record != null; record = reader.read()) {
+                    records.add(record);
+                }
+            }
+            assertThat(records.stream().map(QueryLogRecord::getKind).collect(Collectors.toList()), is(Arrays.asList(
+                    QueryLogRecord.Kind.LOOKUP, QueryLogRecord.Kind.RELATION, QueryLogRecord.Kind.RELATION,
+                    QueryLogRecord.Kind.BATCH_LOOKUP, QueryLogRecord.Kind.BASE_FORMS, QueryLogRecord.Kind.LOOKUP)));
+            assertThat(records.get(0).getWordForms(), is(new String[] {"dog"}));
+            assertThat(records.get(0).getType(), is(SynsetType.NOUN));
+            assertTrue(records.get(0).isMorphology());
+            assertThat(records.get(1).getRelationship(), is(RelationshipType.HYPERNYM.getSymbol()));
+            assertThat(records.get(1).getTargetType(), is(SynsetType.NOUN));
+            assertThat(records.get(2).getWordForms(), is(new String[] {"dog"}));
+            assertThat(records.get(3).getWordForms(), is(new String[] {"cat", "dog"}));
+            assertFalse(records.get(3).isMorphology());
+            for (int i = 1; i < records.size(); i++) {
+                assertTrue(records.get(i).getTime() >= records.get(i - 1).getTime());
+            }
+
+            try (FileDatabase replayed = new FileDatabase(WordNetDatabase.builder())) {
+                assertThat(((Synset[]) records.get(0).replay(replayed))[0].getDefinition(),
+                        is(replayed.getSynsets("dog", SynsetType.NOUN)[0].getDefinition()));
+                NounSynset[] replayedHypernyms = (NounSynset[]) records.get(1).replay(replayed);
+                assertThat(replayedHypernyms[0].getDefinition(), is(hypernyms[0].getDefinition()));
+                for (QueryLogRecord record : records) {
+                    record.replay(replayed);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void query_logs_record_long_strings_and_forget_numbered_strings() throws IOException {
+        Path log = Files.createTempFile("queries", ".log");
+        try {
+            char[] chars = new char[70000];
+            Arrays.fill(chars, '\u00e9');
+            String longWord = new String(chars);
+            int count = QueryLog.MAXIMUM_STRINGS + 10;
+            QueryLog queryLog = new QueryLog(log);
+            queryLog.recordBaseForms(longWord, SynsetType.NOUN);
+            for (int i = 0; i < count; i++) {
+                queryLog.recordBaseForms("word" + i, SynsetType.NOUN);
+            }
+            // numbered before the numbers were forgotten and again after
+            queryLog.recordBaseForms("word5", SynsetType.NOUN);
+            queryLog.recordBaseForms("word5", SynsetType.NOUN);
+            queryLog.close();
+
+            List<String> words = new ArrayList<>();
+            try (QueryLogReader reader = new QueryLogReader(log)) {
+                for (QueryLogRecord record = reader.read(); record != null; record = reader.read()) {
+                    words.add(record.getWordForms()[0]);
+                }
+            }
+            assertThat(words.size(), is(count + 3));
+            assertThat(words.get(0), is(longWord));
+            for (int i = 0; i < count; i++) {
+                assertThat(words.get(i + 1), is("word" + i));
+            }
+            assertThat(words.get(count + 1), is("word5"));
+            assertThat(words.get(count + 2), is("word5"));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+}
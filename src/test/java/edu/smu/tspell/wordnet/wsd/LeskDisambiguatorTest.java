@@ -0,0 +1,57 @@
+package edu.smu.tspell.wordnet.wsd;
+
+import edu.smu.tspell.wordnet.TestUtil;
+import edu.smu.tspell.wordnet.api.Synset;
+import edu.smu.tspell.wordnet.api.WordNetDatabase;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class LeskDisambiguatorTest {
+    private static LeskDisambiguator disambiguator;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestUtil.wordNetDirectory();
+        disambiguator = new LeskDisambiguator(WordNetDatabase.getFileInstance());
+    }
+
+    @Test
+    public void chooses_financial_bank() {
+        Synset[] result = disambiguator.disambiguate(new String[] {"I", "put", "money", "in", "the", "bank"});
+        assertThat(result.length, is(6));
+        assertThat(result[5].getDefinition(), containsString("financial institution"));
+    }
+
+    @Test
+    public void chooses_river_bank() {
+        Synset[] result = disambiguator.disambiguate(new String[] {"we", "sat", "on", "the", "bank", "of", "the", "river"});
+        assertThat(result[4].getDefinition(), containsString("sloping land"));
+    }
+
+    @Test
+    public void stop_words_and_unknown_tokens_are_not_disambiguated() {
+        Synset[] result = disambiguator.disambiguate(new String[] {"the", "qwzxv"});
+        assertNull(result[0]);
+        assertNull(result[1]);
+    }
+
+    @Test
+    public void documents_are_processed_in_order() {
+        List<String[]> financial = Arrays.<String[]>asList(new String[] {"money", "bank"});
+        List<String[]> river = Arrays.<String[]>asList(new String[] {"river", "bank"});
+        List<List<Synset[]>> result = disambiguator.disambiguateDocuments(Arrays.asList(financial, river, financial));
+        assertThat(result.size(), is(3));
+        assertThat(result.get(0).get(0)[1].getDefinition(), containsString("financial institution"));
+        assertThat(result.get(1).get(0)[1].getDefinition(), containsString("sloping land"));
+        assertThat(result.get(2).get(0)[1].getDefinition(), containsString("financial institution"));
+    }
+}